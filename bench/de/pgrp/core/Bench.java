@@ -0,0 +1,139 @@
+/*
+ * Peergroup - Bench.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.util.LinkedList;
+
+/**
+ * A single benchmark. Each one is warmed up first, so the JIT compiler has
+ * done its work, and then run() is called repeatedly for a fixed time. The
+ * results of run() are consumed, so the JIT cannot optimize the measured
+ * code away.
+ *
+ * Warmup and measurement time can be set with -Dbench.warmup and -Dbench.time
+ * (in milliseconds).
+ *
+ * @author Nicolas Inden
+ */
+public abstract class Bench {
+
+	private final static long WARMUP = Long.getLong("bench.warmup", 2000);
+	private final static long TIME = Long.getLong("bench.time", 5000);
+
+	/**
+	 * Results of run() end up here
+	 */
+	private static volatile int sink;
+
+	private String name;
+
+	public Bench(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Prepares the benchmark, not measured
+	 */
+	public void setUp() throws Exception {
+	}
+
+	/**
+	 * One operation of the benchmark
+	 *
+	 * @return any result of the operation
+	 */
+	public abstract Object run() throws Exception;
+
+	/**
+	 * Cleans up after the benchmark, not measured
+	 */
+	public void tearDown() throws Exception {
+	}
+
+	/**
+	 * Returns the number of bytes processed by one operation, 0 if no
+	 * throughput should be reported
+	 */
+	public long getBytes() {
+		return 0;
+	}
+
+	/**
+	 * Runs all benchmarks whose name contains the filter and prints a summary
+	 *
+	 * @param benches
+	 *            the benchmarks
+	 * @param filter
+	 *            part of the benchmark names to run, or null for all
+	 */
+	public static void runAll(LinkedList<Bench> benches, String filter) {
+		LinkedList<String> results = new LinkedList<String>();
+		for (Bench b : benches) {
+			if (filter != null && !b.getName().contains(filter))
+				continue;
+			results.add(b.measure());
+		}
+
+		System.out.println();
+		System.out.println(String.format("%-40s %10s %14s %12s", "Benchmark", "ops", "us/op", "MB/s"));
+		for (String r : results) {
+			System.out.println(r);
+		}
+	}
+
+	private String measure() {
+		try {
+			setUp();
+			loop(WARMUP);
+			long start = System.nanoTime();
+			long ops = loop(TIME);
+			long elapsed = System.nanoTime() - start;
+			tearDown();
+
+			double usPerOp = elapsed / 1000.0 / ops;
+			String mbs = "";
+			if (getBytes() > 0)
+				mbs = String.format("%.1f", getBytes() * ops / (elapsed / 1e9) / (1024 * 1024));
+			return String.format("%-40s %10d %14.2f %12s", this.name, ops, usPerOp, mbs);
+		} catch (Exception e) {
+			return String.format("%-40s failed: %s", this.name, e);
+		}
+	}
+
+	/*
+	 * Calls run() until the time is over, at least once
+	 */
+	private long loop(long millis) throws Exception {
+		long end = System.currentTimeMillis() + millis;
+		long ops = 0;
+		do {
+			Object res = run();
+			sink += (res == null) ? 0 : System.identityHashCode(res);
+			ops++;
+		} while (System.currentTimeMillis() < end);
+		return ops;
+	}
+}
@@ -0,0 +1,623 @@
+/*
+ * Peergroup - Benchmarks.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import de.pgrp.thrift.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.LinkedList;
+import java.util.Random;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+
+/**
+ * Benchmarks for the hot paths of Peergroup: chunking and hashing of files,
+ * block encryption and compression, building and serializing the file list
+ * and the chunk selection and merging of the Storage.
+ *
+ * Run with "ant bench". Options (as system properties):
+ * -Dbench.filter=name only runs benchmarks whose name contains "name",
+ * -Dbench.chunks=1000,100000 sets the storage sizes (in chunks),
+ * -Dbench.fileSize=67108864 sets the size of the chunked test file,
+ * -Dbench.heapChunks=1000000 sets the storage size for "FileChunk heap",
+ * which compares the chunk layout before the chunk tables with the tables on
+ * and off the heap,
+ * -Dbench.warmup and -Dbench.time set the run times (see Bench).
+ *
+ * @author Nicolas Inden
+ */
+public class Benchmarks {
+
+	/**
+	 * Number of chunks of each file in the synthetic storages
+	 */
+	private final static int CHUNKS_PER_FILE = 100;
+	/**
+	 * Number of distinct peers in the synthetic storages
+	 */
+	private final static int PEERS = 16;
+
+	private static Random rand = new Random(42);
+
+	/**
+	 * Size of the synthetic storage currently set up, and the same files as
+	 * received from another peer
+	 */
+	private static int storageChunks = -1;
+	private static LinkedList<FileHandle> remoteFiles;
+
+	public static void main(String[] args) throws Exception {
+		File dir = new File("bench-share").getAbsoluteFile();
+		dir.mkdirs();
+		Globals.shareDirectory = dir.getPath() + File.separator;
+		Globals.secKey = new SecretKeySpec(randomBytes(16), "AES");
+		// Storage.mergeWithRemoteStorage() sets up the (unconnected) Network
+		Globals.xmpp_server = "localhost";
+
+		LinkedList<Bench> benches = new LinkedList<Bench>();
+		addChunkingBenches(benches, Integer.getInteger("bench.fileSize", 64 * 1024 * 1024));
+		addHashBenches(benches);
+		addCryptoBenches(benches);
+		addCodecBenches(benches);
+		for (String s : System.getProperty("bench.chunks", "1000,100000,1000000").split(",")) {
+			addStorageBenches(benches, Integer.parseInt(s.trim()));
+		}
+
+		String filter = System.getProperty("bench.filter");
+		Bench.runAll(benches, filter);
+		if (filter == null || "FileChunk heap".contains(filter))
+			printChunkHeap(Integer.getInteger("bench.heapChunks", 1000000));
+	}
+
+	/*
+	 * FileHandle.createChunks (through the constructor) and localUpdate
+	 */
+	private static void addChunkingBenches(LinkedList<Bench> benches, final int fileSize) {
+		final File file = new File(Globals.shareDirectory + "chunking.bin");
+
+		benches.add(new Bench("FileHandle.createChunks") {
+			@Override
+			public void setUp() throws Exception {
+				writeRandomFile(file, fileSize);
+			}
+
+			@Override
+			public Object run() throws Exception {
+				return new FileHandle(file.getPath());
+			}
+
+			@Override
+			public long getBytes() {
+				return fileSize;
+			}
+		});
+
+		benches.add(new Bench("FileHandle.localUpdate") {
+			private FileHandle handle;
+			private byte[] change = new byte[4096];
+
+			@Override
+			public void setUp() throws Exception {
+				writeRandomFile(file, fileSize);
+				this.handle = new FileHandle(file.getPath());
+			}
+
+			@Override
+			public Object run() throws Exception {
+				// Change one random chunk, then rescan
+				RandomAccessFile raf = new RandomAccessFile(file, "rw");
+				rand.nextBytes(this.change);
+				raf.seek(rand.nextInt(fileSize - this.change.length));
+				raf.write(this.change);
+				raf.close();
+				return this.handle.localUpdate();
+			}
+
+			@Override
+			public void tearDown() {
+				file.delete();
+				ChunkCache.getInstance().clear();
+			}
+
+			@Override
+			public long getBytes() {
+				return fileSize;
+			}
+		});
+	}
+
+	/*
+	 * FileHandle.calcHash of one chunk with all usable hash algorithms
+	 */
+	private static void addHashBenches(LinkedList<Bench> benches) {
+		final byte[] chunk = randomBytes(Globals.chunkSize);
+		for (final String algo : new String[] { "MD5", "SHA-1", "SHA-256", "SHA-512" }) {
+			benches.add(new Bench("FileHandle.calcHash " + algo) {
+				private String old;
+
+				@Override
+				public void setUp() {
+					this.old = Globals.hashAlgo;
+					Globals.hashAlgo = algo;
+				}
+
+				@Override
+				public Object run() {
+					return FileHandle.calcHash(chunk, chunk.length);
+				}
+
+				@Override
+				public void tearDown() {
+					Globals.hashAlgo = this.old;
+				}
+
+				@Override
+				public long getBytes() {
+					return chunk.length;
+				}
+			});
+		}
+	}
+
+	/*
+	 * Block encryption as done by ThriftDataHandler and ThriftClientGetData,
+	 * and session encryption of whole connections
+	 */
+	private static void addCryptoBenches(LinkedList<Bench> benches) {
+		final byte[] chunk = randomBytes(Globals.chunkSize);
+		final byte[] aad = BlockCrypto.getAAD("some/file.bin", 17,
+				FileHandle.toHexHash(FileHandle.calcHash(chunk, chunk.length)));
+
+		benches.add(new Bench("BlockCrypto.encrypt") {
+			@Override
+			public Object run() {
+				return BlockCrypto.encrypt(chunk, aad);
+			}
+
+			@Override
+			public long getBytes() {
+				return chunk.length;
+			}
+		});
+
+		benches.add(new Bench("BlockCrypto.encrypt+decrypt") {
+			@Override
+			public Object run() {
+				byte[] enc = BlockCrypto.encrypt(chunk, aad);
+				return BlockCrypto.decrypt(enc, aad);
+			}
+
+			@Override
+			public long getBytes() {
+				return chunk.length;
+			}
+		});
+
+		benches.add(new Bench("SessionTransport write+read") {
+			private SessionTransport client;
+			private SessionTransport server;
+			private byte[] buffer = new byte[chunk.length];
+
+			@Override
+			public void setUp() throws Exception {
+				Loopback c2s = new Loopback();
+				Loopback s2c = new Loopback();
+				this.client = new SessionTransport(new LoopbackTransport(s2c, c2s), true);
+				this.server = new SessionTransport(new LoopbackTransport(c2s, s2c), false);
+				Thread handshake = new Thread() {
+					@Override
+					public void run() {
+						try {
+							server.flush();
+						} catch (TTransportException te) {
+							te.printStackTrace();
+						}
+					}
+				};
+				handshake.start();
+				this.client.open();
+				handshake.join();
+			}
+
+			@Override
+			public Object run() throws Exception {
+				this.client.write(chunk);
+				this.client.flush();
+				this.server.readAll(this.buffer, 0, this.buffer.length);
+				return this.buffer;
+			}
+
+			@Override
+			public long getBytes() {
+				return chunk.length;
+			}
+		});
+	}
+
+	/*
+	 * Compression and deltas of blocks
+	 */
+	private static void addCodecBenches(LinkedList<Bench> benches) {
+		// Half random, half repetitive, like typical documents
+		final byte[] chunk = randomBytes(Globals.chunkSize);
+		for (int i = 0; i < chunk.length / 2; i++) {
+			chunk[i] = (byte) ('a' + (i % 26));
+		}
+		final byte[] changed = chunk.clone();
+		for (int i = 0; i < 1000; i++) {
+			changed[rand.nextInt(changed.length)] ^= 1;
+		}
+		final byte[] deflated = BlockCodec.encode(chunk, BlockCodec.DEFLATE, true);
+
+		benches.add(new Bench("BlockCodec.encode DEFLATE") {
+			@Override
+			public Object run() {
+				return BlockCodec.encode(chunk, BlockCodec.DEFLATE, true);
+			}
+
+			@Override
+			public long getBytes() {
+				return chunk.length;
+			}
+		});
+
+		benches.add(new Bench("BlockCodec.decode DEFLATE") {
+			@Override
+			public Object run() {
+				return BlockCodec.decode(deflated, chunk.length, null);
+			}
+
+			@Override
+			public long getBytes() {
+				return chunk.length;
+			}
+		});
+
+		benches.add(new Bench("BlockCodec.encodeDelta") {
+			@Override
+			public Object run() {
+				return BlockCodec.encodeDelta(chunk, changed);
+			}
+
+			@Override
+			public long getBytes() {
+				return chunk.length;
+			}
+		});
+	}
+
+	/*
+	 * File list and chunk selection for a storage of the given number of
+	 * chunks
+	 */
+	private static void addStorageBenches(LinkedList<Bench> benches, final int chunks) {
+		benches.add(new Bench("Storage.getRarestChunk " + chunks) {
+			@Override
+			public void setUp() throws Exception {
+				createStorage(chunks);
+			}
+
+			@Override
+			public Object run() {
+				return Storage.getInstance().getRarestChunk();
+			}
+		});
+
+		benches.add(new Bench("Storage.mergeWithRemoteStorage " + chunks) {
+			@Override
+			public void setUp() throws Exception {
+				createStorage(chunks);
+			}
+
+			@Override
+			public Object run() {
+				Storage.getInstance().mergeWithRemoteStorage(0, remoteFiles);
+				return remoteFiles;
+			}
+		});
+
+		benches.add(new Bench("ThriftDataHandler.getStorage " + chunks) {
+			private ThriftDataHandler handler = new ThriftDataHandler();
+
+			@Override
+			public void setUp() throws Exception {
+				createStorage(chunks);
+			}
+
+			@Override
+			public Object run() throws Exception {
+				return this.handler.getStorage();
+			}
+		});
+
+		benches.add(new Bench("ThriftStorage serialize " + chunks) {
+			private ThriftStorage storage;
+			private TSerializer serializer = new TSerializer(new TBinaryProtocol.Factory());
+
+			@Override
+			public void setUp() throws Exception {
+				createStorage(chunks);
+				this.storage = new ThriftDataHandler().getStorage();
+			}
+
+			@Override
+			public Object run() throws Exception {
+				return this.serializer.serialize(this.storage);
+			}
+
+			@Override
+			public void tearDown() {
+				this.storage = null;
+			}
+		});
+	}
+
+	/*
+	 * Fills the Storage with incomplete files like a peer that just joined,
+	 * unless it already holds that many chunks. The remote list holds the
+	 * same files, as received from another peer.
+	 */
+	private static void createStorage(int chunks) throws Exception {
+		if (storageChunks == chunks)
+			return;
+
+		// Drop the old storage first, so both never need memory at once
+		Storage.getInstance().setFileList(new LinkedList<FileHandle>());
+		remoteFiles = null;
+		LinkedList<FileHandle> local = new LinkedList<FileHandle>();
+		LinkedList<FileHandle> remote = new LinkedList<FileHandle>();
+
+		LinkedList<P2Pdevice> devices = new LinkedList<P2Pdevice>();
+		for (int i = 0; i < PEERS; i++) {
+			devices.add(new P2Pdevice("peer" + i + "@example.org/Peergroup", "10.0.0." + i, "192.168.0." + i, 50000));
+		}
+
+		for (int f = 0; f * CHUNKS_PER_FILE < chunks; f++) {
+			String name = "dir" + (f % 100) + "/file" + f + ".bin";
+			int n = Math.min(CHUNKS_PER_FILE, chunks - f * CHUNKS_PER_FILE);
+			String fileHash = FileHandle.toHexHash(randomBytes(16));
+
+			LinkedList<FileChunk> list = new LinkedList<FileChunk>();
+			for (int c = 0; c < n; c++) {
+				LinkedList<P2Pdevice> peers = new LinkedList<P2Pdevice>();
+				int noOfPeers = 1 + rand.nextInt(6);
+				for (int p = 0; p < noOfPeers; p++) {
+					peers.add(devices.get(rand.nextInt(PEERS)));
+				}
+				list.add(new FileChunk(name, c, Globals.chunkSize, 1, FileHandle.toHexHash(randomBytes(16)), peers,
+						false));
+			}
+			local.add(new FileHandle(name, 1, (long) n * Globals.chunkSize, fileHash, Globals.chunkSize, list));
+			remote.add(new FileHandle(name, 1, (long) n * Globals.chunkSize, fileHash, Globals.chunkSize, list));
+		}
+		Storage.getInstance().setFileList(local);
+		remoteFiles = remote;
+		storageChunks = chunks;
+	}
+
+	/*
+	 * Prints the heap taken by the files and chunks of a storage of the given
+	 * number of chunks: first for the layout before the chunk tables (see
+	 * OldChunk), then with the chunk tables on and off the heap
+	 */
+	private static void printChunkHeap(int chunks) throws Exception {
+		Storage.getInstance().setFileList(new LinkedList<FileHandle>());
+		remoteFiles = null;
+		storageChunks = -1;
+
+		LinkedList<P2Pdevice> devices = new LinkedList<P2Pdevice>();
+		for (int i = 0; i < PEERS; i++) {
+			devices.add(new P2Pdevice("peer" + i + "@example.org/Peergroup", "10.0.0." + i, "192.168.0." + i, 50000));
+		}
+
+		System.out.println();
+		long before = usedHeap();
+		LinkedList<LinkedList<OldChunk>> old = new LinkedList<LinkedList<OldChunk>>();
+		for (int f = 0; f * CHUNKS_PER_FILE < chunks; f++) {
+			String name = "dir" + (f % 100) + "/file" + f + ".bin";
+			int n = Math.min(CHUNKS_PER_FILE, chunks - f * CHUNKS_PER_FILE);
+			LinkedList<OldChunk> list = new LinkedList<OldChunk>();
+			for (int c = 0; c < n; c++) {
+				list.add(new OldChunk(name, c, Globals.chunkSize, 1, randomBytes(32), devices.get(rand.nextInt(PEERS))));
+			}
+			old.add(list);
+		}
+		printHeap("FileChunk heap before tables " + chunks, usedHeap() - before, chunks);
+		old = null;
+
+		boolean offHeap = Globals.offHeapMetadata;
+		for (int i = 0; i < 2; i++) {
+			Globals.offHeapMetadata = i == 1;
+			before = usedHeap();
+			LinkedList<FileHandle> files = new LinkedList<FileHandle>();
+			for (int f = 0; f * CHUNKS_PER_FILE < chunks; f++) {
+				String name = "dir" + (f % 100) + "/file" + f + ".bin";
+				int n = Math.min(CHUNKS_PER_FILE, chunks - f * CHUNKS_PER_FILE);
+				LinkedList<FileChunk> list = new LinkedList<FileChunk>();
+				for (int c = 0; c < n; c++) {
+					list.add(new FileChunk(name, c, Globals.chunkSize, 1, randomBytes(32), devices.get(rand.nextInt(PEERS)),
+							false));
+				}
+				files.add(new FileHandle(name, 1, (long) n * Globals.chunkSize, FileHandle.toHexHash(randomBytes(32)),
+						Globals.chunkSize, list));
+			}
+			Storage.getInstance().setFileList(files);
+			printHeap("FileChunk heap " + (Globals.offHeapMetadata ? "off-heap " : "") + chunks, usedHeap() - before,
+					chunks);
+			files = null;
+			Storage.getInstance().setFileList(new LinkedList<FileHandle>());
+		}
+		Globals.offHeapMetadata = offHeap;
+	}
+
+	private static void printHeap(String name, long used, int chunks) {
+		System.out.println(String.format("%-40s %10d bytes/chunk %8d MB per million chunks", name, used / chunks,
+				used * 1000000 / chunks / (1024 * 1024)));
+	}
+
+	/*
+	 * Returns the heap in use after garbage collection
+	 */
+	private static long usedHeap() {
+		Runtime rt = Runtime.getRuntime();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+		}
+		return rt.totalMemory() - rt.freeMemory();
+	}
+
+	private static byte[] randomBytes(int n) {
+		byte[] res = new byte[n];
+		rand.nextBytes(res);
+		return res;
+	}
+
+	private static void writeRandomFile(File file, int size) throws Exception {
+		FileOutputStream out = new FileOutputStream(file);
+		byte[] buffer = new byte[1024 * 1024];
+		for (int written = 0; written < size; written += buffer.length) {
+			rand.nextBytes(buffer);
+			out.write(buffer, 0, Math.min(buffer.length, size - written));
+		}
+		out.close();
+	}
+
+	/**
+	 * The fields of a FileChunk before its metadata moved into the chunk table
+	 * of its FileHandle, as baseline for "FileChunk heap". Every chunk has its
+	 * own path String and list of peers, as chunks received from the network
+	 * do. The other fields of the FileHandle are left out.
+	 */
+	@SuppressWarnings("unused")
+	private static class OldChunk {
+
+		private String file;
+		private int id;
+		private volatile int version;
+		private byte[] chunkHash;
+		private long offset;
+		private int size;
+		private volatile boolean complete;
+		private volatile boolean downloading;
+		private volatile boolean failed;
+		private FileHandle owner;
+		private LinkedList<P2Pdevice> pending;
+		private byte[] baseHash;
+		private int baseSize;
+
+		private OldChunk(String name, int no, int size, int vers, byte[] hash, P2Pdevice node) {
+			this.file = new String(name);
+			this.id = no;
+			this.size = size;
+			this.offset = (long) no * Globals.chunkSize;
+			this.version = vers;
+			this.chunkHash = hash;
+			this.pending = new LinkedList<P2Pdevice>();
+			this.pending.add(node);
+		}
+	}
+
+	/**
+	 * Unbounded in-memory byte queue, reads block until data is available
+	 */
+	private static class Loopback {
+
+		private byte[] data = new byte[1024];
+		private int start = 0;
+		private int end = 0;
+
+		private synchronized void write(byte[] buf, int off, int len) {
+			if (this.end + len > this.data.length) {
+				byte[] grown = new byte[Math.max(this.data.length * 2, this.end - this.start + len)];
+				System.arraycopy(this.data, this.start, grown, 0, this.end - this.start);
+				this.end -= this.start;
+				this.start = 0;
+				this.data = grown;
+			}
+			System.arraycopy(buf, off, this.data, this.end, len);
+			this.end += len;
+			notifyAll();
+		}
+
+		private synchronized int read(byte[] buf, int off, int len) throws InterruptedException {
+			while (this.start == this.end) {
+				wait();
+			}
+			int n = Math.min(len, this.end - this.start);
+			System.arraycopy(this.data, this.start, buf, off, n);
+			this.start += n;
+			if (this.start == this.end) {
+				this.start = 0;
+				this.end = 0;
+			}
+			return n;
+		}
+	}
+
+	/**
+	 * One end of a pair of Loopbacks
+	 */
+	private static class LoopbackTransport extends TTransport {
+
+		private Loopback in;
+		private Loopback out;
+
+		private LoopbackTransport(Loopback in, Loopback out) {
+			this.in = in;
+			this.out = out;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void open() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public int read(byte[] buf, int off, int len) throws TTransportException {
+			try {
+				return this.in.read(buf, off, len);
+			} catch (InterruptedException ie) {
+				throw new TTransportException(ie);
+			}
+		}
+
+		@Override
+		public void write(byte[] buf, int off, int len) {
+			this.out.write(buf, off, len);
+		}
+	}
+}
@@ -0,0 +1,285 @@
+/*
+ * Peergroup - BlockCodec.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The BlockCodec compresses data blocks for transfer. A requesting peer passes
+ * the codecs it accepts as bit mask to getDataBlock. If that mask is not 0,
+ * the answer is framed: the first byte names the codec used for the rest of
+ * the data. Framing and compression happen before encryption, so the
+ * receiver decrypts, unframes and then checks the hash of the plain data.
+ *
+ * Deltas are best-effort. The receiver reads the outdated block from its
+ * disk, but the sender has already overwritten it and only finds it in its
+ * ChunkCache: blocks changed by its last local update and blocks it recently
+ * served or received. Without the base the block is sent whole.
+ *
+ * Every thread reuses its own Deflater, Inflater and scratch buffer, so
+ * encoding a block allocates nothing but the result.
+ *
+ * @author Nicolas Inden
+ */
+public class BlockCodec {
+
+	/*
+	 * Codec IDs, also used as bits in the accepted codecs mask
+	 */
+	public final static int NONE = 0;
+	public final static int DEFLATE = 1;
+	public final static int DELTA = 2;
+
+	/**
+	 * Only this many bytes of a block are compressed to decide if a file is
+	 * worth compressing at all
+	 */
+	private final static int SAMPLE_SIZE = 65536;
+	/**
+	 * Files whose sample does not shrink below this ratio are sent as is
+	 */
+	private final static double MAX_RATIO = 0.9;
+
+	private final static ThreadLocal<Deflater> deflaters = new ThreadLocal<Deflater>() {
+		@Override
+		protected Deflater initialValue() {
+			return new Deflater(Deflater.BEST_SPEED);
+		}
+	};
+
+	private final static ThreadLocal<Inflater> inflaters = new ThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater();
+		}
+	};
+
+	private final static ThreadLocal<byte[]> scratch = new ThreadLocal<byte[]>();
+
+	/**
+	 * Returns the codecs mask this peer accepts for incoming blocks
+	 *
+	 * @param hasBase
+	 *            true if an outdated version of the block is available, so
+	 *            a delta can be applied
+	 * @return the codecs mask
+	 */
+	public static int getAcceptedCodecs(boolean hasBase) {
+		int codecs = NONE;
+		if (Globals.compressDataTransfers)
+			codecs |= DEFLATE;
+		if (hasBase && Globals.deltaDataTransfers)
+			codecs |= DELTA;
+		return codecs;
+	}
+
+	/**
+	 * Compresses a sample of the block and checks if the data shrinks. Already
+	 * compressed data (media, archives) usually does not.
+	 *
+	 * @param plain
+	 *            the plain data block
+	 * @return true if the data is worth compressing, else false
+	 */
+	public static boolean isCompressible(byte[] plain) {
+		int len = Math.min(plain.length, SAMPLE_SIZE);
+		if (len == 0)
+			return false;
+
+		Deflater def = deflaters.get();
+		def.reset();
+		def.setInput(plain, 0, len);
+		def.finish();
+		byte[] buffer = getScratch(len);
+		int compressed = 0;
+		while (!def.finished() && compressed < len) {
+			compressed += def.deflate(buffer, compressed, len - compressed);
+		}
+
+		return compressed < len * MAX_RATIO;
+	}
+
+	/**
+	 * Frames a block for a peer accepting the given codecs. The block is
+	 * compressed if requested and if it actually gets smaller.
+	 *
+	 * @param plain
+	 *            the plain data block
+	 * @param codecs
+	 *            the codecs mask of the requesting peer
+	 * @param compressible
+	 *            false to skip compression, e.g. for media files
+	 * @return the framed block
+	 */
+	public static byte[] encode(byte[] plain, int codecs, boolean compressible) {
+		if ((codecs & DEFLATE) != 0 && compressible) {
+			byte[] compressed = deflate(plain);
+			if (compressed != null)
+				return frame(DEFLATE, compressed, compressed.length);
+		}
+		return frame(NONE, plain, plain.length);
+	}
+
+	/**
+	 * Frames a delta that turns base into plain, if the delta is considerably
+	 * smaller than the block itself
+	 *
+	 * @param base
+	 *            the outdated version of the block
+	 * @param plain
+	 *            the plain data block
+	 * @return the framed delta or null if it does not pay off
+	 */
+	public static byte[] encodeDelta(byte[] base, byte[] plain) {
+		byte[] delta = BlockDelta.diff(base, plain);
+		if (delta == null || delta.length > plain.length / 2)
+			return null;
+		return frame(DELTA, delta, delta.length);
+	}
+
+	/**
+	 * Removes the framing of a block and decompresses it
+	 *
+	 * @param framed
+	 *            the framed block
+	 * @param maxSize
+	 *            the maximum size of the plain block
+	 * @param base
+	 *            the outdated version of the block if a delta was requested,
+	 *            else null
+	 * @return the plain data block or null if the block is malformed
+	 */
+	public static byte[] decode(byte[] framed, int maxSize, byte[] base) {
+		if (framed == null)
+			return null;
+		return decode(framed, 0, framed.length, maxSize, base);
+	}
+
+	/**
+	 * Removes the framing of a block that is part of a larger array, e.g. a
+	 * block decrypted in place
+	 *
+	 * @param framed
+	 *            the array containing the framed block
+	 * @param offset
+	 *            the position of the framed block in the array
+	 * @param length
+	 *            the length of the framed block
+	 * @param maxSize
+	 *            the maximum size of the plain block
+	 * @param base
+	 *            the outdated version of the block if a delta was requested,
+	 *            else null
+	 * @return the plain data block or null if the block is malformed
+	 */
+	public static byte[] decode(byte[] framed, int offset, int length, int maxSize, byte[] base) {
+		if (framed == null || length < 1)
+			return null;
+
+		switch (framed[offset]) {
+		case NONE:
+			byte[] plain = new byte[length - 1];
+			System.arraycopy(framed, offset + 1, plain, 0, plain.length);
+			return plain;
+		case DEFLATE:
+			return inflate(framed, offset + 1, length - 1, maxSize);
+		case DELTA:
+			if (base == null)
+				return null;
+			return BlockDelta.apply(base, framed, offset + 1, length - 1, maxSize);
+		default:
+			Globals.log.addMsg("BlockCodec: Unknown codec " + framed[offset], 1);
+			return null;
+		}
+	}
+
+	/*
+	 * Returns the compressed data, or null if it would not be smaller
+	 */
+	private static byte[] deflate(byte[] plain) {
+		Deflater def = deflaters.get();
+		def.reset();
+		def.setInput(plain);
+		def.finish();
+		byte[] buffer = getScratch(plain.length);
+		int len = 0;
+		while (!def.finished() && len < plain.length) {
+			len += def.deflate(buffer, len, plain.length - len);
+		}
+
+		if (!def.finished())
+			return null;
+
+		byte[] res = new byte[len];
+		System.arraycopy(buffer, 0, res, 0, len);
+		return res;
+	}
+
+	private static byte[] inflate(byte[] data, int offset, int length, int maxSize) {
+		Inflater inf = inflaters.get();
+		inf.reset();
+		inf.setInput(data, offset, length);
+		// One spare byte, so oversized blocks are detected
+		byte[] buffer = getScratch(maxSize + 1);
+		try {
+			int len = 0;
+			while (!inf.finished() && len < maxSize + 1) {
+				int n = inf.inflate(buffer, len, maxSize + 1 - len);
+				if (n == 0 && (inf.needsInput() || inf.needsDictionary()))
+					break;
+				len += n;
+			}
+			if (!inf.finished() || len > maxSize) {
+				Globals.log.addMsg("BlockCodec: Block exceeds " + maxSize + " bytes after decompression", 1);
+				return null;
+			}
+			byte[] res = new byte[len];
+			System.arraycopy(buffer, 0, res, 0, len);
+			return res;
+		} catch (DataFormatException dfe) {
+			Globals.log.addMsg("BlockCodec: Corrupt compressed block: " + dfe, 1);
+			return null;
+		}
+	}
+
+	/*
+	 * Returns the scratch buffer of the current thread, grown to at least size
+	 * bytes
+	 */
+	private static byte[] getScratch(int size) {
+		byte[] buffer = scratch.get();
+		if (buffer == null || buffer.length < size) {
+			buffer = new byte[size];
+			scratch.set(buffer);
+		}
+		return buffer;
+	}
+
+	private static byte[] frame(int codec, byte[] data, int len) {
+		byte[] res = new byte[len + 1];
+		res[0] = (byte) codec;
+		System.arraycopy(data, 0, res, 1, len);
+		return res;
+	}
+}
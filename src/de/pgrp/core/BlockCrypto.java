@@ -0,0 +1,157 @@
+/*
+ * Peergroup - BlockCrypto.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Encrypts data blocks with AES-GCM. Every thread keeps its own cipher and
+ * random source, so no Cipher.getInstance() is needed per block and
+ * concurrent transfers do not block each other.
+ *
+ * An encrypted block is [nonce][ciphertext][tag]. The filename, block ID and
+ * chunk hash are authenticated along with the data, so a block that decrypts
+ * successfully was sent by a peer knowing the key, for the requested version
+ * of the chunk. It does not prove the sender read the right data, the
+ * receiver still checks the chunk hash.
+ *
+ * @author Nicolas Inden
+ */
+public class BlockCrypto {
+
+	public final static int NONCE_SIZE = 12;
+	public final static int TAG_SIZE = 16;
+
+	private final static ThreadLocal<Cipher> ciphers = new ThreadLocal<Cipher>() {
+		@Override
+		protected Cipher initialValue() {
+			try {
+				return Cipher.getInstance("AES/GCM/NoPadding");
+			} catch (GeneralSecurityException gse) {
+				Globals.log.addMsg("BlockCrypto: AES/GCM not available: " + gse, 1);
+				return null;
+			}
+		}
+	};
+
+	private final static ThreadLocal<SecureRandom> randoms = new ThreadLocal<SecureRandom>() {
+		@Override
+		protected SecureRandom initialValue() {
+			return new SecureRandom();
+		}
+	};
+
+	/**
+	 * Returns true if data blocks are encrypted one by one. With session
+	 * encryption the whole connection is encrypted by the SessionTransport
+	 * instead.
+	 *
+	 * @return true if blocks have to be encrypted, else false
+	 */
+	public static boolean isEnabled() {
+		return Globals.encryptDataTransfers && !Globals.encryptSessions;
+	}
+
+	/**
+	 * Encrypts a data block
+	 *
+	 * @param plain
+	 *            the data to encrypt
+	 * @param aad
+	 *            the associated data, see getAAD()
+	 * @return the encrypted block or null on error
+	 */
+	public static byte[] encrypt(byte[] plain, byte[] aad) {
+		Cipher ciph = ciphers.get();
+		if (ciph == null)
+			return null;
+
+		byte[] nonce = new byte[NONCE_SIZE];
+		randoms.get().nextBytes(nonce);
+		byte[] res = new byte[NONCE_SIZE + plain.length + TAG_SIZE];
+		System.arraycopy(nonce, 0, res, 0, NONCE_SIZE);
+		try {
+			ciph.init(Cipher.ENCRYPT_MODE, Globals.secKey, new GCMParameterSpec(TAG_SIZE * 8, nonce));
+			ciph.updateAAD(aad);
+			ciph.doFinal(plain, 0, plain.length, res, NONCE_SIZE);
+		} catch (GeneralSecurityException gse) {
+			Globals.log.addMsg("BlockCrypto: Error encrypting block: " + gse, 1);
+			return null;
+		}
+		return res;
+	}
+
+	/**
+	 * Decrypts an encrypted block in place. The plain data starts at
+	 * NONCE_SIZE in the same array.
+	 *
+	 * @param data
+	 *            the encrypted block
+	 * @param aad
+	 *            the associated data, see getAAD()
+	 * @return the length of the plain data, or -1 if the block is corrupt,
+	 *         was encrypted with another key or belongs to another chunk
+	 */
+	public static int decrypt(byte[] data, byte[] aad) {
+		Cipher ciph = ciphers.get();
+		if (ciph == null || data.length < NONCE_SIZE + TAG_SIZE)
+			return -1;
+
+		try {
+			ciph.init(Cipher.DECRYPT_MODE, Globals.secKey, new GCMParameterSpec(TAG_SIZE * 8, data, 0, NONCE_SIZE));
+			ciph.updateAAD(aad);
+			return ciph.doFinal(data, NONCE_SIZE, data.length - NONCE_SIZE, data, NONCE_SIZE);
+		} catch (AEADBadTagException bte) {
+			Globals.log.addMsg("BlockCrypto: Block failed authentication (wrong password or outdated block)", 3);
+		} catch (GeneralSecurityException gse) {
+			Globals.log.addMsg("BlockCrypto: Error decrypting block: " + gse, 1);
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the associated data that binds an encrypted block to one
+	 * version of a chunk
+	 *
+	 * @param path
+	 *            the filename+path (e.g. subdir/file.txt)
+	 * @param id
+	 *            the chunk ID
+	 * @param hash
+	 *            the hex hash of the chunk
+	 * @return the associated data
+	 */
+	public static byte[] getAAD(String path, int id, String hash) {
+		try {
+			return (path + ":" + id + ":" + hash).getBytes("UTF-8");
+		} catch (UnsupportedEncodingException uee) {
+			// UTF-8 is always supported
+			return (path + ":" + id + ":" + hash).getBytes();
+		}
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Peergroup - BlockDelta.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+/**
+ * Computes and applies binary deltas between two versions of a chunk. The
+ * old version is split into blocks which are found in the new version using
+ * a rolling checksum (like rsync does), so edits, insertions and deletions
+ * inside a chunk only cost the bytes that really changed.
+ *
+ * A delta is a sequence of operations: COPY (offset and length in the old
+ * version) and LITERAL (length followed by the new bytes).
+ *
+ * @author Nicolas Inden
+ */
+public class BlockDelta {
+
+	private final static int COPY = 0;
+	private final static int LITERAL = 1;
+
+	/**
+	 * Size of the blocks of the old version that are searched for
+	 */
+	private final static int BLOCK = 32;
+
+	/**
+	 * Computes the delta that turns base into target
+	 *
+	 * @param base
+	 *            the old version of the chunk
+	 * @param target
+	 *            the new version of the chunk
+	 * @return the delta
+	 */
+	public static byte[] diff(byte[] base, byte[] target) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		try {
+			HashMap<Integer, LinkedList<Integer>> index = new HashMap<Integer, LinkedList<Integer>>();
+			for (int off = 0; off + BLOCK <= base.length; off += BLOCK) {
+				int sum = checksum(base, off);
+				LinkedList<Integer> offsets = index.get(sum);
+				if (offsets == null) {
+					offsets = new LinkedList<Integer>();
+					index.put(sum, offsets);
+				}
+				offsets.add(off);
+			}
+
+			int literalStart = 0;
+			int pos = 0;
+			int a = 0, b = 0;
+			boolean rolling = false;
+
+			while (pos + BLOCK <= target.length) {
+				if (!rolling) {
+					int sum = checksum(target, pos);
+					a = sum & 0xffff;
+					b = sum >>> 16;
+					rolling = true;
+				}
+
+				int match = -1;
+				LinkedList<Integer> offsets = index.get((b << 16) | a);
+				if (offsets != null) {
+					for (int off : offsets) {
+						if (equalRange(base, off, target, pos, BLOCK)) {
+							match = off;
+							break;
+						}
+					}
+				}
+
+				if (match >= 0) {
+					int len = BLOCK;
+					while (match + len < base.length && pos + len < target.length
+							&& base[match + len] == target[pos + len]) {
+						len++;
+					}
+					writeLiteral(out, target, literalStart, pos);
+					out.writeByte(COPY);
+					out.writeInt(match);
+					out.writeInt(len);
+					pos += len;
+					literalStart = pos;
+					rolling = false;
+				} else {
+					if (pos + BLOCK < target.length) {
+						// Roll the checksum one byte forward
+						int outByte = target[pos] & 0xff;
+						int inByte = target[pos + BLOCK] & 0xff;
+						a = (a - outByte + inByte) & 0xffff;
+						b = (b - BLOCK * outByte + a) & 0xffff;
+					}
+					pos++;
+				}
+			}
+			writeLiteral(out, target, literalStart, target.length);
+			out.close();
+		} catch (IOException ioe) {
+			// Does not happen when writing to memory
+			Globals.log.addMsg("BlockDelta: Error creating delta: " + ioe, 1);
+			return null;
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Applies a delta to the old version of a chunk
+	 *
+	 * @param base
+	 *            the old version of the chunk
+	 * @param delta
+	 *            array containing the delta
+	 * @param offset
+	 *            the position of the delta in the array
+	 * @param length
+	 *            the length of the delta
+	 * @param maxSize
+	 *            the maximum size of the new version
+	 * @return the new version or null if the delta does not fit the base
+	 */
+	public static byte[] apply(byte[] base, byte[] delta, int offset, int length, int maxSize) {
+		ByteArrayOutputStream res = new ByteArrayOutputStream();
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(delta, offset, length));
+
+		try {
+			while (true) {
+				int op;
+				try {
+					op = in.readUnsignedByte();
+				} catch (EOFException eof) {
+					break;
+				}
+				int off = (op == COPY) ? in.readInt() : 0;
+				int len = in.readInt();
+
+				if (len < 0 || res.size() + len > maxSize)
+					return null;
+
+				if (op == COPY) {
+					if (off < 0 || off + len > base.length)
+						return null;
+					res.write(base, off, len);
+				} else if (op == LITERAL) {
+					byte[] literal = new byte[len];
+					in.readFully(literal);
+					res.write(literal, 0, len);
+				} else {
+					return null;
+				}
+			}
+		} catch (IOException ioe) {
+			Globals.log.addMsg("BlockDelta: Malformed delta: " + ioe, 1);
+			return null;
+		}
+
+		return res.toByteArray();
+	}
+
+	private static void writeLiteral(DataOutputStream out, byte[] data, int from, int to) throws IOException {
+		if (to <= from)
+			return;
+		out.writeByte(LITERAL);
+		out.writeInt(to - from);
+		out.write(data, from, to - from);
+	}
+
+	/*
+	 * Adler style checksum of BLOCK bytes, which can be rolled forward byte by
+	 * byte
+	 */
+	private static int checksum(byte[] data, int off) {
+		int a = 0, b = 0;
+		for (int i = 0; i < BLOCK; i++) {
+			a += data[off + i] & 0xff;
+			b += (BLOCK - i) * (data[off + i] & 0xff);
+		}
+		return ((b & 0xffff) << 16) | (a & 0xffff);
+	}
+
+	private static boolean equalRange(byte[] x, int xOff, byte[] y, int yOff, int len) {
+		for (int i = 0; i < len; i++) {
+			if (x[xOff + i] != y[yOff + i])
+				return false;
+		}
+		return true;
+	}
+}
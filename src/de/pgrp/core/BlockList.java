@@ -0,0 +1,300 @@
+/*
+ * Peergroup - BlockList.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * A list of blocks (ID, version, hash and size) as announced via XMPP for new
+ * and updated files. It is sent in a packed binary format:
+ *
+ * [format][count][hash length] [IDs] [versions] [size runs] [hashes]
+ *
+ * All numbers are varints. IDs and versions are stored as zigzag encoded
+ * differences to their predecessor, so ascending IDs and equal versions take
+ * one byte each. Sizes are run-length encoded as (run, size) pairs, since all
+ * chunks but the last one usually have the same size. Hashes are stored as raw
+ * bytes.
+ *
+ * @author Nicolas Inden
+ */
+public class BlockList {
+
+	private final static int FORMAT = 1;
+
+	private int count;
+	private int[] ids;
+	private int[] versions;
+	private int[] sizes;
+	private byte[][] hashes;
+
+	public BlockList() {
+		this(16);
+	}
+
+	public BlockList(int capacity) {
+		this.count = 0;
+		this.ids = new int[Math.max(capacity, 1)];
+		this.versions = new int[this.ids.length];
+		this.sizes = new int[this.ids.length];
+		this.hashes = new byte[this.ids.length][];
+	}
+
+	/**
+	 * Appends a block to the list
+	 *
+	 * @param id
+	 *            The chunk ID
+	 * @param version
+	 *            The chunk version
+	 * @param hash
+	 *            The chunk hash
+	 * @param size
+	 *            The chunk size in bytes
+	 */
+	public void add(int id, int version, byte[] hash, int size) {
+		if (this.count == this.ids.length) {
+			int capacity = this.count * 2;
+			this.ids = Arrays.copyOf(this.ids, capacity);
+			this.versions = Arrays.copyOf(this.versions, capacity);
+			this.sizes = Arrays.copyOf(this.sizes, capacity);
+			this.hashes = Arrays.copyOf(this.hashes, capacity);
+		}
+		this.ids[this.count] = id;
+		this.versions[this.count] = version;
+		this.hashes[this.count] = hash;
+		this.sizes[this.count] = size;
+		this.count++;
+	}
+
+	public int size() {
+		return this.count;
+	}
+
+	public int getID(int i) {
+		return this.ids[i];
+	}
+
+	public int getVersion(int i) {
+		return this.versions[i];
+	}
+
+	public byte[] getHash(int i) {
+		return this.hashes[i];
+	}
+
+	public int getSize(int i) {
+		return this.sizes[i];
+	}
+
+	/**
+	 * Returns the root hash of the list, a hash over the hashes and sizes of
+	 * all blocks. Announcing it is enough to verify a list fetched later on.
+	 *
+	 * @return The root hash or null on error
+	 */
+	public byte[] getRootHash() {
+		try {
+			MessageDigest md = MessageDigest.getInstance(Globals.hashAlgo);
+			byte[] size = new byte[4];
+			for (int i = 0; i < this.count; i++) {
+				md.update(this.hashes[i]);
+				size[0] = (byte) (this.sizes[i] >>> 24);
+				size[1] = (byte) (this.sizes[i] >>> 16);
+				size[2] = (byte) (this.sizes[i] >>> 8);
+				size[3] = (byte) this.sizes[i];
+				md.update(size);
+			}
+			return md.digest();
+		} catch (NoSuchAlgorithmException na) {
+			Globals.log.addMsg("BlockList: Hash error: " + na, 1);
+			return null;
+		}
+	}
+
+	/**
+	 * Appends all blocks of another list to this list
+	 *
+	 * @param other
+	 *            The list to append
+	 */
+	public void addAll(BlockList other) {
+		for (int i = 0; i < other.size(); i++) {
+			add(other.getID(i), other.getVersion(i), other.getHash(i), other.getSize(i));
+		}
+	}
+
+	/**
+	 * Packs the list into its binary format
+	 *
+	 * @return The packed list
+	 */
+	public byte[] encode() {
+		int hashLength = (this.count > 0) ? this.hashes[0].length : 0;
+		ByteArrayOutputStream out = new ByteArrayOutputStream(this.count * (hashLength + 2) + 16);
+
+		writeVarint(out, FORMAT);
+		writeVarint(out, this.count);
+		writeVarint(out, hashLength);
+
+		int prev = -1;
+		for (int i = 0; i < this.count; i++) {
+			writeVarint(out, zigzag(this.ids[i] - (prev + 1)));
+			prev = this.ids[i];
+		}
+		prev = 0;
+		for (int i = 0; i < this.count; i++) {
+			writeVarint(out, zigzag(this.versions[i] - prev));
+			prev = this.versions[i];
+		}
+		int i = 0;
+		while (i < this.count) {
+			int run = 1;
+			while (i + run < this.count && this.sizes[i + run] == this.sizes[i]) {
+				run++;
+			}
+			writeVarint(out, run);
+			writeVarint(out, this.sizes[i]);
+			i += run;
+		}
+		for (i = 0; i < this.count; i++) {
+			if (this.hashes[i].length != hashLength)
+				throw new IllegalStateException("All hashes of a BlockList need the same length");
+			out.write(this.hashes[i], 0, hashLength);
+		}
+
+		return out.toByteArray();
+	}
+
+	/**
+	 * Unpacks a list packed by encode()
+	 *
+	 * @param data
+	 *            The packed list
+	 * @return The list or null if the data is malformed
+	 */
+	public static BlockList decode(byte[] data) {
+		if (data == null)
+			return null;
+
+		int[] pos = { 0 };
+		try {
+			if (readVarint(data, pos) != FORMAT) {
+				Globals.log.addMsg("BlockList: Unknown block list format", 4);
+				return null;
+			}
+			int count = readVarint(data, pos);
+			int hashLength = readVarint(data, pos);
+			// Every block takes at least two bytes and its hash
+			if (count < 0 || hashLength < 0 || (long) count * (hashLength + 2) > data.length)
+				throw new IllegalArgumentException("Invalid count " + count);
+
+			BlockList res = new BlockList(count);
+			res.count = count;
+			int prev = -1;
+			for (int i = 0; i < count; i++) {
+				res.ids[i] = prev + 1 + unzigzag(readVarint(data, pos));
+				prev = res.ids[i];
+			}
+			prev = 0;
+			for (int i = 0; i < count; i++) {
+				res.versions[i] = prev + unzigzag(readVarint(data, pos));
+				prev = res.versions[i];
+			}
+			int i = 0;
+			while (i < count) {
+				int run = readVarint(data, pos);
+				int size = readVarint(data, pos);
+				if (run <= 0 || i + run > count)
+					throw new IllegalArgumentException("Invalid run " + run);
+				Arrays.fill(res.sizes, i, i + run, size);
+				i += run;
+			}
+			if (pos[0] + count * hashLength != data.length)
+				throw new IllegalArgumentException("Invalid length");
+			for (i = 0; i < count; i++) {
+				res.hashes[i] = Arrays.copyOfRange(data, pos[0], pos[0] + hashLength);
+				pos[0] += hashLength;
+			}
+			return res;
+		} catch (IllegalArgumentException iae) {
+			Globals.log.addMsg("BlockList: Malformed block list: " + iae.getMessage(), 4);
+		} catch (ArrayIndexOutOfBoundsException aioobe) {
+			Globals.log.addMsg("BlockList: Truncated block list", 4);
+		}
+		return null;
+	}
+
+	/**
+	 * Converts the old announcement format, a list of strings looking like
+	 * "id:version:hash:size"
+	 *
+	 * @param blocks
+	 *            The list of strings
+	 * @return The list or null if a string is malformed
+	 */
+	public static BlockList fromStrings(LinkedList<String> blocks) {
+		BlockList res = new BlockList(blocks.size());
+		try {
+			for (String s : blocks) {
+				String[] tmp = s.split(":");
+				res.add(Integer.parseInt(tmp[0]), Integer.parseInt(tmp[1]), FileChunk.toByteHash(tmp[2]),
+						Integer.parseInt(tmp[3]));
+			}
+		} catch (RuntimeException re) {
+			Globals.log.addMsg("BlockList: Malformed block list: " + re, 4);
+			return null;
+		}
+		return res;
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7f) != 0) {
+			out.write((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int readVarint(byte[] data, int[] pos) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = data[pos[0]++];
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IllegalArgumentException("Varint too long");
+	}
+
+	private static int zigzag(int n) {
+		return (n << 1) ^ (n >> 31);
+	}
+
+	private static int unzigzag(int n) {
+		return (n >>> 1) ^ -(n & 1);
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Peergroup - BlockListRequest.java
+ * 
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+/**
+ * A block list fetched by a ThriftClientGetBlockList, handed back to the
+ * MainWorker to be applied in order with the other requests of its file
+ * 
+ * @author Nicolas Inden
+ */
+public class BlockListRequest extends Request {
+
+	private String name;
+	private int vers;
+	private long size;
+	private byte[] hash;
+	private BlockList blocks;
+	private P2Pdevice node;
+	private boolean update;
+
+	public BlockListRequest(String name, int vers, long size, byte[] hash, BlockList blocks, P2Pdevice node,
+			boolean update) {
+		super(Globals.REMOTE_BLOCK_LIST);
+		this.name = name;
+		this.vers = vers;
+		this.size = size;
+		this.hash = hash;
+		this.blocks = blocks;
+		this.node = node;
+		this.update = update;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public int getVersion() {
+		return this.vers;
+	}
+
+	public long getSize() {
+		return this.size;
+	}
+
+	public byte[] getHash() {
+		return this.hash;
+	}
+
+	public BlockList getBlocks() {
+		return this.blocks;
+	}
+
+	public P2Pdevice getNode() {
+		return this.node;
+	}
+
+	public boolean isUpdate() {
+		return this.update;
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * Peergroup - ChunkArena.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+
+/**
+ * The ChunkArena keeps the chunk tables of all files off the heap, in a
+ * memory-mapped file in Globals.stateDirectory. Every chunk is a record of
+ * fixed width, the records of one file are a run of 2^k consecutive records.
+ * The file only lives as long as the process, the state across restarts is
+ * kept by the StorageJournal.
+ *
+ * A run is given back as soon as its table is unreachable, i.e. the file was
+ * removed or its table was replaced by a larger one.
+ *
+ * @author Nicolas Inden
+ */
+public class ChunkArena {
+
+	/*
+	 * Record layout: version (int), size (int), offset (long), flags (byte),
+	 * length of the hash + 1 (byte, 0 for no hash), hash (up to MAX_HASH
+	 * bytes), padding
+	 */
+	private final static int VERSION = 0;
+	private final static int SIZE = 4;
+	private final static int OFFSET = 8;
+	private final static int FLAGS = 16;
+	private final static int HASH_LENGTH = 17;
+	private final static int HASH = 18;
+	private final static int MAX_HASH = 64;
+	private final static int RECORD = 88;
+
+	/** Largest run, also the number of records of a segment */
+	private final static int MAX_K = 20;
+	private final static int SEGMENT = 1 << MAX_K;
+
+	private static ChunkArena instance;
+
+	private File path;
+	private RandomAccessFile file;
+	private ArrayList<MappedByteBuffer> segments;
+	private int next; /**< Next free record of the last segment */
+	private ArrayList<LinkedList<Integer>> free; /**< Free runs by k, as segment * SEGMENT + record */
+	private ReferenceQueue<Table> released;
+	private Set<Run> runs;
+	private boolean failed;
+
+	public ChunkArena() {
+		this.path = new File(Globals.stateDirectory + "chunks.arena");
+		this.segments = new ArrayList<MappedByteBuffer>();
+		this.free = new ArrayList<LinkedList<Integer>>();
+		for (int k = 0; k <= MAX_K; k++) {
+			this.free.add(new LinkedList<Integer>());
+		}
+		this.released = new ReferenceQueue<Table>();
+		this.runs = Collections.synchronizedSet(new HashSet<Run>());
+	}
+
+	/**
+	 * Returns the singleton instance of ChunkArena, the arena file is created
+	 * on first use
+	 *
+	 * @return The singleton instance of ChunkArena
+	 */
+	public static synchronized ChunkArena getInstance() {
+		if (instance == null)
+			instance = new ChunkArena();
+		return instance;
+	}
+
+	/**
+	 * Creates an empty table in the arena
+	 *
+	 * @param capacity
+	 *            The number of chunks
+	 * @return The table, or null if the arena cannot hold it
+	 */
+	public ChunkTable createTable(int capacity) {
+		int k = 0;
+		while ((1 << k) < capacity) {
+			k++;
+		}
+		if (k > MAX_K)
+			return null;
+
+		synchronized (this) {
+			if (this.failed)
+				return null;
+			int start;
+			try {
+				start = allocate(k);
+			} catch (IOException ioe) {
+				Globals.log.addMsg("ChunkArena: Cannot map " + this.path + ", keeping chunk tables on the heap: " + ioe, 1);
+				this.failed = true;
+				return null;
+			}
+			MappedByteBuffer segment = this.segments.get(start / SEGMENT);
+			int base = (start % SEGMENT) * RECORD;
+			for (int i = 0; i < (1 << k) * RECORD; i += 8) {
+				segment.putLong(base + i, 0);
+			}
+			Table table = new Table(segment, base, 1 << k);
+			this.runs.add(new Run(table, this.released, start, k));
+			return table;
+		}
+	}
+
+	/*
+	 * Returns the first record of a free run of 2^k records, after taking back
+	 * the runs of unreachable tables. Caller holds the lock.
+	 */
+	private int allocate(int k) throws IOException {
+		Reference<? extends Table> ref;
+		while ((ref = this.released.poll()) != null) {
+			Run run = (Run) ref;
+			this.runs.remove(run);
+			this.free.get(run.k).add(Integer.valueOf(run.start));
+		}
+
+		LinkedList<Integer> runs = this.free.get(k);
+		if (!runs.isEmpty())
+			return runs.removeFirst().intValue();
+
+		if (this.segments.isEmpty() || this.next + (1 << k) > SEGMENT) {
+			// give the rest of the last segment to the free lists
+			int seg = this.segments.size() - 1;
+			while (seg >= 0 && this.next < SEGMENT) {
+				int j = 31 - Integer.numberOfLeadingZeros(SEGMENT - this.next);
+				this.free.get(j).add(Integer.valueOf(seg * SEGMENT + this.next));
+				this.next += 1 << j;
+			}
+			map();
+			this.next = 0;
+		}
+		int start = (this.segments.size() - 1) * SEGMENT + this.next;
+		this.next += 1 << k;
+		return start;
+	}
+
+	/*
+	 * Maps another segment of the arena file
+	 */
+	private void map() throws IOException {
+		if (this.file == null) {
+			File dir = this.path.getParentFile();
+			if (dir != null)
+				dir.mkdirs();
+			this.file = new RandomAccessFile(this.path, "rw");
+			this.file.setLength(0);
+			this.path.deleteOnExit();
+		}
+		long pos = (long) this.segments.size() * SEGMENT * RECORD;
+		this.segments.add(this.file.getChannel().map(FileChannel.MapMode.READ_WRITE, pos, (long) SEGMENT * RECORD));
+		Globals.log.addMsg("ChunkArena: Mapped segment " + this.segments.size() + " of " + this.path, 4);
+	}
+
+	/*
+	 * Gives the run of a table back once the table is unreachable
+	 */
+	private static class Run extends PhantomReference<Table> {
+
+		private final int start;
+		private final int k;
+
+		private Run(Table table, ReferenceQueue<Table> queue, int start, int k) {
+			super(table, queue);
+			this.start = start;
+			this.k = k;
+		}
+	}
+
+	/**
+	 * A chunk table in a run of the arena
+	 */
+	private static class Table extends ChunkTable {
+
+		private final MappedByteBuffer segment;
+		private final int base;
+		private final int capacity;
+
+		private Table(MappedByteBuffer segment, int base, int capacity) {
+			this.segment = segment;
+			this.base = base;
+			this.capacity = capacity;
+		}
+
+		/*
+		 * Returns the position of a record in the segment
+		 */
+		private int at(int i) {
+			if (i < 0 || i >= this.capacity)
+				throw new IndexOutOfBoundsException("Chunk " + i + " of " + this.capacity);
+			return this.base + i * RECORD;
+		}
+
+		@Override
+		public int capacity() {
+			return this.capacity;
+		}
+
+		@Override
+		public int getVersion(int i) {
+			return this.segment.getInt(at(i) + VERSION);
+		}
+
+		@Override
+		public void setVersion(int i, int version) {
+			this.segment.putInt(at(i) + VERSION, version);
+		}
+
+		@Override
+		public int getSize(int i) {
+			return this.segment.getInt(at(i) + SIZE);
+		}
+
+		@Override
+		public void setSize(int i, int size) {
+			this.segment.putInt(at(i) + SIZE, size);
+		}
+
+		@Override
+		public long getOffset(int i) {
+			return this.segment.getLong(at(i) + OFFSET);
+		}
+
+		@Override
+		public void setOffset(int i, long offset) {
+			this.segment.putLong(at(i) + OFFSET, offset);
+		}
+
+		/*
+		 * The hash spans several bytes, readers must not see it half written
+		 */
+		@Override
+		public synchronized byte[] getHash(int i) {
+			int pos = at(i);
+			int len = (this.segment.get(pos + HASH_LENGTH) & 0xff) - 1;
+			if (len < 0)
+				return null;
+			byte[] hash = new byte[len];
+			for (int j = 0; j < len; j++) {
+				hash[j] = this.segment.get(pos + HASH + j);
+			}
+			return hash;
+		}
+
+		@Override
+		public synchronized void setHash(int i, byte[] hash) {
+			int pos = at(i);
+			if (hash == null) {
+				this.segment.put(pos + HASH_LENGTH, (byte) 0);
+				return;
+			}
+			if (hash.length > MAX_HASH)
+				throw new IllegalArgumentException("Hash of " + hash.length + " bytes exceeds " + MAX_HASH);
+			for (int j = 0; j < hash.length; j++) {
+				this.segment.put(pos + HASH + j, hash[j]);
+			}
+			this.segment.put(pos + HASH_LENGTH, (byte) (hash.length + 1));
+		}
+
+		@Override
+		public int getFlags(int i) {
+			return this.segment.get(at(i) + FLAGS);
+		}
+
+		@Override
+		public void setFlags(int i, int flags) {
+			this.segment.put(at(i) + FLAGS, (byte) flags);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Peergroup - ChunkCache.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The ChunkCache keeps recently served chunks in memory, so that a burst of
+ * requests for the same chunk (e.g. all peers fetching a newly announced file)
+ * only reads and encrypts the data once. Entries are keyed by path, chunk ID
+ * and chunk hash and evicted in least-recently-used order as soon as the
+ * cached bytes exceed Globals.chunkCacheSize.
+ *
+ * @author Nicolas Inden
+ */
+public class ChunkCache {
+
+	private static volatile ChunkCache instance = new ChunkCache();
+	private LinkedHashMap<String, byte[]> entries;
+	private long cachedBytes;
+
+	public ChunkCache() {
+		// access-order, so iteration starts at the least recently used entry
+		this.entries = new LinkedHashMap<String, byte[]>(64, 0.75f, true);
+		this.cachedBytes = 0;
+	}
+
+	/**
+	 * Returns the existing singleton instance of ChunkCache
+	 *
+	 * @return The singleton instance of ChunkCache
+	 */
+	public static ChunkCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the cached data for the specified chunk, or null if it is not
+	 * cached
+	 *
+	 * @param path
+	 *            the filename+path (e.g. subdir/file.txt)
+	 * @param id
+	 *            the chunk ID
+	 * @param hash
+	 *            the hex hash of the chunk
+	 * @param variant
+	 *            the kind of data, "plain" for the chunk data as on disk
+	 * @return the cached data or null
+	 */
+	public synchronized byte[] get(String path, int id, String hash, String variant) {
+		return this.entries.get(toKey(path, id, hash, variant));
+	}
+
+	/**
+	 * Adds data of a chunk to the cache and evicts least recently used entries
+	 * until the cache fits into Globals.chunkCacheSize
+	 *
+	 * @param path
+	 *            the filename+path (e.g. subdir/file.txt)
+	 * @param id
+	 *            the chunk ID
+	 * @param hash
+	 *            the hex hash of the chunk
+	 * @param variant
+	 *            the kind of data, "plain" for the chunk data as on disk
+	 * @param data
+	 *            the data to cache
+	 */
+	public synchronized void put(String path, int id, String hash, String variant, byte[] data) {
+		if (data == null || data.length > Globals.chunkCacheSize)
+			return;
+
+		byte[] old = this.entries.put(toKey(path, id, hash, variant), data);
+		if (old != null)
+			this.cachedBytes -= old.length;
+		this.cachedBytes += data.length;
+
+		Iterator<Map.Entry<String, byte[]>> it = this.entries.entrySet().iterator();
+		while (this.cachedBytes > Globals.chunkCacheSize && it.hasNext()) {
+			this.cachedBytes -= it.next().getValue().length;
+			it.remove();
+		}
+	}
+
+	/**
+	 * Removes the cached send buffers of a file, e.g. after it changed on
+	 * disk. The plain data of older chunk versions is kept, since it is still
+	 * valid for its hash and serves as base for delta transfers.
+	 *
+	 * @param path
+	 *            the filename+path (e.g. subdir/file.txt)
+	 */
+	public synchronized void invalidate(String path) {
+		removeEntries(path, false);
+	}
+
+	/**
+	 * Removes all cached chunks of a file, e.g. after it has been deleted
+	 *
+	 * @param path
+	 *            the filename+path (e.g. subdir/file.txt)
+	 */
+	public synchronized void remove(String path) {
+		removeEntries(path, true);
+	}
+
+	/**
+	 * Removes all entries from the cache
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.cachedBytes = 0;
+	}
+
+	public synchronized long getCachedBytes() {
+		return this.cachedBytes;
+	}
+
+	private void removeEntries(String path, boolean withPlain) {
+		String prefix = path + ":";
+		Iterator<Map.Entry<String, byte[]>> it = this.entries.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, byte[]> entry = it.next();
+			if (entry.getKey().startsWith(prefix) && (withPlain || !entry.getKey().endsWith(":plain"))) {
+				this.cachedBytes -= entry.getValue().length;
+				it.remove();
+			}
+		}
+	}
+
+	/*
+	 * Builds keys like "subdir/file.txt:id:hash:plain". The path is the prefix,
+	 * so invalidate() can match all chunks of one file.
+	 */
+	private static String toKey(String path, int id, String hash, String variant) {
+		return path + ":" + id + ":" + hash + ":" + variant;
+	}
+}
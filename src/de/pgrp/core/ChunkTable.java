@@ -0,0 +1,310 @@
+/*
+ * Peergroup - ChunkTable.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.util.HashMap;
+
+/**
+ * The metadata of the chunks of one file, indexed by chunk ID: version,
+ * size, offset, hash and state. Once a FileHandle takes a FileChunk, the
+ * chunk only is a view on the table of the FileHandle.
+ *
+ * Tables live on the heap as one array per attribute, or off-heap in the
+ * ChunkArena if Globals.offHeapMetadata is set. The data kept for delta
+ * transfers is only needed while a chunk is updated and always stays on the
+ * heap.
+ *
+ * @author Nicolas Inden
+ */
+public abstract class ChunkTable {
+
+	public final static int COMPLETE = 1;
+	public final static int DOWNLOADING = 2;
+	public final static int FAILED = 4;
+
+	/**
+	 * Hash and size of outdated chunk data, by chunk ID. Null while there is
+	 * none. Guarded by the table.
+	 */
+	private HashMap<Integer, Object[]> bases;
+
+	/**
+	 * Creates an empty table of the configured kind
+	 *
+	 * @param capacity
+	 *            The number of chunks
+	 * @return The table
+	 */
+	public static ChunkTable create(int capacity) {
+		if (Globals.offHeapMetadata) {
+			ChunkTable table = ChunkArena.getInstance().createTable(capacity);
+			if (table != null)
+				return table;
+		}
+		return new Heap(capacity);
+	}
+
+	/**
+	 * Returns a table of the same kind holding at least the given number of
+	 * chunks, with the contents of this one. Writes to this table while it is
+	 * copied are lost, the caller has to keep them out.
+	 *
+	 * @param capacity
+	 *            The number of chunks
+	 * @return This table if large enough, else a new one
+	 */
+	public ChunkTable grow(int capacity) {
+		if (capacity <= capacity())
+			return this;
+		ChunkTable res = create(Math.max(capacity, 2 * capacity()));
+		for (int i = 0; i < capacity(); i++) {
+			res.copy(i, this, i);
+		}
+		return res;
+	}
+
+	/**
+	 * Copies the metadata of a chunk from another table
+	 *
+	 * @param i
+	 *            The chunk in this table
+	 * @param from
+	 *            The other table
+	 * @param j
+	 *            The chunk in the other table
+	 */
+	public void copy(int i, ChunkTable from, int j) {
+		setVersion(i, from.getVersion(j));
+		setSize(i, from.getSize(j));
+		setOffset(i, from.getOffset(j));
+		setHash(i, from.getHash(j));
+		setFlags(i, from.getFlags(j));
+		setBase(i, from.getBaseHash(j), from.getBaseSize(j));
+	}
+
+	public abstract int capacity();
+
+	public abstract int getVersion(int i);
+
+	public abstract void setVersion(int i, int version);
+
+	public abstract int getSize(int i);
+
+	public abstract void setSize(int i, int size);
+
+	public abstract long getOffset(int i);
+
+	public abstract void setOffset(int i, long offset);
+
+	public abstract byte[] getHash(int i);
+
+	public abstract void setHash(int i, byte[] hash);
+
+	public abstract int getFlags(int i);
+
+	public abstract void setFlags(int i, int flags);
+
+	public boolean getFlag(int i, int flag) {
+		return (getFlags(i) & flag) != 0;
+	}
+
+	public void setFlag(int i, int flag, boolean value) {
+		synchronized (this) {
+			int flags = getFlags(i);
+			setFlags(i, value ? flags | flag : flags & ~flag);
+		}
+	}
+
+	public synchronized byte[] getBaseHash(int i) {
+		if (this.bases == null)
+			return null;
+		Object[] base = this.bases.get(Integer.valueOf(i));
+		return base == null ? null : (byte[]) base[0];
+	}
+
+	public synchronized int getBaseSize(int i) {
+		if (this.bases == null)
+			return 0;
+		Object[] base = this.bases.get(Integer.valueOf(i));
+		return base == null ? 0 : ((Integer) base[1]).intValue();
+	}
+
+	/**
+	 * Sets or, if the hash is null, removes the outdated data of a chunk
+	 */
+	public synchronized void setBase(int i, byte[] hash, int size) {
+		if (hash == null) {
+			if (this.bases != null) {
+				this.bases.remove(Integer.valueOf(i));
+				if (this.bases.isEmpty())
+					this.bases = null;
+			}
+			return;
+		}
+		if (this.bases == null)
+			this.bases = new HashMap<Integer, Object[]>();
+		this.bases.put(Integer.valueOf(i), new Object[] { hash, Integer.valueOf(size) });
+	}
+
+	/**
+	 * A table with one array per attribute
+	 */
+	public static class Heap extends ChunkTable {
+
+		private int[] versions;
+		private int[] sizes;
+		private long[] offsets;
+		private byte[][] hashes;
+		private byte[] flags;
+
+		public Heap(int capacity) {
+			capacity = Math.max(capacity, 1);
+			this.versions = new int[capacity];
+			this.sizes = new int[capacity];
+			this.offsets = new long[capacity];
+			this.hashes = new byte[capacity][];
+			this.flags = new byte[capacity];
+		}
+
+		@Override
+		public int capacity() {
+			return this.versions.length;
+		}
+
+		@Override
+		public int getVersion(int i) {
+			return this.versions[i];
+		}
+
+		@Override
+		public void setVersion(int i, int version) {
+			this.versions[i] = version;
+		}
+
+		@Override
+		public int getSize(int i) {
+			return this.sizes[i];
+		}
+
+		@Override
+		public void setSize(int i, int size) {
+			this.sizes[i] = size;
+		}
+
+		@Override
+		public long getOffset(int i) {
+			return this.offsets[i];
+		}
+
+		@Override
+		public void setOffset(int i, long offset) {
+			this.offsets[i] = offset;
+		}
+
+		@Override
+		public byte[] getHash(int i) {
+			return this.hashes[i];
+		}
+
+		@Override
+		public void setHash(int i, byte[] hash) {
+			this.hashes[i] = hash;
+		}
+
+		@Override
+		public int getFlags(int i) {
+			return this.flags[i];
+		}
+
+		@Override
+		public void setFlags(int i, int flags) {
+			this.flags[i] = (byte) flags;
+		}
+	}
+
+	/**
+	 * The table of a single chunk not taken by a FileHandle yet
+	 */
+	public static class Single extends ChunkTable {
+
+		private int version;
+		private int size;
+		private long offset;
+		private byte[] hash;
+		private int flags;
+
+		@Override
+		public int capacity() {
+			return 1;
+		}
+
+		@Override
+		public int getVersion(int i) {
+			return this.version;
+		}
+
+		@Override
+		public void setVersion(int i, int version) {
+			this.version = version;
+		}
+
+		@Override
+		public int getSize(int i) {
+			return this.size;
+		}
+
+		@Override
+		public void setSize(int i, int size) {
+			this.size = size;
+		}
+
+		@Override
+		public long getOffset(int i) {
+			return this.offset;
+		}
+
+		@Override
+		public void setOffset(int i, long offset) {
+			this.offset = offset;
+		}
+
+		@Override
+		public byte[] getHash(int i) {
+			return this.hash;
+		}
+
+		@Override
+		public void setHash(int i, byte[] hash) {
+			this.hash = hash;
+		}
+
+		@Override
+		public int getFlags(int i) {
+			return this.flags;
+		}
+
+		@Override
+		public void setFlags(int i, int flags) {
+			this.flags = flags;
+		}
+	}
+}
@@ -10,6 +10,10 @@ public class DLULItem {
 		 * The chunk ID
 		 */
 		private int chunk;
+		/**
+		 * The address of the remote peer, or null if unknown
+		 */
+		private String peer;
 		/**
 		 * The currentTimeMillis() value when the down- or upload started
 		 */
@@ -21,6 +25,11 @@ public class DLULItem {
 			this.startTime = System.currentTimeMillis();
 		}
 		
+		public DLULItem(String path, int id, String peer){
+			this(path, id);
+			this.peer = peer;
+		}
+		
 		public boolean equals(DLULItem myitem){
 			if(!this.path.equals(myitem.getPath()))
 				return false;
@@ -38,6 +47,10 @@ public class DLULItem {
 			return chunk;
 		}
 		
+		public String getPeer(){
+			return peer;
+		}
+		
 		public long getStartTime(){
 			return startTime;
 		}
@@ -21,21 +21,34 @@
 
 package de.pgrp.core;
 
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
- * This thread regularily checks the FileEventQueue if files haven't been
- * updated for more than one second. In this case a modify request is put in the
+ * This thread regularily takes the local file events from the delay queue
+ * whose files have been quiet for Globals.fileQuietPeriod and puts them in the
  * main queue.
  * 
+ * It also writes downloaded blocks to storage. Completed chunks are collected
+ * and announced once per round, as one message per file.
+ * 
  * @author Nicolas Inden
  */
 public class DelayQueueWorker extends Thread {
 
+	/**
+	 * Chunks completed since the last announcement, per file
+	 */
+	private LinkedHashMap<String, BitSet> completedChunks;
+
 	/**
 	 * Creates a DelayQueueWorker.
 	 */
 	public DelayQueueWorker() {
+		this.completedChunks = new LinkedHashMap<String, BitSet>();
 	}
 
 	/**
@@ -59,15 +72,24 @@ public class DelayQueueWorker extends Thread {
 					FileHandle tmp = blockInfo.getFileHandle();
 					tmp.setChunkData(blockInfo.getID(), blockInfo.getHexHash(), blockInfo.getDevice(), blockInfo.getData());
 					tmp.updateChunkVersion(blockInfo.getID());
+					LinkedList<FileChunk> chunks = tmp.getChunks();
+					if (blockInfo.getID() < chunks.size())
+						Storage.getInstance().journalChunk(tmp, chunks.get(blockInfo.getID()));
 
-					Network.getInstance().sendMUCCompletedChunk(blockInfo.getName(), blockInfo.getID(), blockInfo.getVersion());
+					BitSet completed = this.completedChunks.get(blockInfo.getName());
+					if (completed == null) {
+						completed = new BitSet();
+						this.completedChunks.put(blockInfo.getName(), completed);
+					}
+					completed.set(blockInfo.getID());
 
 					if (tmp.isComplete()) {
 						Globals.log.addMsg("Completed download: " + blockInfo.getName() + " - Version " + blockInfo.getVersion(), 2);
 						tmp.trimFile();
 						tmp.setUpdating(false);
+						Storage.getInstance().journalFile(tmp);
 						
-						P2Pdevice me = P2Pdevice.getDevice(Globals.getJID(), Globals.externalIP4, Globals.internalIP4, Globals.p2pPort);
+						P2Pdevice me = P2Pdevice.getLocalDevice();
 						Storage.getInstance().addP2PdeviceToFile(blockInfo.getName(), blockInfo.getVersion(), me);
 						//Debug:
 						//Globals.log.addMsg(tmp.toString());
@@ -76,23 +98,21 @@ public class DelayQueueWorker extends Thread {
 					timeB = System.currentTimeMillis();
 				} while (timeB - timeA < 1000);
 
+				announceCompletedChunks();
+
 				if (timeB - timeA < 1000) {
 					Thread.sleep(timeB - timeA);
 				}
 				// Do requestQueue
 				long curTime = System.currentTimeMillis();
 				/*
-				 * Take each file-change (FileEvent) from the modifyQueue that
-				 * is older than 2 seconds and enqueue it in the requestQueue.
-				 * The heuristic should prevent that modify events are handled
-				 * while the file is still not complete (eg while copying a file
-				 * into the shared folder)
+				 * Enqueue each file-change (FileEvent) whose file is quiet in
+				 * the requestQueue. This should prevent that modify events are
+				 * handled while the file is still not complete (eg while
+				 * copying a file into the shared folder)
 				 */
-				for (FileEvent e : Globals.delayQueue) {
-					if (curTime - e.getTime() > 2000) {
-						Globals.requestQueue.offer(new FSRequest(e.getType(), e.getName()));
-						Globals.delayQueue.remove(e);
-					}
+				for (FileEvent e : Globals.delayQueue.expire(curTime)) {
+					Globals.requestQueue.offer(new FSRequest(e.getType(), e.getName()));
 				}
 			} catch (InterruptedException ie) {
 				interrupt();
@@ -102,4 +122,14 @@ public class DelayQueueWorker extends Thread {
 		Globals.log.addMsg("ModifyQueue thread interrupted. Closing...", 4);
 	}
 
+	/*
+	 * Sends one message per file for all chunks completed in this round
+	 */
+	private void announceCompletedChunks() {
+		for (Map.Entry<String, BitSet> e : this.completedChunks.entrySet()) {
+			Network.getInstance().sendMUCCompletedChunks(e.getKey(), FileHandle.toRanges(e.getValue()));
+		}
+		this.completedChunks.clear();
+	}
+
 }
@@ -0,0 +1,154 @@
+/*
+ * Peergroup - DelayWheel.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * The DelayWheel holds local file events until their file has been quiet for
+ * Globals.fileQuietPeriod, so a burst of events for one file (copying,
+ * unpacking, saving) is handled once. There is at most one pending event per
+ * path, later events are merged into it (see FileEvent.merge()).
+ *
+ * The events are kept in a hashed timer wheel: slot i holds the events due
+ * in a tick t with t mod SLOTS = i. An event stays in its slot when it is
+ * merged with a later one, and is moved to the slot of its new deadline once
+ * its old slot is due. Adding, merging and expiring an event thus take
+ * constant time.
+ *
+ * @author Nicolas Inden
+ */
+public class DelayWheel {
+
+	/** Milliseconds per tick */
+	private final static int TICK = 100;
+	/** Number of slots, must be a power of two */
+	private final static int SLOTS = 512;
+
+	private HashMap<String, FileEvent> pending;
+	private ArrayList<LinkedList<FileEvent>> slots;
+	private long tick; /**< Last tick expired, -1 before the first call */
+
+	public DelayWheel() {
+		this.pending = new HashMap<String, FileEvent>();
+		this.slots = new ArrayList<LinkedList<FileEvent>>(SLOTS);
+		for (int i = 0; i < SLOTS; i++) {
+			this.slots.add(new LinkedList<FileEvent>());
+		}
+		this.tick = -1;
+	}
+
+	/**
+	 * Adds an event, or merges it into the pending event of its path
+	 *
+	 * @param event
+	 *            The event
+	 */
+	public synchronized void add(FileEvent event) {
+		FileEvent old = this.pending.get(event.getName());
+		if (old != null) {
+			old.merge(event);
+			return;
+		}
+		if (this.tick < 0)
+			this.tick = event.getTime() / TICK;
+		this.pending.put(event.getName(), event);
+		schedule(event);
+	}
+
+	/**
+	 * Drops the pending events of a directory and everything below it
+	 *
+	 * @param dir
+	 *            The path of the directory relative to the share directory
+	 */
+	public synchronized void cancelBelow(String dir) {
+		this.pending.remove(dir);
+		String prefix = dir + "/";
+		Iterator<String> it = this.pending.keySet().iterator();
+		while (it.hasNext()) {
+			if (it.next().startsWith(prefix))
+				it.remove();
+		}
+	}
+
+	/**
+	 * Removes and returns the events that are due
+	 *
+	 * @param now
+	 *            The current time in milliseconds
+	 * @return The due events, ordered by deadline
+	 */
+	public synchronized LinkedList<FileEvent> expire(long now) {
+		LinkedList<FileEvent> due = new LinkedList<FileEvent>();
+		long until = now / TICK;
+		if (this.tick < 0)
+			this.tick = until;
+		// After a full round all slots have been visited
+		long t = Math.max(this.tick + 1, until - SLOTS + 1);
+		for (; t <= until; t++) {
+			int i = (int) (t & (SLOTS - 1));
+			LinkedList<FileEvent> slot = this.slots.get(i);
+			// events rescheduled now go to later ticks
+			this.tick = t;
+			if (slot.isEmpty())
+				continue;
+			this.slots.set(i, new LinkedList<FileEvent>());
+			for (FileEvent e : slot) {
+				// skip events dropped or already handled
+				if (this.pending.get(e.getName()) != e)
+					continue;
+				if (deadline(e) > now) {
+					schedule(e);
+				} else {
+					this.pending.remove(e.getName());
+					due.add(e);
+				}
+			}
+		}
+		this.tick = Math.max(this.tick, until);
+		return due;
+	}
+
+	/*
+	 * Puts an event into the slot of its deadline, at least one tick after
+	 * the last expired one
+	 */
+	private void schedule(FileEvent event) {
+		long t = Math.max(deadline(event) / TICK, this.tick + 1);
+		this.slots.get((int) (t & (SLOTS - 1))).add(event);
+	}
+
+	/*
+	 * Returns the time an event is due: after the quiet period, but not later
+	 * than the maximum delay after its first change
+	 */
+	private static long deadline(FileEvent event) {
+		long res = event.getTime() + Globals.fileQuietPeriod;
+		if (Globals.fileMaxDelay > 0)
+			res = Math.min(res, event.getFirstTime() + Globals.fileMaxDelay);
+		return res;
+	}
+}
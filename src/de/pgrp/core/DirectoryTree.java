@@ -0,0 +1,342 @@
+/*
+ * Peergroup - DirectoryTree.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A hash tree over the directory hierarchy of the shared files. The hash of
+ * a file is calculated from its name, hash and version, the hash of a
+ * directory from the names and hashes of its children. Two peers sharing the
+ * same files have the same root hash, and if not, comparing the children of
+ * differing directories leads to the differing files.
+ *
+ * Directory hashes are recalculated lazily, a change only marks the
+ * directories above the file.
+ *
+ * @author Nicolas Inden
+ */
+public class DirectoryTree {
+
+	private Node root;
+
+	public DirectoryTree() {
+		this.root = new Node(null, true);
+	}
+
+	/**
+	 * Adds or updates a file
+	 *
+	 * @param path
+	 *            The path relative to the share directory
+	 * @param fileHash
+	 *            The hash of the file
+	 * @param version
+	 *            The version of the file
+	 */
+	public synchronized void put(String path, byte[] fileHash, int version) {
+		String[] names = split(path);
+		if (names.length == 0)
+			return;
+		Node dir = this.root;
+		for (int i = 0; i < names.length - 1; i++) {
+			Node next = dir.children.get(names[i]);
+			if (next == null || !next.directory) {
+				next = new Node(dir, true);
+				dir.children.put(names[i], next);
+			}
+			dir = next;
+		}
+		Node file = new Node(dir, false);
+		file.hash = leafHash(names[names.length - 1], fileHash, version);
+		dir.children.put(names[names.length - 1], file);
+		dir.invalidate();
+	}
+
+	/**
+	 * Removes a file, directories left empty are removed as well
+	 *
+	 * @param path
+	 *            The path relative to the share directory
+	 */
+	public synchronized void remove(String path) {
+		String[] names = split(path);
+		Node node = find(names);
+		if (node == null || node.directory || node == this.root)
+			return;
+		Node dir = node.parent;
+		dir.children.remove(names[names.length - 1]);
+		int i = names.length - 2;
+		while (dir != this.root && dir.children.isEmpty()) {
+			dir = dir.parent;
+			dir.children.remove(names[i]);
+			i--;
+		}
+		dir.invalidate();
+	}
+
+	/**
+	 * Removes all files
+	 */
+	public synchronized void clear() {
+		this.root = new Node(null, true);
+	}
+
+	/**
+	 * Returns the hash of the whole tree
+	 *
+	 * @return The root hash
+	 */
+	public synchronized byte[] getRootHash() {
+		return this.root.getHash();
+	}
+
+	/**
+	 * Returns the children of a directory
+	 *
+	 * @param dir
+	 *            The path of the directory, "" for the share directory
+	 * @return The children or an empty list if there is no such directory
+	 */
+	public synchronized LinkedList<Entry> getChildren(String dir) {
+		LinkedList<Entry> res = new LinkedList<Entry>();
+		Node node = find(split(dir));
+		if (node == null || !node.directory)
+			return res;
+		String prefix = dir.length() == 0 ? "" : dir + "/";
+		for (Map.Entry<String, Node> child : node.children.entrySet()) {
+			res.add(new Entry(prefix + child.getKey(), child.getValue().directory, child.getValue().getHash()));
+		}
+		return res;
+	}
+
+	/**
+	 * Returns the paths of all files in and below a directory, or the path
+	 * itself if it is a file
+	 *
+	 * @param path
+	 *            The path of the directory or file
+	 * @return The paths of the files
+	 */
+	public synchronized LinkedList<String> getFiles(String path) {
+		LinkedList<String> res = new LinkedList<String>();
+		Node node = find(split(path));
+		if (node != null)
+			collect(node, path, res);
+		return res;
+	}
+
+	/**
+	 * Returns the paths of the files following a path in the order of the
+	 * tree: sorted by name within a directory, the contents of a directory
+	 * at its place. Used as cursor, the path does not need to exist anymore.
+	 *
+	 * @param after
+	 *            The path to start after, "" to start at the beginning
+	 * @param upTo
+	 *            The last path to include, null for no limit
+	 * @param count
+	 *            The maximum number of paths
+	 * @return The paths of the files
+	 */
+	public synchronized LinkedList<String> getFiles(String after, String upTo, int count) {
+		LinkedList<String> res = new LinkedList<String>();
+		String[] limit = (upTo == null) ? null : split(upTo);
+		collectAfter(this.root, "", split(after), 0, limit, count, res);
+		return res;
+	}
+
+	/*
+	 * Collects the files below node that follow the cursor. Returns false
+	 * once the count or the limit is reached.
+	 */
+	private boolean collectAfter(Node node, String path, String[] cursor, int depth, String[] limit, int count,
+			LinkedList<String> res) {
+		if (!node.directory) {
+			if (res.size() >= count || (limit != null && compare(split(path), limit) > 0))
+				return false;
+			res.add(path);
+			return true;
+		}
+		String prefix = path.length() == 0 ? "" : path + "/";
+		Map<String, Node> children = node.children;
+		if (depth < cursor.length) {
+			Node next = node.children.get(cursor[depth]);
+			if (next != null && next.directory) {
+				if (!collectAfter(next, prefix + cursor[depth], cursor, depth + 1, limit, count, res))
+					return false;
+			}
+			children = node.children.tailMap(cursor[depth], false);
+		}
+		for (Map.Entry<String, Node> child : children.entrySet()) {
+			if (!collectAfter(child.getValue(), prefix + child.getKey(), cursor, cursor.length, limit, count, res))
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * Compares paths in the order of the tree
+	 */
+	private static int compare(String[] a, String[] b) {
+		for (int i = 0; i < a.length && i < b.length; i++) {
+			int c = a[i].compareTo(b[i]);
+			if (c != 0)
+				return c;
+		}
+		return a.length - b.length;
+	}
+
+	private void collect(Node node, String path, LinkedList<String> res) {
+		if (!node.directory) {
+			res.add(path);
+			return;
+		}
+		String prefix = path.length() == 0 ? "" : path + "/";
+		for (Map.Entry<String, Node> child : node.children.entrySet()) {
+			collect(child.getValue(), prefix + child.getKey(), res);
+		}
+	}
+
+	private Node find(String[] names) {
+		Node node = this.root;
+		for (String name : names) {
+			if (!node.directory)
+				return null;
+			node = node.children.get(name);
+			if (node == null)
+				return null;
+		}
+		return node;
+	}
+
+	private static String[] split(String path) {
+		LinkedList<String> names = new LinkedList<String>();
+		for (String name : path.split("/")) {
+			if (name.length() > 0)
+				names.add(name);
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	private static byte[] leafHash(String name, byte[] fileHash, int version) {
+		MessageDigest md = digest();
+		md.update(bytes(name));
+		md.update((byte) 0);
+		if (fileHash != null)
+			md.update(fileHash);
+		md.update(new byte[] { (byte) (version >>> 24), (byte) (version >>> 16), (byte) (version >>> 8),
+				(byte) version });
+		return md.digest();
+	}
+
+	private static MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance(Globals.hashAlgo);
+		} catch (NoSuchAlgorithmException na) {
+			throw new IllegalStateException("Hash error: " + na);
+		}
+	}
+
+	private static byte[] bytes(String s) {
+		try {
+			return s.getBytes("UTF-8");
+		} catch (UnsupportedEncodingException uee) {
+			throw new IllegalStateException("Encoding error: " + uee);
+		}
+	}
+
+	/**
+	 * A child of a directory as returned by getChildren()
+	 */
+	public static class Entry {
+
+		private String path;
+		private boolean directory;
+		private byte[] hash;
+
+		public Entry(String path, boolean directory, byte[] hash) {
+			this.path = path;
+			this.directory = directory;
+			this.hash = hash;
+		}
+
+		public String getPath() {
+			return this.path;
+		}
+
+		public boolean isDirectory() {
+			return this.directory;
+		}
+
+		public byte[] getHash() {
+			return this.hash;
+		}
+	}
+
+	/**
+	 * A file or directory of the tree
+	 */
+	private static class Node {
+
+		private Node parent;
+		private boolean directory;
+		private TreeMap<String, Node> children;
+		/**
+		 * The hash, null for directories that changed since it was calculated
+		 */
+		private byte[] hash;
+
+		public Node(Node parent, boolean directory) {
+			this.parent = parent;
+			this.directory = directory;
+			if (directory)
+				this.children = new TreeMap<String, Node>();
+		}
+
+		public void invalidate() {
+			Node node = this;
+			while (node != null) {
+				node.hash = null;
+				node = node.parent;
+			}
+		}
+
+		public byte[] getHash() {
+			if (this.hash == null) {
+				MessageDigest md = digest();
+				for (Map.Entry<String, Node> child : this.children.entrySet()) {
+					md.update(bytes(child.getKey()));
+					md.update((byte) (child.getValue().directory ? 1 : 0));
+					md.update(child.getValue().getHash());
+				}
+				this.hash = md.digest();
+			}
+			return this.hash;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Peergroup - FileAnnouncements.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedList;
+
+import org.jivesoftware.smack.packet.Message;
+
+/**
+ * Announcements of several new files packed into one XMPP message (type
+ * 12), so a merge leaving us with many files the others do not know does not
+ * take one message per file. Receivers unpack it into one new-file
+ * announcement (type 1) per file. The files are packed as
+ *
+ * [format][count] and per file [name][version][size][sha256][noOfChunks]
+ * [chunkRoot][blockList]
+ *
+ * Byte arrays are prefixed by their length, an empty block list means the
+ * list has to be fetched via thrift.
+ *
+ * @author Nicolas Inden
+ */
+public class FileAnnouncements {
+
+	private final static int FORMAT = 1;
+
+	private ByteArrayOutputStream buffer;
+	private DataOutputStream out;
+	private int count;
+
+	public FileAnnouncements() {
+		this.buffer = new ByteArrayOutputStream();
+		this.out = new DataOutputStream(this.buffer);
+		this.count = 0;
+	}
+
+	/**
+	 * Adds a file, its block list is included if there are at most
+	 * Globals.inlineBlockListLimit blocks
+	 *
+	 * @param name
+	 *            The filename
+	 * @param vers
+	 *            The fileversion
+	 * @param size
+	 *            The filesize
+	 * @param hash
+	 *            The SHA256 value of the file
+	 * @param list
+	 *            The blocks of the file
+	 */
+	public void add(String name, int vers, long size, byte[] hash, BlockList list) {
+		try {
+			this.out.writeUTF(name);
+			this.out.writeInt(vers);
+			this.out.writeLong(size);
+			writeBytes(hash);
+			this.out.writeInt(list.size());
+			writeBytes(list.getRootHash());
+			writeBytes(list.size() <= Globals.inlineBlockListLimit ? list.encode() : new byte[0]);
+			this.count++;
+		} catch (IOException ioe) {
+			// not thrown by a ByteArrayOutputStream
+			throw new IllegalStateException(ioe);
+		}
+	}
+
+	/**
+	 * Returns the number of files added
+	 */
+	public int size() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the number of bytes the files take so far
+	 */
+	public int length() {
+		return this.buffer.size();
+	}
+
+	/**
+	 * Returns the packed files
+	 */
+	public byte[] encode() {
+		ByteArrayOutputStream res = new ByteArrayOutputStream(this.buffer.size() + 8);
+		DataOutputStream head = new DataOutputStream(res);
+		try {
+			head.writeByte(FORMAT);
+			head.writeInt(this.count);
+			this.buffer.writeTo(res);
+		} catch (IOException ioe) {
+			throw new IllegalStateException(ioe);
+		}
+		return res.toByteArray();
+	}
+
+	/**
+	 * Unpacks a message of type 12 into one message of type 1 per file, with
+	 * the sender properties of the original message
+	 *
+	 * @param batch
+	 *            The message
+	 * @return The messages, empty if the packed files are malformed
+	 */
+	public static LinkedList<Message> unpack(Message batch) {
+		LinkedList<Message> res = new LinkedList<Message>();
+		byte[] data = (byte[]) batch.getProperty("files");
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		try {
+			if (in.readByte() != FORMAT) {
+				Globals.log.addMsg("FileAnnouncements: Unknown format", 4);
+				return res;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				Message msg = new Message();
+				msg.setProperty("Type", 1);
+				msg.setProperty("JID", batch.getProperty("JID"));
+				msg.setProperty("remoteIP", batch.getProperty("remoteIP"));
+				msg.setProperty("localIP", batch.getProperty("localIP"));
+				msg.setProperty("Port", batch.getProperty("Port"));
+				msg.setProperty("LamportTime", batch.getProperty("LamportTime"));
+				msg.setProperty("name", in.readUTF());
+				msg.setProperty("version", in.readInt());
+				msg.setProperty("size", in.readLong());
+				msg.setProperty("sha256", readBytes(in));
+				msg.setProperty("noOfChunks", in.readInt());
+				msg.setProperty("chunkRoot", readBytes(in));
+				byte[] list = readBytes(in);
+				if (list.length > 0)
+					msg.setProperty("blockList", list);
+				res.add(msg);
+			}
+		} catch (IOException ioe) {
+			Globals.log.addMsg("FileAnnouncements: Malformed announcements, ignoring: " + ioe, 4);
+			res.clear();
+		}
+		return res;
+	}
+
+	private void writeBytes(byte[] data) throws IOException {
+		this.out.writeInt(data.length);
+		this.out.write(data);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > in.available())
+			throw new IOException("Invalid length " + length);
+		byte[] res = new byte[length];
+		in.readFully(res);
+		return res;
+	}
+}
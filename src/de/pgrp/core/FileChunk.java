@@ -21,8 +21,10 @@
 
 package de.pgrp.core;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Random;
 import java.util.Arrays;
 import javax.xml.bind.annotation.adapters.HexBinaryAdapter;
@@ -35,78 +37,66 @@ import javax.xml.bind.annotation.adapters.HexBinaryAdapter;
  */
 public class FileChunk {
 
-	private String file; /**< Relative path of the corresponding file*/
+	private final static List<P2Pdevice> NO_PEERS = Collections.emptyList();
+
 	private int id; /**< Chunk ID*/
-	private int version; /**< Chunk version - should be the same as file version ;-) */
-	private byte[] chunkHash; /**< Hash of the chunk*/
-	private long offset;
-	private int size;
-	private boolean complete;
-	private boolean downloading;
-	private boolean failed;
-	private LinkedList<P2Pdevice> peers;
+	/**
+	 * The file this chunk belongs to. It keeps the path, the metadata of the
+	 * chunk in its ChunkTable and tracks the peers holding the chunk. Until a
+	 * file takes the chunk, all of this is kept in detached. setOwner() sets
+	 * the owner before it drops detached, so readers take detached into a
+	 * local first and go to the owner once it is null.
+	 */
+	private volatile FileHandle owner;
+	private volatile Detached detached;
 
 	public FileChunk() {
-
+		this.detached = new Detached(null, NO_PEERS);
 	}
 
 	public FileChunk(String name, int no, int size, int vers, String hash,
 			P2Pdevice node, boolean comp) {
-		this.file = name;
-		this.id = no;
-		this.size = size;
-		this.offset = id * Globals.chunkSize;
-		this.version = vers;
-		this.chunkHash = toByteHash(hash);
-		this.complete = comp;
-		this.downloading = false;
-		this.failed = false;
-		this.peers = new LinkedList<P2Pdevice>();
-		this.peers.add(node);
+		this(name, no, vers, toByteHash(hash), size, (long) no * Globals.chunkSize, comp, peersOf(node));
+	}
+
+	public FileChunk(String name, int no, int size, int vers, byte[] hash,
+			P2Pdevice node, boolean comp) {
+		this(name, no, vers, hash, size, (long) no * Globals.chunkSize, comp, peersOf(node));
 	}
 
+	/**
+	 * The list of peers is shared, not copied, so chunks with the same peers
+	 * can share one list. It must not be changed afterwards.
+	 */
 	public FileChunk(String name, int no, int size, int vers, String hash,
 			LinkedList<P2Pdevice> nodes, boolean comp) {
-		this.file = name;
-		this.id = no;
-		this.size = size;
-		this.offset = id * Globals.chunkSize;
-		this.version = vers;
-		this.chunkHash = toByteHash(hash);
-		this.complete = comp;
-		this.downloading = false;
-		this.failed = false;
-		this.peers = nodes;
+		this(name, no, vers, toByteHash(hash), size, (long) no * Globals.chunkSize, comp, nodes);
 	}
 
 	public FileChunk(String name, int no, byte[] digest, int s, long off,
 			boolean compl) {
-		this.file = name;
-		this.id = no;
-		this.version = 0;
-		this.chunkHash = digest;
-		this.size = s;
-		this.offset = off;
-		this.complete = compl;
-		this.downloading = false;
-		this.failed = false;
-		this.peers = new LinkedList<P2Pdevice>();
-		this.peers.add(P2Pdevice.getDevice(Globals.getJID(), Globals.externalIP4, Globals.internalIP4, Globals.p2pPort));
+		this(name, no, 0, digest, s, off, compl, peersOf(P2Pdevice.getLocalDevice()));
 	}
 
 	public FileChunk(String name, int no, int vers, byte[] digest, int s,
 			long off, boolean compl) {
-		this.file = name;
+		this(name, no, vers, digest, s, off, compl, peersOf(P2Pdevice.getLocalDevice()));
+	}
+
+	private FileChunk(String name, int no, int vers, byte[] digest, int s,
+			long off, boolean compl, List<P2Pdevice> nodes) {
 		this.id = no;
-		this.version = vers;
-		this.chunkHash = digest;
-		this.size = s;
-		this.offset = off;
-		this.complete = compl;
-		this.downloading = false;
-		this.failed = false;
-		this.peers = new LinkedList<P2Pdevice>();
-		this.peers.add(P2Pdevice.getDevice(Globals.getJID(), Globals.externalIP4, Globals.internalIP4, Globals.p2pPort));
+		Detached d = new Detached(name, nodes);
+		d.setVersion(0, vers);
+		d.setHash(0, digest);
+		d.setSize(0, s);
+		d.setOffset(0, off);
+		d.setFlags(0, compl ? ChunkTable.COMPLETE : 0);
+		this.detached = d;
+	}
+
+	private static List<P2Pdevice> peersOf(P2Pdevice node) {
+		return node == null ? NO_PEERS : Collections.singletonList(node);
 	}
 
 	/**
@@ -116,7 +106,7 @@ public class FileChunk {
 	 */
 	public String getHexHash() {
 		HexBinaryAdapter adapter = new HexBinaryAdapter();
-		String hash = adapter.marshal(this.chunkHash);
+		String hash = adapter.marshal(getHash());
 		return hash;
 	}
 
@@ -125,13 +115,21 @@ public class FileChunk {
 	 */
 	public void setHexHash(String s) {
 		HexBinaryAdapter adapter = new HexBinaryAdapter();
-		this.chunkHash = adapter.unmarshal(s);
+		setHash(adapter.unmarshal(s));
+	}
+
+	public void setHash(byte[] hash) {
+		Detached d = this.detached;
+		if (d != null)
+			d.setHash(0, hash);
+		else
+			this.owner.writeHash(this.id, hash);
 	}
 
 	public boolean checkHash(byte[] data) {
 		byte[] hash = FileHandle.calcHash(data, data.length);
 
-		return Arrays.equals(hash, this.chunkHash);
+		return Arrays.equals(hash, getHash());
 	}
 
 	public static byte[] toByteHash(String s) {
@@ -140,15 +138,29 @@ public class FileChunk {
 	}
 
 	public void deletePeer(String jid) {
-		Iterator<P2Pdevice> it = this.peers.iterator();
-		
-		while(it.hasNext()){
-			P2Pdevice tmp = it.next();
-			if(tmp.getJID().equals(jid)){
+		Detached d = this.detached;
+		if (d == null) {
+			this.owner.deletePeer(this.id, jid);
+			return;
+		}
+		LinkedList<P2Pdevice> peers = new LinkedList<P2Pdevice>(d.peers);
+		Iterator<P2Pdevice> it = peers.iterator();
+		while (it.hasNext()) {
+			if (it.next().getJID().equals(jid))
 				it.remove();
-			}
 		}
-		
+		d.peers = peers;
+	}
+
+	public void removePeer(P2Pdevice node) {
+		Detached d = this.detached;
+		if (d == null) {
+			this.owner.removePeer(this.id, node);
+			return;
+		}
+		LinkedList<P2Pdevice> peers = new LinkedList<P2Pdevice>(d.peers);
+		peers.remove(node);
+		d.peers = peers;
 	}
 
 	public int getID() {
@@ -156,92 +168,245 @@ public class FileChunk {
 	}
 
 	public void decrVersion() {
-		this.version--;
+		setVersion(getVersion() - 1);
 	}
 
 	public void setVersion(int vers) {
-		this.version = vers;
+		Detached d = this.detached;
+		if (d != null)
+			d.setVersion(0, vers);
+		else
+			this.owner.writeVersion(this.id, vers);
 	}
 
 	public int getVersion() {
-		return this.version;
+		Detached d = this.detached;
+		if (d != null)
+			return d.getVersion(0);
+		return this.owner.getTable().getVersion(this.id);
 	}
 
 	public byte[] getHash() {
-		return this.chunkHash;
+		Detached d = this.detached;
+		if (d != null)
+			return d.getHash(0);
+		return this.owner.getTable().getHash(this.id);
 	}
 
 	public long getOffset() {
-		return this.offset;
+		Detached d = this.detached;
+		if (d != null)
+			return d.getOffset(0);
+		return this.owner.getTable().getOffset(this.id);
 	}
 
 	public int getSize() {
-		return this.size;
+		Detached d = this.detached;
+		if (d != null)
+			return d.getSize(0);
+		return this.owner.getTable().getSize(this.id);
 	}
 
 	public String getName() {
-		return this.file;
+		Detached d = this.detached;
+		if (d != null)
+			return d.name;
+		return this.owner.getPath();
 	}
 
+	/**
+	 * Returns the peers holding this chunk
+	 * 
+	 * @return a new list of the peers
+	 */
 	public LinkedList<P2Pdevice> getPeers() {
-		return this.peers;
+		Detached d = this.detached;
+		if (d == null)
+			return this.owner.getPeers(this.id);
+		return new LinkedList<P2Pdevice>(d.peers);
 	}
 
 	public int noOfPeers() {
-		return this.peers.size();
+		Detached d = this.detached;
+		if (d == null)
+			return this.owner.noOfPeers(this.id);
+		return d.peers.size();
 	}
 
 	public void setSize(int size) {
-		this.size = size;
+		Detached d = this.detached;
+		if (d != null)
+			d.setSize(0, size);
+		else
+			this.owner.writeSize(this.id, size);
 	}
 
 	public void setPeers(LinkedList<P2Pdevice> newPeers) {
-		this.peers = newPeers;
+		LinkedList<P2Pdevice> nodes = new LinkedList<P2Pdevice>(newPeers);
+		clearPeers();
+		for (P2Pdevice node : nodes) {
+			addPeer(node);
+		}
 	}
 
 	public void addPeer(P2Pdevice node) {
-		for (P2Pdevice dev : this.peers) {
-			if (node.equals(dev))
-				return;
+		Detached d = this.detached;
+		if (d == null) {
+			this.owner.addPeer(this.id, node);
+			return;
+		}
+		if (!d.peers.contains(node)) {
+			LinkedList<P2Pdevice> peers = new LinkedList<P2Pdevice>(d.peers);
+			peers.add(node);
+			d.peers = peers;
 		}
-		this.peers.add(node);
 	}
 
 	public P2Pdevice getRandomPeer() {
-		if (this.peers.size() > 0) {
+		LinkedList<P2Pdevice> peers = getPeers();
+		if (peers.size() > 0) {
 			Random gen = new Random(System.currentTimeMillis());
-			return this.peers.get(gen.nextInt(this.peers.size()));
+			return peers.get(gen.nextInt(peers.size()));
 		} else {
 			return null;
 		}
 	}
 
 	public void clearPeers() {
-		this.peers.clear();
+		Detached d = this.detached;
+		if (d == null) {
+			this.owner.clearPeers(this.id);
+			return;
+		}
+		d.peers = NO_PEERS;
+	}
+
+	/**
+	 * Called by the FileHandle taking this chunk, after it copied the metadata
+	 * of the chunk into its ChunkTable. The FileHandle keeps track of the
+	 * metadata and peers from now on.
+	 * 
+	 * @param file
+	 *            The new owner
+	 */
+	public void setOwner(FileHandle file) {
+		this.owner = file;
+		this.detached = null;
+	}
+
+	/**
+	 * Copies the metadata of this chunk into a ChunkTable
+	 * 
+	 * @param table
+	 *            The table
+	 * @param i
+	 *            The chunk in the table
+	 */
+	void copyTo(ChunkTable table, int i) {
+		Detached d = this.detached;
+		if (d != null)
+			table.copy(i, d, 0);
+		else
+			table.copy(i, this.owner.getTable(), this.id);
+	}
+
+	/*
+	 * Reads and writes the state flags of this chunk
+	 */
+	private boolean getFlag(int flag) {
+		Detached d = this.detached;
+		if (d != null)
+			return d.getFlag(0, flag);
+		return this.owner.getTable().getFlag(this.id, flag);
+	}
+
+	private void setFlag(int flag, boolean value) {
+		Detached d = this.detached;
+		if (d != null)
+			d.setFlag(0, flag, value);
+		else
+			this.owner.writeFlag(this.id, flag, value);
 	}
 
 	public boolean isComplete() {
-		return this.complete;
+		return getFlag(ChunkTable.COMPLETE);
 	}
 
 	public void setComplete(boolean bool) {
-		this.complete = bool;
+		setFlag(ChunkTable.COMPLETE, bool);
 	}
 
 	public boolean isDownloading() {
-		return this.downloading;
+		return getFlag(ChunkTable.DOWNLOADING);
 	}
 
 	public void setDownloading(boolean bool) {
-		this.downloading = bool;
+		setFlag(ChunkTable.DOWNLOADING, bool);
+	}
+
+	/**
+	 * Remembers the current chunk data as base for a delta transfer, before
+	 * the chunk is replaced by a newer remote version
+	 */
+	public void keepAsBase() {
+		if (isComplete())
+			setBase(getHash(), getSize());
+	}
+
+	public void clearBase() {
+		setBase(null, 0);
+	}
+
+	private void setBase(byte[] hash, int size) {
+		Detached d = this.detached;
+		if (d != null)
+			d.setBase(0, hash, size);
+		else
+			this.owner.writeBase(this.id, hash, size);
+	}
+
+	public byte[] getBaseHash() {
+		Detached d = this.detached;
+		if (d != null)
+			return d.getBaseHash(0);
+		return this.owner.getTable().getBaseHash(this.id);
+	}
+
+	public String getBaseHexHash() {
+		byte[] base = getBaseHash();
+		if (base == null)
+			return "";
+		HexBinaryAdapter adapter = new HexBinaryAdapter();
+		return adapter.marshal(base);
+	}
+
+	public int getBaseSize() {
+		Detached d = this.detached;
+		if (d != null)
+			return d.getBaseSize(0);
+		return this.owner.getTable().getBaseSize(this.id);
 	}
 
 	public void setFailed(boolean val) {
-		this.failed = val;
+		setFlag(ChunkTable.FAILED, val);
 	}
 
 	public boolean hasFailed() {
-		return this.failed;
+		return getFlag(ChunkTable.FAILED);
+	}
+
+	/*
+	 * The path, metadata and peers of a chunk not taken by a FileHandle yet
+	 */
+	private static class Detached extends ChunkTable.Single {
+
+		private final String name;
+		private List<P2Pdevice> peers;
+
+		private Detached(String name, List<P2Pdevice> peers) {
+			this.name = name;
+			this.peers = peers;
+		}
 	}
 
 }
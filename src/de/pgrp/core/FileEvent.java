@@ -22,8 +22,8 @@
 package de.pgrp.core;
 
 /**
- * The FileEvent contains a filename, and a timestamp for the last time an event
- * arrived.
+ * The FileEvent contains a filename, and timestamps for the first and the last
+ * time an event arrived.
  * 
  * @author Nicolas Inden
  */
@@ -32,17 +32,42 @@ public class FileEvent {
 	private int type;
 	private String filename;
 	private long time;
+	private long first;
 
 	public FileEvent(int newType, String name) {
 		this.type = newType;
 		this.filename = name;
 		this.time = System.currentTimeMillis();
+		this.first = this.time;
 	}
 
 	public FileEvent(String name) {
 		this.type = Globals.LOCAL_FILE_MODIFY;
 		this.filename = name;
 		this.time = System.currentTimeMillis();
+		this.first = this.time;
+	}
+
+	/**
+	 * Takes a later event for the same path into this one. A file created and
+	 * then modified is still new. A file deleted and then created again, or
+	 * modified in any order, is modified (the MainWorker handles a modify of
+	 * an unknown file as create). Anything followed by a delete is deleted.
+	 * 
+	 * @param later
+	 *            The later event
+	 */
+	public void merge(FileEvent later) {
+		int next = later.getType();
+		if (next == Globals.LOCAL_FILE_CREATE || next == Globals.LOCAL_FILE_MODIFY) {
+			if (this.type == Globals.LOCAL_FILE_MODIFY || this.type == Globals.LOCAL_FILE_DELETE)
+				this.type = Globals.LOCAL_FILE_MODIFY;
+			else if (this.type != Globals.LOCAL_FILE_CREATE)
+				this.type = next;
+		} else {
+			this.type = next;
+		}
+		this.time = later.getTime();
 	}
 
 	public void setName(String newName) {
@@ -64,4 +89,8 @@ public class FileEvent {
 	public long getTime() {
 		return this.time;
 	}
+
+	public long getFirstTime() {
+		return this.first;
+	}
 }
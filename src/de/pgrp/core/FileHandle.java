@@ -22,8 +22,12 @@
 package de.pgrp.core;
 
 import java.io.*;
+import java.util.BitSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.Random;
 import java.util.Arrays;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -40,23 +44,41 @@ public class FileHandle {
 	 * The Java File object
 	 */
 	private File file;
+	/**
+	 * The path relative to the share directory
+	 */
+	private String path;
 	/**
 	 * The fileversion is used to maintain the most recent filecontent via
 	 * lamport clocks
 	 */
-	private int fileVersion;
+	private volatile int fileVersion;
 	/**
 	 * The hash of the file as byte array
 	 */
-	private byte[] hash;
+	private volatile byte[] hash;
 	/**
 	 * The size of the file in bytes
 	 */
-	private long size;
+	private volatile long size;
+	/**
+	 * A linked list of FileChunk objects which this file consists of. Once
+	 * published the list is not changed anymore: changes are made to a copy
+	 * while holding the lock of this FileHandle, and the copy replaces the
+	 * list. Readers iterate without locking.
+	 */
+	private volatile LinkedList<FileChunk> chunks;
 	/**
-	 * A linked list of FileChunk objects which this file consists of
+	 * The metadata of the chunks, the FileChunks are views on it. Reads go to
+	 * the current table without locking, writes hold tableLock so none gets
+	 * lost while adopt() copies the table into a larger one.
 	 */
-	private LinkedList<FileChunk> chunks;
+	private volatile ChunkTable table;
+	private final Object tableLock = new Object();
+	/**
+	 * For every peer the IDs of the chunks it holds. Guarded by itself.
+	 */
+	private LinkedHashMap<P2Pdevice, BitSet> availability = new LinkedHashMap<P2Pdevice, BitSet>();
 	/**
 	 * A list of the blocks that changed in the last localUpdate() invocation
 	 */
@@ -68,7 +90,7 @@ public class FileHandle {
 	/**
 	 * This boolean is set true while the file is being updated from network
 	 */
-	private boolean updating;
+	private volatile boolean updating;
 	/**
 	 * True if chunks have successfully been created, else false
 	 */
@@ -81,6 +103,11 @@ public class FileHandle {
 	 * System time in milliseconds when the download of this file started
 	 */
 	private long dlTime;
+	/**
+	 * True if blocks of this file shrink when compressed, null if not sampled
+	 * yet
+	 */
+	private Boolean compressible;
 
 	/**
 	 * Use this constructor for complete files located on your device
@@ -91,6 +118,7 @@ public class FileHandle {
 	 */
 	public FileHandle(String filename) throws Exception {
 		this.file = new File(filename);
+		this.path = this.file.getPath().substring(Globals.shareDirectory.length());
 		this.updating = true;
 		this.fileVersion = 1;
 		this.size = this.file.length();
@@ -129,16 +157,56 @@ public class FileHandle {
 	public FileHandle(String filename, int vers, long fileSize, String hexHash,
 			int cSize, LinkedList<FileChunk> chunks) throws Exception {
 		this.file = new File(Globals.shareDirectory + filename);
+		this.path = this.file.getPath().substring(Globals.shareDirectory.length());
 		this.fileVersion = vers;
 		this.hash = toByteHash(hexHash);
 		this.size = fileSize;
 		this.chunks = chunks;
+		this.table = ChunkTable.create(chunks.size());
+		for (FileChunk c : chunks) {
+			adopt(c);
+		}
 		this.chunkSize = cSize;
 		this.updatedBlocks = new LinkedList<Integer>();
 		this.updating = false;
 		this.timeBool = false;
 	}
 
+	/**
+	 * Use this constructor for files recovered from the storage journal
+	 * 
+	 * @param filename
+	 *            A String showing the path to the file relative to the share
+	 *            directory
+	 * @param vers
+	 *            The version of the file
+	 * @param fileSize
+	 *            The size of the file in bytes
+	 * @param fileHash
+	 *            The hash of the file as byte array
+	 * @param cSize
+	 *            The size of the chunks
+	 * @param chunks
+	 *            The list of chunks this file consists of
+	 */
+	public FileHandle(String filename, int vers, long fileSize, byte[] fileHash,
+			int cSize, LinkedList<FileChunk> chunks) {
+		this.file = new File(Globals.shareDirectory + filename);
+		this.path = this.file.getPath().substring(Globals.shareDirectory.length());
+		this.fileVersion = vers;
+		this.hash = fileHash;
+		this.size = fileSize;
+		this.chunks = chunks;
+		this.table = ChunkTable.create(chunks.size());
+		for (FileChunk c : chunks) {
+			adopt(c);
+		}
+		this.chunkSize = cSize;
+		this.updatedBlocks = new LinkedList<Integer>();
+		this.updating = !isComplete();
+		this.timeBool = false;
+	}
+
 	/**
 	 * Use this constructor for files to be received via network
 	 * 
@@ -157,11 +225,16 @@ public class FileHandle {
 	public FileHandle(String filename, byte[] fileHash, long fileSize,
 			LinkedList<FileChunk> chunks, int chunkSize) throws Exception {
 		this.file = new File(Globals.shareDirectory + filename);
+		this.path = this.file.getPath().substring(Globals.shareDirectory.length());
 		this.updating = true;
 		this.fileVersion = 1;
 		this.hash = fileHash;
 		this.size = fileSize;
 		this.chunks = chunks;
+		this.table = ChunkTable.create(chunks.size());
+		for (FileChunk c : chunks) {
+			adopt(c);
+		}
 		this.chunkSize = chunkSize;
 		this.updatedBlocks = new LinkedList<Integer>();
 		Globals.log
@@ -183,6 +256,60 @@ public class FileHandle {
 		return adapter.unmarshal(s);
 	}
 
+	/**
+	 * Writes a set of chunk IDs as compact list of ranges, e.g. "0-17,20,25-30"
+	 * 
+	 * @param ids
+	 *            The chunk IDs
+	 * @return The ranges as string
+	 */
+	public static String toRanges(BitSet ids) {
+		StringBuilder res = new StringBuilder();
+		int start = ids.nextSetBit(0);
+		while (start >= 0) {
+			int end = ids.nextClearBit(start) - 1;
+			if (res.length() > 0)
+				res.append(',');
+			res.append(start);
+			if (end > start)
+				res.append('-').append(end);
+			start = ids.nextSetBit(end + 1);
+		}
+		return res.toString();
+	}
+
+	/**
+	 * Reads a list of ranges written by toRanges()
+	 * 
+	 * @param ranges
+	 *            The ranges as string
+	 * @param limit
+	 *            IDs from here on are ignored, usually the number of chunks
+	 * @return The chunk IDs
+	 * @throws NumberFormatException
+	 *             if the string is malformed
+	 */
+	public static BitSet fromRanges(String ranges, int limit) {
+		BitSet res = new BitSet();
+		if (ranges == null || ranges.equals(""))
+			return res;
+		for (String range : ranges.split(",")) {
+			int dash = range.indexOf('-');
+			int start, end;
+			if (dash < 0) {
+				start = end = Integer.parseInt(range);
+			} else {
+				start = Integer.parseInt(range.substring(0, dash));
+				end = Integer.parseInt(range.substring(dash + 1));
+			}
+			if (start < 0 || end < start)
+				throw new NumberFormatException("Invalid range: " + range);
+			if (start < limit)
+				res.set(start, Math.min(end, limit - 1) + 1);
+		}
+		return res;
+	}
+
 	/**
 	 * Creates a linked list of FileChunk for this FileHandle
 	 * 
@@ -199,6 +326,7 @@ public class FileHandle {
 			FileInputStream stream = new FileInputStream(this.file);
 			MessageDigest sha = MessageDigest.getInstance(Globals.hashAlgo);
 			this.chunks = new LinkedList<FileChunk>();
+			this.table = ChunkTable.create((int) Math.max(1, (this.size + size - 1) / size));
 			int bytesRead = 0;
 			int id = 0;
 			byte[] buffer = new byte[size];
@@ -208,6 +336,7 @@ public class FileHandle {
 						calcHash(buffer, bytesRead), bytesRead, id * size, true);
 				sha.update(buffer, 0, bytesRead);
 				this.chunks.add(next);
+				adopt(next);
 				id++;
 			}
 
@@ -216,6 +345,7 @@ public class FileHandle {
 				FileChunk next = new FileChunk(this.getPath(), id, vers,
 						calcHash(buffer, bytesRead), 0, id * size, true);
 				this.chunks.add(next);
+				adopt(next);
 			}
 
 			this.hash = sha.digest();
@@ -291,9 +421,12 @@ public class FileHandle {
 	 * 
 	 * @return true if file has changed, else false
 	 */
-	public  boolean localUpdate() throws Exception {
+	public synchronized boolean localUpdate() throws Exception {
 		Globals.log.addMsg("FileHandle: Local update triggered for " + this.file.getName() + ". Scanning for changes!");
+		ChunkCache.getInstance().invalidate(this.getPath());
+		this.compressible = null;
 		boolean changed = false;
+		LinkedList<FileChunk> chunks = new LinkedList<FileChunk>(this.chunks);
 		FileInputStream stream = new FileInputStream(this.file);
 		int bytesRead = 0;
 		int id = 0;
@@ -307,37 +440,41 @@ public class FileHandle {
 			hash.update(buffer, 0, bytesRead);
 			
 			// change is within existent chunks
-			if (id < this.chunks.size()) {
+			if (id < chunks.size()) {
 				// new chunk hash != old chunk hash
-				if (!(Arrays.equals(calcHash(buffer, bytesRead), this.chunks.get(id).getHash()))) {
+				if (!(Arrays.equals(calcHash(buffer, bytesRead), chunks.get(id).getHash()))) {
 					Globals.log.addMsg("FileHandle: Chunk " + id	+ " changed! (Different Hashes) Updating chunklist...");
 					FileChunk updated = 
 						new FileChunk(
-							this.getPath(), id, this.chunks.get(id).getVersion() + 1, calcHash(buffer, bytesRead), bytesRead, id * chunkSize, true
+							this.getPath(), id, chunks.get(id).getVersion() + 1, calcHash(buffer, bytesRead), bytesRead, id * chunkSize, true
 								);
 					this.updatedBlocks.add(new Integer(id));
-					this.chunks.set(id, updated);
+					chunks.set(id, updated);
+					adopt(updated);
+					cacheChunk(updated, buffer, bytesRead);
 					changed = true;
 				}
 				// chunk is smaller than others and is not the last chunk ->
 				// file got smaller
-				if (bytesRead < chunkSize && id < (this.chunks.size() - 1)) {
+				if (bytesRead < chunkSize && id < (chunks.size() - 1)) {
 					Globals.log.addMsg("FileHandle: Smaller chunk is not last chunk! Pruning following chunks...");
-					int i = this.chunks.size() - 1;
+					int i = chunks.size() - 1;
 					while (i > id) {
-						this.chunks.removeLast();
+						chunks.removeLast();
 						i--;
 					}
 					changed = true;
 				}
 				// Last chunk got bigger
-				if (bytesRead > this.chunks.get(id).getSize() && id == this.chunks.size() - 1) {
+				if (bytesRead > chunks.get(id).getSize() && id == chunks.size() - 1) {
 					Globals.log.addMsg("FileHandle: Chunk " + id + " changed! Updating chunklist...");
 					FileChunk updated = 
 						new FileChunk(
-							this.getPath(), id,this.chunks.get(id).getVersion() + 1, calcHash(buffer, bytesRead), bytesRead, id * chunkSize, true
+							this.getPath(), id,chunks.get(id).getVersion() + 1, calcHash(buffer, bytesRead), bytesRead, id * chunkSize, true
 								);
-					this.chunks.set(id, updated);
+					chunks.set(id, updated);
+					adopt(updated);
+					cacheChunk(updated, buffer, bytesRead);
 					this.updatedBlocks.add(new Integer(id));
 					changed = true;
 				}
@@ -346,7 +483,8 @@ public class FileHandle {
 				Globals.log.addMsg("FileHandle: File needs more chunks than before! Adding new chunk: " + id);
 				FileChunk next = 
 					new FileChunk(this.getPath(), id, this.fileVersion, calcHash(buffer, bytesRead), bytesRead, id * chunkSize, true);
-				this.chunks.add(next);
+				chunks.add(next);
+				adopt(next);
 				this.updatedBlocks.add(new Integer(id));
 				changed = true;
 			}
@@ -355,16 +493,20 @@ public class FileHandle {
 		
 		// Less chunks than before -> file got smaller while remaining a multiple of
 		// the chunk size
-		if(id < this.chunks.size()){
-			int i = this.chunks.size() - 1;
+		if(id < chunks.size()){
+			int i = chunks.size() - 1;
 			while (i >= id) {
 				System.out.println("Removed chunk " + i);
-				this.chunks.removeLast();
+				chunks.removeLast();
 				i--;
 			}
 			changed = true;
 		}
-		
+		boolean shrunk = chunks.size() < this.chunks.size();
+		this.chunks = chunks;
+		if (shrunk)
+			trimPeers();
+
 		if (!Arrays.equals(this.hash, hash.digest())) {
 			this.hash = calcHash(this.file);
 			changed = true;
@@ -377,6 +519,14 @@ public class FileHandle {
 		return changed;
 	}
 
+	/*
+	 * Peers will ask for changed chunks right away, and the data is the base
+	 * for delta transfers after the next change.
+	 */
+	private void cacheChunk(FileChunk chunk, byte[] buffer, int bytesRead) {
+		ChunkCache.getInstance().put(this.getPath(), chunk.getID(), chunk.getHexHash(), "plain", Arrays.copyOf(buffer, bytesRead));
+	}
+
 	/**
 	 * Adds a P2Pdevice to a specific chunk of this file, indicating that this
 	 * chunk can now be downloaded from this device
@@ -391,7 +541,24 @@ public class FileHandle {
 			Globals.log.addMsg("Cannot add node to not existing chunk! (ID: " + id + " Size: " + this.chunks.size() + ")", 4);
 			return;
 		}
-		this.chunks.get(id).addPeer(node);
+		addPeer(id, node);
+	}
+
+	/**
+	 * Adds a P2Pdevice to a set of chunks of this file
+	 * 
+	 * @param ids
+	 *            The ids of the chunks
+	 * @param node
+	 *            The P2Pdevice
+	 */
+	public void addP2PdeviceToBlocks(BitSet ids, P2Pdevice node) {
+		BitSet valid = ids.get(0, this.chunks.size());
+		if (valid.isEmpty())
+			return;
+		synchronized (this.availability) {
+			getAvailabilityOf(node).or(valid);
+		}
 	}
 
 	/**
@@ -402,8 +569,10 @@ public class FileHandle {
 	 *            The P2Pdevice
 	 */
 	public  void addP2PdeviceToAllBlocks(P2Pdevice node) {
-		for (FileChunk f : this.chunks) {
-			f.addPeer(node);
+		if (this.chunks.size() == 0)
+			return;
+		synchronized (this.availability) {
+			getAvailabilityOf(node).set(0, this.chunks.size());
 		}
 	}
 
@@ -411,11 +580,335 @@ public class FileHandle {
 	 * Clears the list of P2Pdevices for all chunks of this file
 	 */
 	public  void clearP2Pdevices() {
-		for (FileChunk f : this.chunks) {
-			f.clearPeers();
+		synchronized (this.availability) {
+			for (P2Pdevice node : this.availability.keySet()) {
+				node.removeHolding(this);
+			}
+			this.availability.clear();
+		}
+	}
+
+	/**
+	 * Adds a P2Pdevice to a chunk of this file
+	 * 
+	 * @param id
+	 *            The chunk ID
+	 * @param node
+	 *            The P2Pdevice
+	 */
+	public void addPeer(int id, P2Pdevice node) {
+		synchronized (this.availability) {
+			getAvailabilityOf(node).set(id);
+		}
+	}
+
+	/**
+	 * Removes all P2Pdevices from a chunk of this file
+	 * 
+	 * @param id
+	 *            The chunk ID
+	 */
+	public void clearPeers(int id) {
+		synchronized (this.availability) {
+			Iterator<Map.Entry<P2Pdevice, BitSet>> it = this.availability.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<P2Pdevice, BitSet> entry = it.next();
+				entry.getValue().clear(id);
+				if (entry.getValue().isEmpty()) {
+					entry.getKey().removeHolding(this);
+					it.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes a P2Pdevice from a chunk of this file
+	 * 
+	 * @param id
+	 *            The chunk ID
+	 * @param node
+	 *            The P2Pdevice
+	 */
+	public void removePeer(int id, P2Pdevice node) {
+		synchronized (this.availability) {
+			BitSet ids = this.availability.get(node);
+			if (ids == null)
+				return;
+			ids.clear(id);
+			if (ids.isEmpty()) {
+				node.removeHolding(this);
+				this.availability.remove(node);
+			}
+		}
+	}
+
+	/**
+	 * Removes a P2Pdevice from all chunks of this file
+	 * 
+	 * @param node
+	 *            The P2Pdevice
+	 */
+	public void removePeer(P2Pdevice node) {
+		synchronized (this.availability) {
+			if (this.availability.remove(node) != null)
+				node.removeHolding(this);
+		}
+	}
+
+	/**
+	 * Removes all P2Pdevices with the given JID from a chunk of this file
+	 * 
+	 * @param id
+	 *            The chunk ID
+	 * @param jid
+	 *            The JID
+	 */
+	public void deletePeer(int id, String jid) {
+		for (P2Pdevice node : getPeers(id)) {
+			if (node.getJID().equals(jid))
+				removePeer(id, node);
+		}
+	}
+
+	/**
+	 * Returns the P2Pdevices holding a chunk of this file
+	 * 
+	 * @param id
+	 *            The chunk ID
+	 * @return a new list of the P2Pdevices
+	 */
+	public LinkedList<P2Pdevice> getPeers(int id) {
+		LinkedList<P2Pdevice> res = new LinkedList<P2Pdevice>();
+		synchronized (this.availability) {
+			for (Map.Entry<P2Pdevice, BitSet> entry : this.availability.entrySet()) {
+				if (entry.getValue().get(id))
+					res.add(entry.getKey());
+			}
+		}
+		return res;
+	}
+
+	public int noOfPeers(int id) {
+		int res = 0;
+		synchronized (this.availability) {
+			for (BitSet ids : this.availability.values()) {
+				if (ids.get(id))
+					res++;
+			}
+		}
+		return res;
+	}
+
+	public P2Pdevice getRandomPeer(int id) {
+		LinkedList<P2Pdevice> peers = getPeers(id);
+		if (peers.size() == 0)
+			return null;
+		Random gen = new Random(System.currentTimeMillis());
+		return peers.get(gen.nextInt(peers.size()));
+	}
+
+	/**
+	 * Returns all P2Pdevices holding chunks of this file
+	 * 
+	 * @return a new list of the P2Pdevices
+	 */
+	public LinkedList<P2Pdevice> getPeers() {
+		synchronized (this.availability) {
+			return new LinkedList<P2Pdevice>(this.availability.keySet());
+		}
+	}
+
+	/**
+	 * Adds the P2Pdevices another copy of this file knows of to the chunks we
+	 * did not complete yet. Only chunks with equal hashes are taken, the local
+	 * device is skipped.
+	 *
+	 * @param other
+	 *            The other copy, e.g. received from a peer
+	 */
+	public void addPeersOf(FileHandle other) {
+		BitSet wanted = new BitSet();
+		Iterator<FileChunk> theirs = other.getChunkList().iterator();
+		for (FileChunk fc : getChunkList()) {
+			if (!theirs.hasNext())
+				break;
+			FileChunk rc = theirs.next();
+			if (!fc.isComplete() && Arrays.equals(fc.getHash(), rc.getHash()))
+				wanted.set(fc.getID());
+		}
+		if (wanted.isEmpty())
+			return;
+
+		LinkedHashMap<P2Pdevice, BitSet> holdings = new LinkedHashMap<P2Pdevice, BitSet>();
+		synchronized (other.availability) {
+			for (Map.Entry<P2Pdevice, BitSet> entry : other.availability.entrySet()) {
+				holdings.put(entry.getKey(), (BitSet) entry.getValue().clone());
+			}
+		}
+		String me = P2Pdevice.getLocalDevice().getJID();
+		synchronized (this.availability) {
+			for (Map.Entry<P2Pdevice, BitSet> entry : holdings.entrySet()) {
+				BitSet ids = entry.getValue();
+				ids.and(wanted);
+				if (!ids.isEmpty() && !entry.getKey().getJID().equals(me))
+					getAvailabilityOf(entry.getKey()).or(ids);
+			}
+		}
+	}
+
+	/**
+	 * Returns the IDs of the chunks a P2Pdevice holds
+	 * 
+	 * @param node
+	 *            The P2Pdevice
+	 * @return a copy of the IDs, empty if it holds none
+	 */
+	public BitSet getAvailability(P2Pdevice node) {
+		synchronized (this.availability) {
+			BitSet ids = this.availability.get(node);
+			return (ids == null) ? new BitSet() : (BitSet) ids.clone();
+		}
+	}
+
+	/**
+	 * Adds the chunks that need to be downloaded to one of two lists: chunks
+	 * held by one to three peers, and chunks held by four or more peers.
+	 * 
+	 * The peer counts are computed word-wise over the availability of all
+	 * peers: a bit is set in ones, twos, threes or fours if the chunk is held
+	 * by at least that many peers.
+	 * 
+	 * @param rare
+	 *            The list for chunks held by less than four peers
+	 * @param common
+	 *            The list for chunks held by four or more peers
+	 */
+	public void getChunksByRarity(LinkedList<FileChunk> rare, LinkedList<FileChunk> common) {
+		BitSet ones = new BitSet();
+		BitSet twos = new BitSet();
+		BitSet threes = new BitSet();
+		BitSet fours = new BitSet();
+		synchronized (this.availability) {
+			for (BitSet ids : this.availability.values()) {
+				BitSet tmp = (BitSet) threes.clone();
+				tmp.and(ids);
+				fours.or(tmp);
+				tmp = (BitSet) twos.clone();
+				tmp.and(ids);
+				threes.or(tmp);
+				tmp = (BitSet) ones.clone();
+				tmp.and(ids);
+				twos.or(tmp);
+				ones.or(ids);
+			}
+		}
+		for (FileChunk c : this.chunks) {
+			if (c.isComplete() || c.isDownloading())
+				continue;
+			if (fours.get(c.getID())) {
+				common.add(c);
+			} else if (ones.get(c.getID())) {
+				rare.add(c);
+			}
 		}
 	}
 
+	/**
+	 * Returns the metadata of the chunks of this file
+	 * 
+	 * @return the table
+	 */
+	ChunkTable getTable() {
+		return this.table;
+	}
+
+	/*
+	 * Write the metadata of a chunk, see FileChunk
+	 */
+	void writeVersion(int id, int vers) {
+		synchronized (this.tableLock) {
+			this.table.setVersion(id, vers);
+		}
+	}
+
+	void writeSize(int id, int size) {
+		synchronized (this.tableLock) {
+			this.table.setSize(id, size);
+		}
+	}
+
+	void writeHash(int id, byte[] hash) {
+		synchronized (this.tableLock) {
+			this.table.setHash(id, hash);
+		}
+	}
+
+	void writeFlag(int id, int flag, boolean value) {
+		synchronized (this.tableLock) {
+			this.table.setFlag(id, flag, value);
+		}
+	}
+
+	void writeBase(int id, byte[] hash, int size) {
+		synchronized (this.tableLock) {
+			this.table.setBase(id, hash, size);
+		}
+	}
+
+	/*
+	 * Makes the chunk table and the availability of this file track a chunk in
+	 * place of the one previously stored under its ID
+	 */
+	private void adopt(FileChunk chunk) {
+		int id = chunk.getID();
+		synchronized (this.tableLock) {
+			ChunkTable table = this.table;
+			table = table == null ? ChunkTable.create(id + 1) : table.grow(id + 1);
+			chunk.copyTo(table, id);
+			this.table = table;
+		}
+		LinkedList<P2Pdevice> peers = chunk.getPeers();
+		chunk.setOwner(this);
+		clearPeers(chunk.getID());
+		for (P2Pdevice node : peers) {
+			addPeer(chunk.getID(), node);
+		}
+	}
+
+	/*
+	 * Forgets the availability of chunks removed from the end of the file
+	 */
+	private void trimPeers() {
+		int n = this.chunks.size();
+		synchronized (this.availability) {
+			Iterator<Map.Entry<P2Pdevice, BitSet>> it = this.availability.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<P2Pdevice, BitSet> entry = it.next();
+				BitSet ids = entry.getValue();
+				ids.clear(n, Math.max(n, ids.length()));
+				if (ids.isEmpty()) {
+					entry.getKey().removeHolding(this);
+					it.remove();
+				}
+			}
+		}
+	}
+
+	/*
+	 * Returns the availability of a P2Pdevice, creating it if necessary.
+	 * Caller holds the lock.
+	 */
+	private BitSet getAvailabilityOf(P2Pdevice node) {
+		BitSet ids = this.availability.get(node);
+		if (ids == null) {
+			ids = new BitSet(this.chunks.size());
+			this.availability.put(node, ids);
+			node.addHolding(this);
+		}
+		return ids;
+	}
+
 	/**
 	 * Creates an empty file to allocate the file on local storage. Also creates
 	 * all neccessary folders.
@@ -481,6 +974,42 @@ public class FileHandle {
 		}
 	}
 
+	/**
+	 * Returns the outdated data of a chunk that is still on disk after a remote
+	 * update, if it is intact. It serves as base for a delta transfer.
+	 * 
+	 * @param id
+	 *            the id of the chunk
+	 * @return the outdated data or null
+	 */
+	public byte[] getBaseData(int id) {
+		if (this.chunks == null || id >= this.chunks.size())
+			return null;
+
+		FileChunk recent = this.chunks.get(id);
+		if (recent.getBaseHash() == null)
+			return null;
+
+		try {
+			RandomAccessFile stream = new RandomAccessFile(this.file, "r");
+			if (stream.length() < recent.getOffset() + recent.getBaseSize()) {
+				stream.close();
+				return null;
+			}
+			byte[] buffer = new byte[recent.getBaseSize()];
+			stream.seek(recent.getOffset());
+			stream.readFully(buffer);
+			stream.close();
+
+			if (!Arrays.equals(calcHash(buffer, buffer.length), recent.getBaseHash()))
+				return null;
+			return buffer;
+		} catch (IOException ioe) {
+			Globals.log.addMsg("Error reading base of chunk " + id + ": " + ioe, 1);
+			return null;
+		}
+	}
+
 	/**
 	 * Writes a chunk of data to the local storage
 	 * 
@@ -497,11 +1026,16 @@ public class FileHandle {
 			return;
 		}
 		FileChunk recent;
-		if (id >= this.chunks.size()) {
-			recent = new FileChunk(this.getPath(), id, Globals.chunkSize, this.fileVersion, hash, node, true);
-			this.chunks.add(recent);
-		} else {
-			recent = this.chunks.get(id);
+		synchronized (this) {
+			if (id >= this.chunks.size()) {
+				recent = new FileChunk(this.getPath(), id, Globals.chunkSize, this.fileVersion, hash, node, true);
+				LinkedList<FileChunk> chunks = new LinkedList<FileChunk>(this.chunks);
+				chunks.add(recent);
+				adopt(recent);
+				this.chunks = chunks;
+			} else {
+				recent = this.chunks.get(id);
+			}
 		}
 
 		try {
@@ -513,6 +1047,7 @@ public class FileHandle {
 			recent.setHexHash(hash);
 			recent.setComplete(true);
 			recent.setDownloading(false);
+			recent.clearBase();
 		} catch (IOException ioe) {
 			Globals.log.addMsg("Error writing to file:" + ioe, 1);
 		}
@@ -531,6 +1066,20 @@ public class FileHandle {
 		return hash;
 	}
 
+	/**
+	 * Returns true if blocks of this file are worth compressing. The first
+	 * block asked for is sampled, the result is kept until the file changes.
+	 * 
+	 * @param block
+	 *            the data of a block of this file
+	 * @return true if compressing pays off, else false
+	 */
+	public boolean isCompressible(byte[] block) {
+		if (this.compressible == null)
+			this.compressible = Boolean.valueOf(BlockCodec.isCompressible(block));
+		return this.compressible.booleanValue();
+	}
+
 	/**
 	 * Returns the hash of this file as readable hex string
 	 * 
@@ -629,15 +1178,37 @@ public class FileHandle {
 	}
 
 	/**
-	 * Returns a list of strings looking like this: "id:version:hash:size"
+	 * Returns the ID, version, hash and size of all chunks, used to announce
+	 * this file
 	 * 
 	 * @return the list
 	 */
-	public LinkedList<String> getBlockIDwithHash() {
-		LinkedList<String> tmp = new LinkedList<String>();
+	public BlockList getBlockList() {
+		BlockList tmp = new BlockList(this.chunks.size());
 		for (FileChunk f : this.chunks) {
-			String newBlock = f.getID() + ":" + f.getVersion() + ":" + f.getHexHash() + ":" + f.getSize();
-			tmp.add(newBlock);
+			tmp.add(f.getID(), f.getVersion(), f.getHash(), f.getSize());
+		}
+		return tmp;
+	}
+
+	/**
+	 * Returns the ID, version, hash and size of some chunks, used to serve
+	 * the block list of large files page by page
+	 * 
+	 * @param offset
+	 *            The ID of the first chunk
+	 * @param count
+	 *            The maximum number of chunks
+	 * @return the list
+	 */
+	public BlockList getBlockList(int offset, int count) {
+		BlockList tmp = new BlockList(Math.min(count, 1024));
+		if (offset < 0 || offset >= this.chunks.size())
+			return tmp;
+		Iterator<FileChunk> it = this.chunks.listIterator(offset);
+		while (it.hasNext() && tmp.size() < count) {
+			FileChunk f = it.next();
+			tmp.add(f.getID(), f.getVersion(), f.getHash(), f.getSize());
 		}
 		return tmp;
 	}
@@ -646,14 +1217,13 @@ public class FileHandle {
 	 * Update chunk information after XMPP update
 	 * 
 	 * @param blocks
-	 *            A list of changed chunks as string, formatted as follows:
-	 *            "id:version:hash:size"
+	 *            A list of changed chunks
 	 * @param vers
 	 *            The new file version
 	 * @param node
 	 *            P2Pdevice that is in possession of the updated chunks
 	 */
-	public  void updateBlocks(LinkedList<String> blocks, int vers, int noOfChunks, P2Pdevice node) {
+	public synchronized void updateBlocks(BlockList blocks, int vers, int noOfChunks, P2Pdevice node) {
 		
 		// Before invoking updateBlocks, we already set the new size of the file, so we can trim
 		// unneccessary FileChunks, and the file on the storage device
@@ -666,37 +1236,38 @@ public class FileHandle {
 			return;
 		}
 
-		for (String s : blocks) {
-			System.out.println(s);
-			String tmp[] = s.split(":");
-			int index = Integer.valueOf(tmp[0]);
-			if (index > this.chunks.size() - 1) {
-				FileChunk tmp1 = new FileChunk(this.getPath(), index, Integer.valueOf(tmp[3]), vers - 1, tmp[2], node, false);
-				this.chunks.add(tmp1);
-			} else if (0 <= index && index < this.chunks.size()) {
-				FileChunk tmp1 = this.chunks.get(index);
-				tmp1.setHexHash(tmp[2]);
-				tmp1.setSize(Integer.valueOf(tmp[3]));
+		BitSet changed = new BitSet(noOfChunks);
+		LinkedList<FileChunk> chunks = new LinkedList<FileChunk>(this.chunks);
+		for (int i = 0; i < blocks.size(); i++) {
+			int index = blocks.getID(i);
+			if (index > chunks.size() - 1) {
+				FileChunk tmp1 = new FileChunk(this.getPath(), index, blocks.getSize(i), vers - 1, blocks.getHash(i), node, false);
+				chunks.add(tmp1);
+				adopt(tmp1);
+			} else if (0 <= index && index < chunks.size()) {
+				FileChunk tmp1 = chunks.get(index);
+				tmp1.keepAsBase();
+				tmp1.setHash(blocks.getHash(i));
+				tmp1.setSize(blocks.getSize(i));
 				tmp1.clearPeers();
 				tmp1.addPeer(node);
 				tmp1.setComplete(false);
+			} else {
+				continue;
 			}
+			changed.set(index);
 		}
+		this.chunks = chunks;
 
-		if (blocks.size() == this.chunks.size()) {
+		if (changed.cardinality() == this.chunks.size()) {
 			// Finished if all blocks have changed
 			return;
 		}
 
 		// Set versions of unchanged blocks to current version
-		int i = 0;
 		for (FileChunk f : this.chunks) {
-			int id = Integer.valueOf(blocks.get(i).split(":")[0]);
-			if (f.getID() != id) {
+			if (!changed.get(f.getID())) {
 				f.setVersion(vers);
-			} else {
-				if (i < blocks.size() - 1)
-					i++;
 			}
 		}
 	}
@@ -705,7 +1276,7 @@ public class FileHandle {
 	 * Trim filesize on storage device after update and remove unnecessary
 	 * chunks.
 	 */
-	public void trimFile() {
+	public synchronized void trimFile() {
 		try {
 			RandomAccessFile thisFile = new RandomAccessFile(this.file, "rws");
 			thisFile.setLength(this.size);
@@ -717,9 +1288,12 @@ public class FileHandle {
 
 			int diff = this.chunks.size() - blocks;
 			if (diff > 0) {
+				LinkedList<FileChunk> chunks = new LinkedList<FileChunk>(this.chunks);
 				for (int i = 0; i < diff; i++) {
-					this.chunks.removeLast();
+					chunks.removeLast();
 				}
+				this.chunks = chunks;
+				trimPeers();
 			}
 		} catch (FileNotFoundException e) {
 			Globals.log.addMsg("No file to trim, this should not happen!! (" + e + ")", 1);
@@ -735,7 +1309,7 @@ public class FileHandle {
 	 *         /subdir/file.txt)
 	 */
 	public String getPath() {
-		return this.file.getPath().substring(Globals.shareDirectory.length());
+		return this.path;
 	}
 
 	/**
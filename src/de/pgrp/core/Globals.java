@@ -70,11 +70,11 @@ public class Globals {
 	 * Linux and Windows support instant events on file changes. Copying a big
 	 * file into the share folder will result in one "create" event and loooots
 	 * of "modify" events. So we will handle this here to reduce update events
-	 * to one per file. The DelayQueueWorker checks the modifyQueue regularily
-	 * if there are files that haven't got modified in the last seconds, these
-	 * are then enqueued in the request queue.
+	 * to one per file. The DelayQueueWorker checks the delayQueue regularily
+	 * for files that haven't got modified in the last seconds, these are then
+	 * enqueued in the request queue.
 	 */
-	public static ConcurrentLinkedQueue<FileEvent> delayQueue = new ConcurrentLinkedQueue<FileEvent>();
+	public static DelayWheel delayQueue = new DelayWheel();
 
 	/**
 	 * Global ID counters
@@ -134,6 +134,11 @@ public class Globals {
 	public final static int REMOTE_CHUNK_COMPLETE = 30;
 	public final static int REMOTE_JOINED_CHANNEL = 31;
 	public final static int REMOTE_FILE_LIST_VERSION = 32;
+	public final static int REMOTE_CHUNKS_COMPLETE = 33;
+	public final static int REMOTE_PEER_JOINED = 34;
+	public final static int REMOTE_PEER_LEFT = 35;
+	public final static int REMOTE_FILE_REANNOUNCE = 36;
+	public final static int REMOTE_BLOCK_LIST = 37;
 
 	public final static int DOWNLOAD_BLOCK = 40;
 
@@ -144,6 +149,9 @@ public class Globals {
 	 * Stuff
 	 */
 	public static boolean encryptDataTransfers = false;	
+	public static boolean encryptSessions = true;
+	public static boolean compressDataTransfers = true;
+	public static boolean deltaDataTransfers = true;
 	public static SecretKey secKey;
 	public static boolean serverMode = false;
 	public static boolean useGUI = false;
@@ -154,6 +162,30 @@ public class Globals {
 	public static String internalIP4 = "";
 	public static int p2pPort = 50000 + new Random(System.currentTimeMillis()).nextInt(10000);
 	public static int chunkSize = 512000; // In bytes
+	public static long chunkCacheSize = 32 * 1024 * 1024; // In bytes
+	public static int uploadSlots = 4;
+	public static int rechokeInterval = 10000; //In milliseconds
+	public static int muxIdleTimeout = 30000; //In milliseconds without pending calls and traffic
+	public static int rpcTimeout = 120000; //In milliseconds to wait for a reply, then the connection is closed
+	public static int serverThreads = 20;
+	public static int serverQueueSize = 200; // Requests waiting for a server thread, beyond that the connection runs them itself
+	public static int maxConnections = 200;
+	public static int inlineBlockListLimit = 256; // Chunks announced via XMPP, larger lists are fetched via thrift
+	public static int blockListPageSize = 4096; // Chunks per fetched page
+	public static int blockListThreads = 4; // Block lists fetched at once
+	public static int blockListQueueSize = 1000; // Block lists waiting to be fetched, further announcements are dropped
+	public static int xmppSendRate = 10; // XMPP messages per second
+	public static int xmppSendBurst = 20; // XMPP messages sent at once before xmppSendRate applies
+	public static int xmppBatchBytes = 16000; // Packed files per XMPP message announcing several new files, keeps stanzas below 64KB
+	public static int changeLogSize = 10000; // Changed paths remembered for file list deltas
+	public static int storagePageSize = 1000; // Files per page of the file list
+	public static int mergeThreads = Runtime.getRuntime().availableProcessors(); // Threads creating the empty files of a merge
+	public static boolean journalStorage = true; // Keep the storage state across restarts
+	public static String stateDirectory = "state/"; // Where the storage snapshot and journal are kept
+	public static int journalCompactSize = 100000; // Journal records before the storage state is written to a new snapshot
+	public static int fileQuietPeriod = 2000; // In ms, local file events are handled once the file did not change for this long
+	public static int fileMaxDelay = 0; // In ms, files that keep changing are handled at least this often, 0 to wait for quiet
+	public static boolean offHeapMetadata = false; // Keep the chunk tables in a memory-mapped file in the state directory instead of the heap
 	public static boolean syncingFileList = false;
 	public static LinkedList<String> folders;
 	public static boolean quitting = false;
@@ -65,13 +65,20 @@ public class Helper {
 	}
 	
 	/**
-	 * Add file to StorageDB if not added already.
+	 * Add file to StorageDB if not added already. A file recovered from the
+	 * last run is only checked for changes if it was modified meanwhile.
 	 * @param request the FSRequest containing the filename detected during the inital scan
 	 */
 	protected static void handleLocalFileInitScan(FSRequest request) {
 		String newEntry = Helper.getPurePath(request.getContent());
-		if (Storage.getInstance().fileExists(newEntry) != null) {
-			Globals.log.addMsg("InitScan: File already exists, ignoring!", 4);
+		FileHandle known = Storage.getInstance().fileExists(newEntry);
+		if (known != null) {
+			if (Storage.getInstance().changedWhileStopped(known)) {
+				Globals.log.addMsg("InitScan: File changed since last run: " + newEntry, 4);
+				Globals.requestQueue.offer(new FSRequest(Globals.LOCAL_FILE_MODIFY, newEntry));
+			} else {
+				Globals.log.addMsg("InitScan: File already exists, ignoring!", 4);
+			}
 			return;
 		}
 		Storage.getInstance().newFileFromLocal(newEntry);
@@ -279,6 +286,32 @@ public class Helper {
 		if(props.getProperty("pg-encryptTransfers") != null && !props.getProperty("pg-encryptTransfers").equals(""))
 			Globals.encryptDataTransfers = Boolean.parseBoolean(props.getProperty("pg-encryptTransfers").trim());
 		
+		// ---------- Check encrypt sessions ----------
+		if(props.getProperty("pg-encryptSessions") != null && !props.getProperty("pg-encryptSessions").equals(""))
+			Globals.encryptSessions = Boolean.parseBoolean(props.getProperty("pg-encryptSessions").trim());
+		
+		// ---------- Check compress data transfer ----------
+		if(props.getProperty("pg-compressTransfers") != null && !props.getProperty("pg-compressTransfers").equals(""))
+			Globals.compressDataTransfers = Boolean.parseBoolean(props.getProperty("pg-compressTransfers").trim());
+		
+		// ---------- Check delta data transfer ----------
+		if(props.getProperty("pg-deltaTransfers") != null && !props.getProperty("pg-deltaTransfers").equals(""))
+			Globals.deltaDataTransfers = Boolean.parseBoolean(props.getProperty("pg-deltaTransfers").trim());
+		
+		// ---------- Check delay of local file events ----------
+		if(props.getProperty("pg-fileQuietPeriod") != null && !props.getProperty("pg-fileQuietPeriod").equals(""))
+			Globals.fileQuietPeriod = Integer.valueOf(props.getProperty("pg-fileQuietPeriod").trim());
+		if(props.getProperty("pg-fileMaxDelay") != null && !props.getProperty("pg-fileMaxDelay").equals(""))
+			Globals.fileMaxDelay = Integer.valueOf(props.getProperty("pg-fileMaxDelay").trim());
+		if(Globals.fileQuietPeriod < 0 || Globals.fileMaxDelay < 0) {
+			Globals.log.addMsg("File event delays must not be negative", Logger.RED);
+			return false;
+		}
+		
+		// ---------- Check off-heap chunk metadata ----------
+		if(props.getProperty("pg-offHeapMetadata") != null && !props.getProperty("pg-offHeapMetadata").equals(""))
+			Globals.offHeapMetadata = Boolean.parseBoolean(props.getProperty("pg-offHeapMetadata").trim());
+		
 		// ---------- Check do port forwarding ----------
 		if(props.getProperty("pg-doUPnP") != null && !props.getProperty("pg-doUPnP").equals(""))
 			Globals.doUPnP = Boolean.parseBoolean(props.getProperty("pg-doUPnP").trim());
@@ -312,6 +345,12 @@ public class Helper {
 					+ "pg-intIP4=                  # Internal IPv4 address (optional, default: auto-detect)\n"
 					+ "pg-P2Pport=                 # Port used for incoming P2P connections (optional, default: random above 50000)\n"
 					+ "pg-encryptTransfers=true    # Encrypt P2P file transfers\n"
+					+ "pg-encryptSessions=true     # Encrypt whole P2P connections with session keys instead of single blocks\n"
+					+ "pg-compressTransfers=true   # Compress P2P file transfers if peers support it\n"
+					+ "pg-deltaTransfers=true      # Only transfer the changes of modified chunks if possible\n"
+					+ "pg-offHeapMetadata=false    # Keep chunk metadata in a memory-mapped file instead of the heap\n"
+					+ "pg-fileQuietPeriod=2000     # Handle local file changes once the file was quiet for this many ms\n"
+					+ "pg-fileMaxDelay=0           # Handle files that keep changing at least every this many ms, 0 to wait for quiet\n"
 					+ "pg-doUPnP=false             # Forward P2P port in NAT using UPnP if supported\n\n"
 					+ "#Examples for IP declaration:\n"
 					+ "#pg-extIP4=1.2.3.4\n"
@@ -343,6 +382,12 @@ public class Helper {
 		
 		props.put("pg-ShareDirectory", Globals.shareDirectory);
 		props.put("pg-encryptTransfers", "" + Globals.encryptDataTransfers);
+		props.put("pg-encryptSessions", "" + Globals.encryptSessions);
+		props.put("pg-compressTransfers", "" + Globals.compressDataTransfers);
+		props.put("pg-deltaTransfers", "" + Globals.deltaDataTransfers);
+		props.put("pg-offHeapMetadata", "" + Globals.offHeapMetadata);
+		props.put("pg-fileQuietPeriod", "" + Globals.fileQuietPeriod);
+		props.put("pg-fileMaxDelay", "" + Globals.fileMaxDelay);
 		props.put("pg-extIP4", Globals.externalIP4);
 		props.put("pg-extIP6", Globals.externalIP6);
 		props.put("pg-intIP4", Globals.internalIP4);
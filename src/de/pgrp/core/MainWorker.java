@@ -22,7 +22,11 @@
 package de.pgrp.core;
 
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.jivesoftware.smack.packet.*;
 
 /**
@@ -35,6 +39,10 @@ public class MainWorker extends Thread {
 
 	private Storage myStorage;
 	private Network myNetwork;
+	/**
+	 * Fetches the block lists of large announced files
+	 */
+	private ThreadPoolExecutor blockListPool;
 
 	/**
 	 * Creates a MainWorker.
@@ -42,6 +50,9 @@ public class MainWorker extends Thread {
 	public MainWorker() {
 		this.myStorage = Storage.getInstance();
 		this.myNetwork = Network.getInstance();
+		this.blockListPool = new ThreadPoolExecutor(Globals.blockListThreads, Globals.blockListThreads, 10,
+				TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(Globals.blockListQueueSize));
+		this.blockListPool.allowCoreThreadTimeOut(true);
 	}
 
 	/**
@@ -95,10 +106,17 @@ public class MainWorker extends Thread {
 					Globals.log.addMsg("MainWorker: Handling REMOTE_FILE_MODIFY");
 					handleRemoteFileModify((XMPPRequest) nextRequest);
 					break;
+				case Globals.REMOTE_BLOCK_LIST:
+					Globals.log.addMsg("MainWorker: Handling REMOTE_BLOCK_LIST");
+					handleRemoteBlockList((BlockListRequest) nextRequest);
+					break;
 				case Globals.REMOTE_CHUNK_COMPLETE:
 					// Globals.log.addMsg("MainWorker: Handling REMOTE_CHUNK_COMPLETE");
 					handleRemoteChunkComplete((XMPPRequest) nextRequest);
 					break;
+				case Globals.REMOTE_CHUNKS_COMPLETE:
+					handleRemoteChunksComplete((XMPPRequest) nextRequest);
+					break;
 				case Globals.REMOTE_FILE_COMPLETE:
 					Globals.log.addMsg("MainWorker: Handling REMOTE_FILE_COMPLETE");
 					handleRemoteFileComplete((XMPPRequest) nextRequest);
@@ -138,7 +156,7 @@ public class MainWorker extends Thread {
 		}
 		FileHandle newFile = this.myStorage.newFileFromLocal(request.getContent());
 		if (newFile != null)
-			this.myNetwork.sendMUCNewFile(newFile.getPath(), newFile.getSize(), newFile.getByteHash(), newFile.getBlockIDwithHash());
+			this.myNetwork.sendMUCNewFile(newFile.getPath(), newFile.getVersion(), newFile.getSize(), newFile.getByteHash(), newFile.getBlockList());
 	}
 
 	/**
@@ -197,8 +215,6 @@ public class MainWorker extends Thread {
 	 * Checks a local file for changes and modifies its FileHandle
 	 * appropriately. Afterwards the change is published via XMPP.
 	 * 
-	 * String format: "id:version:hash:size"
-	 * 
 	 * @param request
 	 *            The request containing the filename of the changed file
 	 */
@@ -212,21 +228,17 @@ public class MainWorker extends Thread {
 		
 		if (newFile != null) {
 			LinkedList<Integer> updated = newFile.getUpdatedBlocks();
-			LinkedList<String> updatedWithHash = new LinkedList<String>();
+			BlockList updatedWithHash = new BlockList(updated.size());
 			for (Integer i : updated) {
-				String tmp = "";
-				tmp += i.intValue() + ":";
-				tmp += newFile.getVersion() + ":";
-				tmp += newFile.getChunkHash(i.intValue()) + ":";
-				tmp += newFile.getChunkSize(i.intValue());
-				updatedWithHash.add(tmp);
+				FileChunk chunk = newFile.getChunks().get(i.intValue());
+				updatedWithHash.add(i.intValue(), newFile.getVersion(), chunk.getHash(), chunk.getSize());
 			}
 			// Only send update, if updated blocks available
 			//if (updatedWithHash.size() > 0) {
 				this.myNetwork.sendMUCUpdateFile(newFile.getPath(),
 						newFile.getVersion(), newFile.getSize(),
 						updatedWithHash, newFile.getByteHash(),
-						newFile.getNoOfChunks());
+						newFile.getNoOfChunks(), newFile.getBlockList().getRootHash());
 				//}
 
 			newFile.clearUpdatedBlocks();
@@ -240,11 +252,11 @@ public class MainWorker extends Thread {
 	 *            The request containing the XMPP Message object, including its
 	 *            properties
 	 */
-	@SuppressWarnings("unchecked")
 	private void handleRemoteFileCreate(XMPPRequest request) {
 		/*
 		 * Someone announced a new file via XMPP Available information:
-		 * "JID","remoteIP","name","size","blocks","sha256"
+		 * "JID","remoteIP","name","version","size","sha256","noOfChunks",
+		 * "chunkRoot" and "blockList" for small files
 		 */
 
 		Message in = request.getContent();
@@ -255,13 +267,23 @@ public class MainWorker extends Thread {
 		int port = ((Integer) in.getProperty("Port")).intValue();
 		String name = (String) in.getProperty("name");
 		long size = ((Long) in.getProperty("size")).longValue();
-		LinkedList<String> blocks = (LinkedList<String>) in.getProperty("blocks");
+		BlockList blocks = getBlockList(in);
 		byte[] hash = (byte[]) in.getProperty("sha256");
 
 		P2Pdevice remoteNode = P2Pdevice.getDevice(jid, remoteIP, localIP, port);
 
-		myStorage.newFileFromXMPP(name, hash, size, blocks,
-				Globals.chunkSize, remoteNode);
+		if (blocks == null) {
+			byte[] root = (byte[]) in.getProperty("chunkRoot");
+			Integer vers = (Integer) in.getProperty("version");
+			if (root == null || vers == null) {
+				Globals.log.addMsg("MainWorker: Announcement without block list, ignoring!", 4);
+				return;
+			}
+			fetchBlockList(new ThriftClientGetBlockList(name, vers.intValue(), size, hash, root, remoteNode, false));
+		} else {
+			myStorage.newFileFromXMPP(name, hash, size, blocks,
+					Globals.chunkSize, remoteNode);
+		}
 		myNetwork.sendMUCmessage(
 				"Start downloading >> " + name + " (" + size + "Bytes) <<");
 	}
@@ -312,11 +334,11 @@ public class MainWorker extends Thread {
 	 *            The request containing the XMPP Message object, including its
 	 *            properties
 	 */
-	@SuppressWarnings("unchecked")
 	private void handleRemoteFileModify(XMPPRequest request) {
 		/*
 		 * Someone announced a fileupdate via XMPP Available information:
-		 * "JID","remoteIP","name","version","size","blocks","sha256"
+		 * "JID","remoteIP","name","version","size","sha256","noOfChunks",
+		 * "chunkRoot" and "blockList" for small updates
 		 */
 
 		Message in = request.getContent();
@@ -328,17 +350,106 @@ public class MainWorker extends Thread {
 		String name = (String) in.getProperty("name");
 		int vers = ((Integer) in.getProperty("version")).intValue();
 		long size = ((Long) in.getProperty("size")).longValue();
-		LinkedList<String> blocks = (LinkedList<String>) in.getProperty("blocks");
+		BlockList blocks = getBlockList(in);
 		byte[] hash = (byte[]) in.getProperty("sha256");
 		int noOfChunks = ((Integer) in.getProperty("noOfChunks")).intValue();
 
 		P2Pdevice remoteNode = P2Pdevice.getDevice(jid, remoteIP, localIP, port);
 
-		myStorage.modifiedFileFromXMPP(name, vers, size, blocks, hash, noOfChunks, remoteNode);
+		if (blocks == null) {
+			byte[] root = (byte[]) in.getProperty("chunkRoot");
+			if (root == null) {
+				Globals.log.addMsg("MainWorker: Announcement without block list, ignoring!", 4);
+				return;
+			}
+			fetchBlockList(new ThriftClientGetBlockList(name, vers, size, hash, root, remoteNode, true));
+		} else {
+			myStorage.modifiedFileFromXMPP(name, vers, size, blocks, hash, noOfChunks, remoteNode);
+		}
 		myNetwork.sendMUCmessage(
 				"Updating >> " + name + " (" + size + "Bytes) <<");
 	}
 
+	/*
+	 * Queues the fetch of a block list, drops it if too many are waiting
+	 */
+	private void fetchBlockList(ThriftClientGetBlockList fetch) {
+		try {
+			this.blockListPool.execute(fetch);
+		} catch (RejectedExecutionException e) {
+			Globals.log.addMsg("MainWorker: Too many block lists waiting, dropping announcement!", 4);
+		}
+	}
+
+	/**
+	 * Applies a block list fetched by a ThriftClientGetBlockList. The list is
+	 * dropped if the file already reached its version meanwhile, e.g. by a
+	 * later announcement that was applied first.
+	 * 
+	 * @param request
+	 *            The request containing the fetched list
+	 */
+	private void handleRemoteBlockList(BlockListRequest request) {
+		String name = request.getName();
+		BlockList blocks = request.getBlocks();
+		FileHandle local = myStorage.getFileHandle(name);
+
+		if (!request.isUpdate()) {
+			if (local != null) {
+				Globals.log.addMsg("MainWorker: " + name + " exists meanwhile, dropping fetched block list", 4);
+				return;
+			}
+			myStorage.newFileFromXMPP(name, request.getHash(), request.getSize(), blocks, Globals.chunkSize,
+					request.getNode());
+			return;
+		}
+
+		if (local == null) {
+			Globals.log.addMsg("MainWorker: Update for unknown file " + name + ", ignoring!", 4);
+			return;
+		}
+		if (local.getVersion() >= request.getVersion()) {
+			Globals.log.addMsg("MainWorker: " + name + " is at version " + local.getVersion()
+					+ " already, dropping block list of version " + request.getVersion(), 4);
+			return;
+		}
+
+		// Only the blocks that differ from ours have to be downloaded
+		LinkedList<FileChunk> chunks = local.getChunks();
+		BlockList changed = new BlockList();
+		Iterator<FileChunk> it = chunks.iterator();
+		for (int i = 0; i < blocks.size(); i++) {
+			FileChunk mine = it.hasNext() ? it.next() : null;
+			if (mine == null || mine.getID() != blocks.getID(i) || mine.getSize() != blocks.getSize(i)
+					|| !Arrays.equals(mine.getHash(), blocks.getHash(i))) {
+				changed.add(blocks.getID(i), blocks.getVersion(i), blocks.getHash(i), blocks.getSize(i));
+			}
+		}
+		myStorage.modifiedFileFromXMPP(name, request.getVersion(), request.getSize(), changed, request.getHash(),
+				blocks.size(), request.getNode());
+	}
+
+	/**
+	 * Reads the block list of a file announcement. Peers running an older
+	 * version send a list of strings "id:version:hash:size" instead of the
+	 * packed list. Large lists are not announced at all, they have to be
+	 * fetched from the announcing peer.
+	 * 
+	 * @param in
+	 *            The XMPP Message object
+	 * @return The block list or null if it is missing or malformed
+	 */
+	@SuppressWarnings("unchecked")
+	private BlockList getBlockList(Message in) {
+		byte[] packed = (byte[]) in.getProperty("blockList");
+		if (packed != null)
+			return BlockList.decode(packed);
+		LinkedList<String> blocks = (LinkedList<String>) in.getProperty("blocks");
+		if (blocks != null)
+			return BlockList.fromStrings(blocks);
+		return null;
+	}
+
 	private void handleRemoteChunkComplete(XMPPRequest request) {
 		// Available: "JID","remoteIP","Port","name","chunkID","chunkVers"
 		Message in = request.getContent();
@@ -356,6 +467,38 @@ public class MainWorker extends Thread {
 		myStorage.addP2PdeviceToBlock(name, chunkID, remoteNode);
 	}
 
+	/**
+	 * Note that a remote node completed the download of several chunks of a
+	 * file
+	 * 
+	 * @param request
+	 *            The request containing the XMPP Message object, including its
+	 *            properties
+	 */
+	private void handleRemoteChunksComplete(XMPPRequest request) {
+		// Available: "JID","remoteIP","Port","name","chunks"
+		Message in = request.getContent();
+
+		String jid = (String) in.getProperty("JID");
+		String remoteIP = (String) in.getProperty("remoteIP");
+		String localIP = (String) in.getProperty("localIP");
+		int port = ((Integer) in.getProperty("Port")).intValue();
+		String name = (String) in.getProperty("name");
+		String ranges = (String) in.getProperty("chunks");
+
+		FileHandle file = myStorage.getFileHandle(name);
+		if (file == null)
+			return;
+
+		try {
+			BitSet ids = FileHandle.fromRanges(ranges, file.getChunks().size());
+			P2Pdevice remoteNode = P2Pdevice.getDevice(jid, remoteIP, localIP, port);
+			file.addP2PdeviceToBlocks(ids, remoteNode);
+		} catch (NumberFormatException nfe) {
+			Globals.log.addMsg("Invalid chunk list from " + jid + ": " + nfe, 4);
+		}
+	}
+
 	/**
 	 * Note that a remote node completed the download of a file. This especially
 	 * means, that this node has all recent blocks available for upload.
@@ -21,8 +21,10 @@
 
 package de.pgrp.core;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Iterator;
+import java.util.List;
 import org.jivesoftware.smack.*;
 import org.jivesoftware.smack.packet.*;
 import org.jivesoftware.smackx.Form;
@@ -41,6 +43,8 @@ public class Network {
 	private MultiUserChat muc;
 	private boolean joinedAChannel = false;
 	private long lamportTime;
+	private XMPPSendWorker sender;
+	private XMPPListener listener;
 
 	/**
 	 * The default constructor. It initializes the Connection object with the
@@ -50,6 +54,8 @@ public class Network {
 	private Network() {
 		this.xmppCon = new XMPPConnection(Globals.xmpp_server);
 		this.lamportTime = 0;
+		this.sender = new XMPPSendWorker(this);
+		this.listener = new XMPPListener(this);
 	}
 
 	/**
@@ -182,6 +188,7 @@ public class Network {
 					
 				this.muc.sendConfigurationForm(submitForm);
 				this.joinedAChannel = true;
+				startQueues();
 				Globals.log.addMsg("Successfully created conference: " + roomAndServer);
 			} catch (XMPPException e1) {
 				Globals.log.addMsg("!!--> Unable to create room: " + e1 + " <--!!");
@@ -194,6 +201,7 @@ public class Network {
 				history.setMaxStanzas(0);
 				this.muc.join(user, pass, history, SmackConfiguration.getPacketReplyTimeout());
 				this.joinedAChannel = true;
+				startQueues();
 				Globals.log.addMsg("Successfully joined conference: " + roomAndServer);
 			} catch (XMPPException e1) {
 				e1.printStackTrace();
@@ -218,24 +226,85 @@ public class Network {
 
 		newMessage.setBody(text);
 
+		send(newMessage, XMPPSendWorker.PRIO_CHATTER, null, null);
+	}
+
+	/**
+	 * Queues a message for the XMPPSendWorker
+	 * 
+	 * @param msg
+	 *            The message
+	 * @param priority
+	 *            The priority, see XMPPSendWorker
+	 * @param key
+	 *            Queued messages with the same key are coalesced, null if the
+	 *            message must be sent in any case
+	 * @param logMsg
+	 *            Logged once the message is sent, may be null
+	 */
+	private void send(Message msg, int priority, String key, String logMsg) {
+		this.sender.enqueue(msg, priority, key, logMsg);
+	}
+
+	/**
+	 * Sends a queued message, called by the XMPPSendWorker only. The lamport
+	 * time is set here, so it grows in the order messages actually leave.
+	 * 
+	 * @param msg
+	 *            The message
+	 * @param logMsg
+	 *            Logged after sending, may be null
+	 */
+	protected void dispatch(Message msg, String logMsg) {
+		if (!this.joinedAChannel || !this.xmppCon.isConnected()) {
+			Globals.log.addMsg("Sorry, cannot send message, we are not connected to a room!", 4);
+			return;
+		}
+		if (msg.getBody() == null)
+			msg.setProperty("LamportTime", nextLamportTime());
 		try {
-			this.muc.sendMessage(newMessage);
+			this.muc.sendMessage(msg);
+			if (logMsg != null)
+				Globals.log.addMsg(logMsg, 2);
 		} catch (XMPPException xe) {
-			Globals.log.addMsg("Couldn't send XMPP message: " + newMessage.toXML() + "\n" + xe, 4);
+			Globals.log.addMsg("Couldn't send XMPP message: " + msg.toXML() + "\n" + xe, 4);
 		}
 	}
 
+	/*
+	 * Starts delivering received messages to the XMPPListener and sending
+	 * queued messages, called once the room is joined
+	 */
+	private void startQueues() {
+		this.muc.addMessageListener(this.listener);
+		if (!this.sender.isAlive())
+			this.sender.start();
+	}
+
 	/**
-	 * Returns the next message received from the XMPP server. This blocks until
-	 * a message is there.
+	 * Sends the messages still queued and stops the XMPPSendWorker
 	 * 
-	 * --- Maybe we should do all message handling in this class, and only
-	 * return a String? ---
+	 * @param timeout
+	 *            The maximum time to wait for queued messages in milliseconds
+	 */
+	public void stopSending(long timeout) {
+		if (!this.sender.flush(timeout))
+			Globals.log.addMsg("Dropping unsent XMPP messages", 4);
+		this.sender.interrupt();
+	}
+
+	/**
+	 * Waits until messages were received from the XMPP server and returns
+	 * them, already decoded into requests. This blocks until at least one
+	 * message is there.
 	 * 
-	 * @return the Message object
+	 * @param batch
+	 *            The collection the requests are added to
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
 	 */
-	public Message getNextMessage() {
-		return this.muc.nextMessage(1000);
+	public void takeEvents(Collection<XMPPRequest> batch) throws InterruptedException {
+		this.listener.takeBatch(batch);
 	}
 
 	/**
@@ -245,6 +314,7 @@ public class Network {
 	public void leaveMUC() {
 		if (!this.xmppCon.isConnected())
 			return;
+		this.muc.removeMessageListener(this.listener);
 		this.muc.leave();
 		Globals.log.addMsg("Left conference room: " + Globals.conference_channel, 4);
 	}
@@ -261,15 +331,14 @@ public class Network {
 	}
 
 	/**
-	 * Creates a custom Message object with all always present properties
+	 * Creates a custom Message object with all always present properties. The
+	 * lamport time is added when the message is sent.
 	 * 
 	 * @return The Message object
 	 */
 	private Message createMessageObject() {
-		incrementLamportTime();
 		Message newMessage = this.muc.createMessage();
 		newMessage.setType(Message.Type.groupchat);
-		newMessage.setProperty("LamportTime", this.lamportTime);
 		newMessage.setProperty("remoteIP", Globals.externalIP4);
 		newMessage.setProperty("localIP", Globals.internalIP4);
 		newMessage.setProperty("Port", Globals.p2pPort);
@@ -287,7 +356,7 @@ public class Network {
 	 * @param value
 	 *            The value
 	 */
-	public void setLamportTime(long value) {
+	public synchronized void setLamportTime(long value) {
 		this.lamportTime = value;
 	}
 
@@ -298,7 +367,7 @@ public class Network {
 	 * @param value
 	 *            The value
 	 */
-	public void updateLamportTime(long value) {
+	public synchronized void updateLamportTime(long value) {
 		if (value >= this.lamportTime) {
 			this.lamportTime = value + 1;
 		} else {
@@ -309,16 +378,25 @@ public class Network {
 	/**
 	 * Increments the local lamport time by one
 	 */
-	public void incrementLamportTime() {
+	public synchronized void incrementLamportTime() {
 		this.lamportTime++;
 	}
 
+	/**
+	 * Increments the local lamport time by one and returns it
+	 * 
+	 * @return The new value
+	 */
+	private synchronized long nextLamportTime() {
+		return ++this.lamportTime;
+	}
+
 	/**
 	 * Gets the current lamport time
 	 * 
 	 * @return The value
 	 */
-	public long getLamportTime() {
+	public synchronized long getLamportTime() {
 		return this.lamportTime;
 	}
 
@@ -333,13 +411,19 @@ public class Network {
 	 * 
 	 * @param filename
 	 *            The filename of the new file
+	 * @param vers
+	 *            The fileversion of the new file
 	 * @param size
 	 *            The filesize of the new file
 	 * @param hash
 	 *            The new SHA256 value of the file
+	 * @param list
+	 *            The blocks of the new file, only sent if there are at most
+	 *            Globals.inlineBlockListLimit blocks. Otherwise peers fetch
+	 *            them via thrift.
 	 */
-	public void sendMUCNewFile(String filename, long size, byte[] hash,
-			LinkedList<String> list) {
+	public void sendMUCNewFile(String filename, int vers, long size, byte[] hash,
+			BlockList list) {
 		if (!this.joinedAChannel || !this.xmppCon.isConnected()) {
 			Globals.log
 			.addMsg("Sorry, cannot send message, we are not connected to a room!",
@@ -354,19 +438,50 @@ public class Network {
 		newMessage.setProperty("Type", 1);
 		newMessage.setProperty("JID", Globals.getJID());
 		newMessage.setProperty("name", filename);
+		newMessage.setProperty("version", vers);
 		newMessage.setProperty("size", size);
 		newMessage.setProperty("sha256", hash);
-		newMessage.setProperty("blocks", list);
+		newMessage.setProperty("noOfChunks", list.size());
+		newMessage.setProperty("chunkRoot", list.getRootHash());
+		if (list.size() <= Globals.inlineBlockListLimit)
+			newMessage.setProperty("blockList", list.encode());
 
-		try {
-			this.muc.sendMessage(newMessage);
-			Globals.log.addMsg("Sending XMPP: -NEW_FILE- " + filename + " - "
-					+ size + "Bytes - " + FileHandle.toHexHash(hash), 2);
-		} catch (XMPPException xe) {
-			Globals.log.addMsg(
-					"Couldn't send XMPP message: " + newMessage.toXML() + "\n"
-							+ xe, 4);
+		send(newMessage, XMPPSendWorker.PRIO_CONTROL, null, "Sending XMPP: -NEW_FILE- " + filename + " - "
+				+ size + "Bytes - " + FileHandle.toHexHash(hash));
+	}
+
+	/**
+	 * Announces several new files, as many as fit into
+	 * Globals.xmppBatchBytes per message
+	 * 
+	 * @param files
+	 *            The new files
+	 */
+	public void sendMUCNewFiles(List<FileHandle> files) {
+		if (!this.joinedAChannel || !this.xmppCon.isConnected()) {
+			Globals.log.addMsg("Sorry, cannot send message, we are not connected to a room!", 4);
+			return;
+		}
+		FileAnnouncements batch = new FileAnnouncements();
+		for (FileHandle fh : files) {
+			batch.add(fh.getPath(), fh.getVersion(), fh.getSize(), fh.getByteHash(), fh.getBlockList());
+			if (batch.length() >= Globals.xmppBatchBytes) {
+				sendMUCNewFiles(batch);
+				batch = new FileAnnouncements();
+			}
 		}
+		if (batch.size() > 0)
+			sendMUCNewFiles(batch);
+	}
+
+	private void sendMUCNewFiles(FileAnnouncements batch) {
+		Message newMessage = this.createMessageObject();
+
+		newMessage.setProperty("Type", 12);
+		newMessage.setProperty("JID", Globals.getJID());
+		newMessage.setProperty("files", batch.encode());
+
+		send(newMessage, XMPPSendWorker.PRIO_CONTROL, null, "Sending XMPP: -NEW_FILES- " + batch.size() + " files");
 	}
 
 	/**
@@ -388,14 +503,7 @@ public class Network {
 		newMessage.setProperty("JID", Globals.getJID());
 		newMessage.setProperty("name", dir);
 
-		try {
-			this.muc.sendMessage(newMessage);
-			Globals.log.addMsg("Sending XMPP: -NEW_DIR- " + dir, 2);
-		} catch (XMPPException xe) {
-			Globals.log.addMsg(
-					"Couldn't send XMPP message: " + newMessage.toXML() + "\n"
-							+ xe, 4);
-		}
+		send(newMessage, XMPPSendWorker.PRIO_CONTROL, null, "Sending XMPP: -NEW_DIR- " + dir);
 	}
 
 	/**
@@ -421,14 +529,8 @@ public class Network {
 		newMessage.setProperty("name", filename);
 		newMessage.setProperty("isDir", dir);
 
-		try {
-			this.muc.sendMessage(newMessage);
-			Globals.log.addMsg("Sending XMPP: -DELETE- " + filename, 2);
-		} catch (XMPPException xe) {
-			Globals.log.addMsg(
-					"Couldn't send XMPP message: " + newMessage.toXML() + "\n"
-							+ xe, 4);
-		}
+		this.sender.dropPending(filename);
+		send(newMessage, XMPPSendWorker.PRIO_CONTROL, null, "Sending XMPP: -DELETE- " + filename);
 	}
 
 	/**
@@ -441,12 +543,17 @@ public class Network {
 	 * @param size
 	 *            The filesize of the updated file
 	 * @param list
-	 *            A list of the blocks that changed with this update (only IDs)
+	 *            A list of the blocks that changed with this update, only sent
+	 *            if there are at most Globals.inlineBlockListLimit blocks
 	 * @param hash
 	 *            The new SHA256 value of the file
+	 * @param noOfChunks
+	 *            The number of chunks after the update
+	 * @param chunkRoot
+	 *            The root hash of the complete block list after the update
 	 */
 	public void sendMUCUpdateFile(String filename, int vers, long size,
-			LinkedList<String> list, byte[] hash, int noOfChunks) {
+			BlockList list, byte[] hash, int noOfChunks, byte[] chunkRoot) {
 		if (!this.joinedAChannel || !this.xmppCon.isConnected()) {
 			Globals.log
 			.addMsg("Sorry, cannot send message, we are not connected to a room!",
@@ -463,23 +570,29 @@ public class Network {
 		newMessage.setProperty("name", filename);
 		newMessage.setProperty("version", vers);
 		newMessage.setProperty("size", size);
-		newMessage.setProperty("blocks", list);
+		if (list.size() <= Globals.inlineBlockListLimit)
+			newMessage.setProperty("blockList", list.encode());
 		newMessage.setProperty("sha256", hash);
 		newMessage.setProperty("noOfChunks", noOfChunks);
+		newMessage.setProperty("chunkRoot", chunkRoot);
 
-		try {
-			this.muc.sendMessage(newMessage);
-			Globals.log.addMsg("Sending XMPP: -UPDATE- " + filename
-					+ " - Version " + vers + " - " + size + "Bytes - "
-					+ FileHandle.toHexHash(hash), 2);
-		} catch (XMPPException xe) {
-			Globals.log.addMsg(
-					"Couldn't send XMPP message: " + newMessage.toXML() + "\n"
-							+ xe, 4);
-		}
+		// Queued chunk announcements refer to the old version
+		this.sender.dropPending(filename);
+		send(newMessage, XMPPSendWorker.PRIO_CONTROL, null, "Sending XMPP: -UPDATE- " + filename
+				+ " - Version " + vers + " - " + size + "Bytes - "
+				+ FileHandle.toHexHash(hash));
 	}
 
-	public void sendMUCCompletedChunk(String filename, int chunkID, int chunkVers) {
+	/**
+	 * This announces that we completed the download of some chunks of a file.
+	 * Replaces one message per chunk (type 4), which is still understood.
+	 * 
+	 * @param filename
+	 *            The filename
+	 * @param ranges
+	 *            The IDs of the completed chunks, see FileHandle.toRanges()
+	 */
+	public void sendMUCCompletedChunks(String filename, String ranges) {
 		if (!this.joinedAChannel || !this.xmppCon.isConnected()) {
 			Globals.log.addMsg("Sorry, cannot send message, we are not connected to a room!", 4);
 			return;
@@ -489,19 +602,12 @@ public class Network {
 		/*
 		 * Set message properties
 		 */
-		newMessage.setProperty("Type", 4);
+		newMessage.setProperty("Type", 11);
 		newMessage.setProperty("JID", Globals.getJID());
 		newMessage.setProperty("name", filename);
-		newMessage.setProperty("chunkID", chunkID);
-		newMessage.setProperty("chunkVers", chunkVers);
+		newMessage.setProperty("chunks", ranges);
 
-		try {
-			this.muc.sendMessage(newMessage);
-		} catch (XMPPException xe) {
-			Globals.log.addMsg(
-					"Couldn't send XMPP message: " + newMessage.toXML() + "\n"
-							+ xe, 4);
-		}
+		send(newMessage, XMPPSendWorker.PRIO_CHATTER, "11:" + filename, null);
 	}
 
 	/**
@@ -526,15 +632,8 @@ public class Network {
 		newMessage.setProperty("name", filename);
 		newMessage.setProperty("version", vers);
 
-		try {
-			this.muc.sendMessage(newMessage);
-			Globals.log.addMsg("Sending XMPP: -COMPLETED- " + filename
-					+ " - Version " + vers, 2);
-		} catch (XMPPException xe) {
-			Globals.log.addMsg(
-					"Couldn't send XMPP message: " + newMessage.toXML() + "\n"
-							+ xe, 4);
-		}
+		send(newMessage, XMPPSendWorker.PRIO_STATUS, "5:" + filename, "Sending XMPP: -COMPLETED- " + filename
+				+ " - Version " + vers);
 	}
 
 	/**
@@ -553,14 +652,11 @@ public class Network {
 		newMessage.setProperty("Type", 6);
 		newMessage.setProperty("JID", Globals.getJID());
 
+		send(newMessage, XMPPSendWorker.PRIO_CONTROL, null, "Sending XMPP: -JOIN- ");
 		try {
-			this.muc.sendMessage(newMessage);
-			Globals.log.addMsg("Sending XMPP: -JOIN- ", 2);
 			Thread.sleep(500); // Wait for presence messages
 			if (this.getUserCount() > 1)
 				Globals.syncingFileList = true;
-		} catch (XMPPException xe) {
-			Globals.log.addMsg("Couldn't send XMPP message: " + newMessage.toXML() + "\n" + xe, 4);
 		} catch (InterruptedException ie) {
 			Globals.log.addMsg("Wait for presence messages interrupted: User count may be inaccurate!",	4);
 		}
@@ -582,13 +678,10 @@ public class Network {
 		newMessage.setProperty("Type", 7);
 		newMessage.setProperty("JID", Globals.getJID());
 		newMessage.setProperty("FileListVersion", Storage.getInstance().getVersion());
+		newMessage.setProperty("treeRoot", Storage.getInstance().getTree().getRootHash());
+		newMessage.setProperty("logID", Storage.getInstance().getLogID());
 
-		try {
-			this.muc.sendMessage(newMessage);
-			Globals.log.addMsg("Sending XMPP: -SENDFILELIST- ", 2);
-		} catch (XMPPException xe) {
-			Globals.log.addMsg("Couldn't send XMPP message: " + newMessage.toXML() + "\n" + xe, 4);
-		}
+		send(newMessage, XMPPSendWorker.PRIO_STATUS, "7", "Sending XMPP: -SENDFILELIST- ");
 	}
 
 	/**
@@ -609,13 +702,8 @@ public class Network {
 		newMessage.setProperty("Type", 8);
 		newMessage.setProperty("JID", Globals.getJID());
 
-		try {
-			this.muc.sendMessage(newMessage);
-			Globals.log.addMsg("Sending XMPP: -LEAVE- ", 2);
-			Globals.syncingFileList = true;
-		} catch (XMPPException xe) {
-			Globals.log.addMsg("Couldn't send XMPP message: " + newMessage.toXML() + "\n" + xe, 4);
-		}
+		send(newMessage, XMPPSendWorker.PRIO_CONTROL, null, "Sending XMPP: -LEAVE- ");
+		Globals.syncingFileList = true;
 	}
 
 	public void sendMUCReannounceFile(String filename, long size, byte[] hash) {
@@ -636,12 +724,8 @@ public class Network {
 		newMessage.setProperty("size", size);
 		newMessage.setProperty("sha256", hash);
 
-		try {
-			this.muc.sendMessage(newMessage);
-			Globals.log.addMsg("Sending XMPP: -REANNOUNCE- " + filename + " - "	+ size + "Bytes - " + FileHandle.toHexHash(hash), 2);
-		} catch (XMPPException xe) {
-			Globals.log.addMsg("Couldn't send XMPP message: " + newMessage.toXML() + "\n" + xe, 4);
-		}
+		send(newMessage, XMPPSendWorker.PRIO_STATUS, "9:" + filename, "Sending XMPP: -REANNOUNCE- " + filename + " - "
+				+ size + "Bytes - " + FileHandle.toHexHash(hash));
 	}
 
 }
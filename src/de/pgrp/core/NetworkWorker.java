@@ -25,8 +25,9 @@ import java.util.*;
 import org.jivesoftware.smack.packet.*;
 
 /**
- * This thread listens for new information on the XMPP side and enqueues actions
- * in the request queue.
+ * This thread handles the requests the XMPPListener decoded from received XMPP
+ * messages. It takes them in batches as they arrive, handles membership and
+ * file list messages itself and enqueues all others in the request queue.
  * 
  * @author Nicolas Inden
  */
@@ -34,6 +35,11 @@ public class NetworkWorker extends Thread {
 
 	private Network myNetwork;
 	private boolean run;
+	private int listsReceived;
+	private int maxListVersion;
+	private P2Pdevice maxListNode;
+	private byte[] maxListRoot;
+	private long maxListLogID;
 
 	/**
 	 * Creates a NetworkWorker.
@@ -43,7 +49,9 @@ public class NetworkWorker extends Thread {
 
 	public void stopNetworkWorker() {
 		this.run = false;
+		this.interrupt();
 		this.myNetwork.sendMUCleave();
+		this.myNetwork.stopSending(2000);
 		this.myNetwork.leaveMUC();
 		this.myNetwork.xmppDisconnect();
 		Globals.log.addMsg("Networking thread stopped. Closing...", 4);
@@ -58,192 +66,171 @@ public class NetworkWorker extends Thread {
 		Globals.log.addMsg("Networking thread started...");
 		this.myNetwork = Network.getInstance();
 		this.run = true;
-		int listsReceived = 0;
-		int maxListVersion = -1;
-		String filename, jid, remoteIP, localIP;
-		int vers, port;
-		P2Pdevice maxListNode = new P2Pdevice();
+		this.listsReceived = 0;
+		this.maxListVersion = -1;
+		this.maxListNode = new P2Pdevice();
 		myNetwork.sendMUCjoin();
-		
-		//int recvdmsgs = 0;
 
+		LinkedList<XMPPRequest> batch = new LinkedList<XMPPRequest>();
+		LinkedList<Request> forward = new LinkedList<Request>();
 		while (this.run) {
-			//Globals.log.addMsg("Before...");
-			
-			Message newMessage = this.myNetwork.getNextMessage();
-			if(newMessage == null)
-				continue;
-			
-			//Globals.log.addMsg("Recvd something: " + recvdmsgs++);
-
-			// catch message stanzas announcing a new channel subject
-			if (newMessage.getSubject() != null) {
-				Globals.log.addMsg("Subject: " + newMessage.getSubject(), 2);
-				continue;
+			try {
+				this.myNetwork.takeEvents(batch);
+			} catch (InterruptedException ie) {
+				break;
 			}
 
-			// messages with body are not from peergroup clients and are only
-			// displayed
-			if (newMessage.getBody() != null) {
-				String from[] = newMessage.getFrom().split("/");
-				if (from.length > 1) {
-					Globals.log.addMsg(from[1] + ": " + newMessage.getBody(), 2);
-				} else {
-					Globals.log.addMsg(newMessage.getFrom() + ": " + newMessage.getBody(), 2);
+			for (XMPPRequest event : batch) {
+				try {
+					if (handleEvent(event))
+						forward.add(event);
+				} catch (RuntimeException re) {
+					Globals.log.addMsg("Ignoring malformed XMPP message: " + re, 4);
 				}
-
-				continue;
 			}
+			Globals.requestQueue.addAll(forward);
+			batch.clear();
+			forward.clear();
+		}
 
-			// adjust lamport time
-			long msgLamp = ((Long) newMessage.getProperty("LamportTime")).longValue();
-			this.myNetwork.updateLamportTime(msgLamp);
+		Globals.log.addMsg("Networking thread interrupted. Closing...", 4);
+	}
 
-			// ignore messages sent by yourself
-			if (newMessage.getProperty("JID").equals(Globals.getJID())) {
-				continue;
+	/*
+	 * Handles a request and returns true if it has to be passed on to the
+	 * MainWorker
+	 */
+	private boolean handleEvent(XMPPRequest event) {
+		Message newMessage = event.getContent();
+		String jid = (String) newMessage.getProperty("JID");
+		String filename = (String) newMessage.getProperty("name");
+
+		switch (event.getID()) {
+		case Globals.REMOTE_FILE_CREATE:
+			/*
+			 * Someone announced a new file via XMPP Available information:
+			 * "JID","remoteIP","Port","name","version","size","sha256",
+			 * "noOfChunks","chunkRoot" and "blockList" for small files
+			 */
+			Globals.log.addMsg("New file via XMPP: " + filename);
+			return true;
+		case Globals.REMOTE_DIR_CREATE:
+			/*
+			 * Someone announced a new directory via XMPP Available
+			 * information: "JID","name"
+			 */
+			Globals.log.addMsg("New directory via XMPP: " + filename);
+			return true;
+		case Globals.REMOTE_ITEM_DELETE:
+			/*
+			 * Someone announced a delete via XMPP Available information:
+			 * "JID","name"
+			 */
+			Globals.log.addMsg("Deletion discovered via XMPP: " + filename);
+			return true;
+		case Globals.REMOTE_FILE_MODIFY:
+			/*
+			 * Someone announced a fileupdate via XMPP Available information:
+			 * "JID","remoteIP","Port","name","version","size","sha256",
+			 * "noOfChunks","chunkRoot" and "blockList" for small updates
+			 */
+			Globals.log.addMsg("File update discovered via XMPP: " + filename);
+			return true;
+		case Globals.REMOTE_CHUNK_COMPLETE:
+			/*
+			 * Someone announced that he completed the download of a chunk
+			 * Available information:
+			 * "JID","remoteIP","Port","name","chunkID","chunkVers"
+			 */
+			return true;
+		case Globals.REMOTE_CHUNKS_COMPLETE:
+			/*
+			 * Someone announced that he completed the download of several
+			 * chunks of a file Available information:
+			 * "JID","remoteIP","Port","name","chunks"
+			 */
+			return true;
+		case Globals.REMOTE_FILE_COMPLETE:
+			/*
+			 * Someone announced that a file download is completed Available
+			 * information: "JID","remoteIP","Port","name","version"
+			 */
+			Globals.log.addMsg("Completed file download discovered via XMPP: " + filename);
+			return true;
+		case Globals.REMOTE_PEER_JOINED:
+			/*
+			 * Someone joined the channel Available information: "JID"
+			 */
+			Globals.log.addMsg(jid + " joined the channel.");
+			myNetwork.sendMUCFileListVersion();
+			return false;
+		case Globals.REMOTE_FILE_LIST_VERSION:
+			/*
+			 * Someone posted his fileListVersion Available information:
+			 * "JID","remoteIP","Port","FileListVersion"
+			 */
+			handleFileListVersion(newMessage);
+			return false;
+		case Globals.REMOTE_PEER_LEFT:
+			// Someone left the channel (Available: "JID")
+			Globals.log.addMsg(jid + " left the channel.");
+			for (P2Pdevice dev : P2Pdevice.getDevices(jid)) {
+				dev.removeFromHoldings();
 			}
-			
-			//Maintain list of P2Pdevices
-			jid = (String) newMessage.getProperty("JID");
-			remoteIP = (String) newMessage.getProperty("remoteIP");
-			localIP = (String) newMessage.getProperty("localIP");
-			port = ((Integer) newMessage.getProperty("Port")).intValue();
-			//This checks if this device is known, if not it is created
-			P2Pdevice.getDevice(jid, remoteIP, localIP, port);
-
-			// extract message type from message
-			int type = ((Integer) newMessage.getProperty("Type")).intValue();
-
-			switch (type) {
-			case 1:
-				/*
-				 * Someone announced a new file via XMPP Available information:
-				 * "JID","remoteIP","Port","name","size","blocks","sha256"
-				 */
-
-				filename = (String) newMessage.getProperty("name");
-				Globals.log.addMsg("New file via XMPP: " + filename);
-				Globals.requestQueue.offer(new XMPPRequest(Globals.REMOTE_FILE_CREATE, newMessage));
-				break;
-			case 10:
-				/*
-				 * Someone announced a new directory via XMPP Available
-				 * information: "JID","name"
-				 */
-
-				filename = (String) newMessage.getProperty("name");
-				Globals.log.addMsg("New directory via XMPP: " + filename);
-				Globals.requestQueue.offer(new XMPPRequest(Globals.REMOTE_DIR_CREATE, newMessage));
-				break;
-			case 2:
-				/*
-				 * Someone announced a delete via XMPP Available information:
-				 * "JID","name"
-				 */
-
-				filename = (String) newMessage.getProperty("name");
-				Globals.log.addMsg("Deletion discovered via XMPP: "
-						+ filename);
-				// Constants.remoteAffectedItems.add(filename);
-				Globals.requestQueue.offer(new XMPPRequest(Globals.REMOTE_ITEM_DELETE, newMessage));
-				break;
-			case 3:
-				/*
-				 * Someone announced a fileupdate via XMPP Available
-				 * information:
-				 * "JID","remoteIP","Port","name","version","size","blocks","sha256"
-				 */
-
-				filename = (String) newMessage.getProperty("name");
-				Globals.log.addMsg("File update discovered via XMPP: " + filename);
-				// Constants.remoteAffectedItems.add(filename);
-				Globals.requestQueue.offer(new XMPPRequest(Globals.REMOTE_FILE_MODIFY, newMessage));
-				break;
-			case 4:
-				/*
-				 * Someone announced that he completed the download of a chunk
-				 * Available information:
-				 * "JID","remoteIP","Port","name","chunkID","chunkVers"
-				 */
-
-				filename = (String) newMessage.getProperty("name");
-				Globals.requestQueue.offer(new XMPPRequest(Globals.REMOTE_CHUNK_COMPLETE, newMessage));
-				break;
-			case 5:
-				/*
-				 * Someone announced that a file download is completed Available
-				 * information: "JID","remoteIP","Port","name","version"
-				 */
-
-				filename = (String) newMessage.getProperty("name");
-				Globals.log.addMsg("Completed file download discovered via XMPP: " + filename);
-				Globals.requestQueue.offer(new XMPPRequest(Globals.REMOTE_FILE_COMPLETE, newMessage));
-				break;
-			case 6:
-				/*
-				 * Someone joined the channel Available information: "JID"
-				 */
-
-				Globals.log.addMsg(jid + " joined the channel.");
-				myNetwork.sendMUCFileListVersion();
-				break;
-			case 7:
-				/*
-				 * Someone posted his fileListVersion Available information:
-				 * "JID","remoteIP","Port","FileListVersion"
-				 */
-
-				vers = ((Integer) newMessage.getProperty("FileListVersion")).intValue();
-				if (Globals.syncingFileList) {
-					if (vers > maxListVersion) {
-						maxListVersion = vers;
-						maxListNode = P2Pdevice.getDevice(jid, remoteIP, localIP, port);
-					} else if (vers == -1) {
-						break;
-					}
-					listsReceived++;
-					if (listsReceived == myNetwork.getUserCount() - 1) {
-						Globals.log.addMsg("Found newest file list: "
-								+ maxListVersion + " from "
-								+ maxListNode.getJID());
-						ThriftClientGetFileList getFileListThread = new ThriftClientGetFileList(maxListVersion, maxListNode);
-						getFileListThread.start();
-						listsReceived = 0;
-						Globals.syncingFileList = false;
-					}
-				}
-				break;
-			case 8:
-				// Someone left the channel (Available: "JID")
-				// Inefficient!!
-				Globals.log.addMsg(jid + " left the channel.");
-				for (FileHandle fh : Storage.getInstance().getFileList()) {
-					for (FileChunk fc : fh.getChunkList()) {
-						fc.deletePeer(jid);
-					}
+			return false;
+		case Globals.REMOTE_FILE_REANNOUNCE:
+			// Someone reannounced a file (came back online after incomplete
+			// upload)
+			// Available: "JID","remoteIP","Port","name","size","sha256"
+			Globals.log.addMsg(jid + " reannounced: " + filename);
+			FileHandle reannounced = Storage.getInstance().getFileHandle(filename);
+			if (reannounced == null)
+				return false;
+			reannounced.addP2PdeviceToAllBlocks(getDevice(newMessage));
+			if (!reannounced.isComplete()) {
+				LinkedList<FileChunk> incomplete = reannounced.getIncomplete();
+				for (FileChunk fc : incomplete) {
+					fc.setDownloading(false);
+					fc.setComplete(false);
 				}
-				break;
-			case 9:
-				// Someone reannounced a file (came back online after incomplete
-				// upload)
-				// Available: "JID","remoteIP","Port","name","size","sha256"
-				filename = (String) newMessage.getProperty("name");
-				Globals.log.addMsg(jid + " reannounced: " + filename);
-				FileHandle reannounced = Storage.getInstance().getFileHandle(filename);
-				P2Pdevice reannouncer = P2Pdevice.getDevice(jid, remoteIP, localIP, port);
-				reannounced.addP2PdeviceToAllBlocks(reannouncer);
-				if (!reannounced.isComplete()) {
-					LinkedList<FileChunk> incomplete = reannounced.getIncomplete();
-					for (FileChunk fc : incomplete) {
-						fc.setDownloading(false);
-						fc.setComplete(false);
-					}
-				}
-			default:
 			}
+			return false;
+		default:
+			return false;
 		}
+	}
 
-		Globals.log.addMsg("Networking thread interrupted. Closing...", 4);
+	/*
+	 * Collects the file list versions posted after joining. Once all other
+	 * participants answered, the newest file list is downloaded.
+	 */
+	private void handleFileListVersion(Message newMessage) {
+		int vers = ((Integer) newMessage.getProperty("FileListVersion")).intValue();
+		if (!Globals.syncingFileList)
+			return;
+		if (vers > this.maxListVersion) {
+			this.maxListVersion = vers;
+			this.maxListNode = getDevice(newMessage);
+			this.maxListRoot = (byte[]) newMessage.getProperty("treeRoot");
+			Long logID = (Long) newMessage.getProperty("logID");
+			this.maxListLogID = (logID == null) ? 0 : logID.longValue();
+		} else if (vers == -1) {
+			return;
+		}
+		this.listsReceived++;
+		if (this.listsReceived == myNetwork.getUserCount() - 1) {
+			Globals.log.addMsg("Found newest file list: " + this.maxListVersion + " from "
+					+ this.maxListNode.getJID());
+			ThriftClientGetFileList getFileListThread = new ThriftClientGetFileList(this.maxListVersion,
+					this.maxListNode, this.maxListRoot, this.maxListLogID);
+			getFileListThread.start();
+			this.listsReceived = 0;
+			Globals.syncingFileList = false;
+		}
+	}
+
+	private P2Pdevice getDevice(Message msg) {
+		return P2Pdevice.getDevice((String) msg.getProperty("JID"), (String) msg.getProperty("remoteIP"),
+				(String) msg.getProperty("localIP"), ((Integer) msg.getProperty("Port")).intValue());
 	}
 }
@@ -23,10 +23,15 @@ package de.pgrp.core;
 
 import de.pgrp.thrift.*;
 
-import java.nio.ByteBuffer;
-import org.apache.thrift.TException;
-import org.apache.thrift.protocol.*;
-import org.apache.thrift.transport.*;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * This class lets your access information about a participant in your network.
@@ -35,13 +40,24 @@ import org.apache.thrift.transport.*;
  */
 public class P2Pdevice {
 
+	/**
+	 * The P2Pdevice of this peer, see getLocalDevice()
+	 */
+	private static volatile P2Pdevice local;
+
 	private String remoteIP;
 	private String localIP;
 	private int port;
 	private String jid;
-	private TTransport transport;
-	private DataTransfer.Client client;
+	private ThriftMuxClient client;
 	private boolean usingLocalIP;
+	private boolean self;
+	/**
+	 * The files this device holds chunks of, so it can be removed from them
+	 * without searching all files. Files dropped from storage vanish by
+	 * themselves.
+	 */
+	private Set<FileHandle> holdings = Collections.newSetFromMap(new WeakHashMap<FileHandle, Boolean>());
 
 	public P2Pdevice() {
 
@@ -52,60 +68,166 @@ public class P2Pdevice {
 		this.remoteIP = newRemoteIP;
 		this.localIP = newLocalIP;
 		this.port = newPort;
-		this.transport = new TSocket(newRemoteIP, newPort);
+		this.client = new ThriftMuxClient(newRemoteIP, newPort);
 		this.usingLocalIP = false;
+		this.self = newJID.equals(Globals.getJID());
+	}
+
+	public void closeTransport() {
+		this.client.close();
+	}
+
+	/**
+	 * Requests a data block without waiting for it. Other requests to this
+	 * peer are not blocked meanwhile.
+	 * 
+	 * @return a Future returning the block as byte array
+	 */
+	public Future<Object> requestDataBlock(String name, int id, String hash, int codecs, String baseHash) {
+		return this.client.getDataBlock(name, id, hash, codecs, baseHash);
 	}
 
-	private void openTransport() {
+	public byte[] getDataBlock(String name, int id, String hash, int codecs, String baseHash) {
 		try {
-			TProtocol protocol = new TBinaryProtocol(this.transport);
-			this.client = new DataTransfer.Client(protocol);
-			transport.open();
-		} catch (TTransportException e) {
-			Globals.log.addMsg("Thrift Error: " + e);
+			return (byte[]) requestDataBlock(name, id, hash, codecs, baseHash).get(Globals.rpcTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ee) {
+			Globals.log
+					.addMsg("Error downloading chunk " + id + "! " + ee.getCause(), 1);
+			Globals.log.addMsg("Attempting to redownload.");
+		} catch (InterruptedException ie) {
+			Globals.log.addMsg("Interrupted while downloading chunk " + id, 4);
+		} catch (TimeoutException te) {
+			Globals.log.addMsg("No reply from " + this.jid + " for chunk " + id + ", connection closed", 1);
 		}
+		return null;
 	}
 
-	public void closeTransport() {
-		// if(this.transport.isOpen())
-		this.transport.close();
+	/**
+	 * Requests the file list without waiting for it
+	 * 
+	 * @return a Future returning the ThriftStorage
+	 */
+	public Future<Object> requestFileList() {
+		return this.client.getStorage();
 	}
 
-	public synchronized byte[] getDataBlock(String name, int id, String hash) {
-		if (!this.transport.isOpen()) {
-			openTransport();
+	public ThriftStorage getFileList() {
+		try {
+			return (ThriftStorage) requestFileList().get(Globals.rpcTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ee) {
+			Globals.log.addMsg("Thrift Error: " + ee.getCause(), 1);
+		} catch (InterruptedException ie) {
+			Globals.log.addMsg("Interrupted while receiving file list", 4);
+		} catch (TimeoutException te) {
+			Globals.log.addMsg("No reply from " + this.jid + ", connection closed", 1);
 		}
+		return null;
+	}
+
+	/**
+	 * Requests a page of the file list, the files following the cursor path
+	 * 
+	 * @return the page, or null on error
+	 */
+	public ThriftStoragePage getFileListPage(String cursor, int count) {
 		try {
-			ByteBuffer block = client.getDataBlock(name, id, hash);
+			return (ThriftStoragePage) this.client.getStoragePage(cursor, count).get(Globals.rpcTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ee) {
+			Globals.log.addMsg("Thrift Error: " + ee.getCause(), 1);
+		} catch (InterruptedException ie) {
+			Globals.log.addMsg("Interrupted while receiving file list", 4);
+		} catch (TimeoutException te) {
+			Globals.log.addMsg("No reply from " + this.jid + ", connection closed", 1);
+		}
+		return null;
+	}
 
-			this.transport.close();
-			return block.array();
-		} catch (TException te) {
-			Globals.log
-					.addMsg("Error downloading chunk " + id + "! " + te, 1);
-			Globals.log.addMsg("Attempting to redownload.");
-			this.transport.close();
-			return null;
+	/**
+	 * Requests the changes of the file list since the given version without
+	 * waiting for them
+	 * 
+	 * @return a Future returning the ThriftStorageDelta
+	 */
+	public Future<Object> requestFileListDelta(long logID, int sinceVersion) {
+		return this.client.getStorageDelta(logID, sinceVersion);
+	}
+
+	public ThriftStorageDelta getFileListDelta(long logID, int sinceVersion) {
+		try {
+			return (ThriftStorageDelta) requestFileListDelta(logID, sinceVersion).get(Globals.rpcTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ee) {
+			Globals.log.addMsg("Thrift Error: " + ee.getCause(), 1);
+		} catch (InterruptedException ie) {
+			Globals.log.addMsg("Interrupted while receiving file list changes", 4);
+		} catch (TimeoutException te) {
+			Globals.log.addMsg("No reply from " + this.jid + ", connection closed", 1);
 		}
+		return null;
 	}
 
-	public synchronized ThriftStorage getFileList() {
-		if (!this.transport.isOpen()) {
-			openTransport();
+	/**
+	 * Requests the children of directories in the directory tree of this
+	 * peer
+	 * 
+	 * @return the children with their hashes, or null on error
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ThriftTreeNode> getTreeNodes(List<String> dirs) {
+		try {
+			return (List<ThriftTreeNode>) this.client.getTreeNodes(dirs).get(Globals.rpcTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ee) {
+			Globals.log.addMsg("Thrift Error: " + ee.getCause(), 1);
+		} catch (InterruptedException ie) {
+			Globals.log.addMsg("Interrupted while receiving directory tree", 4);
+		} catch (TimeoutException te) {
+			Globals.log.addMsg("No reply from " + this.jid + ", connection closed", 1);
 		}
+		return null;
+	}
+
+	/**
+	 * Requests some files of the file list of this peer
+	 * 
+	 * @return the files, or null on error
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ThriftFileHandle> getFileHandles(List<String> paths) {
 		try {
-			ThriftStorage list = client.getStorage();
+			return (List<ThriftFileHandle>) this.client.getFileHandles(paths).get(Globals.rpcTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ee) {
+			Globals.log.addMsg("Thrift Error: " + ee.getCause(), 1);
+		} catch (InterruptedException ie) {
+			Globals.log.addMsg("Interrupted while receiving files", 4);
+		} catch (TimeoutException te) {
+			Globals.log.addMsg("No reply from " + this.jid + ", connection closed", 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Requests one page of the block list of a file without waiting for it
+	 * 
+	 * @return a Future returning the ThriftBlockList
+	 */
+	public Future<Object> requestBlockList(String name, int offset, int count) {
+		return this.client.getBlockList(name, offset, count);
+	}
 
-			this.transport.close();
-			return list;
-		} catch (TException te) {
-			Globals.log.addMsg("Thrift Error: " + te, 1);
+	public ThriftBlockList getBlockList(String name, int offset, int count) {
+		try {
+			return (ThriftBlockList) requestBlockList(name, offset, count).get(Globals.rpcTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ee) {
+			Globals.log.addMsg("Thrift Error: " + ee.getCause(), 1);
+		} catch (InterruptedException ie) {
+			Globals.log.addMsg("Interrupted while receiving block list of " + name, 4);
+		} catch (TimeoutException te) {
+			Globals.log.addMsg("No reply from " + this.jid + ", connection closed", 1);
 		}
 		return null;
 	}
 
 	public boolean transportOpen() {
-		return this.transport.isOpen();
+		return this.client.isOpen();
 	}
 
 	
@@ -130,7 +252,8 @@ public class P2Pdevice {
 			//If at least A and B of local addresses are equal, we assume we are on the same LAN
 			if(matches >= 2){
 				this.usingLocalIP = true;
-				this.transport = new TSocket(this.localIP, this.port);
+				this.client.close();
+				this.client = new ThriftMuxClient(this.localIP, this.port);
 				Globals.log.addMsg("Using local IP for " + this.jid + ": " + this.localIP,2);
 			}
 			/* Verify with thrift (only works of remotely accessible)
@@ -161,6 +284,38 @@ public class P2Pdevice {
 		}
 	}
 
+	/**
+	 * Notes that this device holds chunks of the given file. We never leave
+	 * while running, so our own device keeps no index.
+	 */
+	public void addHolding(FileHandle file) {
+		if (this.self)
+			return;
+		synchronized (this.holdings) {
+			this.holdings.add(file);
+		}
+	}
+
+	public void removeHolding(FileHandle file) {
+		synchronized (this.holdings) {
+			this.holdings.remove(file);
+		}
+	}
+
+	/**
+	 * Removes this device from all files it holds chunks of
+	 */
+	public void removeFromHoldings() {
+		LinkedList<FileHandle> held;
+		synchronized (this.holdings) {
+			held = new LinkedList<FileHandle>(this.holdings);
+			this.holdings.clear();
+		}
+		for (FileHandle file : held) {
+			file.removePeer(this);
+		}
+	}
+
 	public boolean equals(String newJID, String newRemoteIP, String newLocalIP, int newPort) {
 		if (this.port != newPort) {
 			return false;
@@ -209,13 +364,45 @@ public class P2Pdevice {
 	 * If not existent, the supplied P2Pdevice is returned.
 	 */
 	public static P2Pdevice getDevice(String newJID, String newRemoteIP, String newLocalIP, int newPort) {
-		for (P2Pdevice d : Globals.p2pDevices) {
-			if (d.equals(newJID, newRemoteIP, newLocalIP, newPort))
-				return d;
+		P2Pdevice newPeer;
+		synchronized (Globals.p2pDevices) {
+			for (P2Pdevice d : Globals.p2pDevices) {
+				if (d.equals(newJID, newRemoteIP, newLocalIP, newPort))
+					return d;
+			}
+			newPeer = new P2Pdevice(newJID, newRemoteIP, newLocalIP, newPort);
+			Globals.p2pDevices.add(newPeer);
 		}
-		P2Pdevice newPeer = new P2Pdevice(newJID, newRemoteIP, newLocalIP, newPort);
-		Globals.p2pDevices.add(newPeer);
 		newPeer.checkLocal();
 		return newPeer;
 	}
+
+	/**
+	 * Returns the P2Pdevice of this peer. It is only looked up in the global
+	 * list again if the own address changed.
+	 */
+	public static P2Pdevice getLocalDevice() {
+		P2Pdevice me = local;
+		String jid = Globals.getJID();
+		if (me == null || !me.equals(jid, Globals.externalIP4, Globals.internalIP4, Globals.p2pPort)) {
+			me = getDevice(jid, Globals.externalIP4, Globals.internalIP4, Globals.p2pPort);
+			local = me;
+		}
+		return me;
+	}
+
+	/**
+	 * Returns all known P2Pdevices of the given JID (there is more than one if
+	 * the peer changed its address)
+	 */
+	public static LinkedList<P2Pdevice> getDevices(String jid) {
+		LinkedList<P2Pdevice> res = new LinkedList<P2Pdevice>();
+		synchronized (Globals.p2pDevices) {
+			for (P2Pdevice d : Globals.p2pDevices) {
+				if (d.getJID().equals(jid))
+					res.add(d);
+			}
+		}
+		return res;
+	}
 }
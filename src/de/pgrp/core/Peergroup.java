@@ -273,13 +273,16 @@ public class Peergroup {
 	}
 
 	/**
-	 * Performs an initial scan of the shared directory
+	 * Performs an initial scan of the shared directory, after recovering the
+	 * state of the last run
 	 */
 	private static void doInitialDirectoryScan() {
 		Globals.folders = new LinkedList<String>();
+		Storage.getInstance().recover();
 		Globals.log.addMsg("Doing initial scan of share directory...");
 		File root = Storage.getInstance().getDirHandle();
 		Helper.iterateFilesOnInitScan(root);
+		Storage.getInstance().startJournal();
 	}
 
 	/**
@@ -311,6 +314,8 @@ public class Peergroup {
 
 		Globals.quitting = true;
 
+		Storage.getInstance().closeJournal();
+
 		if (Globals.igd != null) {
 			try {
 				boolean unmapped = Globals.igd.deletePortMapping(null, Globals.p2pPort, "TCP");
@@ -0,0 +1,318 @@
+/*
+ * Peergroup - SessionTransport.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.lang.ref.WeakReference;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.thrift.TByteArrayOutputStream;
+import org.apache.thrift.transport.TMemoryInputTransport;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.apache.thrift.transport.TTransportFactory;
+
+/**
+ * The SessionTransport encrypts a whole thrift connection. When the connection
+ * is opened, both sides exchange random nonces and derive a fresh pair of
+ * session keys (one per direction) from the channel key, so every connection
+ * uses its own keys. Afterwards everything written up to a flush() is sent as
+ * one AES-GCM sealed frame [length][ciphertext][tag], using a frame counter as
+ * nonce. Data blocks sent over such a connection need no encryption of their
+ * own.
+ *
+ * @author Nicolas Inden
+ */
+public class SessionTransport extends TTransport {
+
+	private final static byte[] MAGIC = { 'P', 'G', 'S', '1' };
+	private final static int NONCE_SIZE = 16;
+	private final static int TAG_SIZE = 16;
+	private final static int KEY_SIZE = 16;
+	/**
+	 * Frames larger than this are considered an attack or a protocol error
+	 */
+	private final static int MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+	private TTransport transport;
+	private boolean client;
+	private boolean established;
+
+	private Cipher encCipher;
+	private Cipher decCipher;
+	private SecretKeySpec encKey;
+	private SecretKeySpec decKey;
+	private long encCounter;
+	private long decCounter;
+
+	private TByteArrayOutputStream writeBuffer;
+	private TMemoryInputTransport readBuffer;
+	private byte[] header;
+
+	/**
+	 * Creates a new SessionTransport
+	 *
+	 * @param transport
+	 *            the underlying transport, e.g. a TSocket
+	 * @param client
+	 *            true for the side that opens the connection
+	 */
+	public SessionTransport(TTransport transport, boolean client) {
+		this.transport = transport;
+		this.client = client;
+		this.established = false;
+		this.writeBuffer = new TByteArrayOutputStream(1024);
+		this.readBuffer = new TMemoryInputTransport();
+		this.header = new byte[4];
+	}
+
+	/**
+	 * Returns the underlying transport
+	 */
+	public TTransport getTransport() {
+		return this.transport;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return this.transport.isOpen();
+	}
+
+	/**
+	 * Opens the underlying transport (client side) and performs the handshake
+	 */
+	@Override
+	public void open() throws TTransportException {
+		if (!this.transport.isOpen())
+			this.transport.open();
+		handshake();
+	}
+
+	@Override
+	public void close() {
+		this.transport.close();
+	}
+
+	@Override
+	public int read(byte[] buf, int off, int len) throws TTransportException {
+		handshake();
+		int got = this.readBuffer.read(buf, off, len);
+		if (got > 0)
+			return got;
+
+		readFrame();
+		return this.readBuffer.read(buf, off, len);
+	}
+
+	@Override
+	public void write(byte[] buf, int off, int len) throws TTransportException {
+		this.writeBuffer.write(buf, off, len);
+	}
+
+	/**
+	 * Seals all data written since the last flush into one frame and sends it
+	 */
+	@Override
+	public void flush() throws TTransportException {
+		handshake();
+		int len = this.writeBuffer.len();
+		if (len == 0)
+			return;
+
+		byte[] frame = new byte[4 + len + TAG_SIZE];
+		try {
+			this.encCipher.init(Cipher.ENCRYPT_MODE, this.encKey, nextNonce(this.encCounter++));
+			int sealed = this.encCipher.doFinal(this.writeBuffer.get(), 0, len, frame, 4);
+			writeInt(frame, sealed);
+		} catch (GeneralSecurityException gse) {
+			throw new TTransportException("Error encrypting frame: " + gse);
+		} finally {
+			this.writeBuffer.reset();
+		}
+
+		this.transport.write(frame, 0, frame.length);
+		this.transport.flush();
+	}
+
+	@Override
+	public byte[] getBuffer() {
+		return this.readBuffer.getBuffer();
+	}
+
+	@Override
+	public int getBufferPosition() {
+		return this.readBuffer.getBufferPosition();
+	}
+
+	@Override
+	public int getBytesRemainingInBuffer() {
+		return this.readBuffer.getBytesRemainingInBuffer();
+	}
+
+	@Override
+	public void consumeBuffer(int len) {
+		this.readBuffer.consumeBuffer(len);
+	}
+
+	/*
+	 * Reads and decrypts the next frame into the read buffer
+	 */
+	private void readFrame() throws TTransportException {
+		this.transport.readAll(this.header, 0, 4);
+		int size = readInt(this.header);
+		if (size < TAG_SIZE || size > MAX_FRAME_SIZE) {
+			close();
+			throw new TTransportException("Invalid frame size " + size);
+		}
+
+		byte[] frame = new byte[size];
+		this.transport.readAll(frame, 0, size);
+		try {
+			this.decCipher.init(Cipher.DECRYPT_MODE, this.decKey, nextNonce(this.decCounter++));
+			int len = this.decCipher.doFinal(frame, 0, size, frame, 0);
+			this.readBuffer.reset(frame, 0, len);
+		} catch (AEADBadTagException bte) {
+			close();
+			throw new TTransportException("Frame failed authentication (wrong password?)");
+		} catch (GeneralSecurityException gse) {
+			close();
+			throw new TTransportException("Error decrypting frame: " + gse);
+		}
+	}
+
+	/*
+	 * Exchanges nonces with the peer and derives the session keys. The client
+	 * sends MAGIC and its nonce, the server answers with its nonce.
+	 */
+	private synchronized void handshake() throws TTransportException {
+		if (this.established)
+			return;
+
+		SecureRandom rand = new SecureRandom();
+		byte[] own = new byte[NONCE_SIZE];
+		rand.nextBytes(own);
+		byte[] other = new byte[NONCE_SIZE];
+
+		if (this.client) {
+			this.transport.write(MAGIC);
+			this.transport.write(own);
+			this.transport.flush();
+			this.transport.readAll(other, 0, NONCE_SIZE);
+		} else {
+			byte[] magic = new byte[MAGIC.length];
+			this.transport.readAll(magic, 0, MAGIC.length);
+			if (!Arrays.equals(magic, MAGIC)) {
+				close();
+				throw new TTransportException("Peer does not use session encryption");
+			}
+			this.transport.readAll(other, 0, NONCE_SIZE);
+			this.transport.write(own);
+			this.transport.flush();
+		}
+
+		byte[] clientNonce = this.client ? own : other;
+		byte[] serverNonce = this.client ? other : own;
+		try {
+			SecretKeySpec toServer = deriveKey("client", clientNonce, serverNonce);
+			SecretKeySpec toClient = deriveKey("server", clientNonce, serverNonce);
+			this.encKey = this.client ? toServer : toClient;
+			this.decKey = this.client ? toClient : toServer;
+			this.encCipher = Cipher.getInstance("AES/GCM/NoPadding");
+			this.decCipher = Cipher.getInstance("AES/GCM/NoPadding");
+		} catch (GeneralSecurityException gse) {
+			close();
+			throw new TTransportException("Error deriving session keys: " + gse);
+		}
+		this.encCounter = 0;
+		this.decCounter = 0;
+		this.established = true;
+	}
+
+	/*
+	 * HMAC-SHA256 of label and both nonces, keyed with the channel key
+	 */
+	private static SecretKeySpec deriveKey(String label, byte[] clientNonce, byte[] serverNonce)
+			throws GeneralSecurityException {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(Globals.secKey.getEncoded(), "HmacSHA256"));
+		mac.update(MAGIC);
+		for (int i = 0; i < label.length(); i++) {
+			mac.update((byte) label.charAt(i));
+		}
+		mac.update(clientNonce);
+		mac.update(serverNonce);
+		return new SecretKeySpec(mac.doFinal(), 0, KEY_SIZE, "AES");
+	}
+
+	/*
+	 * The frame counter padded to a 96 bit GCM nonce. Keys differ per session
+	 * and direction, so a counter never repeats under the same key.
+	 */
+	private static GCMParameterSpec nextNonce(long counter) {
+		byte[] nonce = new byte[12];
+		for (int i = 0; i < 8; i++) {
+			nonce[11 - i] = (byte) (counter >>> (8 * i));
+		}
+		return new GCMParameterSpec(TAG_SIZE * 8, nonce);
+	}
+
+	private static void writeInt(byte[] buf, int n) {
+		buf[0] = (byte) (n >>> 24);
+		buf[1] = (byte) (n >>> 16);
+		buf[2] = (byte) (n >>> 8);
+		buf[3] = (byte) n;
+	}
+
+	private static int readInt(byte[] buf) {
+		return ((buf[0] & 0xff) << 24) | ((buf[1] & 0xff) << 16) | ((buf[2] & 0xff) << 8) | (buf[3] & 0xff);
+	}
+
+	/**
+	 * Wraps the connections accepted by the thrift server. The server asks
+	 * for an input and an output transport of every connection, both have to
+	 * be the same SessionTransport. Sessions are only weakly referenced, they
+	 * are dropped together with their connection.
+	 */
+	public static class Factory extends TTransportFactory {
+
+		private WeakHashMap<TTransport, WeakReference<SessionTransport>> sessions = new WeakHashMap<TTransport, WeakReference<SessionTransport>>();
+
+		@Override
+		public synchronized TTransport getTransport(TTransport base) {
+			WeakReference<SessionTransport> ref = this.sessions.get(base);
+			SessionTransport session = (ref != null) ? ref.get() : null;
+			if (session == null) {
+				session = new SessionTransport(base, false);
+				this.sessions.put(base, new WeakReference<SessionTransport>(session));
+			}
+			return session;
+		}
+	}
+}
@@ -21,9 +21,26 @@
 
 package de.pgrp.core;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.io.*;
 
 /**
@@ -34,14 +51,99 @@ import java.io.*;
  */
 public class Storage {
 
+	/**
+	 * The number of locks the paths are spread over
+	 */
+	private final static int LOCK_STRIPES = 64;
+
 	private static volatile Storage instance = new Storage();
 	private File sharedDir;
-	private int fileListVersion;
-	private volatile LinkedList<FileHandle> files;
+	private volatile int fileListVersion;
+	/**
+	 * All files. Readers iterate without locking, files are only added and
+	 * removed while holding the lock of their path.
+	 */
+	private final Set<FileHandle> files;
+	/**
+	 * The files by path relative to the share directory, changed together
+	 * with the file set
+	 */
+	private final ConcurrentHashMap<String, FileHandle> index;
+	/**
+	 * Further files of a path already in the index, e.g. conflicting copies
+	 * after a merge. Empty most of the time.
+	 */
+	private final ConcurrentHashMap<String, LinkedList<FileHandle>> shadowed;
+	/**
+	 * Adding, removing and logging a change of a path happens while holding
+	 * the lock of the path. Changes of the file itself lock the FileHandle.
+	 */
+	private final Object[] locks;
+	/**
+	 * The paths changed lately, each with the fileListVersion of its last
+	 * change, oldest first. Holds at most Globals.changeLogSize paths.
+	 */
+	private LinkedHashMap<String, Integer> changeLog;
+	/**
+	 * Changes since this version or later are all in the change log
+	 */
+	private int changeLogStart;
+	/**
+	 * Identifies the change log of this run, versions of another run mean
+	 * something else
+	 */
+	private long logID;
+	/**
+	 * The hash tree over all files, compared with peers on join
+	 */
+	private DirectoryTree tree;
+	/**
+	 * The peer we synced our file list with last, its log ID and version,
+	 * and our own version right after the sync
+	 */
+	private String syncJID;
+	private long syncLogID;
+	private int syncVersion;
+	private int syncLocalVersion;
+	/**
+	 * Keeps the state across restarts
+	 */
+	private final StorageJournal journal;
+	/**
+	 * The modification times of the recovered files when their state was
+	 * written, kept until the initial scan is done
+	 */
+	private volatile HashMap<String, Long> recoveredModified;
+	/**
+	 * Creates the empty files of merges, shared by all merges. Its threads
+	 * end when idle.
+	 */
+	private final ThreadPoolExecutor mergePool;
 
 	public Storage() {
 		this.fileListVersion = 0;
-		this.files = new LinkedList<FileHandle>();
+		this.files = Collections.newSetFromMap(new ConcurrentHashMap<FileHandle, Boolean>());
+		this.index = new ConcurrentHashMap<String, FileHandle>();
+		this.shadowed = new ConcurrentHashMap<String, LinkedList<FileHandle>>();
+		this.locks = new Object[LOCK_STRIPES];
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			this.locks[i] = new Object();
+		}
+		this.changeLog = new LinkedHashMap<String, Integer>();
+		this.changeLogStart = 0;
+		this.mergePool = new ThreadPoolExecutor(Globals.mergeThreads, Globals.mergeThreads, 10, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "Merge Thread");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		this.mergePool.allowCoreThreadTimeOut(true);
+		this.logID = new Random().nextLong();
+		this.tree = new DirectoryTree();
+		this.journal = new StorageJournal();
 		this.sharedDir = new File(Globals.shareDirectory);
 		this.sharedDir.mkdirs();
 	}
@@ -55,6 +157,100 @@ public class Storage {
 		return instance;
 	}
 
+	/**
+	 * Restores the state written by the last run, if Globals.journalStorage
+	 * is set. Call before the initial scan, which then only needs to look at
+	 * files that changed meanwhile.
+	 */
+	public void recover() {
+		if (!Globals.journalStorage)
+			return;
+		long start = System.currentTimeMillis();
+		StorageJournal.Recovered state = this.journal.read();
+		if (state == null)
+			return;
+		setFileList(state.getFiles().values());
+		synchronized (this.changeLog) {
+			this.fileListVersion = state.getVersion();
+			this.logID = state.getLogID();
+			this.changeLog.clear();
+			this.changeLogStart = this.fileListVersion;
+		}
+		this.syncJID = state.getSyncJID();
+		this.syncLogID = state.getSyncLogID();
+		this.syncVersion = state.getSyncVersion();
+		this.syncLocalVersion = state.getSyncLocalVersion();
+		this.recoveredModified = state.getModified();
+		Globals.log.addMsg("Recovered " + state.getFiles().size() + " files, file list version "
+				+ this.fileListVersion + " in " + (System.currentTimeMillis() - start) + "ms", 2);
+	}
+
+	/**
+	 * Returns true if a recovered file was changed on disk while we were not
+	 * running. Files still downloading are not checked, writing their chunks
+	 * changes them anyway.
+	 * 
+	 * @param fh
+	 *            The file
+	 */
+	public boolean changedWhileStopped(FileHandle fh) {
+		HashMap<String, Long> modified = this.recoveredModified;
+		if (modified == null || fh.isUpdating())
+			return false;
+		Long last = modified.get(fh.getPath());
+		return last == null || last.longValue() != fh.getLastModified() || fh.getSize() != fh.getFile().length();
+	}
+
+	/**
+	 * Forgets recovered files that are gone from disk and starts writing
+	 * changes to the journal, if Globals.journalStorage is set. Call after
+	 * the initial scan.
+	 */
+	public void startJournal() {
+		this.recoveredModified = null;
+		if (!Globals.journalStorage)
+			return;
+		LinkedList<String> gone = new LinkedList<String>();
+		for (FileHandle fh : getFileList()) {
+			if (!fh.getFile().exists())
+				gone.add(fh.getPath());
+		}
+		for (String path : gone) {
+			removeFile(path);
+		}
+		this.journal.open(this);
+	}
+
+	/**
+	 * Writes the state a last time and closes the journal
+	 */
+	public void closeJournal() {
+		this.journal.close();
+	}
+
+	/**
+	 * Notes the state of a chunk in the journal, e.g. after it was stored
+	 * 
+	 * @param fh
+	 *            The file of the chunk
+	 * @param chunk
+	 *            The chunk
+	 */
+	public void journalChunk(FileHandle fh, FileChunk chunk) {
+		this.journal.appendChunk(fh.getPath(), chunk);
+	}
+
+	/**
+	 * Notes the state of a file in the journal, e.g. after its download
+	 * completed
+	 * 
+	 * @param fh
+	 *            The file
+	 */
+	public void journalFile(FileHandle fh) {
+		this.journal.appendFile(fh, this.fileListVersion);
+	}
+
 	/**
 	 * Adds a local file to the storage list
 	 * 
@@ -66,8 +262,10 @@ public class Storage {
 		try {
 			FileHandle newFile = new FileHandle(Globals.shareDirectory + filename);
 			if (newFile.isValid()) {
-				getFileList().add(newFile);
-				this.fileListVersion++;
+				synchronized (lockFor(filename)) {
+					addFile(newFile);
+					logChange(filename);
+				}
 
 				return newFile;
 			}
@@ -84,17 +282,16 @@ public class Storage {
 	 *            the filename+path (e.g. subdir/file.txt)
 	 */
 	public void removeFile(String file) {
-		Iterator<FileHandle> it = getFileList().iterator();
-		
-		while(it.hasNext()){
-			if(it.next().getPath().equals(file)){
-				it.remove();
+		synchronized (lockFor(file)) {
+			FileHandle h = getFileHandle(file);
+			if (h != null) {
+				removeFile(h);
+				ChunkCache.getInstance().remove(file);
 				Globals.log.addMsg("Deleted " + file, 4);
-				break;
 			}
+
+			logChange(file);
 		}
-		
-		this.fileListVersion++;
 	}
 
 	/**
@@ -111,15 +308,16 @@ public class Storage {
 			Globals.log.addMsg("Deleted directory: " + file, 4);
 			return;
 		}
-		for (FileHandle h : getFileList()) {
-			if (h.getPath().equals(file)) {
+		synchronized (lockFor(file)) {
+			FileHandle h = getFileHandle(file);
+			if (h != null) {
 				h.getFile().delete();
-				getFileList().remove(h);
+				removeFile(h);
+				ChunkCache.getInstance().remove(file);
 				Globals.log.addMsg("Deleted " + file, 4);
-				break;
 			}
+			logChange(file);
 		}
-		this.fileListVersion++;
 	}
 
 	private void deleteDirectory(File dir) {
@@ -144,13 +342,7 @@ public class Storage {
 	}
 
 	public LinkedList<String> deletedLocalFolderAndSubs(String folder) {
-		LinkedList<String> items = new LinkedList<String>();
-
-		for (FileHandle fh : getFileList()) {
-			if (fh.getPath().startsWith(folder)) {
-				items.add(fh.getPath());
-			}
-		}
+		LinkedList<String> items = this.tree.getFiles(folder);
 
 		for (String fh : items) {
 			removeFile(fh);
@@ -165,29 +357,24 @@ public class Storage {
 	 * @return The FileHandle if the file was listed, else null
 	 */
 	public FileHandle modifyFileFromLocal(String file) {
-		FileHandle tmp;
-		Iterator<FileHandle> it = getFileList().iterator();
-		while(it.hasNext()){
-			tmp = it.next();
-			if(tmp.getPath().equals(file)) {
-				try {
-					if (tmp.isUpdating()) {
-						Globals.log.addMsg("Ignoring FS update event. File gets remote updates!", 4);
-						return null;
-					}
-					if (tmp.localUpdate()) {
-						Globals.log.addMsg("Updated " + tmp.getPath(), 4);
-						this.fileListVersion++;
-					} else {
-						Globals.log.addMsg("No need to update something.", 4);
-						return null;
-					}
-
-					return tmp;
-				} catch (Exception ioe) {
-					Globals.log.addMsg("Error updating file: " + ioe, 1);
-					break;
+		FileHandle tmp = getFileHandle(file);
+		if (tmp != null) {
+			try {
+				if (tmp.isUpdating()) {
+					Globals.log.addMsg("Ignoring FS update event. File gets remote updates!", 4);
+					return null;
 				}
+				if (tmp.localUpdate()) {
+					Globals.log.addMsg("Updated " + tmp.getPath(), 4);
+					logChange(file);
+				} else {
+					Globals.log.addMsg("No need to update something.", 4);
+					return null;
+				}
+
+				return tmp;
+			} catch (Exception ioe) {
+				Globals.log.addMsg("Error updating file: " + ioe, 1);
 			}
 		}
 		Globals.log.addMsg("Locally modified file not found in file-list.", 4);
@@ -208,27 +395,23 @@ public class Storage {
 	 *            the list of chunks for this file
 	 */
 	public void newFileFromXMPP(String filename, byte[] fileHash,
-			long fileSize, LinkedList<String> blocks, int cSize, P2Pdevice node) {
+			long fileSize, BlockList blocks, int cSize, P2Pdevice node) {
 		try {
 			LinkedList<FileChunk> chunks = new LinkedList<FileChunk>();
 
-			// unparse ID and hashes and handle them
-			for (String s : blocks) {
-				String[] tmp = s.split(":");
-				int id = (Integer.valueOf(tmp[0])).intValue();
-				String hash = tmp[2];
-				int chunkSize = Integer.parseInt(tmp[3]);
-
-				chunks.add(new FileChunk(filename, id, chunkSize, 0, hash,
-						node, false));
+			for (int i = 0; i < blocks.size(); i++) {
+				chunks.add(new FileChunk(filename, blocks.getID(i), blocks.getSize(i), 0,
+						blocks.getHash(i), node, false));
 			}
 
 			FileHandle newFile = new FileHandle(filename, fileHash, fileSize,
 					chunks, cSize);
 			newFile.setUpdating(true);
 			newFile.createEmptyLocalFile();
-			getFileList().add(newFile);
-			this.fileListVersion++;
+			synchronized (lockFor(filename)) {
+				addFile(newFile);
+				logChange(filename);
+			}
 		} catch (Exception e) {
 			Globals.log.addMsg(
 					"Couldn't create FileHandle for new file from XMPP! " + e,
@@ -263,22 +446,21 @@ public class Storage {
 	 *            The SHA256 of the updated file
 	 */
 	public void modifiedFileFromXMPP(String name, int vers, long size,
-			LinkedList<String> blocks, byte[] hash, int noOfChunks,
+			BlockList blocks, byte[] hash, int noOfChunks,
 			P2Pdevice node) {
-		for (FileHandle h : getFileList()) {
-			if (h.getPath().equals(name)) {
+		FileHandle h = getFileHandle(name);
+		if (h != null) {
+			synchronized (h) {
 				h.setUpdating(true);
 				h.setVersion(vers);
 				h.setSize(size);
 				h.setByteHash(hash);
 				h.updateBlocks(blocks, vers, noOfChunks, node);
+			}
 
-				System.out.println(h.toString());
-
-				this.fileListVersion++;
+			System.out.println(h.toString());
 
-				return;
-			}
+			logChange(name);
 		}
 	}
 
@@ -291,13 +473,9 @@ public class Storage {
 	 *            The P2Pdevice
 	 */
 	public void addP2PdeviceToFile(String fileName, int vers, P2Pdevice node) {
-		for (FileHandle h : getFileList()) {
-			if (h.getPath().equals(fileName)) {
-				if (h.getVersion() == vers) {
-					h.addP2PdeviceToAllBlocks(node);
-				}
-				return;
-			}
+		FileHandle h = getFileHandle(fileName);
+		if (h != null && h.getVersion() == vers) {
+			h.addP2PdeviceToAllBlocks(node);
 		}
 	}
 
@@ -310,22 +488,18 @@ public class Storage {
 	 *            The P2Pdevice
 	 */
 	public void addP2PdeviceToBlocks(String fileName, LinkedList<Integer> list, P2Pdevice node) {
-		for (FileHandle h : getFileList()) {
-			if (h.getPath().equals(fileName)) {
-				for (Integer no : list) {
-					h.addP2PdeviceToBlock(no.intValue(), node);
-				}
-				return;
+		FileHandle h = getFileHandle(fileName);
+		if (h != null) {
+			for (Integer no : list) {
+				h.addP2PdeviceToBlock(no.intValue(), node);
 			}
 		}
 	}
 
 	public void addP2PdeviceToBlock(String fileName, int id, P2Pdevice node) {
-		for (FileHandle h : getFileList()) {
-			if (h.getPath().equals(fileName)) {
-				h.addP2PdeviceToBlock(id, node);
-				return;
-			}
+		FileHandle h = getFileHandle(fileName);
+		if (h != null) {
+			h.addP2PdeviceToBlock(id, node);
 		}
 	}
 
@@ -337,12 +511,7 @@ public class Storage {
 	 * @return The FileHandle of the file, or null if doesn't exist
 	 */
 	public FileHandle fileExists(String filename) {
-		for (FileHandle f : getFileList()) {
-			if (filename.equals(f.getPath())) {
-				return f;
-			}
-		}
-		return null;
+		return getFileHandle(filename);
 	}
 
 	/**
@@ -356,16 +525,7 @@ public class Storage {
 		LinkedList<FileChunk> rareChunkList = new LinkedList<FileChunk>();
 		LinkedList<FileChunk> chunkList = new LinkedList<FileChunk>();
 		for (FileHandle h : getFileList()) {
-			for (FileChunk c : h.getChunks()) {
-				if (c.isComplete() || c.isDownloading())
-					continue;
-				int peers = c.noOfPeers();
-				if (peers < 4 && peers > 0) {
-					rareChunkList.add(c);
-				} else if (peers >= 4) {
-					chunkList.add(c);
-				}
-			}
+			h.getChunksByRarity(rareChunkList, chunkList);
 		}
 		if (rareChunkList.size() > 0)
 			return rareChunkList.get(gen.nextInt(rareChunkList.size()));
@@ -383,37 +543,59 @@ public class Storage {
 	 */
 	public void mergeWithRemoteStorage(int remoteVersion,
 			LinkedList<FileHandle> newList) {
+		mergeWithRemoteFiles(remoteVersion, getFileList(), newList);
+	}
+
+	/**
+	 * This performs a merge of local files with the remote files, where the
+	 * remote files are all the peer has of the paths of the local files, as
+	 * found by comparing the directory trees
+	 * 
+	 * @param remoteVersion
+	 *            The file list version of the peer
+	 * @param localList
+	 *            The local files
+	 * @param newList
+	 *            The remote files
+	 */
+	public synchronized void mergeWithRemoteFiles(int remoteVersion,
+			Collection<FileHandle> localList, LinkedList<FileHandle> newList) {
 
 		Globals.log.addMsg("Merging file lists - Local size: "
-				+ getFileList().size() + ", Remote size: " + newList.size());
+				+ localList.size() + ", Remote size: " + newList.size());
 		// Update FileList version number
-		if (remoteVersion > this.fileListVersion) {
-			this.fileListVersion = remoteVersion;
-		}
+		raiseVersion(remoteVersion);
 
-		// Merge file lists (naive approach, better improve it!)
 		LinkedList<FileHandle> localOnlyFiles = new LinkedList<FileHandle>();
 		LinkedList<FileHandle> remoteOnlyFiles = new LinkedList<FileHandle>();
 		LinkedList<FileHandle> reannounceFiles = new LinkedList<FileHandle>();
 		LinkedList<FileHandle> incompleteFiles = new LinkedList<FileHandle>();
 
+		// Index the remote files by path, a file matches if path and hash are
+		// equal
+		HashMap<String, LinkedList<FileHandle>> remoteByPath = new HashMap<String, LinkedList<FileHandle>>(
+				newList.size() * 2);
+		for (FileHandle remoteFH : newList) {
+			String path = remoteFH.getPath();
+			LinkedList<FileHandle> same = remoteByPath.get(path);
+			if (same == null) {
+				same = new LinkedList<FileHandle>();
+				remoteByPath.put(path, same);
+			}
+			same.add(remoteFH);
+		}
+
 		// Find local only files
-		for (FileHandle localFH : getFileList()) {
+		Set<FileHandle> matched = Collections.newSetFromMap(new IdentityHashMap<FileHandle, Boolean>());
+		for (FileHandle localFH : localList) {
 			boolean exists = false;
-			for (FileHandle remoteFH : newList) {
-				if (localFH.equals(remoteFH)) {
-					exists = true;
-					// Update file version number for existing files
-					if (localFH.getVersion() < remoteFH.getVersion()) {
-						localFH.setVersion(remoteFH.getVersion());
-					}
-					// Find: local complete, remote incomplete
-					if (localFH.isComplete() && !remoteFH.isComplete()) {
-						reannounceFiles.add(localFH);
-					}
-					// Find: local incomplete, remote complete
-					if (!localFH.isComplete() && remoteFH.isComplete()) {
-						incompleteFiles.add(localFH);
+			LinkedList<FileHandle> same = remoteByPath.get(localFH.getPath());
+			if (same != null) {
+				for (FileHandle remoteFH : same) {
+					if (Arrays.equals(localFH.getByteHash(), remoteFH.getByteHash())) {
+						exists = true;
+						matched.add(remoteFH);
+						compareFiles(localFH, remoteFH, reannounceFiles, incompleteFiles);
 					}
 				}
 			}
@@ -423,25 +605,130 @@ public class Storage {
 		}
 
 		for (FileHandle remoteFH : newList) {
-			boolean exists = false;
-			for (FileHandle localFH : getFileList()) {
-				if (remoteFH.equals(localFH)) {
-					exists = true;
-				}
+			if (!matched.contains(remoteFH)) {
+				remoteOnlyFiles.add(remoteFH);
 			}
-			if (!exists) {
+		}
+
+		// Without a change log we cannot tell an outdated copy from a local
+		// change, both are kept and the local one is announced
+		applyMerge(localOnlyFiles, remoteOnlyFiles, new IdentityHashMap<FileHandle, FileHandle>(), reannounceFiles,
+				incompleteFiles);
+		resetChangeLog();
+	}
+
+	/**
+	 * This merges the changes a peer made to its file list since our last
+	 * sync with it. Files we changed meanwhile are handled like local-only
+	 * files of a full merge, files the peer deleted meanwhile are deleted
+	 * unless we changed them.
+	 * 
+	 * @param remoteVersion
+	 *            The file list version of the peer
+	 * @param changed
+	 *            The files the peer added or changed
+	 * @param deleted
+	 *            The paths of the files the peer deleted
+	 * @return false if we lost track of our own changes since the sync, a
+	 *         full merge is needed then
+	 */
+	public synchronized boolean mergeDeltaFromRemote(int remoteVersion,
+			LinkedList<FileHandle> changed, List<String> deleted) {
+		LinkedList<String> localChanges = getChangesSince(this.syncLocalVersion);
+		if (localChanges == null)
+			return false;
+
+		Globals.log.addMsg("Merging file list changes - Local: "
+				+ localChanges.size() + ", Remote: " + (changed.size() + deleted.size()));
+		raiseVersion(remoteVersion);
+
+		LinkedList<FileHandle> localOnlyFiles = new LinkedList<FileHandle>();
+		LinkedList<FileHandle> remoteOnlyFiles = new LinkedList<FileHandle>();
+		LinkedList<FileHandle> reannounceFiles = new LinkedList<FileHandle>();
+		LinkedList<FileHandle> incompleteFiles = new LinkedList<FileHandle>();
+		IdentityHashMap<FileHandle, FileHandle> replaced = new IdentityHashMap<FileHandle, FileHandle>();
+		HashSet<String> matched = new HashSet<String>();
+		HashSet<String> keep = new HashSet<String>(localChanges);
+
+		for (FileHandle remoteFH : changed) {
+			FileHandle localFH = getFileHandle(remoteFH.getPath());
+			if (localFH != null && localFH.equals(remoteFH)) {
+				matched.add(localFH.getPath());
+				compareFiles(localFH, remoteFH, reannounceFiles, incompleteFiles);
+			} else {
+				// An outdated copy we did not touch is replaced
+				if (localFH != null && !keep.contains(localFH.getPath()))
+					replaced.put(remoteFH, localFH);
 				remoteOnlyFiles.add(remoteFH);
 			}
 		}
+		for (String path : localChanges) {
+			FileHandle localFH = getFileHandle(path);
+			if (localFH != null && !matched.contains(path)) {
+				localOnlyFiles.add(localFH);
+			}
+		}
+		for (String path : deleted) {
+			if (!keep.contains(path) && getFileHandle(path) != null) {
+				remoteRemoveItem(path);
+			}
+		}
+
+		applyMerge(localOnlyFiles, remoteOnlyFiles, replaced, reannounceFiles, incompleteFiles);
+		resetChangeLog();
+		return true;
+	}
+
+	/*
+	 * Compares a local file to the equal remote one
+	 */
+	private void compareFiles(FileHandle localFH, FileHandle remoteFH,
+			LinkedList<FileHandle> reannounceFiles, LinkedList<FileHandle> incompleteFiles) {
+		// Update file version number for existing files
+		synchronized (localFH) {
+			if (localFH.getVersion() < remoteFH.getVersion()) {
+				localFH.setVersion(remoteFH.getVersion());
+				this.tree.put(localFH.getPath(), localFH.getByteHash(), localFH.getVersion());
+				journalFile(localFH);
+			}
+		}
+		// Find: local complete, remote incomplete
+		if (localFH.isComplete() && !remoteFH.isComplete()) {
+			reannounceFiles.add(localFH);
+		}
+		// Find: local incomplete, the remote copy knows who holds its chunks
+		if (!localFH.isComplete()) {
+			incompleteFiles.add(remoteFH);
+		}
+	}
+
+	/*
+	 * Announces local-only files, adds remote-only files, reannounces files
+	 * the remote side did not complete and takes the peers of the remote
+	 * copies of files we did not complete. A remote-only file mapped in
+	 * replaced takes the place of the given local file. Local-only files are
+	 * announced in batches, the empty files are created in parallel.
+	 */
+	private void applyMerge(LinkedList<FileHandle> localOnlyFiles,
+			LinkedList<FileHandle> remoteOnlyFiles, Map<FileHandle, FileHandle> replaced,
+			LinkedList<FileHandle> reannounceFiles, LinkedList<FileHandle> incompleteFiles) {
+		final Network myNetwork = Network.getInstance();
+		boolean parallel = remoteOnlyFiles.size() > 1;
+		LinkedList<Future<?>> tasks = new LinkedList<Future<?>>();
 
-		Network myNetwork = Network.getInstance();
 		// Handle local-only files
 		for (FileHandle fh : localOnlyFiles) {
 			System.out.println("Local only: " + fh.getPath());
-			myNetwork.sendMUCNewFile(fh.getPath(), fh.getSize(), fh.getByteHash(), fh.getBlockIDwithHash());
+		}
+		if (localOnlyFiles.size() == 1) {
+			FileHandle fh = localOnlyFiles.getFirst();
+			myNetwork.sendMUCNewFile(fh.getPath(), fh.getVersion(), fh.getSize(), fh.getByteHash(),
+					fh.getBlockList());
+		} else if (localOnlyFiles.size() > 1) {
+			myNetwork.sendMUCNewFiles(localOnlyFiles);
 		}
 		// Handle remote-only files
-		for (FileHandle fh : remoteOnlyFiles) {
+		for (final FileHandle fh : remoteOnlyFiles) {
 			System.out.println("Remote only: " + fh.getPath());
 			fh.setUpdating(true);
 			for (FileChunk fc : fh.getChunkList()) {
@@ -449,30 +736,284 @@ public class Storage {
 				fc.setComplete(false);
 				fc.setDownloading(false);
 			}
-			fh.createEmptyLocalFile();
-			getFileList().add(fh);
+			Runnable create = new Runnable() {
+				@Override
+				public void run() {
+					fh.createEmptyLocalFile();
+				}
+			};
+			if (parallel)
+				tasks.add(this.mergePool.submit(create));
+			else
+				create.run();
+			synchronized (lockFor(fh.getPath())) {
+				FileHandle old = replaced.get(fh);
+				if (old != null)
+					replaceFile(old, fh);
+				else
+					addFile(fh);
+				this.tree.put(fh.getPath(), fh.getByteHash(), fh.getVersion());
+				journalFile(fh);
+			}
 		}
 		// Handle files to be reannounced
 		for (FileHandle fh : reannounceFiles) {
 			myNetwork.sendMUCReannounceFile(fh.getPath(), fh.getSize(),	fh.getByteHash());
 		}
-		// Handle incomplete files
-		/*for (FileHandle fh : incompleteFiles) {
-			// TODO
-		}*/
+		// Handle incomplete files, e.g. recovered from the journal without
+		// peers
+		for (FileHandle remoteFH : incompleteFiles) {
+			FileHandle localFH = getFileHandle(remoteFH.getPath());
+			if (localFH != null)
+				localFH.addPeersOf(remoteFH);
+		}
+
+		for (Future<?> task : tasks) {
+			try {
+				task.get();
+			} catch (InterruptedException ie) {
+				Globals.log.addMsg("Interrupted while merging file lists", 4);
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException ee) {
+				Globals.log.addMsg("Error creating an empty file of a merge: " + ee.getCause(), 1);
+			}
+		}
 	}
 
-	public  FileHandle getFileHandle(String name) {
-		for (FileHandle f : getFileList()) {
-			if (f.getPath().equals(name)) {
-				return f;
+	/**
+	 * Returns the paths changed after the given file list version, oldest
+	 * change first
+	 * 
+	 * @param since
+	 *            The file list version
+	 * @return The paths or null if the change log does not reach back that
+	 *         far
+	 */
+	public LinkedList<String> getChangesSince(int since) {
+		synchronized (this.changeLog) {
+			if (since < this.changeLogStart || since > this.fileListVersion)
+				return null;
+			LinkedList<String> res = new LinkedList<String>();
+			for (Map.Entry<String, Integer> entry : this.changeLog.entrySet()) {
+				if (entry.getValue().intValue() > since)
+					res.add(entry.getKey());
 			}
+			return res;
 		}
-		return null;
 	}
 
-	public  void setFileList(LinkedList<FileHandle> newList) {
-		this.files = newList;
+	/**
+	 * Remembers the peer we synced our file list with
+	 * 
+	 * @param jid
+	 *            The JID of the peer
+	 * @param remoteLogID
+	 *            The log ID of the peer
+	 * @param remoteVersion
+	 *            The file list version of the peer
+	 */
+	public void setSynced(String jid, long remoteLogID, int remoteVersion) {
+		this.syncJID = jid;
+		this.syncLogID = remoteLogID;
+		this.syncVersion = remoteVersion;
+		this.syncLocalVersion = this.fileListVersion;
+		this.journal.appendSync(jid, remoteLogID, remoteVersion, this.syncLocalVersion);
+	}
+
+	/**
+	 * Returns true if we synced with this peer before, so only the changes
+	 * since can be fetched
+	 */
+	public boolean isSyncedWith(String jid) {
+		return jid.equals(this.syncJID);
+	}
+
+	/**
+	 * Returns true if a file misses chunks nobody is known to hold, e.g.
+	 * after it was recovered from the journal. Only a full merge finds the
+	 * peers of such files again.
+	 */
+	public boolean hasUnreachableChunks() {
+		for (FileHandle fh : getFileList()) {
+			if (fh.isComplete())
+				continue;
+			for (FileChunk fc : fh.getChunkList()) {
+				if (!fc.isComplete() && fh.noOfPeers(fc.getID()) == 0)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	public String getSyncJID() {
+		return this.syncJID;
+	}
+
+	public long getSyncLogID() {
+		return this.syncLogID;
+	}
+
+	public int getSyncVersion() {
+		return this.syncVersion;
+	}
+
+	public int getSyncLocalVersion() {
+		return this.syncLocalVersion;
+	}
+
+	public long getLogID() {
+		return this.logID;
+	}
+
+	public DirectoryTree getTree() {
+		return this.tree;
+	}
+
+	/*
+	 * Counts up the file list version and notes the changed path
+	 */
+	private void logChange(String path) {
+		synchronized (lockFor(path)) {
+			int version;
+			synchronized (this.changeLog) {
+				version = ++this.fileListVersion;
+				this.changeLog.remove(path);
+				this.changeLog.put(path, version);
+				if (this.changeLog.size() > Globals.changeLogSize) {
+					Iterator<Map.Entry<String, Integer>> it = this.changeLog.entrySet().iterator();
+					this.changeLogStart = it.next().getValue().intValue();
+					it.remove();
+				}
+			}
+			FileHandle fh = getFileHandle(path);
+			if (fh == null) {
+				this.tree.remove(path);
+				this.journal.appendRemove(path, version);
+			} else {
+				this.tree.put(path, fh.getByteHash(), fh.getVersion());
+				this.journal.appendFile(fh, version);
+			}
+		}
+	}
+
+	/*
+	 * Sets the file list version to the given one if that is higher
+	 */
+	private void raiseVersion(int version) {
+		synchronized (this.changeLog) {
+			if (version > this.fileListVersion) {
+				this.fileListVersion = version;
+			}
+		}
+	}
+
+	/*
+	 * Returns the lock of a path
+	 */
+	private Object lockFor(String path) {
+		return this.locks[(path.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+	}
+
+	/*
+	 * After a merge the versions before the current one do not tell what
+	 * changed anymore
+	 */
+	private void resetChangeLog() {
+		synchronized (this.changeLog) {
+			this.changeLog.clear();
+			this.changeLogStart = this.fileListVersion;
+		}
+		this.journal.appendVersion(this.fileListVersion, this.logID);
+	}
+
+	/**
+	 * Returns the file with the given path
+	 * 
+	 * @param name
+	 *            The path relative to the share directory
+	 * @return The FileHandle, or null if there is no such file
+	 */
+	public FileHandle getFileHandle(String name) {
+		if (name == null)
+			return null;
+		return this.index.get(name);
+	}
+
+	/*
+	 * Adds a file to the set and the index. The index keeps the first file
+	 * of a path, later ones are shadowed until it is removed. Caller holds
+	 * the lock of the path.
+	 */
+	private void addFile(FileHandle fh) {
+		this.files.add(fh);
+		if (this.index.putIfAbsent(fh.getPath(), fh) != null) {
+			LinkedList<FileHandle> others = this.shadowed.get(fh.getPath());
+			if (others == null) {
+				others = new LinkedList<FileHandle>();
+				this.shadowed.put(fh.getPath(), others);
+			}
+			others.add(fh);
+		}
+	}
+
+	/*
+	 * Removes a file from the set and the index. If another file of the
+	 * same path is shadowed, the index points to that one afterwards. Caller
+	 * holds the lock of the path.
+	 */
+	private void removeFile(FileHandle fh) {
+		String path = fh.getPath();
+		if (!this.files.remove(fh))
+			return;
+		LinkedList<FileHandle> others = this.shadowed.get(path);
+		if (this.index.remove(path, fh)) {
+			if (others != null)
+				this.index.put(path, others.removeFirst());
+		} else if (others != null) {
+			others.remove(fh);
+		}
+		if (others != null && others.isEmpty())
+			this.shadowed.remove(path);
+	}
+
+	/*
+	 * Puts a file in the place of another one of the same path. Readers of
+	 * the index see one of both at any time, never none. Caller holds the
+	 * lock of the path.
+	 */
+	private void replaceFile(FileHandle old, FileHandle fh) {
+		if (!this.files.contains(old)) {
+			addFile(fh);
+			return;
+		}
+		String path = fh.getPath();
+		this.files.add(fh);
+		this.files.remove(old);
+		if (!this.index.replace(path, old, fh)) {
+			LinkedList<FileHandle> others = this.shadowed.get(path);
+			others.set(others.indexOf(old), fh);
+		}
+	}
+
+	/**
+	 * Replaces all files. Meant for setting up the storage, readers may see
+	 * it empty in between.
+	 * 
+	 * @param newList
+	 *            The new files
+	 */
+	public void setFileList(Collection<FileHandle> newList) {
+		this.files.clear();
+		this.index.clear();
+		this.shadowed.clear();
+		this.tree.clear();
+		for (FileHandle fh : newList) {
+			synchronized (lockFor(fh.getPath())) {
+				addFile(fh);
+				this.tree.put(fh.getPath(), fh.getByteHash(), fh.getVersion());
+			}
+		}
 	}
 
 	/**
@@ -497,10 +1038,19 @@ public class Storage {
 	}
 
 	public void setVersion(int v) {
-		this.fileListVersion = v;
+		synchronized (this.changeLog) {
+			this.fileListVersion = v;
+		}
+		resetChangeLog();
 	}
 
-	public  LinkedList<FileHandle> getFileList() {
+	/**
+	 * Returns all files. The iteration does not fail on concurrent changes
+	 * but may or may not reflect them.
+	 * 
+	 * @return The files
+	 */
+	public Collection<FileHandle> getFileList() {
 		return this.files;
 	}
 
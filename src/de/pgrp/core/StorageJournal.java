@@ -0,0 +1,685 @@
+/*
+ * Peergroup - StorageJournal.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the state of the Storage on disk, so a restart resumes where it left
+ * off instead of hashing all files again and fetching the whole file list.
+ *
+ * Every change is appended to a journal. Once the journal holds
+ * Globals.journalCompactSize records, it is moved aside and a new journal of
+ * a new epoch is started. A background thread writes the whole state to a
+ * snapshot of that epoch and then removes the old journal, so appending never
+ * waits for the snapshot. Snapshot and journal carry the same epoch, a journal
+ * of another epoch is older than the snapshot and ignored. Until the new
+ * snapshot is in place, the old snapshot, the old journal and the new journal
+ * are read in this order. Records carry a checksum, reading stops at the
+ * first broken one.
+ *
+ * The peers holding chunks are not kept, they announce themselves again.
+ *
+ * @author Nicolas Inden
+ */
+public class StorageJournal {
+
+	private final static int MAGIC = 0x50474a31;
+	private final static byte FILE = 1;
+	private final static byte REMOVE = 2;
+	private final static byte CHUNK = 3;
+	private final static byte VERSION = 4;
+	private final static byte SYNC = 5;
+	/**
+	 * The maximum length of a record in bytes, longer ones are broken
+	 */
+	private final static int MAX_RECORD = 1 << 28;
+
+	private File journalFile;
+	private File previousFile; /**< The journal moved aside until the next snapshot is written */
+	private File snapshotFile;
+	/**
+	 * The storage written to the snapshot, null while the journal is closed
+	 */
+	private Storage storage;
+	private DataOutputStream out;
+	private int records;
+	/**
+	 * The thread writing a snapshot in the background, null if there is none
+	 */
+	private Thread compactor;
+
+	/**
+	 * Reads the snapshot and the journal in Globals.stateDirectory
+	 *
+	 * @return The recovered state, or null if there is none
+	 */
+	public synchronized Recovered read() {
+		locate();
+		// A journal is always started right after a snapshot
+		if (!this.snapshotFile.exists())
+			return null;
+
+		Recovered state = new Recovered();
+		long epoch = replay(this.snapshotFile, 0, false, state);
+		if (epoch == -1)
+			return null;
+		// The snapshot of the current journal was not written, it continues
+		// the journal moved aside
+		if (replay(this.previousFile, epoch, true, state) != -1)
+			epoch = 0;
+		replay(this.journalFile, epoch, true, state);
+		return state;
+	}
+
+	/**
+	 * Writes a snapshot of the storage and starts a new journal, to which
+	 * changes are appended from now on
+	 *
+	 * @param storage
+	 *            The storage
+	 */
+	public synchronized void open(Storage storage) {
+		locate();
+		this.storage = storage;
+		try {
+			compact();
+		} catch (IOException ioe) {
+			fail(ioe);
+		}
+	}
+
+	/**
+	 * Writes a snapshot and closes the journal
+	 */
+	public synchronized void close() {
+		awaitCompactor();
+		if (this.storage == null)
+			return;
+		try {
+			compact();
+			this.out.close();
+		} catch (IOException ioe) {
+			fail(ioe);
+		}
+		this.out = null;
+		this.storage = null;
+	}
+
+	/**
+	 * Notes the current state of a file
+	 *
+	 * @param fh
+	 *            The file
+	 * @param listVersion
+	 *            The file list version
+	 */
+	public synchronized void appendFile(FileHandle fh, int listVersion) {
+		if (this.storage == null)
+			return;
+		try {
+			Record rec = record(FILE);
+			rec.writeInt(listVersion);
+			writeFile(rec, fh);
+			append(rec);
+		} catch (IOException ioe) {
+			fail(ioe);
+		}
+	}
+
+	/**
+	 * Notes the removal of a file
+	 *
+	 * @param path
+	 *            The path of the file
+	 * @param listVersion
+	 *            The file list version
+	 */
+	public synchronized void appendRemove(String path, int listVersion) {
+		if (this.storage == null)
+			return;
+		try {
+			Record rec = record(REMOVE);
+			rec.writeInt(listVersion);
+			rec.writeUTF(path);
+			append(rec);
+		} catch (IOException ioe) {
+			fail(ioe);
+		}
+	}
+
+	/**
+	 * Notes the current state of a chunk, e.g. after it was downloaded
+	 *
+	 * @param path
+	 *            The path of the file
+	 * @param chunk
+	 *            The chunk
+	 */
+	public synchronized void appendChunk(String path, FileChunk chunk) {
+		if (this.storage == null)
+			return;
+		try {
+			Record rec = record(CHUNK);
+			rec.writeUTF(path);
+			writeChunk(rec, chunk);
+			append(rec);
+		} catch (IOException ioe) {
+			fail(ioe);
+		}
+	}
+
+	/**
+	 * Notes the file list version, e.g. after a merge
+	 *
+	 * @param listVersion
+	 *            The file list version
+	 * @param logID
+	 *            The ID of the change log
+	 */
+	public synchronized void appendVersion(int listVersion, long logID) {
+		if (this.storage == null)
+			return;
+		try {
+			Record rec = record(VERSION);
+			rec.writeInt(listVersion);
+			rec.writeLong(logID);
+			append(rec);
+		} catch (IOException ioe) {
+			fail(ioe);
+		}
+	}
+
+	/**
+	 * Notes the peer we synced our file list with
+	 */
+	public synchronized void appendSync(String jid, long syncLogID, int syncVersion, int syncLocalVersion) {
+		if (this.storage == null)
+			return;
+		try {
+			append(syncRecord(jid, syncLogID, syncVersion, syncLocalVersion));
+		} catch (IOException ioe) {
+			fail(ioe);
+		}
+	}
+
+	private void locate() {
+		File dir = new File(Globals.stateDirectory);
+		this.journalFile = new File(dir, "storage.journal");
+		this.previousFile = new File(dir, "storage.journal.prev");
+		this.snapshotFile = new File(dir, "storage.snapshot");
+	}
+
+	/*
+	 * Writes the state of the storage to a new snapshot and starts a new
+	 * journal of the same epoch. Caller holds the lock.
+	 */
+	private void compact() throws IOException {
+		long epoch = new Random().nextLong();
+		File tmp = writeSnapshot(this.storage, epoch);
+		Files.move(tmp.toPath(), this.snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		this.previousFile.delete();
+		startJournal(epoch);
+	}
+
+	/*
+	 * Moves the journal aside and starts one of a new epoch, the snapshot of
+	 * that epoch is written in the background. Caller holds the lock.
+	 */
+	private void rotate() throws IOException {
+		this.out.close();
+		this.out = null;
+		Files.move(this.journalFile.toPath(), this.previousFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		final long epoch = new Random().nextLong();
+		startJournal(epoch);
+
+		final Storage s = this.storage;
+		this.compactor = new Thread() {
+			@Override
+			public void run() {
+				File tmp = null;
+				try {
+					tmp = writeSnapshot(s, epoch);
+				} catch (IOException ioe) {
+					synchronized (StorageJournal.this) {
+						if (StorageJournal.this.storage == s)
+							fail(ioe);
+					}
+				}
+				synchronized (StorageJournal.this) {
+					// Only if the journal of this epoch is still kept
+					if (tmp != null && StorageJournal.this.storage == s) {
+						try {
+							Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+									StandardCopyOption.ATOMIC_MOVE);
+							previousFile.delete();
+						} catch (IOException ioe) {
+							fail(ioe);
+						}
+					} else if (tmp != null) {
+						tmp.delete();
+					}
+					StorageJournal.this.compactor = null;
+					StorageJournal.this.notifyAll();
+				}
+			}
+		};
+		this.compactor.setName("Storage Snapshot Thread");
+		this.compactor.start();
+	}
+
+	/*
+	 * Waits until a snapshot written in the background is in place. Caller
+	 * holds the lock.
+	 */
+	private void awaitCompactor() {
+		boolean interrupted = false;
+		while (this.compactor != null) {
+			try {
+				wait();
+			} catch (InterruptedException ie) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/*
+	 * Writes the state of the storage to a temporary snapshot of the given
+	 * epoch and returns it. Runs without the lock: the files are read while
+	 * they change, but every change after the start of the journal of this
+	 * epoch is in that journal and replayed on top.
+	 */
+	private File writeSnapshot(Storage s, long epoch) throws IOException {
+		long start = System.currentTimeMillis();
+		this.snapshotFile.getParentFile().mkdirs();
+
+		File tmp = new File(this.snapshotFile.getPath() + ".tmp");
+		FileOutputStream stream = new FileOutputStream(tmp);
+		DataOutputStream snap = new DataOutputStream(new BufferedOutputStream(stream));
+		snap.writeInt(MAGIC);
+		snap.writeLong(epoch);
+		int version = s.getVersion();
+		Record rec = record(VERSION);
+		rec.writeInt(version);
+		rec.writeLong(s.getLogID());
+		write(snap, rec);
+		write(snap, syncRecord(s.getSyncJID(), s.getSyncLogID(), s.getSyncVersion(), s.getSyncLocalVersion()));
+		int files = 0;
+		for (FileHandle fh : s.getFileList()) {
+			rec = record(FILE);
+			rec.writeInt(version);
+			writeFile(rec, fh);
+			write(snap, rec);
+			files++;
+		}
+		snap.flush();
+		stream.getFD().sync();
+		snap.close();
+		Globals.log.addMsg("Wrote storage snapshot of " + files + " files in "
+				+ (System.currentTimeMillis() - start) + "ms", 4);
+		return tmp;
+	}
+
+	/*
+	 * Starts a new journal of the given epoch. Caller holds the lock.
+	 */
+	private void startJournal(long epoch) throws IOException {
+		if (this.out != null)
+			this.out.close();
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.journalFile)));
+		this.out.writeInt(MAGIC);
+		this.out.writeLong(epoch);
+		this.out.flush();
+		this.records = 0;
+	}
+
+	/*
+	 * Gives up on keeping the state, the next start scans the share again
+	 */
+	private void fail(IOException ioe) {
+		Globals.log.addMsg("Error writing storage journal, giving up on it: " + ioe, 1);
+		try {
+			if (this.out != null)
+				this.out.close();
+		} catch (IOException e) {
+			// Deleted anyway
+		}
+		this.out = null;
+		this.storage = null;
+		this.journalFile.delete();
+		this.previousFile.delete();
+		this.snapshotFile.delete();
+	}
+
+	private void append(Record rec) throws IOException {
+		write(this.out, rec);
+		this.out.flush();
+		this.records++;
+		if (this.records >= Globals.journalCompactSize && this.compactor == null)
+			rotate();
+	}
+
+	private static Record record(byte type) throws IOException {
+		Record rec = new Record();
+		rec.writeByte(type);
+		return rec;
+	}
+
+	private static Record syncRecord(String jid, long syncLogID, int syncVersion, int syncLocalVersion)
+			throws IOException {
+		Record rec = record(SYNC);
+		rec.writeUTF(jid == null ? "" : jid);
+		rec.writeLong(syncLogID);
+		rec.writeInt(syncVersion);
+		rec.writeInt(syncLocalVersion);
+		return rec;
+	}
+
+	/*
+	 * Writes a record with its length and checksum
+	 */
+	private static void write(DataOutputStream dest, Record rec) throws IOException {
+		byte[] data = rec.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		dest.writeInt(data.length);
+		dest.writeInt((int) crc.getValue());
+		dest.write(data);
+	}
+
+	private static void writeFile(DataOutputStream rec, FileHandle fh) throws IOException {
+		rec.writeUTF(fh.getPath());
+		rec.writeInt(fh.getVersion());
+		rec.writeLong(fh.getSize());
+		writeHash(rec, fh.getByteHash());
+		rec.writeInt(fh.getChunkSize());
+		rec.writeLong(fh.getLastModified());
+		LinkedList<FileChunk> chunks = fh.getChunks();
+		rec.writeInt(chunks.size());
+		for (FileChunk c : chunks) {
+			writeChunk(rec, c);
+		}
+	}
+
+	private static void writeChunk(DataOutputStream rec, FileChunk c) throws IOException {
+		rec.writeInt(c.getID());
+		rec.writeInt(c.getVersion());
+		rec.writeInt(c.getSize());
+		rec.writeLong(c.getOffset());
+		writeHash(rec, c.getHash());
+		rec.writeBoolean(c.isComplete());
+	}
+
+	private static void writeHash(DataOutputStream rec, byte[] hash) throws IOException {
+		if (hash == null) {
+			rec.writeShort(-1);
+		} else {
+			rec.writeShort(hash.length);
+			rec.write(hash);
+		}
+	}
+
+	/*
+	 * Applies the records of a snapshot or journal to the state. Returns the
+	 * epoch of the file, or -1 if it is missing, broken or of another epoch
+	 * than expected (0 accepts any). A journal may end with a broken record
+	 * when we were killed while writing it, the records before still count.
+	 */
+	private long replay(File file, long expected, boolean journal, Recovered state) {
+		if (!file.exists())
+			return -1;
+		int applied = 0;
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (in.readInt() != MAGIC)
+				return -1;
+			long epoch = in.readLong();
+			if (expected != 0 && epoch != expected) {
+				Globals.log.addMsg("Ignoring storage journal older than the snapshot", 4);
+				return -1;
+			}
+			while (true) {
+				int length;
+				try {
+					length = in.readInt();
+				} catch (EOFException eof) {
+					break;
+				}
+				int sum = in.readInt();
+				if (length < 0 || length > MAX_RECORD) {
+					Globals.log.addMsg("Broken record in " + file + ", ignoring the rest", 4);
+					return journal ? epoch : -1;
+				}
+				byte[] data = new byte[length];
+				in.readFully(data);
+				CRC32 crc = new CRC32();
+				crc.update(data);
+				if ((int) crc.getValue() != sum) {
+					Globals.log.addMsg("Broken record in " + file + ", ignoring the rest", 4);
+					return journal ? epoch : -1;
+				}
+				apply(new DataInputStream(new ByteArrayInputStream(data)), state);
+				applied++;
+			}
+			return epoch;
+		} catch (EOFException eof) {
+			Globals.log.addMsg("Incomplete record at the end of " + file + ", ignoring it", 4);
+			return journal ? expected : -1;
+		} catch (Exception e) {
+			Globals.log.addMsg("Error reading " + file + ": " + e, 1);
+			return -1;
+		} finally {
+			Globals.log.addMsg("Read " + applied + " records from " + file, 4);
+			try {
+				if (in != null)
+					in.close();
+			} catch (IOException ioe) {
+				// Read already
+			}
+		}
+	}
+
+	private static void apply(DataInputStream rec, Recovered state) throws Exception {
+		switch (rec.readByte()) {
+		case FILE:
+			state.version = rec.readInt();
+			readFile(rec, state);
+			break;
+		case REMOVE:
+			state.version = rec.readInt();
+			String path = rec.readUTF();
+			state.files.remove(path);
+			state.modified.remove(path);
+			break;
+		case CHUNK:
+			FileHandle fh = state.files.get(rec.readUTF());
+			FileChunk read = readChunk(rec, fh == null ? "" : fh.getPath());
+			if (fh != null)
+				applyChunk(fh, read);
+			break;
+		case VERSION:
+			state.version = rec.readInt();
+			state.logID = rec.readLong();
+			break;
+		case SYNC:
+			String jid = rec.readUTF();
+			state.syncJID = jid.length() == 0 ? null : jid;
+			state.syncLogID = rec.readLong();
+			state.syncVersion = rec.readInt();
+			state.syncLocalVersion = rec.readInt();
+			break;
+		default:
+			throw new IOException("Unknown record type");
+		}
+	}
+
+	private static void readFile(DataInputStream rec, Recovered state) throws Exception {
+		String path = rec.readUTF();
+		int version = rec.readInt();
+		long size = rec.readLong();
+		byte[] hash = readHash(rec);
+		int chunkSize = rec.readInt();
+		long lastModified = rec.readLong();
+		int n = rec.readInt();
+		LinkedList<FileChunk> chunks = new LinkedList<FileChunk>();
+		for (int i = 0; i < n; i++) {
+			chunks.add(readChunk(rec, path));
+		}
+		state.files.put(path, new FileHandle(path, version, size, hash, chunkSize, chunks));
+		state.modified.put(path, Long.valueOf(lastModified));
+	}
+
+	private static FileChunk readChunk(DataInputStream rec, String path) throws IOException {
+		int id = rec.readInt();
+		int version = rec.readInt();
+		int size = rec.readInt();
+		long offset = rec.readLong();
+		byte[] hash = readHash(rec);
+		boolean complete = rec.readBoolean();
+		FileChunk c = new FileChunk(path, id, version, hash, size, offset, complete);
+		if (!complete)
+			c.clearPeers();
+		return c;
+	}
+
+	/*
+	 * Copies the state of a chunk read from the journal to the chunk of the
+	 * recovered file
+	 */
+	private static void applyChunk(FileHandle fh, FileChunk read) {
+		LinkedList<FileChunk> chunks = fh.getChunks();
+		FileChunk c = null;
+		if (read.getID() < chunks.size() && chunks.get(read.getID()).getID() == read.getID()) {
+			c = chunks.get(read.getID());
+		} else {
+			for (FileChunk other : chunks) {
+				if (other.getID() == read.getID())
+					c = other;
+			}
+		}
+		if (c == null)
+			return;
+		c.setVersion(read.getVersion());
+		c.setSize(read.getSize());
+		c.setHash(read.getHash());
+		c.setComplete(read.isComplete());
+		fh.clearPeers(c.getID());
+		if (read.isComplete())
+			fh.addPeer(c.getID(), P2Pdevice.getLocalDevice());
+		fh.setUpdating(!fh.isComplete());
+	}
+
+	private static byte[] readHash(DataInputStream rec) throws IOException {
+		int length = rec.readShort();
+		if (length < 0)
+			return null;
+		byte[] hash = new byte[length];
+		rec.readFully(hash);
+		return hash;
+	}
+
+	/**
+	 * A record being written
+	 */
+	private static class Record extends DataOutputStream {
+
+		public Record() {
+			super(new ByteArrayOutputStream());
+		}
+
+		public byte[] toByteArray() {
+			return ((ByteArrayOutputStream) this.out).toByteArray();
+		}
+	}
+
+	/**
+	 * The state read from snapshot and journal
+	 */
+	public static class Recovered {
+
+		private LinkedHashMap<String, FileHandle> files = new LinkedHashMap<String, FileHandle>();
+		/**
+		 * The modification time of each file when its state was written
+		 */
+		private HashMap<String, Long> modified = new HashMap<String, Long>();
+		private int version;
+		private long logID;
+		private String syncJID;
+		private long syncLogID;
+		private int syncVersion;
+		private int syncLocalVersion;
+
+		public LinkedHashMap<String, FileHandle> getFiles() {
+			return this.files;
+		}
+
+		public HashMap<String, Long> getModified() {
+			return this.modified;
+		}
+
+		public int getVersion() {
+			return this.version;
+		}
+
+		public long getLogID() {
+			return this.logID;
+		}
+
+		public String getSyncJID() {
+			return this.syncJID;
+		}
+
+		public long getSyncLogID() {
+			return this.syncLogID;
+		}
+
+		public int getSyncVersion() {
+			return this.syncVersion;
+		}
+
+		public int getSyncLocalVersion() {
+			return this.syncLocalVersion;
+		}
+	}
+}
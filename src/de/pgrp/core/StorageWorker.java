@@ -22,7 +22,6 @@
 package de.pgrp.core;
 
 import java.util.*;
-import java.util.concurrent.*;
 import java.io.*;
 import java.nio.file.*;
 
@@ -120,7 +119,7 @@ public class StorageWorker extends Thread {
 					if (newEntry.isFile()) {
 						// System.out.println(" -- is a file!");
 						// System.out.println(pathWithoutRoot);
-						insertElement(Globals.delayQueue, new FileEvent(
+						Globals.delayQueue.add(new FileEvent(
 								Globals.LOCAL_FILE_CREATE, pathWithoutRoot));
 					} else if (newEntry.isDirectory()) {
 						if (registeredFolder(newEntry.getPath())) {
@@ -128,7 +127,7 @@ public class StorageWorker extends Thread {
 						}
 						// System.out.println(" -- is a directory!");
 						registerThisAndSubs(newEntry.getPath());
-						insertElement(Globals.delayQueue, new FileEvent(
+						Globals.delayQueue.add(new FileEvent(
 								Globals.LOCAL_DIR_CREATE, pathWithoutRoot));
 					}
 				} else if (e.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
@@ -144,11 +143,14 @@ public class StorageWorker extends Thread {
 							+ context.toString());
 					if (!registeredFolder(delEntry.getPath())) {
 						// System.out.println("File: " + pathWithoutRoot);
-						Globals.requestQueue.offer(new FSRequest(
+						// delayed as well, a file replaced by a new one
+						// (e.g. on save) is a modification
+						Globals.delayQueue.add(new FileEvent(
 								Globals.LOCAL_FILE_DELETE, pathWithoutRoot));
 					} else {
 						// System.out.println("Folder: " + pathWithoutRoot);
 						deleteThisAndSubs(delEntry.getPath());
+						Globals.delayQueue.cancelBelow(pathWithoutRoot);
 						Globals.requestQueue.offer(new FSRequest(
 								Globals.LOCAL_DIR_DELETE, pathWithoutRoot));
 					}
@@ -164,7 +166,7 @@ public class StorageWorker extends Thread {
 					if (modEntry.isFile()) {
 						String pathWithoutRoot = Helper.getPurePath(dir.toString()
 								+ "/" + context.toString());
-						insertElement(Globals.delayQueue, new FileEvent(
+						Globals.delayQueue.add(new FileEvent(
 								pathWithoutRoot));
 					}
 				} else if (e.kind() == StandardWatchEventKinds.OVERFLOW) {
@@ -177,17 +179,6 @@ public class StorageWorker extends Thread {
 		Globals.log.addMsg("Storage thread interrupted. Closing...", 4);
 	}
 
-	private void insertElement(ConcurrentLinkedQueue<FileEvent> list,
-			FileEvent me) {
-		for (FileEvent e : list) {
-			if (e.getName().equals(me.getName())) {
-				e.setTime(me.getTime());
-				return;
-			}
-		}
-		list.add(me);
-	}
-
 	/**
 	 * Registers this directory and all sub directories to the WatchService.
 	 * Also all files below this new directories are added as new files.
@@ -207,13 +198,13 @@ public class StorageWorker extends Thread {
 		for (File sub : contents) {
 			if (sub.isDirectory()) {
 				registerThisAndSubs(sub.getPath());
-				insertElement(Globals.delayQueue, new FileEvent(
+				Globals.delayQueue.add(new FileEvent(
 						Globals.LOCAL_DIR_CREATE, Helper.getPurePath(sub.getPath())));
 			} else if (sub.isFile()) {
 				if (sub.getName().charAt(0) == '.') {
 					continue;
 				}
-				insertElement(Globals.delayQueue, new FileEvent(Globals.LOCAL_FILE_CREATE, Helper.getPurePath(sub.getPath())));
+				Globals.delayQueue.add(new FileEvent(Globals.LOCAL_FILE_CREATE, Helper.getPurePath(sub.getPath())));
 			}
 		}
 	}
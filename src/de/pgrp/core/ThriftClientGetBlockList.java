@@ -0,0 +1,126 @@
+/*
+ * Peergroup - ThriftClientGetBlockList.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import de.pgrp.thrift.*;
+
+import java.util.*;
+
+/**
+ * Fetches the block list of a large file from the peer that announced it.
+ * Announcements of such files only carry the root hash of the list, the list
+ * itself is requested page by page and checked against it. The MainWorker
+ * runs these in its block list pool and applies the fetched lists itself.
+ *
+ * @author Nicolas Inden
+ */
+public class ThriftClientGetBlockList implements Runnable {
+
+	private String name;
+	private int vers;
+	private long size;
+	private byte[] hash;
+	private byte[] root;
+	private P2Pdevice node;
+	private boolean update;
+
+	/**
+	 * @param name
+	 *            The filename of the announced file
+	 * @param vers
+	 *            The announced fileversion
+	 * @param size
+	 *            The announced filesize
+	 * @param hash
+	 *            The SHA256 value of the file
+	 * @param root
+	 *            The root hash of the block list
+	 * @param node
+	 *            The peer that announced the file
+	 * @param update
+	 *            true if an update was announced, false for a new file
+	 */
+	public ThriftClientGetBlockList(String name, int vers, long size, byte[] hash, byte[] root, P2Pdevice node,
+			boolean update) {
+		this.name = name;
+		this.vers = vers;
+		this.size = size;
+		this.hash = hash;
+		this.root = root;
+		this.node = node;
+		this.update = update;
+	}
+
+	/**
+	 * The run() method, fetches the list and hands it to the MainWorker
+	 */
+	@Override
+	public void run() {
+		Globals.log.addMsg("DOWNLOAD_BLOCK_LIST: " + this.name + " Version " + this.vers + " from "
+				+ this.node.getJID());
+		BlockList blocks = fetch();
+		if (blocks == null)
+			return;
+
+		if (!Arrays.equals(blocks.getRootHash(), this.root)) {
+			Globals.log.addMsg("Block list of " + this.name + " does not match the announced root hash, ignoring!", 4);
+			return;
+		}
+
+		Globals.requestQueue.offer(new BlockListRequest(this.name, this.vers, this.size, this.hash, blocks,
+				this.node, this.update));
+	}
+
+	/*
+	 * Requests all pages of the block list. Returns null if the peer does not
+	 * know the file or already moved on to another version, its announcement
+	 * of that version will follow.
+	 */
+	private BlockList fetch() {
+		BlockList res = null;
+		int total = 0;
+		do {
+			int offset = (res == null) ? 0 : res.size();
+			ThriftBlockList page = this.node.getBlockList(this.name, offset, Globals.blockListPageSize);
+			if (page == null)
+				return null;
+			if (page.getFileVersion() != this.vers) {
+				Globals.log.addMsg("Block list of " + this.name + " changed to version " + page.getFileVersion()
+						+ " meanwhile, ignoring version " + this.vers, 4);
+				return null;
+			}
+			BlockList blocks = BlockList.decode(page.getBlocks());
+			if (blocks == null)
+				return null;
+			if (res == null) {
+				total = page.getNoOfChunks();
+				res = new BlockList(Math.min(total, Globals.blockListPageSize));
+			}
+			if (blocks.size() == 0 && res.size() < total) {
+				Globals.log.addMsg("Block list of " + this.name + " ended early, ignoring!", 4);
+				return null;
+			}
+			res.addAll(blocks);
+		} while (res.size() < total);
+		return res;
+	}
+}
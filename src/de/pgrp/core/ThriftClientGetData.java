@@ -21,9 +21,6 @@
 
 package de.pgrp.core;
 
-import javax.crypto.*;
-import javax.crypto.spec.*;
-
 /**
  * This thread requests blocks or FileList information from other peers.
  * 
@@ -58,64 +55,77 @@ public class ThriftClientGetData implements Runnable {
 			}
 
 			//Get chunk from peer
-			byte[] swap = getBlock(chunk.getName(), chunk.getID(), chunk.getHexHash(), device);
+			byte[] base = null;
+			String baseHash = "";
+			if (Globals.deltaDataTransfers) {
+				base = tmp.getBaseData(chunk.getID());
+				if (base == null)
+					chunk.clearBase();
+				else
+					baseHash = chunk.getBaseHexHash();
+			}
+			int codecs = BlockCodec.getAcceptedCodecs(base != null);
+			int maxSize = Math.max(chunk.getSize(), tmp.getChunkSize());
+			byte[] swap = getBlock(chunk.getName(), chunk.getID(), chunk.getHexHash(), codecs, baseHash, device);
 			if (swap != null) {
 
-				if(Globals.encryptDataTransfers){
-					// Seperate encrypted data and IV
-					byte[] data = new byte[swap.length - 16];
-					byte[] iv = new byte[16];
-					System.arraycopy(swap, 0, iv, 0, 16);
-					System.arraycopy(swap, 16, data, 0, swap.length - 16);
-				
-					swap = null;
-
-					try {
-						// Init AES cipher
-						Cipher ciph = Cipher.getInstance("AES/CBC/PKCS5Padding");
-						ciph.init(Cipher.DECRYPT_MODE, Globals.secKey, new IvParameterSpec(iv));
-						// Decrypt data block
-						data = ciph.doFinal(data);
-
-						// If hash does not match after transmission and decryption,
-						// set as failed, and try again
-						if (!chunk.checkHash(data)) {
-							chunk.setComplete(false);
-							chunk.setDownloading(false);
-							chunk.setFailed(true);
-
-							return;
-						}
-
-						//Globals.log.addMsg(chunk.getName() + " Block " + chunk.getID() + ": Hash OK!");
-						Globals.log.addMsg("DOWNLOADED_BLOCK: " + chunk.getName()
-								+ " - Block " + chunk.getID() + " from " + device.getUsedIP()
-								+ ":" + device.getPort() + " - Hash OK!");
-
-						chunk.setDownloading(false);
-						chunk.setComplete(true);
-						chunk.setFailed(false);
-					
-						removeChunkFromDownloadsList(chunk);
-					
-						Globals.storeQueue.offer(new StoreBlock(tmp, chunk.getID(), chunk.getHexHash(), device, data));
-						if (!tmp.isDownloading() && !tmp.hasFailed()) {
-							tmp.setTimeBool(false);
-							long dlTime = System.currentTimeMillis() - tmp.getDLTime();
-							double res = ((double) dlTime) / 1000;
-							Network.getInstance().sendMUCmessage(tmp.getPath() + "," + tmp.getSize() + "," + res);
+				if(BlockCrypto.isEnabled()){
+					// Decrypt in place, the GCM tag covers name, ID and hash of
+					// the chunk. It proves the sender, not that the data it read
+					// matches the hash, so the hash is checked as well.
+					int len = BlockCrypto.decrypt(swap,
+							BlockCrypto.getAAD(chunk.getName(), chunk.getID(), chunk.getHexHash()));
+					byte[] data = null;
+					if (len >= 0) {
+						if (codecs != BlockCodec.NONE) {
+							data = BlockCodec.decode(swap, BlockCrypto.NONCE_SIZE, len, maxSize, base);
+						} else {
+							data = new byte[len];
+							System.arraycopy(swap, BlockCrypto.NONCE_SIZE, data, 0, len);
 						}
+					}
+					swap = null;
 
-					} catch (Exception e) {
-						Globals.log.addMsg("Wrong password: " + e.toString());
+					// If the block is not authentic or its hash does not match
+					// after transmission and decryption, set as failed, and try
+					// again
+					if (data == null || !chunk.checkHash(data)) {
+						chunk.clearBase();
 						chunk.setComplete(false);
 						chunk.setDownloading(false);
 						chunk.setFailed(true);
+
+						return;
+					}
+
+					Globals.log.addMsg("DOWNLOADED_BLOCK: " + chunk.getName()
+							+ " - Block " + chunk.getID() + " from " + device.getUsedIP()
+							+ ":" + device.getPort() + " - Tag and hash OK!");
+
+					chunk.setDownloading(false);
+					chunk.setComplete(true);
+					chunk.setFailed(false);
+				
+					removeChunkFromDownloadsList(chunk);
+					UploadManager.getInstance().addDownloaded(device.getUsedIP(), data.length);
+				
+					keepVersions(base, baseHash, data);
+					Globals.storeQueue.offer(new StoreBlock(tmp, chunk.getID(), chunk.getHexHash(), device, data));
+					if (!tmp.isDownloading() && !tmp.hasFailed()) {
+						tmp.setTimeBool(false);
+						long dlTime = System.currentTimeMillis() - tmp.getDLTime();
+						double res = ((double) dlTime) / 1000;
+						Network.getInstance().sendMUCmessage(tmp.getPath() + "," + tmp.getSize() + "," + res);
 					}
 				} else {
+					if (codecs != BlockCodec.NONE) {
+						swap = BlockCodec.decode(swap, maxSize, base);
+					}
+
 					// If hash does not match after transmission and decryption,
 					// set as failed, and try again
-					if (!chunk.checkHash(swap)) {
+					if (swap == null || !chunk.checkHash(swap)) {
+						chunk.clearBase();
 						chunk.setComplete(false);
 						chunk.setDownloading(false);
 						chunk.setFailed(true);
@@ -130,7 +140,9 @@ public class ThriftClientGetData implements Runnable {
 					chunk.setFailed(false);
 				
 					removeChunkFromDownloadsList(chunk);
+					UploadManager.getInstance().addDownloaded(device.getUsedIP(), swap.length);
 				
+					keepVersions(base, baseHash, swap);
 					Globals.storeQueue.offer(new StoreBlock(tmp, chunk.getID(), chunk.getHexHash(), device, swap));
 					if (!tmp.isDownloading() && !tmp.hasFailed()) {
 						tmp.setTimeBool(false);
@@ -147,6 +159,18 @@ public class ThriftClientGetData implements Runnable {
 		}
 	}
 
+	/*
+	 * Caches the old and the new version of the block. Peers still holding
+	 * the old version can then get a delta from us as well, and the new
+	 * version is the base for the next update.
+	 */
+	private void keepVersions(byte[] base, String baseHash, byte[] data) {
+		ChunkCache cache = ChunkCache.getInstance();
+		if (base != null)
+			cache.put(chunk.getName(), chunk.getID(), baseHash, "plain", base);
+		cache.put(chunk.getName(), chunk.getID(), chunk.getHexHash(), "plain", data);
+	}
+
 	private void removeChunkFromDownloadsList(FileChunk chunk2) {
 		synchronized(Globals.downloadsList){
 			DLULItem tmp = new DLULItem(chunk2.getName(),chunk2.getID());
@@ -154,7 +178,7 @@ public class ThriftClientGetData implements Runnable {
 		}
 	}
 
-	private byte[] getBlock(String name, int id, String hash, P2Pdevice node) {
-		return node.getDataBlock(name, id, hash);
+	private byte[] getBlock(String name, int id, String hash, int codecs, String baseHash, P2Pdevice node) {
+		return node.getDataBlock(name, id, hash, codecs, baseHash);
 	}
 }
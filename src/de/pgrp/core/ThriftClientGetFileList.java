@@ -32,12 +32,35 @@ import java.util.*;
  */
 public class ThriftClientGetFileList extends Thread {
 
+	/**
+	 * The maximum number of directories or files requested at once
+	 */
+	private final static int TREE_BATCH = 1024;
+	/**
+	 * How often a failed page of the file list is requested again
+	 */
+	private final static int PAGE_RETRIES = 3;
+
 	private int vers;
 	private P2Pdevice node;
+	private byte[] root;
+	private long logID;
 
-	public ThriftClientGetFileList(int vers, P2Pdevice node) {
+	/**
+	 * @param vers
+	 *            The file list version of the peer
+	 * @param node
+	 *            The peer
+	 * @param root
+	 *            The root hash of its directory tree, null if unknown
+	 * @param logID
+	 *            The ID of its change log
+	 */
+	public ThriftClientGetFileList(int vers, P2Pdevice node, byte[] root, long logID) {
 		this.vers = vers;
 		this.node = node;
+		this.root = root;
+		this.logID = logID;
 	}
 
 	/**
@@ -45,38 +68,225 @@ public class ThriftClientGetFileList extends Thread {
 	 */
 	@Override
 	public void run() {
+		Storage storage = Storage.getInstance();
+		// Deltas and trees skip equal files, so files missing peers for
+		// their chunks need the whole list
+		boolean full = storage.hasUnreachableChunks();
+		if (!full && storage.isSyncedWith(node.getJID()) && mergeDelta(storage))
+			return;
+		// Comparing trees only pays off if we have files already
+		if (!full && !storage.getFileList().isEmpty() && mergeTree(storage))
+			return;
+
+		if (mergePages(storage))
+			return;
+
+		// Peers without paged file lists send the whole list at once
 		Globals.log.addMsg("DOWNLOAD_CURRENT_FILE_LIST: Version " + vers
 				+ " from " + node.getJID());
 		ThriftStorage newStorage = node.getFileList();
+		if (newStorage == null)
+			return;
 		LinkedList<FileHandle> newFiles = new LinkedList<FileHandle>();
 		for (ThriftFileHandle fh : newStorage.getFiles()) {
-			LinkedList<FileChunk> chunks = new LinkedList<FileChunk>();
+			FileHandle newHandle = toFileHandle(fh);
+			if (newHandle != null)
+				newFiles.add(newHandle);
+		}
+		storage.mergeWithRemoteStorage(newStorage.getVersion(), newFiles);
+		storage.setSynced(node.getJID(), newStorage.getLogID(), newStorage.getVersion());
+	}
+
+	/*
+	 * Fetches the file list page by page and merges every page as it
+	 * arrives. Pages follow the path order of the directory trees, so each
+	 * page is merged with our files between the previous and the current
+	 * cursor. A failed page is requested again from the same cursor. Returns
+	 * false if the peer does not serve pages or the download broke off, the
+	 * whole list has to be fetched then.
+	 */
+	private boolean mergePages(Storage storage) {
+		Globals.log.addMsg("DOWNLOAD_FILE_LIST_PAGES: Version " + vers + " from " + node.getJID());
+		DirectoryTree tree = storage.getTree();
+		String cursor = "";
+		ThriftStoragePage page = null;
+		int syncVersion = vers;
+		long syncLogID = 0;
+		int retries = 0;
+		do {
+			page = node.getFileListPage(cursor, Globals.storagePageSize);
+			if (page == null) {
+				if (cursor.length() == 0)
+					return false;
+				if (retries++ < PAGE_RETRIES) {
+					Globals.log.addMsg("Download of the file list from " + node.getJID() + " failed after "
+							+ cursor + ", retrying", 1);
+					continue;
+				}
+				Globals.log.addMsg("Download of the file list from " + node.getJID() + " stopped after " + cursor, 4);
+				return false;
+			}
+			retries = 0;
+			if (cursor.length() == 0) {
+				syncVersion = page.getVersion();
+				syncLogID = page.getLogID();
+			}
+
+			LinkedList<FileHandle> remoteFiles = new LinkedList<FileHandle>();
+			for (ThriftFileHandle fh : page.getFiles()) {
+				FileHandle newHandle = toFileHandle(fh);
+				if (newHandle != null)
+					remoteFiles.add(newHandle);
+			}
+			LinkedList<FileHandle> localFiles = new LinkedList<FileHandle>();
+			for (String path : tree.getFiles(cursor, page.isComplete() ? null : page.getCursor(), Integer.MAX_VALUE)) {
+				FileHandle fh = storage.getFileHandle(path);
+				if (fh != null)
+					localFiles.add(fh);
+			}
+			storage.mergeWithRemoteFiles(page.getVersion(), localFiles, remoteFiles);
+			cursor = page.getCursor();
+		} while (page == null || !page.isComplete());
+
+		storage.setSynced(node.getJID(), syncLogID, syncVersion);
+		return true;
+	}
+
+	/*
+	 * Fetches and merges the changes since our last sync with this peer.
+	 * Returns false if the peer or we lost track of them, the whole list has
+	 * to be fetched then.
+	 */
+	private boolean mergeDelta(Storage storage) {
+		Globals.log.addMsg("DOWNLOAD_FILE_LIST_CHANGES: Version " + storage.getSyncVersion() + " to " + vers
+				+ " from " + node.getJID());
+		ThriftStorageDelta delta = node.getFileListDelta(storage.getSyncLogID(), storage.getSyncVersion());
+		if (delta == null || delta.isTruncated()) {
+			Globals.log.addMsg("Changes of the file list are not available, fetching the whole list", 4);
+			return false;
+		}
+		LinkedList<FileHandle> changed = new LinkedList<FileHandle>();
+		for (ThriftFileHandle fh : delta.getChanged()) {
+			FileHandle newHandle = toFileHandle(fh);
+			if (newHandle != null)
+				changed.add(newHandle);
+		}
+		if (!storage.mergeDeltaFromRemote(delta.getVersion(), changed, delta.getDeleted()))
+			return false;
+		storage.setSynced(node.getJID(), storage.getSyncLogID(), delta.getVersion());
+		return true;
+	}
+
+	/*
+	 * Compares our directory tree with the one of the peer level by level,
+	 * descending only into differing directories, and merges the files found
+	 * there. Returns false if the peer does not answer, the whole list has to
+	 * be fetched then.
+	 */
+	private boolean mergeTree(Storage storage) {
+		DirectoryTree tree = storage.getTree();
+		LinkedList<String> remotePaths = new LinkedList<String>();
+		LinkedList<String> localPaths = new LinkedList<String>();
+
+		if (this.root != null && Arrays.equals(this.root, tree.getRootHash())) {
+			Globals.log.addMsg("File list of " + node.getJID() + " equals ours");
+		} else {
+			Globals.log.addMsg("DOWNLOAD_DIRECTORY_TREE: Version " + vers + " from " + node.getJID());
+			LinkedList<String> dirs = new LinkedList<String>();
+			dirs.add("");
+			while (!dirs.isEmpty()) {
+				LinkedList<String> batch = new LinkedList<String>();
+				while (!dirs.isEmpty() && batch.size() < TREE_BATCH) {
+					batch.add(dirs.poll());
+				}
+				List<ThriftTreeNode> nodes = node.getTreeNodes(batch);
+				if (nodes == null)
+					return false;
+
+				HashMap<String, DirectoryTree.Entry> local = new HashMap<String, DirectoryTree.Entry>();
+				for (String dir : batch) {
+					for (DirectoryTree.Entry e : tree.getChildren(dir)) {
+						local.put(e.getPath(), e);
+					}
+				}
+				for (ThriftTreeNode r : nodes) {
+					DirectoryTree.Entry l = local.remove(r.getPath());
+					if (l != null && l.isDirectory() == r.isDirectory() && Arrays.equals(l.getHash(), r.getHash()))
+						continue;
+					if (r.isDirectory()) {
+						dirs.add(r.getPath());
+						if (l != null && !l.isDirectory())
+							localPaths.add(l.getPath());
+					} else {
+						remotePaths.add(r.getPath());
+						if (l != null)
+							localPaths.addAll(tree.getFiles(l.getPath()));
+					}
+				}
+				// Whatever the peer does not have at all
+				for (String path : local.keySet()) {
+					localPaths.addAll(tree.getFiles(path));
+				}
+			}
+		}
+
+		LinkedList<FileHandle> remoteFiles = new LinkedList<FileHandle>();
+		while (!remotePaths.isEmpty()) {
+			LinkedList<String> batch = new LinkedList<String>();
+			while (!remotePaths.isEmpty() && batch.size() < TREE_BATCH) {
+				batch.add(remotePaths.poll());
+			}
+			List<ThriftFileHandle> handles = node.getFileHandles(batch);
+			if (handles == null)
+				return false;
+			for (ThriftFileHandle fh : handles) {
+				FileHandle newHandle = toFileHandle(fh);
+				if (newHandle != null)
+					remoteFiles.add(newHandle);
+			}
+		}
+		LinkedList<FileHandle> localFiles = new LinkedList<FileHandle>();
+		for (String path : localPaths) {
+			FileHandle fh = storage.getFileHandle(path);
+			if (fh != null)
+				localFiles.add(fh);
+		}
+
+		storage.mergeWithRemoteFiles(vers, localFiles, remoteFiles);
+		storage.setSynced(node.getJID(), this.logID, vers);
+		return true;
+	}
 
-			for (ThriftFileChunk fc : fh.getChunks()) {
-				LinkedList<P2Pdevice> devices = new LinkedList<P2Pdevice>();
+	private static FileHandle toFileHandle(ThriftFileHandle fh) {
+		LinkedList<FileChunk> chunks = new LinkedList<FileChunk>();
+		List<ThriftP2PDevice> lastDevs = null;
+		LinkedList<P2Pdevice> devices = null;
 
-				for (ThriftP2PDevice dev : fc.getDevices()) {
+		for (ThriftFileChunk fc : fh.getChunks()) {
+			// Chunks held by the same peers as the previous one share its list
+			if (lastDevs == null || !lastDevs.equals(fc.getDevices())) {
+				lastDevs = fc.getDevices();
+				devices = new LinkedList<P2Pdevice>();
+				for (ThriftP2PDevice dev : lastDevs) {
 					P2Pdevice newDev = P2Pdevice.getDevice(dev.getJid(), dev.getRemoteIP(), dev.getLocalIP(), dev.getPort());
 					devices.add(newDev);
 				}
-				FileChunk newChunk = new FileChunk(fh.getFilename(),
-						fc.getChunkID(), fc.getSize(), fc.getBlockVersion(),
-						fc.getHash(), devices, false); // Don't forget to change
-				// when merging
-				chunks.add(newChunk);
-			}
-			try {
-				FileHandle newHandle = new FileHandle(fh.getFilename(),
-						fh.getFileVersion(), fh.getSize(), fh.getHash(),
-						fh.getChunkSize(), chunks);
-				newFiles.add(newHandle);
-			} catch (Exception e) {
-				Globals.log.addMsg(
-						"Error creating FileHandle for " + fh.getFilename()
-						+ " while receiving FileList", 2);
 			}
+			FileChunk newChunk = new FileChunk(fh.getFilename(),
+					fc.getChunkID(), fc.getSize(), fc.getBlockVersion(),
+					fc.getHash(), devices, false); // Don't forget to change
+			// when merging
+			chunks.add(newChunk);
+		}
+		try {
+			return new FileHandle(fh.getFilename(),
+					fh.getFileVersion(), fh.getSize(), fh.getHash(),
+					fh.getChunkSize(), chunks);
+		} catch (Exception e) {
+			Globals.log.addMsg(
+					"Error creating FileHandle for " + fh.getFilename()
+					+ " while receiving FileList", 2);
+			return null;
 		}
-		Storage.getInstance().mergeWithRemoteStorage(newStorage.getVersion(),
-				newFiles);
 	}
 }
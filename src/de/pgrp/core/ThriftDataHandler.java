@@ -28,9 +28,6 @@ import java.nio.ByteBuffer;
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import javax.crypto.*;
-import javax.crypto.spec.*;
-import java.security.AlgorithmParameters;
 
 /**
  * The ThriftDataHandler implements the DataTransfer interface and defines how
@@ -40,6 +37,12 @@ import java.security.AlgorithmParameters;
  */
 public class ThriftDataHandler implements DataTransfer.Iface {
 
+	/**
+	 * The address of the peer whose request is processed by the current
+	 * thread, set by the ThriftServerWorker
+	 */
+	static final ThreadLocal<String> remoteAddress = new ThreadLocal<String>();
+
 	/*
 	* Gets a hash of "channelpasswd" + "first half of local ip"
 	*/
@@ -72,44 +75,210 @@ public class ThriftDataHandler implements DataTransfer.Iface {
 	}
 
 	/*
-	 * Reads the requested data block from storage and returns it as a byte
-	 * array.
+	 * Returns a page of our file list: the files following the cursor path in
+	 * the order of our directory tree. Pages are at most
+	 * Globals.storagePageSize files long.
+	 */
+	@Override
+	public ThriftStoragePage getStoragePage(String cursor, int count) throws org.apache.thrift.TException {
+		Storage storage = Storage.getInstance();
+		int version = storage.getVersion();
+		int max = Math.max(1, Math.min(count, Globals.storagePageSize));
+		LinkedList<String> paths = storage.getTree().getFiles(cursor, null, max);
+		LinkedList<ThriftFileHandle> files = new LinkedList<ThriftFileHandle>();
+		for (String path : paths) {
+			FileHandle f = storage.getFileHandle(path);
+			if (f != null)
+				files.add(toThriftFileHandle(f));
+		}
+		String next = paths.isEmpty() ? cursor : paths.getLast();
+		return new ThriftStoragePage(version, storage.getLogID(), files, next, paths.size() < max);
+	}
+
+	/*
+	 * Returns the files changed since the given version of our file list. If
+	 * our change log does not reach back that far, or the version belongs to
+	 * an earlier run, the delta is marked truncated and the peer has to fetch
+	 * the whole list.
+	 */
+	@Override
+	public ThriftStorageDelta getStorageDelta(long logID, int sinceVersion) throws org.apache.thrift.TException {
+		Storage storage = Storage.getInstance();
+		int version = storage.getVersion();
+		LinkedList<ThriftFileHandle> changed = new LinkedList<ThriftFileHandle>();
+		LinkedList<String> deleted = new LinkedList<String>();
+		LinkedList<String> paths = null;
+		if (logID == storage.getLogID())
+			paths = storage.getChangesSince(sinceVersion);
+		if (paths == null)
+			return new ThriftStorageDelta(version, true, changed, deleted);
+
+		for (String path : paths) {
+			FileHandle f = storage.getFileHandle(path);
+			if (f == null) {
+				deleted.add(path);
+			} else {
+				changed.add(toThriftFileHandle(f));
+			}
+		}
+		return new ThriftStorageDelta(version, false, changed, deleted);
+	}
+
+	/*
+	 * Returns the children of the given directories in our directory tree,
+	 * with their hashes
+	 */
+	@Override
+	public List<ThriftTreeNode> getTreeNodes(List<String> dirs) throws org.apache.thrift.TException {
+		DirectoryTree tree = Storage.getInstance().getTree();
+		LinkedList<ThriftTreeNode> res = new LinkedList<ThriftTreeNode>();
+		for (String dir : dirs) {
+			for (DirectoryTree.Entry e : tree.getChildren(dir)) {
+				res.add(new ThriftTreeNode(e.getPath(), e.isDirectory(), ByteBuffer.wrap(e.getHash())));
+			}
+		}
+		return res;
+	}
+
+	/*
+	 * Returns the files with the given paths, paths we do not know are left
+	 * out
 	 */
 	@Override
-	public ByteBuffer getDataBlock(String filename, int blockID, String hash)
+	public List<ThriftFileHandle> getFileHandles(List<String> paths) throws org.apache.thrift.TException {
+		Storage storage = Storage.getInstance();
+		LinkedList<ThriftFileHandle> res = new LinkedList<ThriftFileHandle>();
+		for (String path : paths) {
+			FileHandle f = storage.getFileHandle(path);
+			if (f != null)
+				res.add(toThriftFileHandle(f));
+		}
+		return res;
+	}
+
+	/*
+	 * Returns the chunk hashes of the file with the given file hash, or null
+	 * if there is no such file.
+	 */
+	@Override
+	public ThriftHashList getChunkHashes(ByteBuffer fileHash) throws org.apache.thrift.TException {
+		byte[] wanted = org.apache.thrift.TBaseHelper.byteBufferToByteArray(fileHash);
+		for (FileHandle f : Storage.getInstance().getFileList()) {
+			if (Arrays.equals(f.getByteHash(), wanted)) {
+				LinkedList<ByteBuffer> hashes = new LinkedList<ByteBuffer>();
+				for (FileChunk c : f.getChunks()) {
+					hashes.add(ByteBuffer.wrap(c.getHash()));
+				}
+				return new ThriftHashList(f.getPath(), f.getVersion(), f.getSize(), hashes);
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * Returns one page of the packed block list of the given file, or null if
+	 * there is no such file. Pages are at most Globals.blockListPageSize
+	 * chunks long.
+	 */
+	@Override
+	public ThriftBlockList getBlockList(String filename, int offset, int count) throws org.apache.thrift.TException {
+		FileHandle f = Storage.getInstance().getFileHandle(filename);
+		if (f == null)
+			return null;
+		BlockList page = f.getBlockList(offset, Math.min(count, Globals.blockListPageSize));
+		return new ThriftBlockList(f.getPath(), f.getVersion(), f.getNoOfChunks(), ByteBuffer.wrap(page.encode()));
+	}
+
+	/*
+	 * Serves the requested data block if the requesting peer got an upload
+	 * slot from the UploadManager. Choked peers get no result and retry
+	 * elsewhere. If the peer accepts any codecs, the block is framed and
+	 * compressed by the BlockCodec. If the peer names the hash of an outdated
+	 * version it holds, and we still have that version cached, only a delta
+	 * is sent.
+	 */
+	@Override
+	public ByteBuffer getDataBlock(String filename, int blockID, String hash, int codecs, String baseHash)
 			throws org.apache.thrift.TException {
+		String peer = remoteAddress.get();
+		DLULItem upload = UploadManager.getInstance().acquireSlot(peer, filename, blockID);
+		if (upload == null) {
+			Globals.log.addMsg("Choked request for " + filename + " block " + blockID + " from " + peer, 4);
+			return null;
+		}
+		try {
+			return readDataBlock(filename, blockID, codecs, baseHash);
+		} finally {
+			UploadManager.getInstance().releaseSlot(upload);
+		}
+	}
+
+	/*
+	 * Reads the requested data block from storage and returns it as a byte
+	 * array. Recently served blocks are kept in the ChunkCache, so concurrent
+	 * requests for the same block neither hit the disk nor the cipher again.
+	 */
+	private ByteBuffer readDataBlock(String filename, int blockID, int codecs, String baseHash) {
 		FileHandle tmp;
 		if ((tmp = Storage.getInstance().getFileHandle(filename)) == null) {
 			return null;
 		} else {
-			byte[] plain = tmp.getChunkData(blockID);
-			if (plain == null) {
+			if (blockID < 0 || blockID >= tmp.getChunks().size()) {
 				return null;
 			}
-			
-			if(!Globals.encryptDataTransfers){
-				return ByteBuffer.wrap(plain);
+			FileChunk chunk = tmp.getChunks().get(blockID);
+			if (!chunk.isComplete()) {
+				return null;
 			}
+			ChunkCache cache = ChunkCache.getInstance();
+			String chunkHash = chunk.getHexHash();
 
-			try {
-				// Init AES cipher
-				Cipher ciph = Cipher.getInstance("AES/CBC/PKCS5Padding");
-				ciph.init(Cipher.ENCRYPT_MODE, Globals.secKey);
-				// Encrypt data block
-				byte[] encrypted = ciph.doFinal(plain);
-
-				AlgorithmParameters params = ciph.getParameters();
-				// IV is 16bytes in length
-				byte[] iv = params.getParameterSpec(IvParameterSpec.class).getIV();
-				byte[] sendbuffer = appendByteArray(iv, encrypted);
-
-				ByteBuffer buffer = ByteBuffer.wrap(sendbuffer);
-				return buffer;
-			} catch (Exception e) {
-				Globals.log.addMsg(e.toString());
+			byte[] base = null;
+			if ((codecs & BlockCodec.DELTA) != 0 && baseHash != null && !baseHash.equals("")
+					&& !baseHash.equals(chunkHash)) {
+				base = cache.get(filename, blockID, baseHash, "plain");
 			}
+			String variant = "send:" + codecs + (base != null ? ":" + baseHash : "")
+					+ (BlockCrypto.isEnabled() ? ":enc" : "");
 
-			return null;
+			byte[] cached = cache.get(filename, blockID, chunkHash, variant);
+			if (cached != null) {
+				return ByteBuffer.wrap(cached);
+			}
+
+			byte[] plain = cache.get(filename, blockID, chunkHash, "plain");
+			if (plain == null) {
+				plain = tmp.getChunkData(blockID);
+				if (plain == null) {
+					return null;
+				}
+				cache.put(filename, blockID, chunkHash, "plain", plain);
+			}
+
+			byte[] payload = plain;
+			if (base != null) {
+				payload = BlockCodec.encodeDelta(base, plain);
+			}
+			if (base == null || payload == null) {
+				payload = plain;
+				if (codecs != BlockCodec.NONE) {
+					payload = BlockCodec.encode(plain, codecs, tmp.isCompressible(plain));
+				}
+			}
+			
+			if(!BlockCrypto.isEnabled()){
+				if (payload != plain) {
+					cache.put(filename, blockID, chunkHash, variant, payload);
+				}
+				return ByteBuffer.wrap(payload);
+			}
+
+			byte[] sendbuffer = BlockCrypto.encrypt(payload, BlockCrypto.getAAD(filename, blockID, chunkHash));
+			if (sendbuffer == null) {
+				return null;
+			}
+			cache.put(filename, blockID, chunkHash, variant, sendbuffer);
+			return ByteBuffer.wrap(sendbuffer);
 		}
 	}
 
@@ -127,7 +296,7 @@ public class ThriftDataHandler implements DataTransfer.Iface {
 			newList.add(newHandle);
 		}
 		ThriftStorage thriftStorage = new ThriftStorage(
-				localStorage.getVersion(), newList);
+				localStorage.getVersion(), newList, localStorage.getLogID());
 		return thriftStorage;
 	}
 
@@ -159,13 +328,4 @@ public class ThriftDataHandler implements DataTransfer.Iface {
 	private static ThriftP2PDevice toThriftP2PDevice(P2Pdevice localDevice) {
 		return new ThriftP2PDevice(localDevice.getJID(), localDevice.getRemoteIP(), localDevice.getLocalIP(), localDevice.getPort());
 	}
-
-	private static byte[] appendByteArray(byte[] a, byte[] b) {
-		byte[] res = new byte[a.length + b.length];
-
-		System.arraycopy(a, 0, res, 0, a.length);
-		System.arraycopy(b, 0, res, a.length, b.length);
-
-		return res;
-	}
 }
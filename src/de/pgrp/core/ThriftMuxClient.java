@@ -0,0 +1,408 @@
+/*
+ * Peergroup - ThriftMuxClient.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import de.pgrp.thrift.*;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.apache.thrift.TFieldIdEnum;
+import org.apache.thrift.protocol.*;
+import org.apache.thrift.transport.*;
+
+/**
+ * The ThriftMuxClient talks to the DataTransfer service of one peer over a
+ * single connection. Calls do not wait for each other: every request gets a
+ * sequence ID and returns a Future at once, a reader thread hands the replies
+ * to the matching Futures in whatever order they arrive. So a getStorage()
+ * does not queue behind a running block transfer.
+ *
+ * The connection is opened on the first call and closed once no call is
+ * pending and nothing was sent or received for Globals.muxIdleTimeout
+ * milliseconds. If a caller gives up waiting for a reply via get(timeout,
+ * unit), the connection is taken for dead: it is closed and all calls
+ * pending on it fail.
+ *
+ * @author Nicolas Inden
+ */
+public class ThriftMuxClient {
+
+	/**
+	 * Checks all connections for idleness
+	 */
+	private static Timer idleTimer = new Timer("Thrift-Mux idle", true);
+
+	private String host;
+	private int port;
+	private int nextSeqID;
+	private Connection connection;
+
+	public ThriftMuxClient(String host, int port) {
+		this.host = host;
+		this.port = port;
+		this.nextSeqID = 0;
+		this.connection = null;
+	}
+
+	public Future<Object> getLocalIP(String hash) {
+		DataTransfer.getLocalIP_args args = new DataTransfer.getLocalIP_args(hash);
+		return call("getLocalIP", args, new DataTransfer.getLocalIP_result());
+	}
+
+	public Future<Object> getStorage() {
+		return call("getStorage", new DataTransfer.getStorage_args(), new DataTransfer.getStorage_result());
+	}
+
+	public Future<Object> getStoragePage(String cursor, int count) {
+		DataTransfer.getStoragePage_args args = new DataTransfer.getStoragePage_args(cursor, count);
+		return call("getStoragePage", args, new DataTransfer.getStoragePage_result());
+	}
+
+	public Future<Object> getStorageDelta(long logID, int sinceVersion) {
+		DataTransfer.getStorageDelta_args args = new DataTransfer.getStorageDelta_args(logID, sinceVersion);
+		return call("getStorageDelta", args, new DataTransfer.getStorageDelta_result());
+	}
+
+	public Future<Object> getTreeNodes(List<String> dirs) {
+		DataTransfer.getTreeNodes_args args = new DataTransfer.getTreeNodes_args(dirs);
+		return call("getTreeNodes", args, new DataTransfer.getTreeNodes_result());
+	}
+
+	public Future<Object> getFileHandles(List<String> paths) {
+		DataTransfer.getFileHandles_args args = new DataTransfer.getFileHandles_args(paths);
+		return call("getFileHandles", args, new DataTransfer.getFileHandles_result());
+	}
+
+	public Future<Object> getBlockList(String filename, int offset, int count) {
+		DataTransfer.getBlockList_args args = new DataTransfer.getBlockList_args(filename, offset, count);
+		return call("getBlockList", args, new DataTransfer.getBlockList_result());
+	}
+
+	/**
+	 * Requests a data block. The Future returns the block as byte array.
+	 */
+	public Future<Object> getDataBlock(String filename, int blockID, String hash, int codecs, String baseHash) {
+		DataTransfer.getDataBlock_args args = new DataTransfer.getDataBlock_args(filename, blockID, hash, codecs, baseHash);
+		return call("getDataBlock", args, new DataTransfer.getDataBlock_result());
+	}
+
+	/**
+	 * Closes the connection, pending calls fail
+	 */
+	public void close() {
+		Connection conn;
+		synchronized (this) {
+			conn = this.connection;
+			this.connection = null;
+		}
+		if (conn != null)
+			conn.shutdown(new TTransportException(TTransportException.NOT_OPEN, "Connection closed"));
+	}
+
+	public synchronized boolean isOpen() {
+		return this.connection != null;
+	}
+
+	/*
+	 * Sends a request and registers the Future that receives the reply.
+	 * Sending is serialized, waiting for replies is not.
+	 */
+	@SuppressWarnings("rawtypes")
+	private Future<Object> call(String method, TBase args, TBase result) {
+		Call call = new Call(result);
+		Connection conn = null;
+		try {
+			synchronized (this) {
+				if (this.connection == null) {
+					this.connection = new Connection();
+				}
+				conn = this.connection;
+				int seqID = this.nextSeqID++;
+				conn.send(seqID, method, args, call);
+			}
+		} catch (TException te) {
+			if (conn != null) {
+				synchronized (this) {
+					if (this.connection == conn)
+						this.connection = null;
+				}
+				conn.shutdown(te);
+			}
+			call.fail(te);
+		}
+		return call;
+	}
+
+	/**
+	 * One TCP connection with its reader thread. Once broken, a connection is
+	 * never reused, the next call opens a new one.
+	 */
+	private class Connection extends Thread {
+
+		private TTransport transport;
+		private TProtocol iprot;
+		private TProtocol oprot;
+		private HashMap<Integer, Call> pending;
+		private boolean closed;
+		private volatile long lastTraffic;
+		private TimerTask idleCheck;
+
+		private Connection() throws TTransportException {
+			// The timeout only applies to connecting and the session
+			// handshake, callers time out replies themselves
+			TSocket socket = new TSocket(host, port, Globals.muxIdleTimeout);
+			this.transport = socket;
+			if (Globals.encryptDataTransfers && Globals.encryptSessions) {
+				this.transport = new SessionTransport(this.transport, true);
+			}
+			this.transport.open();
+			socket.setTimeout(0);
+			this.iprot = new TBinaryProtocol(this.transport);
+			this.oprot = new TBinaryProtocol(this.transport);
+			this.pending = new HashMap<Integer, Call>();
+			this.closed = false;
+			this.lastTraffic = System.currentTimeMillis();
+			this.idleCheck = new TimerTask() {
+				@Override
+				public void run() {
+					closeIfIdle();
+				}
+			};
+			long period = Math.max(1000, Globals.muxIdleTimeout / 4);
+			idleTimer.schedule(this.idleCheck, period, period);
+			this.setName("Thrift-Mux " + host + ":" + port);
+			this.setDaemon(true);
+			this.start();
+		}
+
+		/*
+		 * Closes this connection if no call is pending and there was no
+		 * traffic for Globals.muxIdleTimeout. Takes the client lock first, so
+		 * no call is sent on the connection meanwhile.
+		 */
+		private void closeIfIdle() {
+			synchronized (ThriftMuxClient.this) {
+				synchronized (this.pending) {
+					if (this.closed) {
+						this.idleCheck.cancel();
+						return;
+					}
+					if (!this.pending.isEmpty()
+							|| System.currentTimeMillis() - this.lastTraffic < Globals.muxIdleTimeout)
+						return;
+					this.closed = true;
+				}
+				if (connection == this)
+					connection = null;
+			}
+			this.idleCheck.cancel();
+			this.transport.close();
+		}
+
+		/*
+		 * A call got no reply in time, so the peer or the connection is taken
+		 * for dead. All calls pending on it fail, the next call opens a new
+		 * connection.
+		 */
+		private void timedOut() {
+			synchronized (ThriftMuxClient.this) {
+				if (connection == this)
+					connection = null;
+			}
+			shutdown(new TTransportException(TTransportException.TIMED_OUT, "No reply in time"));
+		}
+
+		@SuppressWarnings("rawtypes")
+		private void send(int seqID, String method, TBase args, Call call) throws TException {
+			synchronized (this.pending) {
+				if (this.closed)
+					throw new TTransportException(TTransportException.NOT_OPEN, "Connection closed");
+				this.pending.put(seqID, call);
+				call.connection = this;
+			}
+			this.oprot.writeMessageBegin(new TMessage(method, TMessageType.CALL, seqID));
+			args.write(this.oprot);
+			this.oprot.writeMessageEnd();
+			this.transport.flush();
+			this.lastTraffic = System.currentTimeMillis();
+		}
+
+		/**
+		 * Reads replies until the connection breaks or is closed
+		 */
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					TMessage msg = this.iprot.readMessageBegin();
+					this.lastTraffic = System.currentTimeMillis();
+					Call call;
+					synchronized (this.pending) {
+						call = this.pending.remove(msg.seqid);
+					}
+
+					if (msg.type == TMessageType.EXCEPTION) {
+						TApplicationException x = TApplicationException.read(this.iprot);
+						this.iprot.readMessageEnd();
+						if (call != null)
+							call.fail(x);
+					} else if (call == null) {
+						TProtocolUtil.skip(this.iprot, TType.STRUCT);
+						this.iprot.readMessageEnd();
+					} else {
+						call.result.read(this.iprot);
+						this.iprot.readMessageEnd();
+						call.complete();
+					}
+				}
+			} catch (TException te) {
+				synchronized (ThriftMuxClient.this) {
+					if (connection == this)
+						connection = null;
+				}
+				shutdown(te);
+			}
+		}
+
+		private void shutdown(TException cause) {
+			LinkedList<Call> failed;
+			synchronized (this.pending) {
+				this.closed = true;
+				failed = new LinkedList<Call>(this.pending.values());
+				this.pending.clear();
+			}
+			this.idleCheck.cancel();
+			this.transport.close();
+			for (Call c : failed) {
+				c.fail(cause);
+			}
+		}
+	}
+
+	/**
+	 * The Future of a single call. Its value is the success field of the
+	 * result struct.
+	 */
+	private static class Call implements Future<Object> {
+
+		@SuppressWarnings("rawtypes")
+		private TBase result;
+		private volatile Connection connection;
+		private boolean done;
+		private Object value;
+		private TException error;
+
+		@SuppressWarnings("rawtypes")
+		private Call(TBase result) {
+			this.result = result;
+			this.done = false;
+		}
+
+		@SuppressWarnings("unchecked")
+		private synchronized void complete() {
+			TFieldIdEnum success = this.result.fieldForId(0);
+			if (success != null && this.result.isSet(success)) {
+				this.value = this.result.getFieldValue(success);
+			} else {
+				this.error = new TApplicationException(TApplicationException.MISSING_RESULT, "Peer sent no result");
+			}
+			this.done = true;
+			notifyAll();
+		}
+
+		private synchronized void fail(TException te) {
+			if (this.done)
+				return;
+			this.error = te;
+			this.done = true;
+			notifyAll();
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return false;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return false;
+		}
+
+		@Override
+		public synchronized boolean isDone() {
+			return this.done;
+		}
+
+		@Override
+		public synchronized Object get() throws InterruptedException, ExecutionException {
+			while (!this.done) {
+				wait();
+			}
+			if (this.error != null)
+				throw new ExecutionException(this.error);
+			return this.value;
+		}
+
+		/**
+		 * Waits at most the given time for the reply. On timeout the
+		 * connection of the call is closed and its other pending calls fail.
+		 */
+		@Override
+		public Object get(long timeout, TimeUnit unit) throws InterruptedException,
+				ExecutionException, TimeoutException {
+			if (!await(unit.toMillis(timeout))) {
+				// Not under the lock of this call, shutdown() fails the
+				// other calls under theirs
+				Connection conn = this.connection;
+				if (conn != null)
+					conn.timedOut();
+				throw new TimeoutException();
+			}
+			return get();
+		}
+
+		/*
+		 * Returns false if the call is not done after the given time
+		 */
+		private synchronized boolean await(long millis) throws InterruptedException {
+			long end = System.currentTimeMillis() + millis;
+			while (!this.done) {
+				long left = end - System.currentTimeMillis();
+				if (left <= 0)
+					return false;
+				wait(left);
+			}
+			return true;
+		}
+	}
+}
@@ -23,6 +23,15 @@ package de.pgrp.core;
 
 import de.pgrp.thrift.*;
 
+import java.util.concurrent.*;
+
+import org.apache.thrift.ProcessFunction;
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TBaseProcessor;
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.*;
 import org.apache.thrift.server.*;
 import org.apache.thrift.transport.*;
 
@@ -51,15 +60,20 @@ public class ThriftServerWorker extends Thread {
 		this.setName("Thrift-Server Thread");
 		try {
 			this.serverTransport = new TServerSocket(Globals.p2pPort);
-			this.processor = new DataTransfer.Processor(new ThriftDataHandler());
+			ThriftDataHandler handler = new ThriftDataHandler();
+			this.processor = new DataTransfer.Processor(handler);
 			
 			//Singlethreaded:
 			//this.server = new TSimpleServer(new TServer.Args(serverTransport).processor(processor));
 			
-			//Multithreaded:
-			TThreadPoolServer.Args tpsa = new TThreadPoolServer.Args(serverTransport).processor(processor);
+			//Multithreaded, one thread per connection, requests are processed
+			//in the thread pool of the PeerAwareProcessor:
+			TThreadPoolServer.Args tpsa = new TThreadPoolServer.Args(serverTransport).processor(new PeerAwareProcessor(processor, handler));
+			if (Globals.encryptDataTransfers && Globals.encryptSessions) {
+				tpsa.transportFactory(new SessionTransport.Factory());
+			}
 			tpsa.minWorkerThreads(1);
-			tpsa.maxWorkerThreads(20);
+			tpsa.maxWorkerThreads(Globals.maxConnections);
 			this.server = new TThreadPoolServer(tpsa);
 
 			Globals.log.addMsg("Starting thrift handler on port " + Globals.p2pPort);
@@ -71,6 +85,128 @@ public class ThriftServerWorker extends Thread {
 		Globals.log.addMsg("Thrift-Server-Thread interrupted. Closing...", 4);
 	}
 
+	/**
+	 * Wraps the generated processor, so that requests sent over one connection
+	 * are processed concurrently. The connection thread only reads requests
+	 * and hands them to a thread pool, replies are written back with the
+	 * sequence ID of their request as soon as they are ready. A quick call
+	 * like getStorage() thus overtakes a slow getDataBlock(). The handler is
+	 * told which peer the request comes from.
+	 */
+	private static class PeerAwareProcessor implements TProcessor {
+
+		@SuppressWarnings("rawtypes")
+		private TBaseProcessor processor;
+		private DataTransfer.Iface handler;
+		private ThreadPoolExecutor threadPool;
+
+		@SuppressWarnings("rawtypes")
+		public PeerAwareProcessor(TBaseProcessor processor, DataTransfer.Iface handler) {
+			this.processor = processor;
+			this.handler = handler;
+			// Once the queue is full, the thread reading the connection runs
+			// the request itself, so that peer is slowed down
+			this.threadPool = new ThreadPoolExecutor(Globals.serverThreads, Globals.serverThreads, 10, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<Runnable>(Globals.serverQueueSize), new ThreadPoolExecutor.CallerRunsPolicy());
+		}
+
+		@SuppressWarnings("rawtypes")
+		@Override
+		public boolean process(TProtocol in, TProtocol out) throws TException {
+			String peer = null;
+			TTransport transport = in.getTransport();
+			if (transport instanceof SessionTransport) {
+				transport = ((SessionTransport) transport).getTransport();
+			}
+			if (transport instanceof TSocket) {
+				TSocket socket = (TSocket) transport;
+				peer = socket.getSocket().getInetAddress().getHostAddress();
+			}
+
+			TMessage msg = in.readMessageBegin();
+			ProcessFunction fn = (ProcessFunction) this.processor.getProcessMapView().get(msg.name);
+			if (fn == null) {
+				TProtocolUtil.skip(in, TType.STRUCT);
+				in.readMessageEnd();
+				writeException(out, msg, new TApplicationException(TApplicationException.UNKNOWN_METHOD,
+						"Invalid method name: '" + msg.name + "'"));
+				return true;
+			}
+
+			TBase args = fn.getEmptyArgsInstance();
+			try {
+				args.read(in);
+			} catch (TProtocolException e) {
+				in.readMessageEnd();
+				writeException(out, msg, new TApplicationException(TApplicationException.PROTOCOL_ERROR, e.getMessage()));
+				return true;
+			}
+			in.readMessageEnd();
+
+			this.threadPool.execute(new Call(fn, args, msg, peer, out));
+			return true;
+		}
+
+		private void writeException(TProtocol out, TMessage msg, TApplicationException x) throws TException {
+			synchronized (out) {
+				out.writeMessageBegin(new TMessage(msg.name, TMessageType.EXCEPTION, msg.seqid));
+				x.write(out);
+				out.writeMessageEnd();
+				out.getTransport().flush();
+			}
+		}
+
+		/**
+		 * Runs a single request and writes its reply
+		 */
+		private class Call implements Runnable {
+
+			@SuppressWarnings("rawtypes")
+			private ProcessFunction fn;
+			@SuppressWarnings("rawtypes")
+			private TBase args;
+			private TMessage msg;
+			private String peer;
+			private TProtocol out;
+
+			@SuppressWarnings("rawtypes")
+			private Call(ProcessFunction fn, TBase args, TMessage msg, String peer, TProtocol out) {
+				this.fn = fn;
+				this.args = args;
+				this.msg = msg;
+				this.peer = peer;
+				this.out = out;
+			}
+
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			@Override
+			public void run() {
+				ThriftDataHandler.remoteAddress.set(this.peer);
+				try {
+					TBase result = this.fn.getResult(handler, this.args);
+					synchronized (this.out) {
+						this.out.writeMessageBegin(new TMessage(this.msg.name, TMessageType.REPLY, this.msg.seqid));
+						result.write(this.out);
+						this.out.writeMessageEnd();
+						this.out.getTransport().flush();
+					}
+				} catch (TTransportException te) {
+					Globals.log.addMsg("Peer " + this.peer + " closed connection before reply: " + te, 4);
+				} catch (Exception e) {
+					Globals.log.addMsg("Error processing " + this.msg.name + " for " + this.peer + ": " + e, 1);
+					try {
+						writeException(this.out, this.msg, new TApplicationException(TApplicationException.INTERNAL_ERROR,
+								"Internal error processing " + this.msg.name));
+					} catch (TException te) {
+						Globals.log.addMsg("Could not report error to " + this.peer + ": " + te, 4);
+					}
+				} finally {
+					ThriftDataHandler.remoteAddress.remove();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Normally this should cleanly shutdown this thread, but the thrift server
 	 * is a bit intractable here, so we'd better use the deprecated
@@ -0,0 +1,253 @@
+/*
+ * Peergroup - UploadManager.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Random;
+
+/**
+ * The UploadManager decides which peers get served by our thrift handler. Only
+ * a limited number of peers is unchoked at a time, all others get refused and
+ * retry at another peer. Every few seconds the unchoked peers are chosen anew,
+ * preferring peers that recently sent us data and peers that are close to
+ * completing the file they request. One additional slot is handed to a random
+ * peer (optimistic unchoke), so newcomers get a chance to start.
+ *
+ * Peers are identified by the address they connect from. All running uploads
+ * are listed in Globals.uploadsList.
+ *
+ * @author Nicolas Inden
+ */
+public class UploadManager {
+
+	private static volatile UploadManager instance = new UploadManager();
+
+	/**
+	 * Per peer statistics, keyed by peer address
+	 */
+	private HashMap<String, PeerStats> peers;
+	/**
+	 * Addresses of the regularly unchoked peers
+	 */
+	private LinkedList<String> unchoked;
+	/**
+	 * Address of the optimistically unchoked peer
+	 */
+	private String optimistic;
+	private long lastRechoke;
+	private long lastOptimistic;
+	private Random rand;
+
+	public UploadManager() {
+		this.peers = new HashMap<String, PeerStats>();
+		this.unchoked = new LinkedList<String>();
+		this.optimistic = null;
+		this.lastRechoke = 0;
+		this.lastOptimistic = 0;
+		this.rand = new Random(System.currentTimeMillis());
+	}
+
+	/**
+	 * Returns the existing singleton instance of UploadManager
+	 *
+	 * @return The singleton instance of UploadManager
+	 */
+	public static UploadManager getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Tries to get an upload slot for the specified chunk. If the peer is
+	 * choked or all slots are taken, null is returned and the request should
+	 * be refused.
+	 *
+	 * @param peer
+	 *            the address of the requesting peer
+	 * @param path
+	 *            the filename+path (e.g. subdir/file.txt)
+	 * @param id
+	 *            the chunk ID
+	 * @return the DLULItem representing this upload, or null if choked
+	 */
+	public synchronized DLULItem acquireSlot(String peer, String path, int id) {
+		if (peer == null)
+			peer = "unknown";
+
+		PeerStats stats = getStats(peer);
+		stats.lastRequest = System.currentTimeMillis();
+		stats.lastPath = path;
+
+		rechoke();
+
+		// Use free slots right away instead of waiting for the next rechoke
+		if (!isUnchoked(peer) && this.unchoked.size() < Globals.uploadSlots) {
+			this.unchoked.add(peer);
+		}
+
+		if (!isUnchoked(peer)) {
+			return null;
+		}
+
+		DLULItem item = new DLULItem(path, id, peer);
+		synchronized (Globals.uploadsList) {
+			// regular slots plus the optimistic one
+			if (Globals.uploadsList.size() >= Globals.uploadSlots + 1) {
+				return null;
+			}
+			Globals.uploadsList.add(item);
+		}
+		return item;
+	}
+
+	/**
+	 * Releases an upload slot acquired by acquireSlot()
+	 *
+	 * @param item
+	 *            the DLULItem returned by acquireSlot()
+	 */
+	public void releaseSlot(DLULItem item) {
+		synchronized (Globals.uploadsList) {
+			Globals.uploadsList.remove(item);
+		}
+	}
+
+	/**
+	 * Credits a peer for data we downloaded from it. Peers that send us data
+	 * are preferred when unchoking.
+	 *
+	 * @param peer
+	 *            the address of the peer
+	 * @param bytes
+	 *            the number of bytes received
+	 */
+	public synchronized void addDownloaded(String peer, int bytes) {
+		getStats(peer).downloaded += bytes;
+	}
+
+	/**
+	 * Chooses the unchoked peers anew if the rechoke interval has passed. The
+	 * download counters are halved on each round, so only recent reciprocation
+	 * counts.
+	 */
+	private void rechoke() {
+		long now = System.currentTimeMillis();
+		if (now - this.lastRechoke < Globals.rechokeInterval) {
+			return;
+		}
+		this.lastRechoke = now;
+
+		// Forget peers that did not request anything for a while
+		Iterator<PeerStats> it = this.peers.values().iterator();
+		while (it.hasNext()) {
+			if (now - it.next().lastRequest > 3 * Globals.rechokeInterval)
+				it.remove();
+		}
+
+		LinkedList<PeerStats> interested = new LinkedList<PeerStats>(this.peers.values());
+		for (PeerStats p : interested) {
+			p.completion = getCompletion(p);
+		}
+		Collections.sort(interested, new Comparator<PeerStats>() {
+			@Override
+			public int compare(PeerStats a, PeerStats b) {
+				if (a.downloaded != b.downloaded)
+					return a.downloaded > b.downloaded ? -1 : 1;
+				return Double.compare(b.completion, a.completion);
+			}
+		});
+
+		this.unchoked.clear();
+		for (PeerStats p : interested) {
+			if (this.unchoked.size() >= Globals.uploadSlots)
+				break;
+			this.unchoked.add(p.address);
+		}
+
+		if (this.optimistic == null || !this.peers.containsKey(this.optimistic)
+				|| this.unchoked.contains(this.optimistic)
+				|| now - this.lastOptimistic >= 3 * Globals.rechokeInterval) {
+			this.optimistic = null;
+			LinkedList<String> choked = new LinkedList<String>();
+			for (PeerStats p : interested) {
+				if (!this.unchoked.contains(p.address))
+					choked.add(p.address);
+			}
+			if (choked.size() > 0) {
+				this.optimistic = choked.get(this.rand.nextInt(choked.size()));
+				Globals.log.addMsg("UploadManager: Optimistic unchoke of " + this.optimistic, 4);
+			}
+			this.lastOptimistic = now;
+		}
+
+		for (PeerStats p : interested) {
+			p.downloaded /= 2;
+		}
+	}
+
+	/**
+	 * Returns the fraction of chunks the peer already has of the file it
+	 * requested last
+	 */
+	private double getCompletion(PeerStats stats) {
+		FileHandle file = Storage.getInstance().getFileHandle(stats.lastPath);
+		if (file == null || file.getChunks().size() == 0)
+			return 0;
+
+		BitSet has = new BitSet();
+		for (P2Pdevice d : file.getPeers()) {
+			if (stats.address.equals(d.getRemoteIP()) || stats.address.equals(d.getLocalIP())) {
+				has.or(file.getAvailability(d));
+			}
+		}
+		return ((double) has.cardinality()) / file.getChunks().size();
+	}
+
+	private boolean isUnchoked(String peer) {
+		return this.unchoked.contains(peer) || peer.equals(this.optimistic);
+	}
+
+	private PeerStats getStats(String peer) {
+		PeerStats stats = this.peers.get(peer);
+		if (stats == null) {
+			stats = new PeerStats(peer);
+			this.peers.put(peer, stats);
+		}
+		return stats;
+	}
+
+	private static class PeerStats {
+		private String address;
+		private String lastPath;
+		private long lastRequest;
+		private long downloaded;
+		private double completion;
+
+		private PeerStats(String address) {
+			this.address = address;
+		}
+	}
+}
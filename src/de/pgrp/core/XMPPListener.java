@@ -0,0 +1,174 @@
+/*
+ * Peergroup - XMPPListener.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.util.Collection;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.jivesoftware.smack.PacketListener;
+import org.jivesoftware.smack.packet.Message;
+import org.jivesoftware.smack.packet.Packet;
+
+/**
+ * Smack hands every message of the conference room to this listener as soon
+ * as it arrives. Chat and subject messages are logged, our own messages are
+ * dropped and all others are decoded into XMPPRequests with the matching
+ * REMOTE_* type. The NetworkWorker takes them in batches.
+ *
+ * @author Nicolas Inden
+ */
+public class XMPPListener implements PacketListener {
+
+	/**
+	 * The maximum number of requests taken at once
+	 */
+	private final static int MAX_BATCH = 256;
+
+	private Network myNetwork;
+	private LinkedBlockingQueue<XMPPRequest> events;
+
+	public XMPPListener(Network net) {
+		this.myNetwork = net;
+		this.events = new LinkedBlockingQueue<XMPPRequest>();
+	}
+
+	/**
+	 * Called by Smack for every message received in the room
+	 */
+	@Override
+	public void processPacket(Packet packet) {
+		if (!(packet instanceof Message))
+			return;
+		Message newMessage = (Message) packet;
+
+		// catch message stanzas announcing a new channel subject
+		if (newMessage.getSubject() != null) {
+			Globals.log.addMsg("Subject: " + newMessage.getSubject(), 2);
+			return;
+		}
+
+		// messages with body are not from peergroup clients and are only
+		// displayed
+		if (newMessage.getBody() != null) {
+			String from[] = newMessage.getFrom().split("/");
+			if (from.length > 1) {
+				Globals.log.addMsg(from[1] + ": " + newMessage.getBody(), 2);
+			} else {
+				Globals.log.addMsg(newMessage.getFrom() + ": " + newMessage.getBody(), 2);
+			}
+			return;
+		}
+
+		try {
+			XMPPRequest event = decode(newMessage);
+			if (event != null)
+				this.events.offer(event);
+		} catch (RuntimeException re) {
+			// Missing or mistyped properties, not a (compatible) peergroup client
+			Globals.log.addMsg("Ignoring malformed XMPP message from " + newMessage.getFrom() + ": " + re, 4);
+		}
+	}
+
+	/**
+	 * Waits for at least one request and moves all waiting requests (up to a
+	 * limit) into the given collection
+	 *
+	 * @param batch
+	 *            The collection to fill
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public void takeBatch(Collection<XMPPRequest> batch) throws InterruptedException {
+		batch.add(this.events.take());
+		this.events.drainTo(batch, MAX_BATCH - 1);
+	}
+
+	/*
+	 * Returns the request for a peergroup message, or null if it needs no
+	 * handling
+	 */
+	private XMPPRequest decode(Message newMessage) {
+		// adjust lamport time
+		long msgLamp = ((Long) newMessage.getProperty("LamportTime")).longValue();
+		this.myNetwork.updateLamportTime(msgLamp);
+
+		// ignore messages sent by yourself
+		String jid = (String) newMessage.getProperty("JID");
+		if (jid.equals(Globals.getJID())) {
+			return null;
+		}
+
+		//Maintain list of P2Pdevices
+		String remoteIP = (String) newMessage.getProperty("remoteIP");
+		String localIP = (String) newMessage.getProperty("localIP");
+		int port = ((Integer) newMessage.getProperty("Port")).intValue();
+		//This checks if this device is known, if not it is created
+		P2Pdevice.getDevice(jid, remoteIP, localIP, port);
+
+		int type = ((Integer) newMessage.getProperty("Type")).intValue();
+		int request;
+		switch (type) {
+		case 1:
+			request = Globals.REMOTE_FILE_CREATE;
+			break;
+		case 2:
+			request = Globals.REMOTE_ITEM_DELETE;
+			break;
+		case 3:
+			request = Globals.REMOTE_FILE_MODIFY;
+			break;
+		case 4:
+			request = Globals.REMOTE_CHUNK_COMPLETE;
+			break;
+		case 5:
+			request = Globals.REMOTE_FILE_COMPLETE;
+			break;
+		case 6:
+			request = Globals.REMOTE_PEER_JOINED;
+			break;
+		case 7:
+			request = Globals.REMOTE_FILE_LIST_VERSION;
+			break;
+		case 8:
+			request = Globals.REMOTE_PEER_LEFT;
+			break;
+		case 9:
+			request = Globals.REMOTE_FILE_REANNOUNCE;
+			break;
+		case 10:
+			request = Globals.REMOTE_DIR_CREATE;
+			break;
+		case 11:
+			request = Globals.REMOTE_CHUNKS_COMPLETE;
+			break;
+		case 12:
+			// Several new files, handled like one announcement each
+			for (Message file : FileAnnouncements.unpack(newMessage)) {
+				this.events.offer(new XMPPRequest(Globals.REMOTE_FILE_CREATE, msgLamp, file));
+			}
+			return null;
+		default:
+			return null;
+		}
+		return new XMPPRequest(request, msgLamp, newMessage);
+	}
+}
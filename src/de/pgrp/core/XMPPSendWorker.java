@@ -0,0 +1,248 @@
+/*
+ * Peergroup - XMPPSendWorker.java
+ *
+ * This file is part of Peergroup.
+ *
+ * Peergroup is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Peergroup is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * Author : Nicolas Inden
+ * Contact: nicolas.inden@rwth-aachen.de
+ *
+ * Copyright (c) 2013 Nicolas Inden
+ */
+
+package de.pgrp.core;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import org.jivesoftware.smack.packet.Message;
+
+/**
+ * This thread sends all outgoing XMPP messages, so no other thread waits for
+ * the XMPP server. Messages are queued by priority: file changes first, then
+ * status messages and finally chunk announcements and chat. Messages of the
+ * same priority keep their order.
+ *
+ * Status messages waiting for the same file are coalesced: a newer message
+ * replaces the queued one, chunk announcements are merged. A delete or update
+ * drops all queued status messages of the file. At most Globals.xmppSendRate
+ * messages are sent per second (bursts of up to Globals.xmppSendBurst).
+ *
+ * @author Nicolas Inden
+ */
+public class XMPPSendWorker extends Thread {
+
+	public final static int PRIO_CONTROL = 0;
+	public final static int PRIO_STATUS = 1;
+	public final static int PRIO_CHATTER = 2;
+
+	private Network myNetwork;
+	private LinkedList<Outgoing> control;
+	private LinkedList<Outgoing> status;
+	private LinkedList<Outgoing> chatter;
+	/**
+	 * Queued messages that can be coalesced, by key
+	 */
+	private HashMap<String, Outgoing> pending;
+	private boolean sending;
+
+	private double tokens;
+	private long lastRefill;
+
+	/**
+	 * Creates a XMPPSendWorker.
+	 */
+	public XMPPSendWorker(Network net) {
+		this.myNetwork = net;
+		this.control = new LinkedList<Outgoing>();
+		this.status = new LinkedList<Outgoing>();
+		this.chatter = new LinkedList<Outgoing>();
+		this.pending = new HashMap<String, Outgoing>();
+		this.sending = false;
+		this.tokens = Globals.xmppSendBurst;
+		this.lastRefill = System.currentTimeMillis();
+	}
+
+	/**
+	 * Queues a message for sending
+	 *
+	 * @param msg
+	 *            The message
+	 * @param priority
+	 *            One of PRIO_CONTROL, PRIO_STATUS or PRIO_CHATTER
+	 * @param key
+	 *            Messages with the same key are coalesced, null if the message
+	 *            must be sent in any case
+	 * @param logMsg
+	 *            Logged once the message is sent, may be null
+	 */
+	public synchronized void enqueue(Message msg, int priority, String key, String logMsg) {
+		if (key != null) {
+			Outgoing queued = this.pending.get(key);
+			if (queued != null) {
+				queued.coalesce(msg, logMsg);
+				return;
+			}
+		}
+		Outgoing out = new Outgoing(msg, key, logMsg);
+		if (key != null)
+			this.pending.put(key, out);
+
+		switch (priority) {
+		case PRIO_CONTROL:
+			this.control.add(out);
+			break;
+		case PRIO_STATUS:
+			this.status.add(out);
+			break;
+		default:
+			this.chatter.add(out);
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Drops all queued status messages concerning the given file
+	 *
+	 * @param name
+	 *            The filename
+	 */
+	public synchronized void dropPending(String name) {
+		String suffix = ":" + name;
+		Iterator<String> it = this.pending.keySet().iterator();
+		while (it.hasNext()) {
+			String key = it.next();
+			if (key.endsWith(suffix) && key.indexOf(':') == key.length() - suffix.length()) {
+				Outgoing out = this.pending.get(key);
+				this.status.remove(out);
+				this.chatter.remove(out);
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Waits until all queued messages are sent
+	 *
+	 * @param timeout
+	 *            The maximum time to wait in milliseconds
+	 * @return true if the queue is empty, else false
+	 */
+	public synchronized boolean flush(long timeout) {
+		long end = System.currentTimeMillis() + timeout;
+		try {
+			while (this.sending || !this.control.isEmpty() || !this.status.isEmpty() || !this.chatter.isEmpty()) {
+				long left = end - System.currentTimeMillis();
+				if (left <= 0 || !isAlive())
+					return false;
+				wait(left);
+			}
+		} catch (InterruptedException ie) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * The run() method
+	 */
+	@Override
+	public void run() {
+		this.setName("XMPP Send Thread");
+		Globals.log.addMsg("XMPP send thread started...");
+		while (!isInterrupted()) {
+			try {
+				Outgoing next;
+				synchronized (this) {
+					while ((next = poll()) == null) {
+						wait();
+					}
+					this.sending = true;
+				}
+				acquireToken();
+				this.myNetwork.dispatch(next.msg, next.logMsg);
+			} catch (InterruptedException ie) {
+				interrupt();
+			} finally {
+				synchronized (this) {
+					this.sending = false;
+					notifyAll();
+				}
+			}
+		}
+		Globals.log.addMsg("XMPP send thread stopped. Closing...", 4);
+	}
+
+	/*
+	 * Returns the next message by priority, or null if there is none
+	 */
+	private Outgoing poll() {
+		Outgoing next = this.control.poll();
+		if (next == null)
+			next = this.status.poll();
+		if (next == null)
+			next = this.chatter.poll();
+		if (next != null && next.key != null)
+			this.pending.remove(next.key);
+		return next;
+	}
+
+	/*
+	 * Token bucket: waits until another message may be sent
+	 */
+	private void acquireToken() throws InterruptedException {
+		while (true) {
+			long now = System.currentTimeMillis();
+			this.tokens = Math.min(Globals.xmppSendBurst, this.tokens + (now - this.lastRefill)
+					* Globals.xmppSendRate / 1000.0);
+			this.lastRefill = now;
+			if (this.tokens >= 1) {
+				this.tokens--;
+				return;
+			}
+			Thread.sleep((long) Math.ceil((1 - this.tokens) * 1000 / Globals.xmppSendRate));
+		}
+	}
+
+	/**
+	 * A queued message
+	 */
+	private static class Outgoing {
+
+		private Message msg;
+		private String key;
+		private String logMsg;
+
+		public Outgoing(Message msg, String key, String logMsg) {
+			this.msg = msg;
+			this.key = key;
+			this.logMsg = logMsg;
+		}
+
+		/*
+		 * Takes over a newer message with the same key. Chunk announcements
+		 * (type 11) are merged, everything else is replaced.
+		 */
+		public void coalesce(Message newer, String newerLog) {
+			Object type = newer.getProperty("Type");
+			if (type != null && ((Integer) type).intValue() == 11) {
+				BitSet chunks = FileHandle.fromRanges((String) this.msg.getProperty("chunks"), Integer.MAX_VALUE);
+				chunks.or(FileHandle.fromRanges((String) newer.getProperty("chunks"), Integer.MAX_VALUE));
+				newer.setProperty("chunks", FileHandle.toRanges(chunks));
+			}
+			this.msg = newer;
+			this.logMsg = newerLog;
+		}
+	}
+}
@@ -38,7 +38,19 @@ public class DataTransfer {
 
     public ThriftStorage getStorage() throws org.apache.thrift.TException;
 
-    public ByteBuffer getDataBlock(String filename, int blockID, String hash) throws org.apache.thrift.TException;
+    public ThriftStoragePage getStoragePage(String cursor, int count) throws org.apache.thrift.TException;
+
+    public ThriftStorageDelta getStorageDelta(long logID, int sinceVersion) throws org.apache.thrift.TException;
+
+    public List<ThriftTreeNode> getTreeNodes(List<String> dirs) throws org.apache.thrift.TException;
+
+    public List<ThriftFileHandle> getFileHandles(List<String> paths) throws org.apache.thrift.TException;
+
+    public ThriftHashList getChunkHashes(ByteBuffer fileHash) throws org.apache.thrift.TException;
+
+    public ThriftBlockList getBlockList(String filename, int offset, int count) throws org.apache.thrift.TException;
+
+    public ByteBuffer getDataBlock(String filename, int blockID, String hash, int codecs, String baseHash) throws org.apache.thrift.TException;
 
   }
 
@@ -48,7 +60,19 @@ public class DataTransfer {
 
     public void getStorage(org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getStorage_call> resultHandler) throws org.apache.thrift.TException;
 
-    public void getDataBlock(String filename, int blockID, String hash, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getDataBlock_call> resultHandler) throws org.apache.thrift.TException;
+    public void getStoragePage(String cursor, int count, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getStoragePage_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getStorageDelta(long logID, int sinceVersion, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getStorageDelta_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getTreeNodes(List<String> dirs, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getTreeNodes_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getFileHandles(List<String> paths, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getFileHandles_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getChunkHashes(ByteBuffer fileHash, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getChunkHashes_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getBlockList(String filename, int offset, int count, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getBlockList_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getDataBlock(String filename, int blockID, String hash, int codecs, String baseHash, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getDataBlock_call> resultHandler) throws org.apache.thrift.TException;
 
   }
 
@@ -117,18 +141,162 @@ public class DataTransfer {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getStorage failed: unknown result");
     }
 
-    public ByteBuffer getDataBlock(String filename, int blockID, String hash) throws org.apache.thrift.TException
+    public ThriftStoragePage getStoragePage(String cursor, int count) throws org.apache.thrift.TException
+    {
+      send_getStoragePage(cursor, count);
+      return recv_getStoragePage();
+    }
+
+    public void send_getStoragePage(String cursor, int count) throws org.apache.thrift.TException
+    {
+      getStoragePage_args args = new getStoragePage_args();
+      args.setCursor(cursor);
+      args.setCount(count);
+      sendBase("getStoragePage", args);
+    }
+
+    public ThriftStoragePage recv_getStoragePage() throws org.apache.thrift.TException
+    {
+      getStoragePage_result result = new getStoragePage_result();
+      receiveBase(result, "getStoragePage");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getStoragePage failed: unknown result");
+    }
+
+    public ThriftStorageDelta getStorageDelta(long logID, int sinceVersion) throws org.apache.thrift.TException
+    {
+      send_getStorageDelta(logID, sinceVersion);
+      return recv_getStorageDelta();
+    }
+
+    public void send_getStorageDelta(long logID, int sinceVersion) throws org.apache.thrift.TException
+    {
+      getStorageDelta_args args = new getStorageDelta_args();
+      args.setLogID(logID);
+      args.setSinceVersion(sinceVersion);
+      sendBase("getStorageDelta", args);
+    }
+
+    public ThriftStorageDelta recv_getStorageDelta() throws org.apache.thrift.TException
+    {
+      getStorageDelta_result result = new getStorageDelta_result();
+      receiveBase(result, "getStorageDelta");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getStorageDelta failed: unknown result");
+    }
+
+    public List<ThriftTreeNode> getTreeNodes(List<String> dirs) throws org.apache.thrift.TException
+    {
+      send_getTreeNodes(dirs);
+      return recv_getTreeNodes();
+    }
+
+    public void send_getTreeNodes(List<String> dirs) throws org.apache.thrift.TException
+    {
+      getTreeNodes_args args = new getTreeNodes_args();
+      args.setDirs(dirs);
+      sendBase("getTreeNodes", args);
+    }
+
+    public List<ThriftTreeNode> recv_getTreeNodes() throws org.apache.thrift.TException
+    {
+      getTreeNodes_result result = new getTreeNodes_result();
+      receiveBase(result, "getTreeNodes");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getTreeNodes failed: unknown result");
+    }
+
+    public List<ThriftFileHandle> getFileHandles(List<String> paths) throws org.apache.thrift.TException
+    {
+      send_getFileHandles(paths);
+      return recv_getFileHandles();
+    }
+
+    public void send_getFileHandles(List<String> paths) throws org.apache.thrift.TException
+    {
+      getFileHandles_args args = new getFileHandles_args();
+      args.setPaths(paths);
+      sendBase("getFileHandles", args);
+    }
+
+    public List<ThriftFileHandle> recv_getFileHandles() throws org.apache.thrift.TException
+    {
+      getFileHandles_result result = new getFileHandles_result();
+      receiveBase(result, "getFileHandles");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getFileHandles failed: unknown result");
+    }
+
+    public ThriftHashList getChunkHashes(ByteBuffer fileHash) throws org.apache.thrift.TException
+    {
+      send_getChunkHashes(fileHash);
+      return recv_getChunkHashes();
+    }
+
+    public void send_getChunkHashes(ByteBuffer fileHash) throws org.apache.thrift.TException
+    {
+      getChunkHashes_args args = new getChunkHashes_args();
+      args.setFileHash(fileHash);
+      sendBase("getChunkHashes", args);
+    }
+
+    public ThriftHashList recv_getChunkHashes() throws org.apache.thrift.TException
+    {
+      getChunkHashes_result result = new getChunkHashes_result();
+      receiveBase(result, "getChunkHashes");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getChunkHashes failed: unknown result");
+    }
+
+    public ThriftBlockList getBlockList(String filename, int offset, int count) throws org.apache.thrift.TException
+    {
+      send_getBlockList(filename, offset, count);
+      return recv_getBlockList();
+    }
+
+    public void send_getBlockList(String filename, int offset, int count) throws org.apache.thrift.TException
+    {
+      getBlockList_args args = new getBlockList_args();
+      args.setFilename(filename);
+      args.setOffset(offset);
+      args.setCount(count);
+      sendBase("getBlockList", args);
+    }
+
+    public ThriftBlockList recv_getBlockList() throws org.apache.thrift.TException
+    {
+      getBlockList_result result = new getBlockList_result();
+      receiveBase(result, "getBlockList");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getBlockList failed: unknown result");
+    }
+
+    public ByteBuffer getDataBlock(String filename, int blockID, String hash, int codecs, String baseHash) throws org.apache.thrift.TException
     {
-      send_getDataBlock(filename, blockID, hash);
+      send_getDataBlock(filename, blockID, hash, codecs, baseHash);
       return recv_getDataBlock();
     }
 
-    public void send_getDataBlock(String filename, int blockID, String hash) throws org.apache.thrift.TException
+    public void send_getDataBlock(String filename, int blockID, String hash, int codecs, String baseHash) throws org.apache.thrift.TException
     {
       getDataBlock_args args = new getDataBlock_args();
       args.setFilename(filename);
       args.setBlockID(blockID);
       args.setHash(hash);
+      args.setCodecs(codecs);
+      args.setBaseHash(baseHash);
       sendBase("getDataBlock", args);
     }
 
@@ -221,9 +389,213 @@ public class DataTransfer {
       }
     }
 
-    public void getDataBlock(String filename, int blockID, String hash, org.apache.thrift.async.AsyncMethodCallback<getDataBlock_call> resultHandler) throws org.apache.thrift.TException {
+    public void getStoragePage(String cursor, int count, org.apache.thrift.async.AsyncMethodCallback<getStoragePage_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getStoragePage_call method_call = new getStoragePage_call(cursor, count, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getStoragePage_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private String cursor;
+      private int count;
+      public getStoragePage_call(String cursor, int count, org.apache.thrift.async.AsyncMethodCallback<getStoragePage_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.cursor = cursor;
+        this.count = count;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getStoragePage", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getStoragePage_args args = new getStoragePage_args();
+        args.setCursor(cursor);
+        args.setCount(count);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public ThriftStoragePage getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getStoragePage();
+      }
+    }
+
+    public void getStorageDelta(long logID, int sinceVersion, org.apache.thrift.async.AsyncMethodCallback<getStorageDelta_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getStorageDelta_call method_call = new getStorageDelta_call(logID, sinceVersion, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getStorageDelta_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private long logID;
+      private int sinceVersion;
+      public getStorageDelta_call(long logID, int sinceVersion, org.apache.thrift.async.AsyncMethodCallback<getStorageDelta_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.logID = logID;
+        this.sinceVersion = sinceVersion;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getStorageDelta", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getStorageDelta_args args = new getStorageDelta_args();
+        args.setLogID(logID);
+        args.setSinceVersion(sinceVersion);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public ThriftStorageDelta getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getStorageDelta();
+      }
+    }
+
+    public void getTreeNodes(List<String> dirs, org.apache.thrift.async.AsyncMethodCallback<getTreeNodes_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getTreeNodes_call method_call = new getTreeNodes_call(dirs, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getTreeNodes_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private List<String> dirs;
+      public getTreeNodes_call(List<String> dirs, org.apache.thrift.async.AsyncMethodCallback<getTreeNodes_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.dirs = dirs;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getTreeNodes", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getTreeNodes_args args = new getTreeNodes_args();
+        args.setDirs(dirs);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public List<ThriftTreeNode> getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getTreeNodes();
+      }
+    }
+
+    public void getFileHandles(List<String> paths, org.apache.thrift.async.AsyncMethodCallback<getFileHandles_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getFileHandles_call method_call = new getFileHandles_call(paths, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getFileHandles_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private List<String> paths;
+      public getFileHandles_call(List<String> paths, org.apache.thrift.async.AsyncMethodCallback<getFileHandles_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.paths = paths;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getFileHandles", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getFileHandles_args args = new getFileHandles_args();
+        args.setPaths(paths);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public List<ThriftFileHandle> getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getFileHandles();
+      }
+    }
+
+    public void getChunkHashes(ByteBuffer fileHash, org.apache.thrift.async.AsyncMethodCallback<getChunkHashes_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getChunkHashes_call method_call = new getChunkHashes_call(fileHash, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getChunkHashes_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private ByteBuffer fileHash;
+      public getChunkHashes_call(ByteBuffer fileHash, org.apache.thrift.async.AsyncMethodCallback<getChunkHashes_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.fileHash = fileHash;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getChunkHashes", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getChunkHashes_args args = new getChunkHashes_args();
+        args.setFileHash(fileHash);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public ThriftHashList getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getChunkHashes();
+      }
+    }
+
+    public void getBlockList(String filename, int offset, int count, org.apache.thrift.async.AsyncMethodCallback<getBlockList_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getBlockList_call method_call = new getBlockList_call(filename, offset, count, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getBlockList_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private String filename;
+      private int offset;
+      private int count;
+      public getBlockList_call(String filename, int offset, int count, org.apache.thrift.async.AsyncMethodCallback<getBlockList_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.filename = filename;
+        this.offset = offset;
+        this.count = count;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getBlockList", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getBlockList_args args = new getBlockList_args();
+        args.setFilename(filename);
+        args.setOffset(offset);
+        args.setCount(count);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public ThriftBlockList getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getBlockList();
+      }
+    }
+
+    public void getDataBlock(String filename, int blockID, String hash, int codecs, String baseHash, org.apache.thrift.async.AsyncMethodCallback<getDataBlock_call> resultHandler) throws org.apache.thrift.TException {
       checkReady();
-      getDataBlock_call method_call = new getDataBlock_call(filename, blockID, hash, resultHandler, this, ___protocolFactory, ___transport);
+      getDataBlock_call method_call = new getDataBlock_call(filename, blockID, hash, codecs, baseHash, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
@@ -232,11 +604,15 @@ public class DataTransfer {
       private String filename;
       private int blockID;
       private String hash;
-      public getDataBlock_call(String filename, int blockID, String hash, org.apache.thrift.async.AsyncMethodCallback<getDataBlock_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+      private int codecs;
+      private String baseHash;
+      public getDataBlock_call(String filename, int blockID, String hash, int codecs, String baseHash, org.apache.thrift.async.AsyncMethodCallback<getDataBlock_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this.filename = filename;
         this.blockID = blockID;
         this.hash = hash;
+        this.codecs = codecs;
+        this.baseHash = baseHash;
       }
 
       public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
@@ -245,6 +621,8 @@ public class DataTransfer {
         args.setFilename(filename);
         args.setBlockID(blockID);
         args.setHash(hash);
+        args.setCodecs(codecs);
+        args.setBaseHash(baseHash);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -274,6 +652,12 @@ public class DataTransfer {
     private static <I extends Iface> Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> getProcessMap(Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> processMap) {
       processMap.put("getLocalIP", new getLocalIP());
       processMap.put("getStorage", new getStorage());
+      processMap.put("getStoragePage", new getStoragePage());
+      processMap.put("getStorageDelta", new getStorageDelta());
+      processMap.put("getTreeNodes", new getTreeNodes());
+      processMap.put("getFileHandles", new getFileHandles());
+      processMap.put("getChunkHashes", new getChunkHashes());
+      processMap.put("getBlockList", new getBlockList());
       processMap.put("getDataBlock", new getDataBlock());
       return processMap;
     }
@@ -318,44 +702,4721 @@ public class DataTransfer {
       }
     }
 
-    public static class getDataBlock<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getDataBlock_args> {
-      public getDataBlock() {
-        super("getDataBlock");
+    public static class getStoragePage<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getStoragePage_args> {
+      public getStoragePage() {
+        super("getStoragePage");
       }
 
-      public getDataBlock_args getEmptyArgsInstance() {
-        return new getDataBlock_args();
+      public getStoragePage_args getEmptyArgsInstance() {
+        return new getStoragePage_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getStoragePage_result getResult(I iface, getStoragePage_args args) throws org.apache.thrift.TException {
+        getStoragePage_result result = new getStoragePage_result();
+        result.success = iface.getStoragePage(args.cursor, args.count);
+        return result;
+      }
+    }
+
+    public static class getStorageDelta<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getStorageDelta_args> {
+      public getStorageDelta() {
+        super("getStorageDelta");
+      }
+
+      public getStorageDelta_args getEmptyArgsInstance() {
+        return new getStorageDelta_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getStorageDelta_result getResult(I iface, getStorageDelta_args args) throws org.apache.thrift.TException {
+        getStorageDelta_result result = new getStorageDelta_result();
+        result.success = iface.getStorageDelta(args.logID, args.sinceVersion);
+        return result;
+      }
+    }
+
+    public static class getTreeNodes<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getTreeNodes_args> {
+      public getTreeNodes() {
+        super("getTreeNodes");
+      }
+
+      public getTreeNodes_args getEmptyArgsInstance() {
+        return new getTreeNodes_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getTreeNodes_result getResult(I iface, getTreeNodes_args args) throws org.apache.thrift.TException {
+        getTreeNodes_result result = new getTreeNodes_result();
+        result.success = iface.getTreeNodes(args.dirs);
+        return result;
+      }
+    }
+
+    public static class getFileHandles<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getFileHandles_args> {
+      public getFileHandles() {
+        super("getFileHandles");
+      }
+
+      public getFileHandles_args getEmptyArgsInstance() {
+        return new getFileHandles_args();
       }
 
       protected boolean isOneway() {
         return false;
       }
 
-      public getDataBlock_result getResult(I iface, getDataBlock_args args) throws org.apache.thrift.TException {
-        getDataBlock_result result = new getDataBlock_result();
-        result.success = iface.getDataBlock(args.filename, args.blockID, args.hash);
-        return result;
+      public getFileHandles_result getResult(I iface, getFileHandles_args args) throws org.apache.thrift.TException {
+        getFileHandles_result result = new getFileHandles_result();
+        result.success = iface.getFileHandles(args.paths);
+        return result;
+      }
+    }
+
+    public static class getChunkHashes<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getChunkHashes_args> {
+      public getChunkHashes() {
+        super("getChunkHashes");
+      }
+
+      public getChunkHashes_args getEmptyArgsInstance() {
+        return new getChunkHashes_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getChunkHashes_result getResult(I iface, getChunkHashes_args args) throws org.apache.thrift.TException {
+        getChunkHashes_result result = new getChunkHashes_result();
+        result.success = iface.getChunkHashes(args.fileHash);
+        return result;
+      }
+    }
+
+    public static class getBlockList<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getBlockList_args> {
+      public getBlockList() {
+        super("getBlockList");
+      }
+
+      public getBlockList_args getEmptyArgsInstance() {
+        return new getBlockList_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getBlockList_result getResult(I iface, getBlockList_args args) throws org.apache.thrift.TException {
+        getBlockList_result result = new getBlockList_result();
+        result.success = iface.getBlockList(args.filename, args.offset, args.count);
+        return result;
+      }
+    }
+
+    public static class getDataBlock<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getDataBlock_args> {
+      public getDataBlock() {
+        super("getDataBlock");
+      }
+
+      public getDataBlock_args getEmptyArgsInstance() {
+        return new getDataBlock_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getDataBlock_result getResult(I iface, getDataBlock_args args) throws org.apache.thrift.TException {
+        getDataBlock_result result = new getDataBlock_result();
+        result.success = iface.getDataBlock(args.filename, args.blockID, args.hash, args.codecs, args.baseHash);
+        return result;
+      }
+    }
+
+  }
+
+  public static class getLocalIP_args implements org.apache.thrift.TBase<getLocalIP_args, getLocalIP_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getLocalIP_args");
+
+    private static final org.apache.thrift.protocol.TField HASH_FIELD_DESC = new org.apache.thrift.protocol.TField("hash", org.apache.thrift.protocol.TType.STRING, (short)1);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getLocalIP_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getLocalIP_argsTupleSchemeFactory());
+    }
+
+    public String hash; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      HASH((short)1, "hash");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // HASH
+            return HASH;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.HASH, new org.apache.thrift.meta_data.FieldMetaData("hash", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getLocalIP_args.class, metaDataMap);
+    }
+
+    public getLocalIP_args() {
+    }
+
+    public getLocalIP_args(
+      String hash)
+    {
+      this();
+      this.hash = hash;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getLocalIP_args(getLocalIP_args other) {
+      if (other.isSetHash()) {
+        this.hash = other.hash;
+      }
+    }
+
+    public getLocalIP_args deepCopy() {
+      return new getLocalIP_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.hash = null;
+    }
+
+    public String getHash() {
+      return this.hash;
+    }
+
+    public getLocalIP_args setHash(String hash) {
+      this.hash = hash;
+      return this;
+    }
+
+    public void unsetHash() {
+      this.hash = null;
+    }
+
+    /** Returns true if field hash is set (has been assigned a value) and false otherwise */
+    public boolean isSetHash() {
+      return this.hash != null;
+    }
+
+    public void setHashIsSet(boolean value) {
+      if (!value) {
+        this.hash = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case HASH:
+        if (value == null) {
+          unsetHash();
+        } else {
+          setHash((String)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case HASH:
+        return getHash();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case HASH:
+        return isSetHash();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getLocalIP_args)
+        return this.equals((getLocalIP_args)that);
+      return false;
+    }
+
+    public boolean equals(getLocalIP_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_hash = true && this.isSetHash();
+      boolean that_present_hash = true && that.isSetHash();
+      if (this_present_hash || that_present_hash) {
+        if (!(this_present_hash && that_present_hash))
+          return false;
+        if (!this.hash.equals(that.hash))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getLocalIP_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getLocalIP_args typedOther = (getLocalIP_args)other;
+
+      lastComparison = Boolean.valueOf(isSetHash()).compareTo(typedOther.isSetHash());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetHash()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.hash, typedOther.hash);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getLocalIP_args(");
+      boolean first = true;
+
+      sb.append("hash:");
+      if (this.hash == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.hash);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getLocalIP_argsStandardSchemeFactory implements SchemeFactory {
+      public getLocalIP_argsStandardScheme getScheme() {
+        return new getLocalIP_argsStandardScheme();
+      }
+    }
+
+    private static class getLocalIP_argsStandardScheme extends StandardScheme<getLocalIP_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getLocalIP_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // HASH
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.hash = iprot.readString();
+                struct.setHashIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getLocalIP_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.hash != null) {
+          oprot.writeFieldBegin(HASH_FIELD_DESC);
+          oprot.writeString(struct.hash);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getLocalIP_argsTupleSchemeFactory implements SchemeFactory {
+      public getLocalIP_argsTupleScheme getScheme() {
+        return new getLocalIP_argsTupleScheme();
+      }
+    }
+
+    private static class getLocalIP_argsTupleScheme extends TupleScheme<getLocalIP_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getLocalIP_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetHash()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetHash()) {
+          oprot.writeString(struct.hash);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getLocalIP_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.hash = iprot.readString();
+          struct.setHashIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getLocalIP_result implements org.apache.thrift.TBase<getLocalIP_result, getLocalIP_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getLocalIP_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRING, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getLocalIP_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getLocalIP_resultTupleSchemeFactory());
+    }
+
+    public String success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getLocalIP_result.class, metaDataMap);
+    }
+
+    public getLocalIP_result() {
+    }
+
+    public getLocalIP_result(
+      String success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getLocalIP_result(getLocalIP_result other) {
+      if (other.isSetSuccess()) {
+        this.success = other.success;
+      }
+    }
+
+    public getLocalIP_result deepCopy() {
+      return new getLocalIP_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public String getSuccess() {
+      return this.success;
+    }
+
+    public getLocalIP_result setSuccess(String success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((String)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getLocalIP_result)
+        return this.equals((getLocalIP_result)that);
+      return false;
+    }
+
+    public boolean equals(getLocalIP_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getLocalIP_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getLocalIP_result typedOther = (getLocalIP_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getLocalIP_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getLocalIP_resultStandardSchemeFactory implements SchemeFactory {
+      public getLocalIP_resultStandardScheme getScheme() {
+        return new getLocalIP_resultStandardScheme();
+      }
+    }
+
+    private static class getLocalIP_resultStandardScheme extends StandardScheme<getLocalIP_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getLocalIP_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.success = iprot.readString();
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getLocalIP_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          oprot.writeString(struct.success);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getLocalIP_resultTupleSchemeFactory implements SchemeFactory {
+      public getLocalIP_resultTupleScheme getScheme() {
+        return new getLocalIP_resultTupleScheme();
+      }
+    }
+
+    private static class getLocalIP_resultTupleScheme extends TupleScheme<getLocalIP_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getLocalIP_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetSuccess()) {
+          oprot.writeString(struct.success);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getLocalIP_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = iprot.readString();
+          struct.setSuccessIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getStorage_args implements org.apache.thrift.TBase<getStorage_args, getStorage_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getStorage_args");
+
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getStorage_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getStorage_argsTupleSchemeFactory());
+    }
+
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+;
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getStorage_args.class, metaDataMap);
+    }
+
+    public getStorage_args() {
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getStorage_args(getStorage_args other) {
+    }
+
+    public getStorage_args deepCopy() {
+      return new getStorage_args(this);
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getStorage_args)
+        return this.equals((getStorage_args)that);
+      return false;
+    }
+
+    public boolean equals(getStorage_args that) {
+      if (that == null)
+        return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getStorage_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getStorage_args typedOther = (getStorage_args)other;
+
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getStorage_args(");
+      boolean first = true;
+
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getStorage_argsStandardSchemeFactory implements SchemeFactory {
+      public getStorage_argsStandardScheme getScheme() {
+        return new getStorage_argsStandardScheme();
+      }
+    }
+
+    private static class getStorage_argsStandardScheme extends StandardScheme<getStorage_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getStorage_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getStorage_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getStorage_argsTupleSchemeFactory implements SchemeFactory {
+      public getStorage_argsTupleScheme getScheme() {
+        return new getStorage_argsTupleScheme();
+      }
+    }
+
+    private static class getStorage_argsTupleScheme extends TupleScheme<getStorage_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getStorage_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getStorage_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+      }
+    }
+
+  }
+
+  public static class getStorage_result implements org.apache.thrift.TBase<getStorage_result, getStorage_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getStorage_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getStorage_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getStorage_resultTupleSchemeFactory());
+    }
+
+    public ThriftStorage success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftStorage.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getStorage_result.class, metaDataMap);
+    }
+
+    public getStorage_result() {
+    }
+
+    public getStorage_result(
+      ThriftStorage success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getStorage_result(getStorage_result other) {
+      if (other.isSetSuccess()) {
+        this.success = new ThriftStorage(other.success);
+      }
+    }
+
+    public getStorage_result deepCopy() {
+      return new getStorage_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public ThriftStorage getSuccess() {
+      return this.success;
+    }
+
+    public getStorage_result setSuccess(ThriftStorage success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((ThriftStorage)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getStorage_result)
+        return this.equals((getStorage_result)that);
+      return false;
+    }
+
+    public boolean equals(getStorage_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getStorage_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getStorage_result typedOther = (getStorage_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getStorage_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+      if (success != null) {
+        success.validate();
+      }
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getStorage_resultStandardSchemeFactory implements SchemeFactory {
+      public getStorage_resultStandardScheme getScheme() {
+        return new getStorage_resultStandardScheme();
+      }
+    }
+
+    private static class getStorage_resultStandardScheme extends StandardScheme<getStorage_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getStorage_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new ThriftStorage();
+                struct.success.read(iprot);
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getStorage_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getStorage_resultTupleSchemeFactory implements SchemeFactory {
+      public getStorage_resultTupleScheme getScheme() {
+        return new getStorage_resultTupleScheme();
+      }
+    }
+
+    private static class getStorage_resultTupleScheme extends TupleScheme<getStorage_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getStorage_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetSuccess()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getStorage_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new ThriftStorage();
+          struct.success.read(iprot);
+          struct.setSuccessIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getStoragePage_args implements org.apache.thrift.TBase<getStoragePage_args, getStoragePage_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getStoragePage_args");
+
+    private static final org.apache.thrift.protocol.TField CURSOR_FIELD_DESC = new org.apache.thrift.protocol.TField("cursor", org.apache.thrift.protocol.TType.STRING, (short)1);
+    private static final org.apache.thrift.protocol.TField COUNT_FIELD_DESC = new org.apache.thrift.protocol.TField("count", org.apache.thrift.protocol.TType.I32, (short)2);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getStoragePage_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getStoragePage_argsTupleSchemeFactory());
+    }
+
+    public String cursor; // required
+    public int count; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      CURSOR((short)1, "cursor"),
+      COUNT((short)2, "count");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // CURSOR
+            return CURSOR;
+          case 2: // COUNT
+            return COUNT;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __COUNT_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.CURSOR, new org.apache.thrift.meta_data.FieldMetaData("cursor", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields.COUNT, new org.apache.thrift.meta_data.FieldMetaData("count", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getStoragePage_args.class, metaDataMap);
+    }
+
+    public getStoragePage_args() {
+    }
+
+    public getStoragePage_args(
+      String cursor,
+      int count)
+    {
+      this();
+      this.cursor = cursor;
+      this.count = count;
+      setCountIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getStoragePage_args(getStoragePage_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      if (other.isSetCursor()) {
+        this.cursor = other.cursor;
+      }
+      this.count = other.count;
+    }
+
+    public getStoragePage_args deepCopy() {
+      return new getStoragePage_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.cursor = null;
+      setCountIsSet(false);
+      this.count = 0;
+    }
+
+    public String getCursor() {
+      return this.cursor;
+    }
+
+    public getStoragePage_args setCursor(String cursor) {
+      this.cursor = cursor;
+      return this;
+    }
+
+    public void unsetCursor() {
+      this.cursor = null;
+    }
+
+    /** Returns true if field cursor is set (has been assigned a value) and false otherwise */
+    public boolean isSetCursor() {
+      return this.cursor != null;
+    }
+
+    public void setCursorIsSet(boolean value) {
+      if (!value) {
+        this.cursor = null;
+      }
+    }
+
+    public int getCount() {
+      return this.count;
+    }
+
+    public getStoragePage_args setCount(int count) {
+      this.count = count;
+      setCountIsSet(true);
+      return this;
+    }
+
+    public void unsetCount() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __COUNT_ISSET_ID);
+    }
+
+    /** Returns true if field count is set (has been assigned a value) and false otherwise */
+    public boolean isSetCount() {
+      return EncodingUtils.testBit(__isset_bitfield, __COUNT_ISSET_ID);
+    }
+
+    public void setCountIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __COUNT_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case CURSOR:
+        if (value == null) {
+          unsetCursor();
+        } else {
+          setCursor((String)value);
+        }
+        break;
+
+      case COUNT:
+        if (value == null) {
+          unsetCount();
+        } else {
+          setCount((Integer)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case CURSOR:
+        return getCursor();
+
+      case COUNT:
+        return Integer.valueOf(getCount());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case CURSOR:
+        return isSetCursor();
+      case COUNT:
+        return isSetCount();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getStoragePage_args)
+        return this.equals((getStoragePage_args)that);
+      return false;
+    }
+
+    public boolean equals(getStoragePage_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_cursor = true && this.isSetCursor();
+      boolean that_present_cursor = true && that.isSetCursor();
+      if (this_present_cursor || that_present_cursor) {
+        if (!(this_present_cursor && that_present_cursor))
+          return false;
+        if (!this.cursor.equals(that.cursor))
+          return false;
+      }
+
+      boolean this_present_count = true;
+      boolean that_present_count = true;
+      if (this_present_count || that_present_count) {
+        if (!(this_present_count && that_present_count))
+          return false;
+        if (this.count != that.count)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getStoragePage_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getStoragePage_args typedOther = (getStoragePage_args)other;
+
+      lastComparison = Boolean.valueOf(isSetCursor()).compareTo(typedOther.isSetCursor());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetCursor()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.cursor, typedOther.cursor);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetCount()).compareTo(typedOther.isSetCount());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetCount()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.count, typedOther.count);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getStoragePage_args(");
+      boolean first = true;
+
+      sb.append("cursor:");
+      if (this.cursor == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.cursor);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("count:");
+      sb.append(this.count);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getStoragePage_argsStandardSchemeFactory implements SchemeFactory {
+      public getStoragePage_argsStandardScheme getScheme() {
+        return new getStoragePage_argsStandardScheme();
+      }
+    }
+
+    private static class getStoragePage_argsStandardScheme extends StandardScheme<getStoragePage_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getStoragePage_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // CURSOR
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.cursor = iprot.readString();
+                struct.setCursorIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // COUNT
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.count = iprot.readI32();
+                struct.setCountIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getStoragePage_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.cursor != null) {
+          oprot.writeFieldBegin(CURSOR_FIELD_DESC);
+          oprot.writeString(struct.cursor);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldBegin(COUNT_FIELD_DESC);
+        oprot.writeI32(struct.count);
+        oprot.writeFieldEnd();
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getStoragePage_argsTupleSchemeFactory implements SchemeFactory {
+      public getStoragePage_argsTupleScheme getScheme() {
+        return new getStoragePage_argsTupleScheme();
+      }
+    }
+
+    private static class getStoragePage_argsTupleScheme extends TupleScheme<getStoragePage_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getStoragePage_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetCursor()) {
+          optionals.set(0);
+        }
+        if (struct.isSetCount()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.isSetCursor()) {
+          oprot.writeString(struct.cursor);
+        }
+        if (struct.isSetCount()) {
+          oprot.writeI32(struct.count);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getStoragePage_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          struct.cursor = iprot.readString();
+          struct.setCursorIsSet(true);
+        }
+        if (incoming.get(1)) {
+          struct.count = iprot.readI32();
+          struct.setCountIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getStoragePage_result implements org.apache.thrift.TBase<getStoragePage_result, getStoragePage_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getStoragePage_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getStoragePage_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getStoragePage_resultTupleSchemeFactory());
+    }
+
+    public ThriftStoragePage success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftStoragePage.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getStoragePage_result.class, metaDataMap);
+    }
+
+    public getStoragePage_result() {
+    }
+
+    public getStoragePage_result(
+      ThriftStoragePage success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getStoragePage_result(getStoragePage_result other) {
+      if (other.isSetSuccess()) {
+        this.success = new ThriftStoragePage(other.success);
+      }
+    }
+
+    public getStoragePage_result deepCopy() {
+      return new getStoragePage_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public ThriftStoragePage getSuccess() {
+      return this.success;
+    }
+
+    public getStoragePage_result setSuccess(ThriftStoragePage success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((ThriftStoragePage)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getStoragePage_result)
+        return this.equals((getStoragePage_result)that);
+      return false;
+    }
+
+    public boolean equals(getStoragePage_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getStoragePage_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getStoragePage_result typedOther = (getStoragePage_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getStoragePage_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+      if (success != null) {
+        success.validate();
+      }
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getStoragePage_resultStandardSchemeFactory implements SchemeFactory {
+      public getStoragePage_resultStandardScheme getScheme() {
+        return new getStoragePage_resultStandardScheme();
+      }
+    }
+
+    private static class getStoragePage_resultStandardScheme extends StandardScheme<getStoragePage_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getStoragePage_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new ThriftStoragePage();
+                struct.success.read(iprot);
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getStoragePage_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getStoragePage_resultTupleSchemeFactory implements SchemeFactory {
+      public getStoragePage_resultTupleScheme getScheme() {
+        return new getStoragePage_resultTupleScheme();
+      }
+    }
+
+    private static class getStoragePage_resultTupleScheme extends TupleScheme<getStoragePage_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getStoragePage_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetSuccess()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getStoragePage_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new ThriftStoragePage();
+          struct.success.read(iprot);
+          struct.setSuccessIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getStorageDelta_args implements org.apache.thrift.TBase<getStorageDelta_args, getStorageDelta_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getStorageDelta_args");
+
+    private static final org.apache.thrift.protocol.TField LOG_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("logID", org.apache.thrift.protocol.TType.I64, (short)1);
+    private static final org.apache.thrift.protocol.TField SINCE_VERSION_FIELD_DESC = new org.apache.thrift.protocol.TField("sinceVersion", org.apache.thrift.protocol.TType.I32, (short)2);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getStorageDelta_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getStorageDelta_argsTupleSchemeFactory());
+    }
+
+    public long logID; // required
+    public int sinceVersion; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      LOG_ID((short)1, "logID"),
+      SINCE_VERSION((short)2, "sinceVersion");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // LOG_ID
+            return LOG_ID;
+          case 2: // SINCE_VERSION
+            return SINCE_VERSION;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __LOGID_ISSET_ID = 0;
+    private static final int __SINCEVERSION_ISSET_ID = 1;
+    private byte __isset_bitfield = 0;
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.LOG_ID, new org.apache.thrift.meta_data.FieldMetaData("logID", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+      tmpMap.put(_Fields.SINCE_VERSION, new org.apache.thrift.meta_data.FieldMetaData("sinceVersion", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getStorageDelta_args.class, metaDataMap);
+    }
+
+    public getStorageDelta_args() {
+    }
+
+    public getStorageDelta_args(
+      long logID,
+      int sinceVersion)
+    {
+      this();
+      this.logID = logID;
+      setLogIDIsSet(true);
+      this.sinceVersion = sinceVersion;
+      setSinceVersionIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getStorageDelta_args(getStorageDelta_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      this.logID = other.logID;
+      this.sinceVersion = other.sinceVersion;
+    }
+
+    public getStorageDelta_args deepCopy() {
+      return new getStorageDelta_args(this);
+    }
+
+    @Override
+    public void clear() {
+      setLogIDIsSet(false);
+      this.logID = 0;
+      setSinceVersionIsSet(false);
+      this.sinceVersion = 0;
+    }
+
+    public long getLogID() {
+      return this.logID;
+    }
+
+    public getStorageDelta_args setLogID(long logID) {
+      this.logID = logID;
+      setLogIDIsSet(true);
+      return this;
+    }
+
+    public void unsetLogID() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __LOGID_ISSET_ID);
+    }
+
+    /** Returns true if field logID is set (has been assigned a value) and false otherwise */
+    public boolean isSetLogID() {
+      return EncodingUtils.testBit(__isset_bitfield, __LOGID_ISSET_ID);
+    }
+
+    public void setLogIDIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __LOGID_ISSET_ID, value);
+    }
+
+    public int getSinceVersion() {
+      return this.sinceVersion;
+    }
+
+    public getStorageDelta_args setSinceVersion(int sinceVersion) {
+      this.sinceVersion = sinceVersion;
+      setSinceVersionIsSet(true);
+      return this;
+    }
+
+    public void unsetSinceVersion() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __SINCEVERSION_ISSET_ID);
+    }
+
+    /** Returns true if field sinceVersion is set (has been assigned a value) and false otherwise */
+    public boolean isSetSinceVersion() {
+      return EncodingUtils.testBit(__isset_bitfield, __SINCEVERSION_ISSET_ID);
+    }
+
+    public void setSinceVersionIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __SINCEVERSION_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case LOG_ID:
+        if (value == null) {
+          unsetLogID();
+        } else {
+          setLogID((Long)value);
+        }
+        break;
+
+      case SINCE_VERSION:
+        if (value == null) {
+          unsetSinceVersion();
+        } else {
+          setSinceVersion((Integer)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case LOG_ID:
+        return Long.valueOf(getLogID());
+
+      case SINCE_VERSION:
+        return Integer.valueOf(getSinceVersion());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case LOG_ID:
+        return isSetLogID();
+      case SINCE_VERSION:
+        return isSetSinceVersion();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getStorageDelta_args)
+        return this.equals((getStorageDelta_args)that);
+      return false;
+    }
+
+    public boolean equals(getStorageDelta_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_logID = true;
+      boolean that_present_logID = true;
+      if (this_present_logID || that_present_logID) {
+        if (!(this_present_logID && that_present_logID))
+          return false;
+        if (this.logID != that.logID)
+          return false;
+      }
+
+      boolean this_present_sinceVersion = true;
+      boolean that_present_sinceVersion = true;
+      if (this_present_sinceVersion || that_present_sinceVersion) {
+        if (!(this_present_sinceVersion && that_present_sinceVersion))
+          return false;
+        if (this.sinceVersion != that.sinceVersion)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getStorageDelta_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getStorageDelta_args typedOther = (getStorageDelta_args)other;
+
+      lastComparison = Boolean.valueOf(isSetLogID()).compareTo(typedOther.isSetLogID());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetLogID()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.logID, typedOther.logID);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetSinceVersion()).compareTo(typedOther.isSetSinceVersion());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSinceVersion()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.sinceVersion, typedOther.sinceVersion);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getStorageDelta_args(");
+      boolean first = true;
+
+      sb.append("logID:");
+      sb.append(this.logID);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("sinceVersion:");
+      sb.append(this.sinceVersion);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getStorageDelta_argsStandardSchemeFactory implements SchemeFactory {
+      public getStorageDelta_argsStandardScheme getScheme() {
+        return new getStorageDelta_argsStandardScheme();
+      }
+    }
+
+    private static class getStorageDelta_argsStandardScheme extends StandardScheme<getStorageDelta_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getStorageDelta_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // LOG_ID
+              if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+                struct.logID = iprot.readI64();
+                struct.setLogIDIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // SINCE_VERSION
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.sinceVersion = iprot.readI32();
+                struct.setSinceVersionIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getStorageDelta_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        oprot.writeFieldBegin(LOG_ID_FIELD_DESC);
+        oprot.writeI64(struct.logID);
+        oprot.writeFieldEnd();
+        oprot.writeFieldBegin(SINCE_VERSION_FIELD_DESC);
+        oprot.writeI32(struct.sinceVersion);
+        oprot.writeFieldEnd();
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getStorageDelta_argsTupleSchemeFactory implements SchemeFactory {
+      public getStorageDelta_argsTupleScheme getScheme() {
+        return new getStorageDelta_argsTupleScheme();
+      }
+    }
+
+    private static class getStorageDelta_argsTupleScheme extends TupleScheme<getStorageDelta_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getStorageDelta_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetLogID()) {
+          optionals.set(0);
+        }
+        if (struct.isSetSinceVersion()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.isSetLogID()) {
+          oprot.writeI64(struct.logID);
+        }
+        if (struct.isSetSinceVersion()) {
+          oprot.writeI32(struct.sinceVersion);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getStorageDelta_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          struct.logID = iprot.readI64();
+          struct.setLogIDIsSet(true);
+        }
+        if (incoming.get(1)) {
+          struct.sinceVersion = iprot.readI32();
+          struct.setSinceVersionIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getStorageDelta_result implements org.apache.thrift.TBase<getStorageDelta_result, getStorageDelta_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getStorageDelta_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getStorageDelta_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getStorageDelta_resultTupleSchemeFactory());
+    }
+
+    public ThriftStorageDelta success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftStorageDelta.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getStorageDelta_result.class, metaDataMap);
+    }
+
+    public getStorageDelta_result() {
+    }
+
+    public getStorageDelta_result(
+      ThriftStorageDelta success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getStorageDelta_result(getStorageDelta_result other) {
+      if (other.isSetSuccess()) {
+        this.success = new ThriftStorageDelta(other.success);
+      }
+    }
+
+    public getStorageDelta_result deepCopy() {
+      return new getStorageDelta_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public ThriftStorageDelta getSuccess() {
+      return this.success;
+    }
+
+    public getStorageDelta_result setSuccess(ThriftStorageDelta success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((ThriftStorageDelta)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getStorageDelta_result)
+        return this.equals((getStorageDelta_result)that);
+      return false;
+    }
+
+    public boolean equals(getStorageDelta_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getStorageDelta_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getStorageDelta_result typedOther = (getStorageDelta_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getStorageDelta_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+      if (success != null) {
+        success.validate();
+      }
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getStorageDelta_resultStandardSchemeFactory implements SchemeFactory {
+      public getStorageDelta_resultStandardScheme getScheme() {
+        return new getStorageDelta_resultStandardScheme();
+      }
+    }
+
+    private static class getStorageDelta_resultStandardScheme extends StandardScheme<getStorageDelta_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getStorageDelta_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new ThriftStorageDelta();
+                struct.success.read(iprot);
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getStorageDelta_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getStorageDelta_resultTupleSchemeFactory implements SchemeFactory {
+      public getStorageDelta_resultTupleScheme getScheme() {
+        return new getStorageDelta_resultTupleScheme();
+      }
+    }
+
+    private static class getStorageDelta_resultTupleScheme extends TupleScheme<getStorageDelta_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getStorageDelta_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetSuccess()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getStorageDelta_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new ThriftStorageDelta();
+          struct.success.read(iprot);
+          struct.setSuccessIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getTreeNodes_args implements org.apache.thrift.TBase<getTreeNodes_args, getTreeNodes_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getTreeNodes_args");
+
+    private static final org.apache.thrift.protocol.TField DIRS_FIELD_DESC = new org.apache.thrift.protocol.TField("dirs", org.apache.thrift.protocol.TType.LIST, (short)1);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getTreeNodes_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getTreeNodes_argsTupleSchemeFactory());
+    }
+
+    public List<String> dirs; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      DIRS((short)1, "dirs");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // DIRS
+            return DIRS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.DIRS, new org.apache.thrift.meta_data.FieldMetaData("dirs", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getTreeNodes_args.class, metaDataMap);
+    }
+
+    public getTreeNodes_args() {
+    }
+
+    public getTreeNodes_args(
+      List<String> dirs)
+    {
+      this();
+      this.dirs = dirs;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getTreeNodes_args(getTreeNodes_args other) {
+      if (other.isSetDirs()) {
+        List<String> __this__dirs = new ArrayList<String>();
+        for (String other_element : other.dirs) {
+          __this__dirs.add(other_element);
+        }
+        this.dirs = __this__dirs;
+      }
+    }
+
+    public getTreeNodes_args deepCopy() {
+      return new getTreeNodes_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.dirs = null;
+    }
+
+    public int getDirsSize() {
+      return (this.dirs == null) ? 0 : this.dirs.size();
+    }
+
+    public java.util.Iterator<String> getDirsIterator() {
+      return (this.dirs == null) ? null : this.dirs.iterator();
+    }
+
+    public void addToDirs(String elem) {
+      if (this.dirs == null) {
+        this.dirs = new ArrayList<String>();
+      }
+      this.dirs.add(elem);
+    }
+
+    public List<String> getDirs() {
+      return this.dirs;
+    }
+
+    public getTreeNodes_args setDirs(List<String> dirs) {
+      this.dirs = dirs;
+      return this;
+    }
+
+    public void unsetDirs() {
+      this.dirs = null;
+    }
+
+    /** Returns true if field dirs is set (has been assigned a value) and false otherwise */
+    public boolean isSetDirs() {
+      return this.dirs != null;
+    }
+
+    public void setDirsIsSet(boolean value) {
+      if (!value) {
+        this.dirs = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case DIRS:
+        if (value == null) {
+          unsetDirs();
+        } else {
+          setDirs((List<String>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case DIRS:
+        return getDirs();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case DIRS:
+        return isSetDirs();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getTreeNodes_args)
+        return this.equals((getTreeNodes_args)that);
+      return false;
+    }
+
+    public boolean equals(getTreeNodes_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_dirs = true && this.isSetDirs();
+      boolean that_present_dirs = true && that.isSetDirs();
+      if (this_present_dirs || that_present_dirs) {
+        if (!(this_present_dirs && that_present_dirs))
+          return false;
+        if (!this.dirs.equals(that.dirs))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getTreeNodes_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getTreeNodes_args typedOther = (getTreeNodes_args)other;
+
+      lastComparison = Boolean.valueOf(isSetDirs()).compareTo(typedOther.isSetDirs());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetDirs()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.dirs, typedOther.dirs);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getTreeNodes_args(");
+      boolean first = true;
+
+      sb.append("dirs:");
+      if (this.dirs == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.dirs);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getTreeNodes_argsStandardSchemeFactory implements SchemeFactory {
+      public getTreeNodes_argsStandardScheme getScheme() {
+        return new getTreeNodes_argsStandardScheme();
+      }
+    }
+
+    private static class getTreeNodes_argsStandardScheme extends StandardScheme<getTreeNodes_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getTreeNodes_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // DIRS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list56 = iprot.readListBegin();
+                  struct.dirs = new ArrayList<String>(_list56.size);
+                  for (int _i57 = 0; _i57 < _list56.size; ++_i57)
+                  {
+                    String _elem58; // required
+                    _elem58 = iprot.readString();
+                    struct.dirs.add(_elem58);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.setDirsIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getTreeNodes_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.dirs != null) {
+          oprot.writeFieldBegin(DIRS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, struct.dirs.size()));
+            for (String _iter59 : struct.dirs)
+            {
+              oprot.writeString(_iter59);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getTreeNodes_argsTupleSchemeFactory implements SchemeFactory {
+      public getTreeNodes_argsTupleScheme getScheme() {
+        return new getTreeNodes_argsTupleScheme();
+      }
+    }
+
+    private static class getTreeNodes_argsTupleScheme extends TupleScheme<getTreeNodes_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getTreeNodes_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetDirs()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetDirs()) {
+          {
+            oprot.writeI32(struct.dirs.size());
+            for (String _iter60 : struct.dirs)
+            {
+              oprot.writeString(_iter60);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getTreeNodes_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          {
+            org.apache.thrift.protocol.TList _list61 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+            struct.dirs = new ArrayList<String>(_list61.size);
+            for (int _i62 = 0; _i62 < _list61.size; ++_i62)
+            {
+              String _elem63; // required
+              _elem63 = iprot.readString();
+              struct.dirs.add(_elem63);
+            }
+          }
+          struct.setDirsIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getTreeNodes_result implements org.apache.thrift.TBase<getTreeNodes_result, getTreeNodes_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getTreeNodes_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.LIST, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getTreeNodes_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getTreeNodes_resultTupleSchemeFactory());
+    }
+
+    public List<ThriftTreeNode> success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftTreeNode.class))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getTreeNodes_result.class, metaDataMap);
+    }
+
+    public getTreeNodes_result() {
+    }
+
+    public getTreeNodes_result(
+      List<ThriftTreeNode> success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getTreeNodes_result(getTreeNodes_result other) {
+      if (other.isSetSuccess()) {
+        List<ThriftTreeNode> __this__success = new ArrayList<ThriftTreeNode>();
+        for (ThriftTreeNode other_element : other.success) {
+          __this__success.add(new ThriftTreeNode(other_element));
+        }
+        this.success = __this__success;
+      }
+    }
+
+    public getTreeNodes_result deepCopy() {
+      return new getTreeNodes_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public int getSuccessSize() {
+      return (this.success == null) ? 0 : this.success.size();
+    }
+
+    public java.util.Iterator<ThriftTreeNode> getSuccessIterator() {
+      return (this.success == null) ? null : this.success.iterator();
+    }
+
+    public void addToSuccess(ThriftTreeNode elem) {
+      if (this.success == null) {
+        this.success = new ArrayList<ThriftTreeNode>();
+      }
+      this.success.add(elem);
+    }
+
+    public List<ThriftTreeNode> getSuccess() {
+      return this.success;
+    }
+
+    public getTreeNodes_result setSuccess(List<ThriftTreeNode> success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((List<ThriftTreeNode>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getTreeNodes_result)
+        return this.equals((getTreeNodes_result)that);
+      return false;
+    }
+
+    public boolean equals(getTreeNodes_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getTreeNodes_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getTreeNodes_result typedOther = (getTreeNodes_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getTreeNodes_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getTreeNodes_resultStandardSchemeFactory implements SchemeFactory {
+      public getTreeNodes_resultStandardScheme getScheme() {
+        return new getTreeNodes_resultStandardScheme();
+      }
+    }
+
+    private static class getTreeNodes_resultStandardScheme extends StandardScheme<getTreeNodes_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getTreeNodes_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list64 = iprot.readListBegin();
+                  struct.success = new ArrayList<ThriftTreeNode>(_list64.size);
+                  for (int _i65 = 0; _i65 < _list64.size; ++_i65)
+                  {
+                    ThriftTreeNode _elem66; // required
+                    _elem66 = new ThriftTreeNode();
+                    _elem66.read(iprot);
+                    struct.success.add(_elem66);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getTreeNodes_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, struct.success.size()));
+            for (ThriftTreeNode _iter67 : struct.success)
+            {
+              _iter67.write(oprot);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getTreeNodes_resultTupleSchemeFactory implements SchemeFactory {
+      public getTreeNodes_resultTupleScheme getScheme() {
+        return new getTreeNodes_resultTupleScheme();
+      }
+    }
+
+    private static class getTreeNodes_resultTupleScheme extends TupleScheme<getTreeNodes_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getTreeNodes_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetSuccess()) {
+          {
+            oprot.writeI32(struct.success.size());
+            for (ThriftTreeNode _iter68 : struct.success)
+            {
+              _iter68.write(oprot);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getTreeNodes_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          {
+            org.apache.thrift.protocol.TList _list69 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+            struct.success = new ArrayList<ThriftTreeNode>(_list69.size);
+            for (int _i70 = 0; _i70 < _list69.size; ++_i70)
+            {
+              ThriftTreeNode _elem71; // required
+              _elem71 = new ThriftTreeNode();
+              _elem71.read(iprot);
+              struct.success.add(_elem71);
+            }
+          }
+          struct.setSuccessIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getFileHandles_args implements org.apache.thrift.TBase<getFileHandles_args, getFileHandles_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getFileHandles_args");
+
+    private static final org.apache.thrift.protocol.TField PATHS_FIELD_DESC = new org.apache.thrift.protocol.TField("paths", org.apache.thrift.protocol.TType.LIST, (short)1);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getFileHandles_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getFileHandles_argsTupleSchemeFactory());
+    }
+
+    public List<String> paths; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      PATHS((short)1, "paths");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // PATHS
+            return PATHS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.PATHS, new org.apache.thrift.meta_data.FieldMetaData("paths", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getFileHandles_args.class, metaDataMap);
+    }
+
+    public getFileHandles_args() {
+    }
+
+    public getFileHandles_args(
+      List<String> paths)
+    {
+      this();
+      this.paths = paths;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getFileHandles_args(getFileHandles_args other) {
+      if (other.isSetPaths()) {
+        List<String> __this__paths = new ArrayList<String>();
+        for (String other_element : other.paths) {
+          __this__paths.add(other_element);
+        }
+        this.paths = __this__paths;
+      }
+    }
+
+    public getFileHandles_args deepCopy() {
+      return new getFileHandles_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.paths = null;
+    }
+
+    public int getPathsSize() {
+      return (this.paths == null) ? 0 : this.paths.size();
+    }
+
+    public java.util.Iterator<String> getPathsIterator() {
+      return (this.paths == null) ? null : this.paths.iterator();
+    }
+
+    public void addToPaths(String elem) {
+      if (this.paths == null) {
+        this.paths = new ArrayList<String>();
+      }
+      this.paths.add(elem);
+    }
+
+    public List<String> getPaths() {
+      return this.paths;
+    }
+
+    public getFileHandles_args setPaths(List<String> paths) {
+      this.paths = paths;
+      return this;
+    }
+
+    public void unsetPaths() {
+      this.paths = null;
+    }
+
+    /** Returns true if field paths is set (has been assigned a value) and false otherwise */
+    public boolean isSetPaths() {
+      return this.paths != null;
+    }
+
+    public void setPathsIsSet(boolean value) {
+      if (!value) {
+        this.paths = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case PATHS:
+        if (value == null) {
+          unsetPaths();
+        } else {
+          setPaths((List<String>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case PATHS:
+        return getPaths();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case PATHS:
+        return isSetPaths();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getFileHandles_args)
+        return this.equals((getFileHandles_args)that);
+      return false;
+    }
+
+    public boolean equals(getFileHandles_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_paths = true && this.isSetPaths();
+      boolean that_present_paths = true && that.isSetPaths();
+      if (this_present_paths || that_present_paths) {
+        if (!(this_present_paths && that_present_paths))
+          return false;
+        if (!this.paths.equals(that.paths))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getFileHandles_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getFileHandles_args typedOther = (getFileHandles_args)other;
+
+      lastComparison = Boolean.valueOf(isSetPaths()).compareTo(typedOther.isSetPaths());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetPaths()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.paths, typedOther.paths);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getFileHandles_args(");
+      boolean first = true;
+
+      sb.append("paths:");
+      if (this.paths == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.paths);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getFileHandles_argsStandardSchemeFactory implements SchemeFactory {
+      public getFileHandles_argsStandardScheme getScheme() {
+        return new getFileHandles_argsStandardScheme();
+      }
+    }
+
+    private static class getFileHandles_argsStandardScheme extends StandardScheme<getFileHandles_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getFileHandles_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // PATHS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list72 = iprot.readListBegin();
+                  struct.paths = new ArrayList<String>(_list72.size);
+                  for (int _i73 = 0; _i73 < _list72.size; ++_i73)
+                  {
+                    String _elem74; // required
+                    _elem74 = iprot.readString();
+                    struct.paths.add(_elem74);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.setPathsIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getFileHandles_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.paths != null) {
+          oprot.writeFieldBegin(PATHS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, struct.paths.size()));
+            for (String _iter75 : struct.paths)
+            {
+              oprot.writeString(_iter75);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getFileHandles_argsTupleSchemeFactory implements SchemeFactory {
+      public getFileHandles_argsTupleScheme getScheme() {
+        return new getFileHandles_argsTupleScheme();
+      }
+    }
+
+    private static class getFileHandles_argsTupleScheme extends TupleScheme<getFileHandles_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getFileHandles_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetPaths()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetPaths()) {
+          {
+            oprot.writeI32(struct.paths.size());
+            for (String _iter76 : struct.paths)
+            {
+              oprot.writeString(_iter76);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getFileHandles_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          {
+            org.apache.thrift.protocol.TList _list77 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+            struct.paths = new ArrayList<String>(_list77.size);
+            for (int _i78 = 0; _i78 < _list77.size; ++_i78)
+            {
+              String _elem79; // required
+              _elem79 = iprot.readString();
+              struct.paths.add(_elem79);
+            }
+          }
+          struct.setPathsIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getFileHandles_result implements org.apache.thrift.TBase<getFileHandles_result, getFileHandles_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getFileHandles_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.LIST, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getFileHandles_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getFileHandles_resultTupleSchemeFactory());
+    }
+
+    public List<ThriftFileHandle> success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftFileHandle.class))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getFileHandles_result.class, metaDataMap);
+    }
+
+    public getFileHandles_result() {
+    }
+
+    public getFileHandles_result(
+      List<ThriftFileHandle> success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getFileHandles_result(getFileHandles_result other) {
+      if (other.isSetSuccess()) {
+        List<ThriftFileHandle> __this__success = new ArrayList<ThriftFileHandle>();
+        for (ThriftFileHandle other_element : other.success) {
+          __this__success.add(new ThriftFileHandle(other_element));
+        }
+        this.success = __this__success;
+      }
+    }
+
+    public getFileHandles_result deepCopy() {
+      return new getFileHandles_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public int getSuccessSize() {
+      return (this.success == null) ? 0 : this.success.size();
+    }
+
+    public java.util.Iterator<ThriftFileHandle> getSuccessIterator() {
+      return (this.success == null) ? null : this.success.iterator();
+    }
+
+    public void addToSuccess(ThriftFileHandle elem) {
+      if (this.success == null) {
+        this.success = new ArrayList<ThriftFileHandle>();
+      }
+      this.success.add(elem);
+    }
+
+    public List<ThriftFileHandle> getSuccess() {
+      return this.success;
+    }
+
+    public getFileHandles_result setSuccess(List<ThriftFileHandle> success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((List<ThriftFileHandle>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getFileHandles_result)
+        return this.equals((getFileHandles_result)that);
+      return false;
+    }
+
+    public boolean equals(getFileHandles_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getFileHandles_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getFileHandles_result typedOther = (getFileHandles_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getFileHandles_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getFileHandles_resultStandardSchemeFactory implements SchemeFactory {
+      public getFileHandles_resultStandardScheme getScheme() {
+        return new getFileHandles_resultStandardScheme();
+      }
+    }
+
+    private static class getFileHandles_resultStandardScheme extends StandardScheme<getFileHandles_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getFileHandles_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list80 = iprot.readListBegin();
+                  struct.success = new ArrayList<ThriftFileHandle>(_list80.size);
+                  for (int _i81 = 0; _i81 < _list80.size; ++_i81)
+                  {
+                    ThriftFileHandle _elem82; // required
+                    _elem82 = new ThriftFileHandle();
+                    _elem82.read(iprot);
+                    struct.success.add(_elem82);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getFileHandles_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, struct.success.size()));
+            for (ThriftFileHandle _iter83 : struct.success)
+            {
+              _iter83.write(oprot);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getFileHandles_resultTupleSchemeFactory implements SchemeFactory {
+      public getFileHandles_resultTupleScheme getScheme() {
+        return new getFileHandles_resultTupleScheme();
+      }
+    }
+
+    private static class getFileHandles_resultTupleScheme extends TupleScheme<getFileHandles_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getFileHandles_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetSuccess()) {
+          {
+            oprot.writeI32(struct.success.size());
+            for (ThriftFileHandle _iter84 : struct.success)
+            {
+              _iter84.write(oprot);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getFileHandles_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          {
+            org.apache.thrift.protocol.TList _list85 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+            struct.success = new ArrayList<ThriftFileHandle>(_list85.size);
+            for (int _i86 = 0; _i86 < _list85.size; ++_i86)
+            {
+              ThriftFileHandle _elem87; // required
+              _elem87 = new ThriftFileHandle();
+              _elem87.read(iprot);
+              struct.success.add(_elem87);
+            }
+          }
+          struct.setSuccessIsSet(true);
+        }
       }
     }
 
   }
 
-  public static class getLocalIP_args implements org.apache.thrift.TBase<getLocalIP_args, getLocalIP_args._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getLocalIP_args");
+  public static class getChunkHashes_args implements org.apache.thrift.TBase<getChunkHashes_args, getChunkHashes_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getChunkHashes_args");
 
-    private static final org.apache.thrift.protocol.TField HASH_FIELD_DESC = new org.apache.thrift.protocol.TField("hash", org.apache.thrift.protocol.TType.STRING, (short)1);
+    private static final org.apache.thrift.protocol.TField FILE_HASH_FIELD_DESC = new org.apache.thrift.protocol.TField("fileHash", org.apache.thrift.protocol.TType.STRING, (short)1);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new getLocalIP_argsStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new getLocalIP_argsTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new getChunkHashes_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getChunkHashes_argsTupleSchemeFactory());
     }
 
-    public String hash; // required
+    public ByteBuffer fileHash; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
-      HASH((short)1, "hash");
+      FILE_HASH((short)1, "fileHash");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -370,8 +5431,8 @@ public class DataTransfer {
        */
       public static _Fields findByThriftId(int fieldId) {
         switch(fieldId) {
-          case 1: // HASH
-            return HASH;
+          case 1: // FILE_HASH
+            return FILE_HASH;
           default:
             return null;
         }
@@ -415,71 +5476,82 @@ public class DataTransfer {
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
-      tmpMap.put(_Fields.HASH, new org.apache.thrift.meta_data.FieldMetaData("hash", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields.FILE_HASH, new org.apache.thrift.meta_data.FieldMetaData("fileHash", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING          , true)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getLocalIP_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getChunkHashes_args.class, metaDataMap);
     }
 
-    public getLocalIP_args() {
+    public getChunkHashes_args() {
     }
 
-    public getLocalIP_args(
-      String hash)
+    public getChunkHashes_args(
+      ByteBuffer fileHash)
     {
       this();
-      this.hash = hash;
+      this.fileHash = fileHash;
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getLocalIP_args(getLocalIP_args other) {
-      if (other.isSetHash()) {
-        this.hash = other.hash;
+    public getChunkHashes_args(getChunkHashes_args other) {
+      if (other.isSetFileHash()) {
+        this.fileHash = org.apache.thrift.TBaseHelper.copyBinary(other.fileHash);
+;
       }
     }
 
-    public getLocalIP_args deepCopy() {
-      return new getLocalIP_args(this);
+    public getChunkHashes_args deepCopy() {
+      return new getChunkHashes_args(this);
     }
 
     @Override
     public void clear() {
-      this.hash = null;
+      this.fileHash = null;
     }
 
-    public String getHash() {
-      return this.hash;
+    public byte[] getFileHash() {
+      setFileHash(org.apache.thrift.TBaseHelper.rightSize(fileHash));
+      return fileHash == null ? null : fileHash.array();
     }
 
-    public getLocalIP_args setHash(String hash) {
-      this.hash = hash;
+    public ByteBuffer bufferForFileHash() {
+      return fileHash;
+    }
+
+    public getChunkHashes_args setFileHash(byte[] fileHash) {
+      setFileHash(fileHash == null ? (ByteBuffer)null : ByteBuffer.wrap(fileHash));
       return this;
     }
 
-    public void unsetHash() {
-      this.hash = null;
+    public getChunkHashes_args setFileHash(ByteBuffer fileHash) {
+      this.fileHash = fileHash;
+      return this;
     }
 
-    /** Returns true if field hash is set (has been assigned a value) and false otherwise */
-    public boolean isSetHash() {
-      return this.hash != null;
+    public void unsetFileHash() {
+      this.fileHash = null;
     }
 
-    public void setHashIsSet(boolean value) {
+    /** Returns true if field fileHash is set (has been assigned a value) and false otherwise */
+    public boolean isSetFileHash() {
+      return this.fileHash != null;
+    }
+
+    public void setFileHashIsSet(boolean value) {
       if (!value) {
-        this.hash = null;
+        this.fileHash = null;
       }
     }
 
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
-      case HASH:
+      case FILE_HASH:
         if (value == null) {
-          unsetHash();
+          unsetFileHash();
         } else {
-          setHash((String)value);
+          setFileHash((ByteBuffer)value);
         }
         break;
 
@@ -488,8 +5560,8 @@ public class DataTransfer {
 
     public Object getFieldValue(_Fields field) {
       switch (field) {
-      case HASH:
-        return getHash();
+      case FILE_HASH:
+        return getFileHash();
 
       }
       throw new IllegalStateException();
@@ -502,8 +5574,8 @@ public class DataTransfer {
       }
 
       switch (field) {
-      case HASH:
-        return isSetHash();
+      case FILE_HASH:
+        return isSetFileHash();
       }
       throw new IllegalStateException();
     }
@@ -512,21 +5584,21 @@ public class DataTransfer {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getLocalIP_args)
-        return this.equals((getLocalIP_args)that);
+      if (that instanceof getChunkHashes_args)
+        return this.equals((getChunkHashes_args)that);
       return false;
     }
 
-    public boolean equals(getLocalIP_args that) {
+    public boolean equals(getChunkHashes_args that) {
       if (that == null)
         return false;
 
-      boolean this_present_hash = true && this.isSetHash();
-      boolean that_present_hash = true && that.isSetHash();
-      if (this_present_hash || that_present_hash) {
-        if (!(this_present_hash && that_present_hash))
+      boolean this_present_fileHash = true && this.isSetFileHash();
+      boolean that_present_fileHash = true && that.isSetFileHash();
+      if (this_present_fileHash || that_present_fileHash) {
+        if (!(this_present_fileHash && that_present_fileHash))
           return false;
-        if (!this.hash.equals(that.hash))
+        if (!this.fileHash.equals(that.fileHash))
           return false;
       }
 
@@ -538,20 +5610,20 @@ public class DataTransfer {
       return 0;
     }
 
-    public int compareTo(getLocalIP_args other) {
+    public int compareTo(getChunkHashes_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getLocalIP_args typedOther = (getLocalIP_args)other;
+      getChunkHashes_args typedOther = (getChunkHashes_args)other;
 
-      lastComparison = Boolean.valueOf(isSetHash()).compareTo(typedOther.isSetHash());
+      lastComparison = Boolean.valueOf(isSetFileHash()).compareTo(typedOther.isSetFileHash());
       if (lastComparison != 0) {
         return lastComparison;
       }
-      if (isSetHash()) {
-        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.hash, typedOther.hash);
+      if (isSetFileHash()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.fileHash, typedOther.fileHash);
         if (lastComparison != 0) {
           return lastComparison;
         }
@@ -573,14 +5645,14 @@ public class DataTransfer {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getLocalIP_args(");
+      StringBuilder sb = new StringBuilder("getChunkHashes_args(");
       boolean first = true;
 
-      sb.append("hash:");
-      if (this.hash == null) {
+      sb.append("fileHash:");
+      if (this.fileHash == null) {
         sb.append("null");
       } else {
-        sb.append(this.hash);
+        org.apache.thrift.TBaseHelper.toString(this.fileHash, sb);
       }
       first = false;
       sb.append(")");
@@ -608,15 +5680,15 @@ public class DataTransfer {
       }
     }
 
-    private static class getLocalIP_argsStandardSchemeFactory implements SchemeFactory {
-      public getLocalIP_argsStandardScheme getScheme() {
-        return new getLocalIP_argsStandardScheme();
+    private static class getChunkHashes_argsStandardSchemeFactory implements SchemeFactory {
+      public getChunkHashes_argsStandardScheme getScheme() {
+        return new getChunkHashes_argsStandardScheme();
       }
     }
 
-    private static class getLocalIP_argsStandardScheme extends StandardScheme<getLocalIP_args> {
+    private static class getChunkHashes_argsStandardScheme extends StandardScheme<getChunkHashes_args> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, getLocalIP_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getChunkHashes_args struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -626,10 +5698,10 @@ public class DataTransfer {
             break;
           }
           switch (schemeField.id) {
-            case 1: // HASH
+            case 1: // FILE_HASH
               if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
-                struct.hash = iprot.readString();
-                struct.setHashIsSet(true);
+                struct.fileHash = iprot.readBinary();
+                struct.setFileHashIsSet(true);
               } else { 
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
@@ -645,13 +5717,13 @@ public class DataTransfer {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, getLocalIP_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getChunkHashes_args struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
-        if (struct.hash != null) {
-          oprot.writeFieldBegin(HASH_FIELD_DESC);
-          oprot.writeString(struct.hash);
+        if (struct.fileHash != null) {
+          oprot.writeFieldBegin(FILE_HASH_FIELD_DESC);
+          oprot.writeBinary(struct.fileHash);
           oprot.writeFieldEnd();
         }
         oprot.writeFieldStop();
@@ -660,52 +5732,52 @@ public class DataTransfer {
 
     }
 
-    private static class getLocalIP_argsTupleSchemeFactory implements SchemeFactory {
-      public getLocalIP_argsTupleScheme getScheme() {
-        return new getLocalIP_argsTupleScheme();
+    private static class getChunkHashes_argsTupleSchemeFactory implements SchemeFactory {
+      public getChunkHashes_argsTupleScheme getScheme() {
+        return new getChunkHashes_argsTupleScheme();
       }
     }
 
-    private static class getLocalIP_argsTupleScheme extends TupleScheme<getLocalIP_args> {
+    private static class getChunkHashes_argsTupleScheme extends TupleScheme<getChunkHashes_args> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, getLocalIP_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, getChunkHashes_args struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
-        if (struct.isSetHash()) {
+        if (struct.isSetFileHash()) {
           optionals.set(0);
         }
         oprot.writeBitSet(optionals, 1);
-        if (struct.isSetHash()) {
-          oprot.writeString(struct.hash);
+        if (struct.isSetFileHash()) {
+          oprot.writeBinary(struct.fileHash);
         }
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, getLocalIP_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, getChunkHashes_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(1);
         if (incoming.get(0)) {
-          struct.hash = iprot.readString();
-          struct.setHashIsSet(true);
+          struct.fileHash = iprot.readBinary();
+          struct.setFileHashIsSet(true);
         }
       }
     }
 
   }
 
-  public static class getLocalIP_result implements org.apache.thrift.TBase<getLocalIP_result, getLocalIP_result._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getLocalIP_result");
+  public static class getChunkHashes_result implements org.apache.thrift.TBase<getChunkHashes_result, getChunkHashes_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getChunkHashes_result");
 
-    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRING, (short)0);
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new getLocalIP_resultStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new getLocalIP_resultTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new getChunkHashes_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getChunkHashes_resultTupleSchemeFactory());
     }
 
-    public String success; // required
+    public ThriftHashList success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -770,16 +5842,16 @@ public class DataTransfer {
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftHashList.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getLocalIP_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getChunkHashes_result.class, metaDataMap);
     }
 
-    public getLocalIP_result() {
+    public getChunkHashes_result() {
     }
 
-    public getLocalIP_result(
-      String success)
+    public getChunkHashes_result(
+      ThriftHashList success)
     {
       this();
       this.success = success;
@@ -788,14 +5860,14 @@ public class DataTransfer {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getLocalIP_result(getLocalIP_result other) {
+    public getChunkHashes_result(getChunkHashes_result other) {
       if (other.isSetSuccess()) {
-        this.success = other.success;
+        this.success = new ThriftHashList(other.success);
       }
     }
 
-    public getLocalIP_result deepCopy() {
-      return new getLocalIP_result(this);
+    public getChunkHashes_result deepCopy() {
+      return new getChunkHashes_result(this);
     }
 
     @Override
@@ -803,11 +5875,11 @@ public class DataTransfer {
       this.success = null;
     }
 
-    public String getSuccess() {
+    public ThriftHashList getSuccess() {
       return this.success;
     }
 
-    public getLocalIP_result setSuccess(String success) {
+    public getChunkHashes_result setSuccess(ThriftHashList success) {
       this.success = success;
       return this;
     }
@@ -833,7 +5905,7 @@ public class DataTransfer {
         if (value == null) {
           unsetSuccess();
         } else {
-          setSuccess((String)value);
+          setSuccess((ThriftHashList)value);
         }
         break;
 
@@ -866,12 +5938,12 @@ public class DataTransfer {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getLocalIP_result)
-        return this.equals((getLocalIP_result)that);
+      if (that instanceof getChunkHashes_result)
+        return this.equals((getChunkHashes_result)that);
       return false;
     }
 
-    public boolean equals(getLocalIP_result that) {
+    public boolean equals(getChunkHashes_result that) {
       if (that == null)
         return false;
 
@@ -892,13 +5964,13 @@ public class DataTransfer {
       return 0;
     }
 
-    public int compareTo(getLocalIP_result other) {
+    public int compareTo(getChunkHashes_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getLocalIP_result typedOther = (getLocalIP_result)other;
+      getChunkHashes_result typedOther = (getChunkHashes_result)other;
 
       lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
       if (lastComparison != 0) {
@@ -927,7 +5999,7 @@ public class DataTransfer {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getLocalIP_result(");
+      StringBuilder sb = new StringBuilder("getChunkHashes_result(");
       boolean first = true;
 
       sb.append("success:");
@@ -944,6 +6016,9 @@ public class DataTransfer {
     public void validate() throws org.apache.thrift.TException {
       // check for required fields
       // check for sub-struct validity
+      if (success != null) {
+        success.validate();
+      }
     }
 
     private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
@@ -962,15 +6037,15 @@ public class DataTransfer {
       }
     }
 
-    private static class getLocalIP_resultStandardSchemeFactory implements SchemeFactory {
-      public getLocalIP_resultStandardScheme getScheme() {
-        return new getLocalIP_resultStandardScheme();
+    private static class getChunkHashes_resultStandardSchemeFactory implements SchemeFactory {
+      public getChunkHashes_resultStandardScheme getScheme() {
+        return new getChunkHashes_resultStandardScheme();
       }
     }
 
-    private static class getLocalIP_resultStandardScheme extends StandardScheme<getLocalIP_result> {
+    private static class getChunkHashes_resultStandardScheme extends StandardScheme<getChunkHashes_result> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, getLocalIP_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getChunkHashes_result struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -981,8 +6056,9 @@ public class DataTransfer {
           }
           switch (schemeField.id) {
             case 0: // SUCCESS
-              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
-                struct.success = iprot.readString();
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new ThriftHashList();
+                struct.success.read(iprot);
                 struct.setSuccessIsSet(true);
               } else { 
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
@@ -999,13 +6075,13 @@ public class DataTransfer {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, getLocalIP_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getChunkHashes_result struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
         if (struct.success != null) {
           oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
-          oprot.writeString(struct.success);
+          struct.success.write(oprot);
           oprot.writeFieldEnd();
         }
         oprot.writeFieldStop();
@@ -1014,16 +6090,16 @@ public class DataTransfer {
 
     }
 
-    private static class getLocalIP_resultTupleSchemeFactory implements SchemeFactory {
-      public getLocalIP_resultTupleScheme getScheme() {
-        return new getLocalIP_resultTupleScheme();
+    private static class getChunkHashes_resultTupleSchemeFactory implements SchemeFactory {
+      public getChunkHashes_resultTupleScheme getScheme() {
+        return new getChunkHashes_resultTupleScheme();
       }
     }
 
-    private static class getLocalIP_resultTupleScheme extends TupleScheme<getLocalIP_result> {
+    private static class getChunkHashes_resultTupleScheme extends TupleScheme<getChunkHashes_result> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, getLocalIP_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, getChunkHashes_result struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSetSuccess()) {
@@ -1031,16 +6107,17 @@ public class DataTransfer {
         }
         oprot.writeBitSet(optionals, 1);
         if (struct.isSetSuccess()) {
-          oprot.writeString(struct.success);
+          struct.success.write(oprot);
         }
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, getLocalIP_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, getChunkHashes_result struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(1);
         if (incoming.get(0)) {
-          struct.success = iprot.readString();
+          struct.success = new ThriftHashList();
+          struct.success.read(iprot);
           struct.setSuccessIsSet(true);
         }
       }
@@ -1048,20 +6125,28 @@ public class DataTransfer {
 
   }
 
-  public static class getStorage_args implements org.apache.thrift.TBase<getStorage_args, getStorage_args._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getStorage_args");
+  public static class getBlockList_args implements org.apache.thrift.TBase<getBlockList_args, getBlockList_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBlockList_args");
 
+    private static final org.apache.thrift.protocol.TField FILENAME_FIELD_DESC = new org.apache.thrift.protocol.TField("filename", org.apache.thrift.protocol.TType.STRING, (short)1);
+    private static final org.apache.thrift.protocol.TField OFFSET_FIELD_DESC = new org.apache.thrift.protocol.TField("offset", org.apache.thrift.protocol.TType.I32, (short)2);
+    private static final org.apache.thrift.protocol.TField COUNT_FIELD_DESC = new org.apache.thrift.protocol.TField("count", org.apache.thrift.protocol.TType.I32, (short)3);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new getStorage_argsStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new getStorage_argsTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new getBlockList_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBlockList_argsTupleSchemeFactory());
     }
 
+    public String filename; // required
+    public int offset; // required
+    public int count; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
-;
+      FILENAME((short)1, "filename"),
+      OFFSET((short)2, "offset"),
+      COUNT((short)3, "count");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -1076,6 +6161,12 @@ public class DataTransfer {
        */
       public static _Fields findByThriftId(int fieldId) {
         switch(fieldId) {
+          case 1: // FILENAME
+            return FILENAME;
+          case 2: // OFFSET
+            return OFFSET;
+          case 3: // COUNT
+            return COUNT;
           default:
             return null;
         }
@@ -1114,37 +6205,175 @@ public class DataTransfer {
         return _fieldName;
       }
     }
+
+    // isset id assignments
+    private static final int __OFFSET_ISSET_ID = 0;
+    private static final int __COUNT_ISSET_ID = 1;
+    private byte __isset_bitfield = 0;
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.FILENAME, new org.apache.thrift.meta_data.FieldMetaData("filename", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields.OFFSET, new org.apache.thrift.meta_data.FieldMetaData("offset", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.COUNT, new org.apache.thrift.meta_data.FieldMetaData("count", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getStorage_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBlockList_args.class, metaDataMap);
     }
 
-    public getStorage_args() {
+    public getBlockList_args() {
+    }
+
+    public getBlockList_args(
+      String filename,
+      int offset,
+      int count)
+    {
+      this();
+      this.filename = filename;
+      this.offset = offset;
+      setOffsetIsSet(true);
+      this.count = count;
+      setCountIsSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getStorage_args(getStorage_args other) {
+    public getBlockList_args(getBlockList_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      if (other.isSetFilename()) {
+        this.filename = other.filename;
+      }
+      this.offset = other.offset;
+      this.count = other.count;
     }
 
-    public getStorage_args deepCopy() {
-      return new getStorage_args(this);
+    public getBlockList_args deepCopy() {
+      return new getBlockList_args(this);
     }
 
     @Override
     public void clear() {
+      this.filename = null;
+      setOffsetIsSet(false);
+      this.offset = 0;
+      setCountIsSet(false);
+      this.count = 0;
+    }
+
+    public String getFilename() {
+      return this.filename;
+    }
+
+    public getBlockList_args setFilename(String filename) {
+      this.filename = filename;
+      return this;
+    }
+
+    public void unsetFilename() {
+      this.filename = null;
+    }
+
+    /** Returns true if field filename is set (has been assigned a value) and false otherwise */
+    public boolean isSetFilename() {
+      return this.filename != null;
+    }
+
+    public void setFilenameIsSet(boolean value) {
+      if (!value) {
+        this.filename = null;
+      }
+    }
+
+    public int getOffset() {
+      return this.offset;
+    }
+
+    public getBlockList_args setOffset(int offset) {
+      this.offset = offset;
+      setOffsetIsSet(true);
+      return this;
+    }
+
+    public void unsetOffset() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __OFFSET_ISSET_ID);
+    }
+
+    /** Returns true if field offset is set (has been assigned a value) and false otherwise */
+    public boolean isSetOffset() {
+      return EncodingUtils.testBit(__isset_bitfield, __OFFSET_ISSET_ID);
+    }
+
+    public void setOffsetIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __OFFSET_ISSET_ID, value);
+    }
+
+    public int getCount() {
+      return this.count;
+    }
+
+    public getBlockList_args setCount(int count) {
+      this.count = count;
+      setCountIsSet(true);
+      return this;
+    }
+
+    public void unsetCount() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __COUNT_ISSET_ID);
     }
 
-    public void setFieldValue(_Fields field, Object value) {
-      switch (field) {
+    /** Returns true if field count is set (has been assigned a value) and false otherwise */
+    public boolean isSetCount() {
+      return EncodingUtils.testBit(__isset_bitfield, __COUNT_ISSET_ID);
+    }
+
+    public void setCountIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __COUNT_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case FILENAME:
+        if (value == null) {
+          unsetFilename();
+        } else {
+          setFilename((String)value);
+        }
+        break;
+
+      case OFFSET:
+        if (value == null) {
+          unsetOffset();
+        } else {
+          setOffset((Integer)value);
+        }
+        break;
+
+      case COUNT:
+        if (value == null) {
+          unsetCount();
+        } else {
+          setCount((Integer)value);
+        }
+        break;
+
       }
     }
 
     public Object getFieldValue(_Fields field) {
       switch (field) {
+      case FILENAME:
+        return getFilename();
+
+      case OFFSET:
+        return Integer.valueOf(getOffset());
+
+      case COUNT:
+        return Integer.valueOf(getCount());
+
       }
       throw new IllegalStateException();
     }
@@ -1156,6 +6385,12 @@ public class DataTransfer {
       }
 
       switch (field) {
+      case FILENAME:
+        return isSetFilename();
+      case OFFSET:
+        return isSetOffset();
+      case COUNT:
+        return isSetCount();
       }
       throw new IllegalStateException();
     }
@@ -1164,15 +6399,42 @@ public class DataTransfer {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getStorage_args)
-        return this.equals((getStorage_args)that);
+      if (that instanceof getBlockList_args)
+        return this.equals((getBlockList_args)that);
       return false;
     }
 
-    public boolean equals(getStorage_args that) {
+    public boolean equals(getBlockList_args that) {
       if (that == null)
         return false;
 
+      boolean this_present_filename = true && this.isSetFilename();
+      boolean that_present_filename = true && that.isSetFilename();
+      if (this_present_filename || that_present_filename) {
+        if (!(this_present_filename && that_present_filename))
+          return false;
+        if (!this.filename.equals(that.filename))
+          return false;
+      }
+
+      boolean this_present_offset = true;
+      boolean that_present_offset = true;
+      if (this_present_offset || that_present_offset) {
+        if (!(this_present_offset && that_present_offset))
+          return false;
+        if (this.offset != that.offset)
+          return false;
+      }
+
+      boolean this_present_count = true;
+      boolean that_present_count = true;
+      if (this_present_count || that_present_count) {
+        if (!(this_present_count && that_present_count))
+          return false;
+        if (this.count != that.count)
+          return false;
+      }
+
       return true;
     }
 
@@ -1181,14 +6443,44 @@ public class DataTransfer {
       return 0;
     }
 
-    public int compareTo(getStorage_args other) {
+    public int compareTo(getBlockList_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getStorage_args typedOther = (getStorage_args)other;
+      getBlockList_args typedOther = (getBlockList_args)other;
 
+      lastComparison = Boolean.valueOf(isSetFilename()).compareTo(typedOther.isSetFilename());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetFilename()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.filename, typedOther.filename);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetOffset()).compareTo(typedOther.isSetOffset());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetOffset()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.offset, typedOther.offset);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetCount()).compareTo(typedOther.isSetCount());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetCount()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.count, typedOther.count);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -1206,9 +6498,24 @@ public class DataTransfer {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getStorage_args(");
+      StringBuilder sb = new StringBuilder("getBlockList_args(");
       boolean first = true;
 
+      sb.append("filename:");
+      if (this.filename == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.filename);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("offset:");
+      sb.append(this.offset);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("count:");
+      sb.append(this.count);
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -1228,21 +6535,23 @@ public class DataTransfer {
 
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
       try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
         read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
       } catch (org.apache.thrift.TException te) {
         throw new java.io.IOException(te);
       }
     }
 
-    private static class getStorage_argsStandardSchemeFactory implements SchemeFactory {
-      public getStorage_argsStandardScheme getScheme() {
-        return new getStorage_argsStandardScheme();
+    private static class getBlockList_argsStandardSchemeFactory implements SchemeFactory {
+      public getBlockList_argsStandardScheme getScheme() {
+        return new getBlockList_argsStandardScheme();
       }
     }
 
-    private static class getStorage_argsStandardScheme extends StandardScheme<getStorage_args> {
+    private static class getBlockList_argsStandardScheme extends StandardScheme<getBlockList_args> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, getStorage_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBlockList_args struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -1252,6 +6561,30 @@ public class DataTransfer {
             break;
           }
           switch (schemeField.id) {
+            case 1: // FILENAME
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.filename = iprot.readString();
+                struct.setFilenameIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // OFFSET
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.offset = iprot.readI32();
+                struct.setOffsetIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 3: // COUNT
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.count = iprot.readI32();
+                struct.setCountIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
             default:
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
           }
@@ -1263,49 +6596,93 @@ public class DataTransfer {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, getStorage_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBlockList_args struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.filename != null) {
+          oprot.writeFieldBegin(FILENAME_FIELD_DESC);
+          oprot.writeString(struct.filename);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldBegin(OFFSET_FIELD_DESC);
+        oprot.writeI32(struct.offset);
+        oprot.writeFieldEnd();
+        oprot.writeFieldBegin(COUNT_FIELD_DESC);
+        oprot.writeI32(struct.count);
+        oprot.writeFieldEnd();
         oprot.writeFieldStop();
         oprot.writeStructEnd();
       }
 
     }
 
-    private static class getStorage_argsTupleSchemeFactory implements SchemeFactory {
-      public getStorage_argsTupleScheme getScheme() {
-        return new getStorage_argsTupleScheme();
+    private static class getBlockList_argsTupleSchemeFactory implements SchemeFactory {
+      public getBlockList_argsTupleScheme getScheme() {
+        return new getBlockList_argsTupleScheme();
       }
     }
 
-    private static class getStorage_argsTupleScheme extends TupleScheme<getStorage_args> {
+    private static class getBlockList_argsTupleScheme extends TupleScheme<getBlockList_args> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, getStorage_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBlockList_args struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetFilename()) {
+          optionals.set(0);
+        }
+        if (struct.isSetOffset()) {
+          optionals.set(1);
+        }
+        if (struct.isSetCount()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
+        if (struct.isSetFilename()) {
+          oprot.writeString(struct.filename);
+        }
+        if (struct.isSetOffset()) {
+          oprot.writeI32(struct.offset);
+        }
+        if (struct.isSetCount()) {
+          oprot.writeI32(struct.count);
+        }
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, getStorage_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBlockList_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(3);
+        if (incoming.get(0)) {
+          struct.filename = iprot.readString();
+          struct.setFilenameIsSet(true);
+        }
+        if (incoming.get(1)) {
+          struct.offset = iprot.readI32();
+          struct.setOffsetIsSet(true);
+        }
+        if (incoming.get(2)) {
+          struct.count = iprot.readI32();
+          struct.setCountIsSet(true);
+        }
       }
     }
 
   }
 
-  public static class getStorage_result implements org.apache.thrift.TBase<getStorage_result, getStorage_result._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getStorage_result");
+  public static class getBlockList_result implements org.apache.thrift.TBase<getBlockList_result, getBlockList_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBlockList_result");
 
     private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new getStorage_resultStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new getStorage_resultTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new getBlockList_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBlockList_resultTupleSchemeFactory());
     }
 
-    public ThriftStorage success; // required
+    public ThriftBlockList success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -1370,16 +6747,16 @@ public class DataTransfer {
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftStorage.class)));
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftBlockList.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getStorage_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBlockList_result.class, metaDataMap);
     }
 
-    public getStorage_result() {
+    public getBlockList_result() {
     }
 
-    public getStorage_result(
-      ThriftStorage success)
+    public getBlockList_result(
+      ThriftBlockList success)
     {
       this();
       this.success = success;
@@ -1388,14 +6765,14 @@ public class DataTransfer {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getStorage_result(getStorage_result other) {
+    public getBlockList_result(getBlockList_result other) {
       if (other.isSetSuccess()) {
-        this.success = new ThriftStorage(other.success);
+        this.success = new ThriftBlockList(other.success);
       }
     }
 
-    public getStorage_result deepCopy() {
-      return new getStorage_result(this);
+    public getBlockList_result deepCopy() {
+      return new getBlockList_result(this);
     }
 
     @Override
@@ -1403,11 +6780,11 @@ public class DataTransfer {
       this.success = null;
     }
 
-    public ThriftStorage getSuccess() {
+    public ThriftBlockList getSuccess() {
       return this.success;
     }
 
-    public getStorage_result setSuccess(ThriftStorage success) {
+    public getBlockList_result setSuccess(ThriftBlockList success) {
       this.success = success;
       return this;
     }
@@ -1433,7 +6810,7 @@ public class DataTransfer {
         if (value == null) {
           unsetSuccess();
         } else {
-          setSuccess((ThriftStorage)value);
+          setSuccess((ThriftBlockList)value);
         }
         break;
 
@@ -1466,12 +6843,12 @@ public class DataTransfer {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getStorage_result)
-        return this.equals((getStorage_result)that);
+      if (that instanceof getBlockList_result)
+        return this.equals((getBlockList_result)that);
       return false;
     }
 
-    public boolean equals(getStorage_result that) {
+    public boolean equals(getBlockList_result that) {
       if (that == null)
         return false;
 
@@ -1492,13 +6869,13 @@ public class DataTransfer {
       return 0;
     }
 
-    public int compareTo(getStorage_result other) {
+    public int compareTo(getBlockList_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getStorage_result typedOther = (getStorage_result)other;
+      getBlockList_result typedOther = (getBlockList_result)other;
 
       lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
       if (lastComparison != 0) {
@@ -1527,7 +6904,7 @@ public class DataTransfer {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getStorage_result(");
+      StringBuilder sb = new StringBuilder("getBlockList_result(");
       boolean first = true;
 
       sb.append("success:");
@@ -1565,15 +6942,15 @@ public class DataTransfer {
       }
     }
 
-    private static class getStorage_resultStandardSchemeFactory implements SchemeFactory {
-      public getStorage_resultStandardScheme getScheme() {
-        return new getStorage_resultStandardScheme();
+    private static class getBlockList_resultStandardSchemeFactory implements SchemeFactory {
+      public getBlockList_resultStandardScheme getScheme() {
+        return new getBlockList_resultStandardScheme();
       }
     }
 
-    private static class getStorage_resultStandardScheme extends StandardScheme<getStorage_result> {
+    private static class getBlockList_resultStandardScheme extends StandardScheme<getBlockList_result> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, getStorage_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBlockList_result struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -1585,7 +6962,7 @@ public class DataTransfer {
           switch (schemeField.id) {
             case 0: // SUCCESS
               if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
-                struct.success = new ThriftStorage();
+                struct.success = new ThriftBlockList();
                 struct.success.read(iprot);
                 struct.setSuccessIsSet(true);
               } else { 
@@ -1603,7 +6980,7 @@ public class DataTransfer {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, getStorage_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBlockList_result struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -1618,16 +6995,16 @@ public class DataTransfer {
 
     }
 
-    private static class getStorage_resultTupleSchemeFactory implements SchemeFactory {
-      public getStorage_resultTupleScheme getScheme() {
-        return new getStorage_resultTupleScheme();
+    private static class getBlockList_resultTupleSchemeFactory implements SchemeFactory {
+      public getBlockList_resultTupleScheme getScheme() {
+        return new getBlockList_resultTupleScheme();
       }
     }
 
-    private static class getStorage_resultTupleScheme extends TupleScheme<getStorage_result> {
+    private static class getBlockList_resultTupleScheme extends TupleScheme<getBlockList_result> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, getStorage_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBlockList_result struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSetSuccess()) {
@@ -1640,11 +7017,11 @@ public class DataTransfer {
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, getStorage_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBlockList_result struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(1);
         if (incoming.get(0)) {
-          struct.success = new ThriftStorage();
+          struct.success = new ThriftBlockList();
           struct.success.read(iprot);
           struct.setSuccessIsSet(true);
         }
@@ -1659,6 +7036,8 @@ public class DataTransfer {
     private static final org.apache.thrift.protocol.TField FILENAME_FIELD_DESC = new org.apache.thrift.protocol.TField("filename", org.apache.thrift.protocol.TType.STRING, (short)1);
     private static final org.apache.thrift.protocol.TField BLOCK_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("blockID", org.apache.thrift.protocol.TType.I32, (short)2);
     private static final org.apache.thrift.protocol.TField HASH_FIELD_DESC = new org.apache.thrift.protocol.TField("hash", org.apache.thrift.protocol.TType.STRING, (short)3);
+    private static final org.apache.thrift.protocol.TField CODECS_FIELD_DESC = new org.apache.thrift.protocol.TField("codecs", org.apache.thrift.protocol.TType.I32, (short)4);
+    private static final org.apache.thrift.protocol.TField BASE_HASH_FIELD_DESC = new org.apache.thrift.protocol.TField("baseHash", org.apache.thrift.protocol.TType.STRING, (short)5);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
@@ -1669,12 +7048,16 @@ public class DataTransfer {
     public String filename; // required
     public int blockID; // required
     public String hash; // required
+    public int codecs; // required
+    public String baseHash; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
       FILENAME((short)1, "filename"),
       BLOCK_ID((short)2, "blockID"),
-      HASH((short)3, "hash");
+      HASH((short)3, "hash"),
+      CODECS((short)4, "codecs"),
+      BASE_HASH((short)5, "baseHash");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -1695,6 +7078,10 @@ public class DataTransfer {
             return BLOCK_ID;
           case 3: // HASH
             return HASH;
+          case 4: // CODECS
+            return CODECS;
+          case 5: // BASE_HASH
+            return BASE_HASH;
           default:
             return null;
         }
@@ -1736,6 +7123,7 @@ public class DataTransfer {
 
     // isset id assignments
     private static final int __BLOCKID_ISSET_ID = 0;
+    private static final int __CODECS_ISSET_ID = 1;
     private byte __isset_bitfield = 0;
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
@@ -1746,6 +7134,10 @@ public class DataTransfer {
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       tmpMap.put(_Fields.HASH, new org.apache.thrift.meta_data.FieldMetaData("hash", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields.CODECS, new org.apache.thrift.meta_data.FieldMetaData("codecs", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.BASE_HASH, new org.apache.thrift.meta_data.FieldMetaData("baseHash", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
       org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getDataBlock_args.class, metaDataMap);
     }
@@ -1756,13 +7148,18 @@ public class DataTransfer {
     public getDataBlock_args(
       String filename,
       int blockID,
-      String hash)
+      String hash,
+      int codecs,
+      String baseHash)
     {
       this();
       this.filename = filename;
       this.blockID = blockID;
       setBlockIDIsSet(true);
       this.hash = hash;
+      this.codecs = codecs;
+      setCodecsIsSet(true);
+      this.baseHash = baseHash;
     }
 
     /**
@@ -1777,6 +7174,10 @@ public class DataTransfer {
       if (other.isSetHash()) {
         this.hash = other.hash;
       }
+      this.codecs = other.codecs;
+      if (other.isSetBaseHash()) {
+        this.baseHash = other.baseHash;
+      }
     }
 
     public getDataBlock_args deepCopy() {
@@ -1789,6 +7190,9 @@ public class DataTransfer {
       setBlockIDIsSet(false);
       this.blockID = 0;
       this.hash = null;
+      setCodecsIsSet(false);
+      this.codecs = 0;
+      this.baseHash = null;
     }
 
     public String getFilename() {
@@ -1862,6 +7266,53 @@ public class DataTransfer {
       }
     }
 
+    public int getCodecs() {
+      return this.codecs;
+    }
+
+    public getDataBlock_args setCodecs(int codecs) {
+      this.codecs = codecs;
+      setCodecsIsSet(true);
+      return this;
+    }
+
+    public void unsetCodecs() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __CODECS_ISSET_ID);
+    }
+
+    /** Returns true if field codecs is set (has been assigned a value) and false otherwise */
+    public boolean isSetCodecs() {
+      return EncodingUtils.testBit(__isset_bitfield, __CODECS_ISSET_ID);
+    }
+
+    public void setCodecsIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __CODECS_ISSET_ID, value);
+    }
+
+    public String getBaseHash() {
+      return this.baseHash;
+    }
+
+    public getDataBlock_args setBaseHash(String baseHash) {
+      this.baseHash = baseHash;
+      return this;
+    }
+
+    public void unsetBaseHash() {
+      this.baseHash = null;
+    }
+
+    /** Returns true if field baseHash is set (has been assigned a value) and false otherwise */
+    public boolean isSetBaseHash() {
+      return this.baseHash != null;
+    }
+
+    public void setBaseHashIsSet(boolean value) {
+      if (!value) {
+        this.baseHash = null;
+      }
+    }
+
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
       case FILENAME:
@@ -1888,6 +7339,22 @@ public class DataTransfer {
         }
         break;
 
+      case CODECS:
+        if (value == null) {
+          unsetCodecs();
+        } else {
+          setCodecs((Integer)value);
+        }
+        break;
+
+      case BASE_HASH:
+        if (value == null) {
+          unsetBaseHash();
+        } else {
+          setBaseHash((String)value);
+        }
+        break;
+
       }
     }
 
@@ -1902,6 +7369,12 @@ public class DataTransfer {
       case HASH:
         return getHash();
 
+      case CODECS:
+        return Integer.valueOf(getCodecs());
+
+      case BASE_HASH:
+        return getBaseHash();
+
       }
       throw new IllegalStateException();
     }
@@ -1919,6 +7392,10 @@ public class DataTransfer {
         return isSetBlockID();
       case HASH:
         return isSetHash();
+      case CODECS:
+        return isSetCodecs();
+      case BASE_HASH:
+        return isSetBaseHash();
       }
       throw new IllegalStateException();
     }
@@ -1963,6 +7440,24 @@ public class DataTransfer {
           return false;
       }
 
+      boolean this_present_codecs = true;
+      boolean that_present_codecs = true;
+      if (this_present_codecs || that_present_codecs) {
+        if (!(this_present_codecs && that_present_codecs))
+          return false;
+        if (this.codecs != that.codecs)
+          return false;
+      }
+
+      boolean this_present_baseHash = true && this.isSetBaseHash();
+      boolean that_present_baseHash = true && that.isSetBaseHash();
+      if (this_present_baseHash || that_present_baseHash) {
+        if (!(this_present_baseHash && that_present_baseHash))
+          return false;
+        if (!this.baseHash.equals(that.baseHash))
+          return false;
+      }
+
       return true;
     }
 
@@ -2009,6 +7504,26 @@ public class DataTransfer {
           return lastComparison;
         }
       }
+      lastComparison = Boolean.valueOf(isSetCodecs()).compareTo(typedOther.isSetCodecs());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetCodecs()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.codecs, typedOther.codecs);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetBaseHash()).compareTo(typedOther.isSetBaseHash());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetBaseHash()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.baseHash, typedOther.baseHash);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -2048,6 +7563,18 @@ public class DataTransfer {
         sb.append(this.hash);
       }
       first = false;
+      if (!first) sb.append(", ");
+      sb.append("codecs:");
+      sb.append(this.codecs);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("baseHash:");
+      if (this.baseHash == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.baseHash);
+      }
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -2117,6 +7644,22 @@ public class DataTransfer {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
+            case 4: // CODECS
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.codecs = iprot.readI32();
+                struct.setCodecsIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 5: // BASE_HASH
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.baseHash = iprot.readString();
+                struct.setBaseHashIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
             default:
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
           }
@@ -2145,6 +7688,14 @@ public class DataTransfer {
           oprot.writeString(struct.hash);
           oprot.writeFieldEnd();
         }
+        oprot.writeFieldBegin(CODECS_FIELD_DESC);
+        oprot.writeI32(struct.codecs);
+        oprot.writeFieldEnd();
+        if (struct.baseHash != null) {
+          oprot.writeFieldBegin(BASE_HASH_FIELD_DESC);
+          oprot.writeString(struct.baseHash);
+          oprot.writeFieldEnd();
+        }
         oprot.writeFieldStop();
         oprot.writeStructEnd();
       }
@@ -2172,7 +7723,13 @@ public class DataTransfer {
         if (struct.isSetHash()) {
           optionals.set(2);
         }
-        oprot.writeBitSet(optionals, 3);
+        if (struct.isSetCodecs()) {
+          optionals.set(3);
+        }
+        if (struct.isSetBaseHash()) {
+          optionals.set(4);
+        }
+        oprot.writeBitSet(optionals, 5);
         if (struct.isSetFilename()) {
           oprot.writeString(struct.filename);
         }
@@ -2182,12 +7739,18 @@ public class DataTransfer {
         if (struct.isSetHash()) {
           oprot.writeString(struct.hash);
         }
+        if (struct.isSetCodecs()) {
+          oprot.writeI32(struct.codecs);
+        }
+        if (struct.isSetBaseHash()) {
+          oprot.writeString(struct.baseHash);
+        }
       }
 
       @Override
       public void read(org.apache.thrift.protocol.TProtocol prot, getDataBlock_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
-        BitSet incoming = iprot.readBitSet(3);
+        BitSet incoming = iprot.readBitSet(5);
         if (incoming.get(0)) {
           struct.filename = iprot.readString();
           struct.setFilenameIsSet(true);
@@ -2200,6 +7763,14 @@ public class DataTransfer {
           struct.hash = iprot.readString();
           struct.setHashIsSet(true);
         }
+        if (incoming.get(3)) {
+          struct.codecs = iprot.readI32();
+          struct.setCodecsIsSet(true);
+        }
+        if (incoming.get(4)) {
+          struct.baseHash = iprot.readString();
+          struct.setBaseHashIsSet(true);
+        }
       }
     }
 
@@ -35,6 +35,7 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
 
   private static final org.apache.thrift.protocol.TField VERSION_FIELD_DESC = new org.apache.thrift.protocol.TField("version", org.apache.thrift.protocol.TType.I32, (short)1);
   private static final org.apache.thrift.protocol.TField FILES_FIELD_DESC = new org.apache.thrift.protocol.TField("files", org.apache.thrift.protocol.TType.LIST, (short)2);
+  private static final org.apache.thrift.protocol.TField LOG_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("logID", org.apache.thrift.protocol.TType.I64, (short)3);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -44,11 +45,13 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
 
   public int version; // required
   public List<ThriftFileHandle> files; // required
+  public long logID; // required
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
     VERSION((short)1, "version"),
-    FILES((short)2, "files");
+    FILES((short)2, "files"),
+    LOG_ID((short)3, "logID");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -67,6 +70,8 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
           return VERSION;
         case 2: // FILES
           return FILES;
+        case 3: // LOG_ID
+          return LOG_ID;
         default:
           return null;
       }
@@ -108,6 +113,7 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
 
   // isset id assignments
   private static final int __VERSION_ISSET_ID = 0;
+  private static final int __LOGID_ISSET_ID = 1;
   private byte __isset_bitfield = 0;
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
@@ -117,6 +123,8 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
     tmpMap.put(_Fields.FILES, new org.apache.thrift.meta_data.FieldMetaData("files", org.apache.thrift.TFieldRequirementType.DEFAULT, 
         new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
             new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftFileHandle.class))));
+    tmpMap.put(_Fields.LOG_ID, new org.apache.thrift.meta_data.FieldMetaData("logID", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(ThriftStorage.class, metaDataMap);
   }
@@ -126,12 +134,15 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
 
   public ThriftStorage(
     int version,
-    List<ThriftFileHandle> files)
+    List<ThriftFileHandle> files,
+    long logID)
   {
     this();
     this.version = version;
     setVersionIsSet(true);
     this.files = files;
+    this.logID = logID;
+    setLogIDIsSet(true);
   }
 
   /**
@@ -147,6 +158,7 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
       }
       this.files = __this__files;
     }
+    this.logID = other.logID;
   }
 
   public ThriftStorage deepCopy() {
@@ -158,6 +170,8 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
     setVersionIsSet(false);
     this.version = 0;
     this.files = null;
+    setLogIDIsSet(false);
+    this.logID = 0;
   }
 
   public int getVersion() {
@@ -222,6 +236,29 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
     }
   }
 
+  public long getLogID() {
+    return this.logID;
+  }
+
+  public ThriftStorage setLogID(long logID) {
+    this.logID = logID;
+    setLogIDIsSet(true);
+    return this;
+  }
+
+  public void unsetLogID() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __LOGID_ISSET_ID);
+  }
+
+  /** Returns true if field logID is set (has been assigned a value) and false otherwise */
+  public boolean isSetLogID() {
+    return EncodingUtils.testBit(__isset_bitfield, __LOGID_ISSET_ID);
+  }
+
+  public void setLogIDIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __LOGID_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case VERSION:
@@ -240,6 +277,14 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
       }
       break;
 
+    case LOG_ID:
+      if (value == null) {
+        unsetLogID();
+      } else {
+        setLogID((Long)value);
+      }
+      break;
+
     }
   }
 
@@ -251,6 +296,9 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
     case FILES:
       return getFiles();
 
+    case LOG_ID:
+      return Long.valueOf(getLogID());
+
     }
     throw new IllegalStateException();
   }
@@ -266,6 +314,8 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
       return isSetVersion();
     case FILES:
       return isSetFiles();
+    case LOG_ID:
+      return isSetLogID();
     }
     throw new IllegalStateException();
   }
@@ -301,6 +351,15 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
         return false;
     }
 
+    boolean this_present_logID = true;
+    boolean that_present_logID = true;
+    if (this_present_logID || that_present_logID) {
+      if (!(this_present_logID && that_present_logID))
+        return false;
+      if (this.logID != that.logID)
+        return false;
+    }
+
     return true;
   }
 
@@ -337,6 +396,16 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetLogID()).compareTo(typedOther.isSetLogID());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetLogID()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.logID, typedOther.logID);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -368,6 +437,10 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
       sb.append(this.files);
     }
     first = false;
+    if (!first) sb.append(", ");
+    sb.append("logID:");
+    sb.append(this.logID);
+    first = false;
     sb.append(")");
     return sb.toString();
   }
@@ -440,6 +513,14 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 3: // LOG_ID
+            if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+              struct.logID = iprot.readI64();
+              struct.setLogIDIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -470,6 +551,9 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
         }
         oprot.writeFieldEnd();
       }
+      oprot.writeFieldBegin(LOG_ID_FIELD_DESC);
+      oprot.writeI64(struct.logID);
+      oprot.writeFieldEnd();
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -494,7 +578,10 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
       if (struct.isSetFiles()) {
         optionals.set(1);
       }
-      oprot.writeBitSet(optionals, 2);
+      if (struct.isSetLogID()) {
+        optionals.set(2);
+      }
+      oprot.writeBitSet(optionals, 3);
       if (struct.isSetVersion()) {
         oprot.writeI32(struct.version);
       }
@@ -507,12 +594,15 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
           }
         }
       }
+      if (struct.isSetLogID()) {
+        oprot.writeI64(struct.logID);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, ThriftStorage struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(2);
+      BitSet incoming = iprot.readBitSet(3);
       if (incoming.get(0)) {
         struct.version = iprot.readI32();
         struct.setVersionIsSet(true);
@@ -531,6 +621,10 @@ public class ThriftStorage implements org.apache.thrift.TBase<ThriftStorage, Thr
         }
         struct.setFilesIsSet(true);
       }
+      if (incoming.get(2)) {
+        struct.logID = iprot.readI64();
+        struct.setLogIDIsSet(true);
+      }
     }
   }
 
@@ -50,7 +50,29 @@ struct ThriftFileHandle {
 
 struct ThriftStorage {
 	1: i32 version,
-	2: list<ThriftFileHandle> files 
+	2: list<ThriftFileHandle> files,
+	3: i64 logID
+}
+
+struct ThriftStorageDelta {
+	1: i32 version,
+	2: bool truncated,
+	3: list<ThriftFileHandle> changed,
+	4: list<string> deleted
+}
+
+struct ThriftStoragePage {
+	1: i32 version,
+	2: i64 logID,
+	3: list<ThriftFileHandle> files,
+	4: string cursor,
+	5: bool complete
+}
+
+struct ThriftTreeNode {
+	1: string path,
+	2: bool directory,
+	3: binary hash
 }
 
 struct ThriftHashList {
@@ -60,9 +82,21 @@ struct ThriftHashList {
 	4: list<binary> chunkHashes
 }
 
+struct ThriftBlockList {
+	1: string filename,
+	2: i32 fileVersion,
+	3: i32 noOfChunks,
+	4: binary blocks
+}
+
 service DataTransfer {
 	string getLocalIP(1:string hash),
 	ThriftStorage getStorage(),
+	ThriftStoragePage getStoragePage(1:string cursor, 2:i32 count),
+	ThriftStorageDelta getStorageDelta(1:i64 logID, 2:i32 sinceVersion),
+	list<ThriftTreeNode> getTreeNodes(1:list<string> dirs),
+	list<ThriftFileHandle> getFileHandles(1:list<string> paths),
 	ThriftHashList getChunkHashes(1:binary fileHash),
-	binary getDataBlock(1:string filename, 2:i32 blockID, 3:string hash)
+	ThriftBlockList getBlockList(1:string filename, 2:i32 offset, 3:i32 count),
+	binary getDataBlock(1:string filename, 2:i32 blockID, 3:string hash, 4:i32 codecs, 5:string baseHash)
 }
\ No newline at end of file